@@ -209,6 +209,17 @@ public class XmlToJavaTranslator {
                         write("return identifier.decodeAndCheck(iStream) + decode(iStream, false);");
                         write("}\n");
 
+                        write("public int encode(ByteBuffer buffer) throws IOException {");
+                        write("BerByteArrayOutputStream berOStream = new BerByteArrayOutputStream(16, true);");
+                        write("int codeLength = encode(berOStream);");
+                        write("buffer.put(berOStream.getArray());");
+                        write("return codeLength;");
+                        write("}\n");
+
+                        write("public int decode(ByteBuffer buffer) throws IOException {");
+                        write("return decode(new ByteBufferInputStream(buffer));");
+                        write("}\n");
+
                         write("}");
 
                         out.close();
@@ -532,6 +543,10 @@ public class XmlToJavaTranslator {
 
         writeChoiceDecodeFunction(sequenceElements);
 
+        writeChoiceBufferEncodeFunction(sequenceElements);
+
+        writeChoiceBufferDecodeFunction(sequenceElements);
+
         writeEncodeAndSaveFunction();
 
         writeChoiceMethods(sequenceElements);
@@ -658,6 +673,74 @@ public class XmlToJavaTranslator {
 
     }
 
+    private void writeChoiceBufferDecodeFunction(NodeList sequenceElements)
+            throws IOException, XPathExpressionException {
+        write("public int decode(ByteBuffer buffer) throws IOException {");
+        write("int codeLength = 0;");
+        write("AxdrEnum choosen = new AxdrEnum();\n");
+
+        write("codeLength += choosen.decode(buffer);");
+        write("resetChoices();");
+        write("this.choice = Choices.valueOf(choosen.getValue());\n");
+
+        for (int j = 0; j < sequenceElements.getLength(); j++) {
+            Element sequenceElement = (Element) sequenceElements.item(j);
+
+            write("if (choice == Choices." + getSequenceElementName(sequenceElement).toUpperCase() + ") {");
+            write(getSequenceElementName(sequenceElement) + " = new " + getElementType(sequenceElement, true) + "();");
+            write("codeLength += " + getSequenceElementName(sequenceElement) + ".decode(buffer);");
+            write("return codeLength;");
+            write("}\n");
+
+        }
+
+        write("throw new IOException(\"Error decoding AxdrChoice: Identifier matched to no item.\");");
+
+        write("}\n");
+
+    }
+
+    private void writeChoiceBufferEncodeFunction(NodeList sequenceElements)
+            throws IOException, XPathExpressionException {
+        write("public int encode(ByteBuffer buffer) throws IOException {");
+
+        write("if (code != null) {");
+        write("buffer.put(code);");
+        write("return code.length;\n");
+        write("}");
+
+        write("if (choice == Choices._ERR_NONE_SELECTED) {");
+        write("throw new IOException(\"Error encoding AxdrChoice: No item in choice was selected.\");");
+        write("}\n");
+
+        write("int codeLength = 0;\n");
+
+        for (int j = sequenceElements.getLength() - 1; j >= 0; j--) {
+
+            Element sequenceElement = (Element) sequenceElements.item(j);
+
+            int choiceNum = Integer.parseInt(getTagNum(sequenceElement));
+
+            write("if (choice == Choices." + getSequenceElementName(sequenceElement).toUpperCase() + ") {");
+
+            write("AxdrEnum c = new AxdrEnum(" + choiceNum + ");");
+            write("codeLength += c.encode(buffer);");
+
+            write("codeLength += " + getSequenceElementName(sequenceElement) + ".encode(buffer);");
+
+            write("return codeLength;");
+
+            write("}\n");
+
+        }
+
+        write("// This block should be unreachable");
+        write("throw new IOException(\"Error encoding AxdrChoice: No item in choice was encoded.\");");
+
+        write("}\n");
+
+    }
+
     private void writeSequenceClass(Element asn1TypeElement, String className, boolean isStatic)
             throws IOException, XPathExpressionException {
 
@@ -698,6 +781,10 @@ public class XmlToJavaTranslator {
 
         writeSequenceDecodeFunction(sequenceElements);
 
+        writeSequenceBufferEncodeFunction(sequenceElements);
+
+        writeSequenceBufferDecodeFunction(sequenceElements);
+
         writeEncodeAndSaveFunction();
 
         writeSequenceToStringFunction(sequenceElements);
@@ -804,6 +891,67 @@ public class XmlToJavaTranslator {
         write("}\n");
     }
 
+    private void writeSequenceBufferDecodeFunction(NodeList sequenceElements)
+            throws IOException, XPathExpressionException {
+        write("public int decode(ByteBuffer buffer) throws IOException {");
+        write("int codeLength = 0;\n");
+
+        for (int j = 0; j < sequenceElements.getLength(); j++) {
+            Element sequenceElement = (Element) sequenceElements.item(j);
+
+            String elementType = getElementType(sequenceElement, true);
+            String subType = elementType;
+            String value = "new " + elementType + "()";
+            if (isOptional(sequenceElement)) {
+                elementType = "AxdrOptional<" + elementType + ">";
+                value = "new " + elementType + "(new " + subType + "(), false)";
+            }
+            else if (hasDefault(sequenceElement)) {
+                elementType = "AxdrDefault<" + elementType + ">";
+                value = xPath.evaluate("value/definedValue/name", sequenceElement);
+                value = "new " + elementType + "(new " + subType + "(), new " + subType + "(" + value + "))";
+            }
+
+            write(getSequenceElementName(sequenceElement) + " = " + value + ";");
+
+            write("codeLength += " + getSequenceElementName(sequenceElement) + ".decode(buffer);\n");
+        }
+
+        write("return codeLength;");
+        write("}\n");
+    }
+
+    private void writeSequenceBufferEncodeFunction(NodeList sequenceElements)
+            throws IOException, XPathExpressionException {
+        write("public int encode(ByteBuffer buffer) throws IOException {\n");
+
+        write("int codeLength;\n");
+
+        write("if (code != null) {");
+        write("codeLength = code.length;");
+        write("buffer.put(code);");
+        write("}");
+        write("else {");
+
+        write("codeLength = 0;");
+
+        for (int j = 0; j < sequenceElements.getLength(); j++) {
+
+            Element sequenceElement = (Element) sequenceElements.item(j);
+
+            write("codeLength += " + getSequenceElementName(sequenceElement) + ".encode(buffer);");
+
+            write("");
+
+        }
+
+        write("}\n");
+
+        write("return codeLength;\n");
+
+        write("}\n");
+    }
+
     private void writeHeader(String[] additionalImports) throws IOException {
 
         write("/**");
@@ -812,6 +960,7 @@ public class XmlToJavaTranslator {
 
         write("import java.io.IOException;");
         write("import java.io.InputStream;");
+        write("import java.nio.ByteBuffer;");
         if (additionalImports != null) {
             for (String importStatement : additionalImports) {
                 write(importStatement);
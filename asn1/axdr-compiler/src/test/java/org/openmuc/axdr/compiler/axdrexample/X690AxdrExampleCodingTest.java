@@ -2,7 +2,9 @@ package org.openmuc.axdr.compiler.axdrexample;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.util.Arrays;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -86,5 +88,19 @@ public class X690AxdrExampleCodingTest {
         psType_decoded.encode(axdrOS2);
 
         Assert.assertArrayEquals(axdrOS.getArray(), axdrOS2.getArray());
+
+        // Encoding to and decoding from a buffer must result in the same bytes
+        ByteBuffer buffer = ByteBuffer.allocate(1000);
+        Assert.assertEquals(expectedBytes.length, psType.encode(buffer));
+        Assert.assertArrayEquals(expectedBytes, Arrays.copyOf(buffer.array(), buffer.position()));
+
+        buffer.flip();
+        PersonnelRecord psType_bufferDecoded = new PersonnelRecord();
+        Assert.assertEquals(expectedBytes.length, psType_bufferDecoded.decode(buffer));
+        Assert.assertFalse(buffer.hasRemaining());
+
+        Assert.assertArrayEquals("20081028".getBytes(charset),
+                psType_bufferDecoded.children.get(1).dateOfBirth.getValue());
+        Assert.assertEquals(123456, psType_bufferDecoded.number.getValue());
     }
 }
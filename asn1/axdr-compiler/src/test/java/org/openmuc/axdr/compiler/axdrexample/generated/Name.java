@@ -6,6 +6,7 @@ package org.openmuc.axdr.compiler.axdrexample.generated;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 import org.openmuc.jdlms.internal.asn1.axdr.*;
 import org.openmuc.jdlms.internal.asn1.axdr.types.*;
@@ -71,6 +72,43 @@ public class Name implements AxdrType {
 		return codeLength;
 	}
 
+	public int encode(ByteBuffer buffer) throws IOException {
+
+		int codeLength;
+
+		if (code != null) {
+			codeLength = code.length;
+			buffer.put(code);
+		}
+		else {
+			codeLength = 0;
+			codeLength += givenName.encode(buffer);
+			
+			codeLength += initial.encode(buffer);
+			
+			codeLength += familyName.encode(buffer);
+			
+		}
+
+		return codeLength;
+
+	}
+
+	public int decode(ByteBuffer buffer) throws IOException {
+		int codeLength = 0;
+
+		givenName = new AxdrVisibleString();
+		codeLength += givenName.decode(buffer);
+
+		initial = new AxdrVisibleString();
+		codeLength += initial.decode(buffer);
+
+		familyName = new AxdrVisibleString();
+		codeLength += familyName.decode(buffer);
+
+		return codeLength;
+	}
+
 	public void encodeAndSave(int encodingSizeGuess) throws IOException {
 		BerByteArrayOutputStream axdrOStream = new BerByteArrayOutputStream(encodingSizeGuess);
 		encode(axdrOStream);
@@ -6,6 +6,7 @@ package org.openmuc.axdr.compiler.axdrexample.generated;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 import org.openmuc.jdlms.internal.asn1.axdr.*;
 import org.openmuc.jdlms.internal.asn1.axdr.types.*;
@@ -115,6 +116,63 @@ public class PersonnelRecord implements AxdrType {
 		return codeLength;
 	}
 
+	public int encode(ByteBuffer buffer) throws IOException {
+
+		int codeLength;
+
+		if (code != null) {
+			codeLength = code.length;
+			buffer.put(code);
+		}
+		else {
+			codeLength = 0;
+			codeLength += name.encode(buffer);
+			
+			codeLength += title.encode(buffer);
+			
+			codeLength += number.encode(buffer);
+			
+			codeLength += dateOfHire.encode(buffer);
+			
+			codeLength += nameOfSpouse.encode(buffer);
+			
+			codeLength += children.encode(buffer);
+			
+			codeLength += stillEmployed.encode(buffer);
+			
+		}
+
+		return codeLength;
+
+	}
+
+	public int decode(ByteBuffer buffer) throws IOException {
+		int codeLength = 0;
+
+		name = new Name();
+		codeLength += name.decode(buffer);
+
+		title = new AxdrOptional<AxdrVisibleString>(new AxdrVisibleString(), false);
+		codeLength += title.decode(buffer);
+
+		number = new EmployeeNumber();
+		codeLength += number.decode(buffer);
+
+		dateOfHire = new Date();
+		codeLength += dateOfHire.decode(buffer);
+
+		nameOfSpouse = new Name();
+		codeLength += nameOfSpouse.decode(buffer);
+
+		children = new SubSeqOf_children();
+		codeLength += children.decode(buffer);
+
+		stillEmployed = new AxdrDefault<AxdrBoolean>(new AxdrBoolean(), new AxdrBoolean(true));
+		codeLength += stillEmployed.decode(buffer);
+
+		return codeLength;
+	}
+
 	public void encodeAndSave(int encodingSizeGuess) throws IOException {
 		BerByteArrayOutputStream axdrOStream = new BerByteArrayOutputStream(encodingSizeGuess);
 		encode(axdrOStream);
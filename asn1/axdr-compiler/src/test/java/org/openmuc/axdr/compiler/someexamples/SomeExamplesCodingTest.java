@@ -2,6 +2,8 @@ package org.openmuc.axdr.compiler.someexamples;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -62,6 +64,18 @@ public class SomeExamplesCodingTest {
 
         seq2.encode(axdrOS2);
         Assert.assertArrayEquals(axdrOS.getArray(), axdrOS2.getArray());
+
+        // Encoding to and decoding from a buffer must result in the same bytes
+        ByteBuffer buffer = ByteBuffer.allocate(1000);
+        Assert.assertEquals(expectedBytes.length, seq.encode(buffer));
+        Assert.assertArrayEquals(expectedBytes, Arrays.copyOf(buffer.array(), buffer.position()));
+
+        buffer.flip();
+        SequenceOfAll seq3 = new SequenceOfAll();
+        Assert.assertEquals(expectedBytes.length, seq3.decode(buffer));
+        Assert.assertFalse(buffer.hasRemaining());
+        Assert.assertEquals(seq.myInteger.getValue(), seq3.myInteger.getValue());
+        Assert.assertEquals(seq.my_choice.my_choice2.myint.getValue(), seq3.my_choice.my_choice2.myint.getValue());
     }
 
     public static String getByteArrayString(byte[] byteArray) {
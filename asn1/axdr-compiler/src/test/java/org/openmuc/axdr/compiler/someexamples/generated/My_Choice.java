@@ -6,6 +6,7 @@ package org.openmuc.axdr.compiler.someexamples.generated;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 import org.openmuc.jdlms.internal.asn1.axdr.*;
 import org.openmuc.jdlms.internal.asn1.axdr.types.*;
@@ -106,6 +107,59 @@ public class My_Choice implements AxdrType {
 		throw new IOException("Error decoding AxdrChoice: Identifier matched to no item.");
 	}
 
+	public int encode(ByteBuffer buffer) throws IOException {
+		if (code != null) {
+			buffer.put(code);
+			return code.length;
+
+		}
+		if (choice == Choices._ERR_NONE_SELECTED) {
+			throw new IOException("Error encoding AxdrChoice: No item in choice was selected.");
+		}
+
+		int codeLength = 0;
+
+		if (choice == Choices.MYBOOLEAN) {
+			AxdrEnum c = new AxdrEnum(2);
+codeLength += c.encode(buffer);
+codeLength += myboolean.encode(buffer);
+			return codeLength;
+		}
+
+		if (choice == Choices.MY_CHOICE2) {
+			AxdrEnum c = new AxdrEnum(1);
+codeLength += c.encode(buffer);
+codeLength += my_choice2.encode(buffer);
+			return codeLength;
+		}
+
+		// This block should be unreachable
+		throw new IOException("Error encoding AxdrChoice: No item in choice was encoded.");
+	}
+
+	public int decode(ByteBuffer buffer) throws IOException {
+		int codeLength = 0;
+		AxdrEnum choosen = new AxdrEnum();
+
+		codeLength += choosen.decode(buffer);
+		resetChoices();
+		this.choice = Choices.valueOf(choosen.getValue());
+
+		if (choice == Choices.MY_CHOICE2) {
+			my_choice2 = new My_Choice2();
+			codeLength += my_choice2.decode(buffer);
+			return codeLength;
+		}
+
+		if (choice == Choices.MYBOOLEAN) {
+			myboolean = new AxdrBoolean();
+			codeLength += myboolean.decode(buffer);
+			return codeLength;
+		}
+
+		throw new IOException("Error decoding AxdrChoice: Identifier matched to no item.");
+	}
+
 	public void encodeAndSave(int encodingSizeGuess) throws IOException {
 		BerByteArrayOutputStream axdrOStream = new BerByteArrayOutputStream(encodingSizeGuess);
 		encode(axdrOStream);
@@ -6,6 +6,7 @@ package org.openmuc.axdr.compiler.someexamples.generated;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 import org.openmuc.jdlms.internal.asn1.axdr.*;
 import org.openmuc.jdlms.internal.asn1.axdr.types.*;
@@ -55,6 +56,33 @@ public class My_Sequence implements AxdrType {
 		return codeLength;
 	}
 
+	public int encode(ByteBuffer buffer) throws IOException {
+
+		int codeLength;
+
+		if (code != null) {
+			codeLength = code.length;
+			buffer.put(code);
+		}
+		else {
+			codeLength = 0;
+			codeLength += implVisibleString.encode(buffer);
+			
+		}
+
+		return codeLength;
+
+	}
+
+	public int decode(ByteBuffer buffer) throws IOException {
+		int codeLength = 0;
+
+		implVisibleString = new AxdrVisibleString();
+		codeLength += implVisibleString.decode(buffer);
+
+		return codeLength;
+	}
+
 	public void encodeAndSave(int encodingSizeGuess) throws IOException {
 		BerByteArrayOutputStream axdrOStream = new BerByteArrayOutputStream(encodingSizeGuess);
 		encode(axdrOStream);
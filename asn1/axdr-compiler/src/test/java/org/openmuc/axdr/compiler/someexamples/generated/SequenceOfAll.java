@@ -6,6 +6,7 @@ package org.openmuc.axdr.compiler.someexamples.generated;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 import org.openmuc.jdlms.internal.asn1.axdr.*;
 import org.openmuc.jdlms.internal.asn1.axdr.types.*;
@@ -147,6 +148,83 @@ public class SequenceOfAll implements AxdrType {
 		return codeLength;
 	}
 
+	public int encode(ByteBuffer buffer) throws IOException {
+
+		int codeLength;
+
+		if (code != null) {
+			codeLength = code.length;
+			buffer.put(code);
+		}
+		else {
+			codeLength = 0;
+			codeLength += myInteger.encode(buffer);
+			
+			codeLength += myInteger2.encode(buffer);
+			
+			codeLength += myBoolean.encode(buffer);
+			
+			codeLength += bitString.encode(buffer);
+			
+			codeLength += enumerated.encode(buffer);
+			
+			codeLength += generalizedTime.encode(buffer);
+			
+			codeLength += myNull.encode(buffer);
+			
+			codeLength += octetString.encode(buffer);
+			
+			codeLength += visibleString.encode(buffer);
+			
+			codeLength += my_sequence.encode(buffer);
+			
+			codeLength += my_choice.encode(buffer);
+			
+		}
+
+		return codeLength;
+
+	}
+
+	public int decode(ByteBuffer buffer) throws IOException {
+		int codeLength = 0;
+
+		myInteger = new AxdrInteger();
+		codeLength += myInteger.decode(buffer);
+
+		myInteger2 = new AxdrInteger();
+		codeLength += myInteger2.decode(buffer);
+
+		myBoolean = new AxdrBoolean();
+		codeLength += myBoolean.decode(buffer);
+
+		bitString = new AxdrBitString();
+		codeLength += bitString.decode(buffer);
+
+		enumerated = new AxdrEnum();
+		codeLength += enumerated.decode(buffer);
+
+		generalizedTime = new AxdrGeneralizedTime();
+		codeLength += generalizedTime.decode(buffer);
+
+		myNull = new AxdrNull();
+		codeLength += myNull.decode(buffer);
+
+		octetString = new AxdrOctetString();
+		codeLength += octetString.decode(buffer);
+
+		visibleString = new AxdrVisibleString();
+		codeLength += visibleString.decode(buffer);
+
+		my_sequence = new SubSeqOf_my_sequence();
+		codeLength += my_sequence.decode(buffer);
+
+		my_choice = new My_Choice();
+		codeLength += my_choice.decode(buffer);
+
+		return codeLength;
+	}
+
 	public void encodeAndSave(int encodingSizeGuess) throws IOException {
 		BerByteArrayOutputStream axdrOStream = new BerByteArrayOutputStream(encodingSizeGuess);
 		encode(axdrOStream);
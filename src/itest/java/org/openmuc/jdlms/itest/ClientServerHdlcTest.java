@@ -0,0 +1,95 @@
+/**
+ * Copyright 2012-17 Fraunhofer ISE
+ * 
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ * 
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.openmuc.jdlms.itest;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.openmuc.jdlms.AccessResultCode.SUCCESS;
+
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openmuc.jdlms.AttributeAddress;
+import org.openmuc.jdlms.DlmsConnection;
+import org.openmuc.jdlms.DlmsServer;
+import org.openmuc.jdlms.GetResult;
+import org.openmuc.jdlms.LogicalDevice;
+import org.openmuc.jdlms.SetParameter;
+import org.openmuc.jdlms.TcpConnectionBuilder;
+import org.openmuc.jdlms.datatypes.DataObject;
+import org.openmuc.jdlms.interfaceclass.attribute.AssociationLnAttribute;
+import org.openmuc.jdlms.internal.WellKnownInstanceIds;
+import org.openmuc.jdlms.sessionlayer.hdlc.HdlcParameters;
+import org.openmuc.jdlms.sessionlayer.server.ServerSessionLayerFactories;
+
+public class ClientServerHdlcTest {
+
+    private DlmsServer server;
+
+    private TestCosemClass testObject;
+
+    @Before
+    public void setup() throws Exception {
+        LogicalDevice logicalDevice = new LogicalDevice(1, "LDI", "ISE", 9999L);
+
+        testObject = new TestCosemClass(null);
+        logicalDevice.registerCosemObject(testObject);
+
+        server = DlmsServer.tcpServerBuilder()
+                .setSessionLayerFactory(ServerSessionLayerFactories.newHdlcSessionLayerFactory())
+                .registerLogicalDevice(logicalDevice)
+                .build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.close();
+    }
+
+    @Test
+    public void testWindowSizes() throws Exception {
+        for (int windowSize = HdlcParameters.MIN_WINDOW_SIZE; windowSize <= HdlcParameters.MAX_WINDOW_SIZE; windowSize += 3) {
+            TcpConnectionBuilder connectionBuilder = new TcpConnectionBuilder(InetAddress.getLocalHost()).useHdlc()
+                    .setHdlcWindowSize(windowSize);
+            connectionBuilder.setHdlcMaxInformationLength(HdlcParameters.MIN_INFORMATION_LENGTH);
+
+            try (DlmsConnection client = connectionBuilder.build()) {
+                // the object list is sent in several frames
+                GetResult objListResult = client.get(new AttributeAddress(AssociationLnAttribute.OBJECT_LIST,
+                        WellKnownInstanceIds.CURRENT_ASSOCIATION_ID));
+                assertEquals(SUCCESS, objListResult.getResultCode());
+                List<DataObject> objectList = objListResult.getResultData().getValue();
+                assertEquals(5, objectList.size());
+
+                byte[] largeValue = new byte[1000];
+                Arrays.fill(largeValue, (byte) windowSize);
+                AttributeAddress d1Address = new AttributeAddress(TestCosemClass.CLASS_ID, TestCosemClass.ID, 2);
+                assertEquals(SUCCESS,
+                        client.set(new SetParameter(d1Address, DataObject.newOctetStringData(largeValue))));
+                assertArrayEquals(largeValue, (byte[]) testObject.lastSetD1().getValue());
+            }
+        }
+    }
+
+}
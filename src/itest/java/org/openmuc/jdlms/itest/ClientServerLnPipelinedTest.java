@@ -0,0 +1,162 @@
+/**
+ * Copyright 2012-17 Fraunhofer ISE
+ * 
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ * 
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.openmuc.jdlms.itest;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openmuc.jdlms.AttributeAddress;
+import org.openmuc.jdlms.DlmsConnection;
+import org.openmuc.jdlms.DlmsServer;
+import org.openmuc.jdlms.GetResult;
+import org.openmuc.jdlms.LogicalDevice;
+import org.openmuc.jdlms.ResponseCallback;
+import org.openmuc.jdlms.TcpConnectionBuilder;
+
+public class ClientServerLnPipelinedTest {
+
+    private static final int PORT = 4060;
+    private static final int C_THREADS = 8;
+    private static final int C_REQUESTS = 40;
+
+    private static DlmsServer server;
+
+    @BeforeClass
+    public static void setupServer() throws Exception {
+        LogicalDevice logicalDevice1 = new LogicalDevice(1, "LDI", "ISE", 9999L);
+        logicalDevice1.registerCosemObject(new TestCosemClass(null));
+
+        server = DlmsServer.tcpServerBuilder(PORT).registerLogicalDevice(logicalDevice1).build();
+    }
+
+    @AfterClass
+    public static void closeServer() throws Exception {
+        server.close();
+    }
+
+    @Test(timeout = 10000)
+    public void testPipelinedGet() throws Exception {
+        TcpConnectionBuilder connectionBuilder = new TcpConnectionBuilder("localhost").setPort(PORT)
+                .setMaxOutstandingRequests(4);
+
+        try (DlmsConnection client = connectionBuilder.build()) {
+            ExecutorService executor = Executors.newFixedThreadPool(C_THREADS);
+
+            List<Future<Float>> futures = new ArrayList<>(C_REQUESTS);
+            for (int i = 0; i < C_REQUESTS; i++) {
+                futures.add(executor.submit(new GetD2(client)));
+            }
+
+            try {
+                for (Future<Float> future : futures) {
+                    assertEquals(99f, future.get(), .01f);
+                }
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testAsyncGet() throws Exception {
+        TcpConnectionBuilder connectionBuilder = new TcpConnectionBuilder("localhost").setPort(PORT)
+                .setMaxOutstandingRequests(4);
+
+        try (DlmsConnection client = connectionBuilder.build()) {
+            final CountDownLatch callbacks = new CountDownLatch(C_REQUESTS);
+            ResponseCallback<List<GetResult>> callback = new ResponseCallback<List<GetResult>>() {
+
+                @Override
+                public void completed(List<GetResult> result) {
+                    callbacks.countDown();
+                }
+
+                @Override
+                public void failed(IOException e) {
+                }
+            };
+
+            AttributeAddress address = new AttributeAddress(TestCosemClass.CLASS_ID, TestCosemClass.ID, 3);
+            List<Future<List<GetResult>>> futures = new ArrayList<>(C_REQUESTS);
+            for (int i = 0; i < C_REQUESTS; i++) {
+                futures.add(client.getAsync(Arrays.asList(address), callback));
+            }
+
+            for (Future<List<GetResult>> future : futures) {
+                Float value = future.get().get(0).getResultData().getValue();
+                assertEquals(99f, value, .01f);
+            }
+            callbacks.await();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testReaderThreadFactory() throws Exception {
+        final AtomicInteger createdThreads = new AtomicInteger();
+        ThreadFactory threadFactory = new ThreadFactory() {
+
+            @Override
+            public Thread newThread(Runnable r) {
+                createdThreads.incrementAndGet();
+                return new Thread(r);
+            }
+        };
+
+        TcpConnectionBuilder connectionBuilder = new TcpConnectionBuilder("localhost").setPort(PORT)
+                .setMaxOutstandingRequests(4)
+                .setReaderThreadFactory(threadFactory);
+
+        try (DlmsConnection client = connectionBuilder.build()) {
+            assertEquals(1, createdThreads.get());
+            assertEquals(99f, new GetD2(client).call(), .01f);
+        }
+    }
+
+    private static class GetD2 implements Callable<Float> {
+
+        private final DlmsConnection client;
+
+        public GetD2(DlmsConnection client) {
+            this.client = client;
+        }
+
+        @Override
+        public Float call() throws Exception {
+            GetResult result = this.client.get(new AttributeAddress(TestCosemClass.CLASS_ID, TestCosemClass.ID, 3));
+            return result.getResultData().getValue();
+        }
+
+    }
+
+}
@@ -22,13 +22,17 @@ package org.openmuc.jdlms.itest;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
 import static org.openmuc.jdlms.AccessResultCode.SUCCESS;
 import static org.openmuc.jdlms.AuthenticationMechanism.HLS5_GMAC;
 import static org.openmuc.jdlms.SecuritySuite.EncryptionMechanism.AES_GMC_128;
 import static org.openmuc.jdlms.datatypes.DataObject.newArrayData;
 import static org.openmuc.jdlms.datatypes.DataObject.newUInteger16Data;
 
+import java.io.ByteArrayInputStream;
 import java.net.InetAddress;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
@@ -39,6 +43,7 @@ import org.junit.Test;
 import org.openmuc.jdlms.AccessResultCode;
 import org.openmuc.jdlms.AttributeAddress;
 import org.openmuc.jdlms.AuthenticationMechanism;
+import org.openmuc.jdlms.DataStreamListener;
 import org.openmuc.jdlms.DlmsConnection;
 import org.openmuc.jdlms.DlmsServer;
 import org.openmuc.jdlms.GetResult;
@@ -51,10 +56,12 @@ import org.openmuc.jdlms.SecuritySuite.EncryptionMechanism;
 import org.openmuc.jdlms.SecurityUtils;
 import org.openmuc.jdlms.SecurityUtils.KeyId;
 import org.openmuc.jdlms.SelectiveAccessDescription;
+import org.openmuc.jdlms.SetParameter;
 import org.openmuc.jdlms.TcpConnectionBuilder;
 import org.openmuc.jdlms.datatypes.DataObject;
 import org.openmuc.jdlms.interfaceclass.InterfaceClass;
 import org.openmuc.jdlms.interfaceclass.attribute.AssociationLnAttribute;
+import org.openmuc.jdlms.internal.DataObjectCodec;
 import org.openmuc.jdlms.internal.WellKnownInstanceIds;
 
 public class ClientServerLnTest {
@@ -62,12 +69,16 @@ public class ClientServerLnTest {
 
     private static final byte[] MASTER_KEY = SecurityUtils.generateAES128Key();
 
+    private static final int MAX_SET_TRANSFER_PORT = 4064;
+
     private final static SecuritySuite AUTHENTICATION_S;
 
     private DlmsServer server;
 
     private LogicalDevice logicalDevice1;
 
+    private TestCosemClass testObject;
+
     static {
         byte[] globalEncryptionKey = SecurityUtils.generateAES128Key();
         AUTHENTICATION_S = SecuritySuite.builder()
@@ -84,7 +95,8 @@ public class ClientServerLnTest {
         logicalDevice1.setMasterKey(MASTER_KEY);
         logicalDevice1.addRestriction(16, AUTHENTICATION_S);
 
-        logicalDevice1.registerCosemObject(new TestCosemClass(null));
+        testObject = new TestCosemClass(null);
+        logicalDevice1.registerCosemObject(testObject);
 
         server = DlmsServer.tcpServerBuilder().registerLogicalDevice(logicalDevice1).build();
     }
@@ -111,10 +123,72 @@ public class ClientServerLnTest {
             GetResult rd = client.get(new AttributeAddress(99, "0.0.0.2.1.255", 4));
             double d = rd.getResultData().getValue();
             assertEquals(1620d, d, .01d);
+
+            // exceeds the max PDU size of the server and is sent in data blocks
+            byte[] largeValue = new byte[150000];
+            Arrays.fill(largeValue, (byte) 'A');
+            AttributeAddress d1Address = new AttributeAddress(99, "0.0.0.2.1.255", 2);
+            AccessResultCode setResult = client
+                    .set(new SetParameter(d1Address, DataObject.newOctetStringData(largeValue)));
+            assertEquals(SUCCESS, setResult);
+            assertArrayEquals(largeValue, (byte[]) testObject.lastSetD1().getValue());
+
+            largeValue[0] = 'B';
+            byte[] encodedValue = DataObjectCodec.encode(DataObject.newOctetStringData(largeValue));
+            assertEquals(SUCCESS, client.setStreamed(false, d1Address, new ByteArrayInputStream(encodedValue)));
+            assertArrayEquals(largeValue, (byte[]) testObject.lastSetD1().getValue());
+
+            SetParameter firstHalf = new SetParameter(d1Address,
+                    DataObject.newOctetStringData(Arrays.copyOf(largeValue, 40000)));
+            SetParameter secondHalf = new SetParameter(d1Address,
+                    DataObject.newOctetStringData(Arrays.copyOfRange(largeValue, 40000, 80000)));
+            assertEquals(Arrays.asList(SUCCESS, SUCCESS), client.set(Arrays.asList(firstHalf, secondHalf)));
+            assertArrayEquals(Arrays.copyOfRange(largeValue, 40000, 80000),
+                    (byte[]) testObject.lastSetD1().getValue());
+
+            byte[] smallValue = { 1, 2, 3 };
+            encodedValue = DataObjectCodec.encode(DataObject.newOctetStringData(smallValue));
+            assertEquals(SUCCESS, client.setStreamed(false, d1Address, new ByteArrayInputStream(encodedValue)));
+            assertArrayEquals(smallValue, (byte[]) testObject.lastSetD1().getValue());
+
+            try {
+                client.setStreamed(false, d1Address, new ByteArrayInputStream(new byte[0]));
+                fail("an empty value must be rejected");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
         }
 
     }
 
+    @Test(timeout = 10000)
+    public void testSetExceedingMaxSetTransferSize() throws Exception {
+        LogicalDevice logicalDevice = new LogicalDevice(1, "LDI", "ISE", 9999L);
+        TestCosemClass cosemObject = new TestCosemClass(null);
+        logicalDevice.registerCosemObject(cosemObject);
+
+        DlmsServer limitedServer = DlmsServer.tcpServerBuilder(MAX_SET_TRANSFER_PORT)
+                .setMaxSetTransferSize(100000)
+                .registerLogicalDevice(logicalDevice)
+                .build();
+
+        TcpConnectionBuilder connectionBuilder = new TcpConnectionBuilder(InetAddress.getLocalHost())
+                .setPort(MAX_SET_TRANSFER_PORT);
+        try (DlmsConnection client = connectionBuilder.build()) {
+            AttributeAddress d1Address = new AttributeAddress(99, "0.0.0.2.1.255", 2);
+
+            byte[] largeValue = new byte[150000];
+            assertEquals(AccessResultCode.LONG_SET_ABORTED,
+                    client.set(new SetParameter(d1Address, DataObject.newOctetStringData(largeValue))));
+            assertNull(cosemObject.lastSetD1());
+
+            byte[] value = new byte[90000];
+            assertEquals(SUCCESS, client.set(new SetParameter(d1Address, DataObject.newOctetStringData(value))));
+        } finally {
+            limitedServer.close();
+        }
+    }
+
     @Test(timeout = 1000)
     public void test1() throws Exception {
 
@@ -139,6 +213,25 @@ public class ClientServerLnTest {
         List<DataObject> resList = objListResult.getResultData().getValue();
         assertEquals(reqList.size(), resList.size());
 
+        final List<DataObject> streamedList = new ArrayList<>();
+        AccessResultCode streamResult = client.getStreamed(
+                new AttributeAddress(AssociationLnAttribute.OBJECT_LIST, WellKnownInstanceIds.CURRENT_ASSOCIATION_ID),
+                new DataStreamListener() {
+
+                    @Override
+                    public void elementReceived(int index, DataObject element) {
+                        streamedList.add(element);
+                    }
+                });
+        assertEquals(SUCCESS, streamResult);
+
+        List<DataObject> objList = client
+                .get(new AttributeAddress(AssociationLnAttribute.OBJECT_LIST,
+                        WellKnownInstanceIds.CURRENT_ASSOCIATION_ID))
+                .getResultData()
+                .getValue();
+        assertEquals(objList.toString(), streamedList.toString());
+
         final byte[] newEncKey = SecurityUtils.generateAES128Key();
 
         MethodParameter keyChangeMethodParam = SecurityUtils.keyChangeMethodParamFor(MASTER_KEY, newEncKey,
@@ -0,0 +1,192 @@
+/**
+ * Copyright 2012-17 Fraunhofer ISE
+ * 
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ * 
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.openmuc.jdlms.itest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openmuc.jdlms.AttributeAddress;
+import org.openmuc.jdlms.DlmsAccessException;
+import org.openmuc.jdlms.DlmsConnection;
+import org.openmuc.jdlms.DlmsInterceptor;
+import org.openmuc.jdlms.DlmsInvocationContext;
+import org.openmuc.jdlms.DlmsServer;
+import org.openmuc.jdlms.GetResult;
+import org.openmuc.jdlms.LogicalDevice;
+import org.openmuc.jdlms.TcpConnectionBuilder;
+import org.openmuc.jdlms.datatypes.DataObject;
+import org.openmuc.jdlms.transportlayer.client.TcpSelector;
+
+public class ClientServerSelectorTest {
+
+    private static final int PORT = 4061;
+    private static final int NIO_PORT = 4062;
+    private static final int IDLE_PORT = 4063;
+    private static final int FAILING_PORT = 4065;
+    private static final int C_CLIENTS = 20;
+
+    private static DlmsServer server;
+    private static DlmsServer nioServer;
+    private static DlmsServer idleServer;
+    private static DlmsServer failingServer;
+
+    @BeforeClass
+    public static void setupServer() throws Exception {
+        LogicalDevice logicalDevice1 = new LogicalDevice(1, "LDI", "ISE", 9999L);
+        logicalDevice1.registerCosemObject(new TestCosemClass(null));
+
+        server = DlmsServer.tcpServerBuilder(PORT)
+                .setMaxClients(C_CLIENTS)
+                .registerLogicalDevice(logicalDevice1)
+                .build();
+
+        LogicalDevice logicalDevice2 = new LogicalDevice(1, "LDI", "ISE", 9999L);
+        logicalDevice2.registerCosemObject(new TestCosemClass(null));
+
+        nioServer = DlmsServer.tcpServerBuilder(NIO_PORT)
+                .setMaxClients(C_CLIENTS)
+                .useSelectors(2, 2)
+                .registerLogicalDevice(logicalDevice2)
+                .build();
+
+        LogicalDevice logicalDevice3 = new LogicalDevice(1, "LDI", "ISE", 9999L);
+        logicalDevice3.registerCosemObject(new TestCosemClass(null));
+
+        idleServer = DlmsServer.tcpServerBuilder(IDLE_PORT)
+                .useSelectors(1, 1)
+                .setInactivityTimeout(500)
+                .registerLogicalDevice(logicalDevice3)
+                .build();
+
+        LogicalDevice logicalDevice4 = new LogicalDevice(1, "LDI", "ISE", 9999L);
+        logicalDevice4.registerCosemObject(new TestCosemClass(new DlmsInterceptor() {
+
+            @Override
+            public DataObject intercept(DlmsInvocationContext ctx) throws DlmsAccessException {
+                throw new IllegalStateException("request processing failed");
+            }
+        }));
+
+        failingServer = DlmsServer.tcpServerBuilder(FAILING_PORT)
+                .setMaxClients(1)
+                .useSelectors(1, 1)
+                .registerLogicalDevice(logicalDevice4)
+                .build();
+    }
+
+    @AfterClass
+    public static void closeServer() throws Exception {
+        server.close();
+        nioServer.close();
+        idleServer.close();
+        failingServer.close();
+    }
+
+    @Test(timeout = 10000)
+    public void testConnectionsShareSelector() throws Exception {
+        try (TcpSelector tcpSelector = new TcpSelector()) {
+            getFromAllClients(new TcpConnectionBuilder("localhost").setPort(PORT).useSelector(tcpSelector));
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testSelectorServer() throws Exception {
+        getFromAllClients(new TcpConnectionBuilder("localhost").setPort(NIO_PORT));
+    }
+
+    @Test(timeout = 10000)
+    public void testSelectorClientAndServer() throws Exception {
+        try (TcpSelector tcpSelector = new TcpSelector()) {
+            getFromAllClients(new TcpConnectionBuilder("localhost").setPort(NIO_PORT).useSelector(tcpSelector));
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testSilentClientIsClosed() throws Exception {
+        try (Socket socket = new Socket("localhost", IDLE_PORT)) {
+            InputStream is = socket.getInputStream();
+            assertEquals(-1, is.read());
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testFailedRequestReleasesConnection() throws Exception {
+        TcpConnectionBuilder connectionBuilder = new TcpConnectionBuilder("localhost").setPort(FAILING_PORT)
+                .setResponseTimeout(2000);
+        AttributeAddress address = new AttributeAddress(TestCosemClass.CLASS_ID, TestCosemClass.ID, 3);
+
+        // the only connection slot must be released every time
+        for (int i = 0; i < 3; i++) {
+            try (DlmsConnection connection = connect(connectionBuilder)) {
+                connection.get(address);
+                fail("The server must close the association.");
+            } catch (IOException e) {
+                // expected
+            }
+        }
+    }
+
+    /*
+     * The slot is released right after the association has been closed, so the client may connect too early.
+     */
+    private static DlmsConnection connect(TcpConnectionBuilder connectionBuilder) throws Exception {
+        for (int retries = 0;; retries++) {
+            try {
+                return connectionBuilder.build();
+            } catch (IOException e) {
+                if (retries == 10) {
+                    throw new AssertionError("The connection slot has not been released.", e);
+                }
+                Thread.sleep(100);
+            }
+        }
+    }
+
+    private static void getFromAllClients(TcpConnectionBuilder connectionBuilder) throws Exception {
+        List<DlmsConnection> connections = new ArrayList<>(C_CLIENTS);
+        try {
+            for (int i = 0; i < C_CLIENTS; i++) {
+                connections.add(connectionBuilder.build());
+            }
+
+            AttributeAddress address = new AttributeAddress(TestCosemClass.CLASS_ID, TestCosemClass.ID, 3);
+            for (DlmsConnection connection : connections) {
+                GetResult result = connection.get(address);
+                Float value = result.getResultData().getValue();
+                assertEquals(99f, value, .01f);
+            }
+        } finally {
+            for (DlmsConnection connection : connections) {
+                connection.close();
+            }
+        }
+    }
+
+}
@@ -73,8 +73,10 @@ public class TestCosemClass extends CosemInterfaceObject {
     }
 
     public void setD1(DataObject d1) {
-        byte[] value = d1.getValue();
-        System.out.println(new String(value));
         this.d1 = d1;
     }
+
+    public DataObject lastSetD1() {
+        return this.d1;
+    }
 }
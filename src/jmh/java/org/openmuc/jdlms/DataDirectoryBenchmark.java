@@ -0,0 +1,136 @@
+/**
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.openmuc.jdlms;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openmuc.jdlms.datatypes.DataObject;
+import org.openmuc.jdlms.datatypes.DataObject.Type;
+import org.openmuc.jdlms.internal.DataDirectoryImpl;
+import org.openmuc.jdlms.internal.ServerConnectionData;
+
+/**
+ * Measures the GET throughput of the server data directory. Compare the single threaded results with the results
+ * using all cores to see how GETs on distinct COSEM objects scale, while GETs on a shared object are serialized.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataDirectoryBenchmark {
+
+    private static final int LOGICAL_DEVICE_ID = 1;
+    private static final int NUM_OBJECTS = 64;
+    private static final int CLASS_ID = 99;
+
+    @State(Scope.Benchmark)
+    public static class Directory {
+
+        private final AtomicInteger threadCounter = new AtomicInteger();
+
+        private DataDirectoryImpl dataDirectory;
+
+        @Setup
+        public void setup() {
+            LogicalDevice logicalDevice = new LogicalDevice(LOGICAL_DEVICE_ID, "LDI", "ISE", 9999L);
+            for (int i = 0; i < NUM_OBJECTS; i++) {
+                logicalDevice.registerCosemObject(new BenchmarkObject(instanceIdOf(i)));
+            }
+
+            this.dataDirectory = (DataDirectoryImpl) DlmsServer.tcpServerBuilder()
+                    .registerLogicalDevice(logicalDevice)
+                    .parseLogicalDevices();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Connection {
+
+        private Long connectionId;
+        private AttributeAddress distinctAddress;
+        private AttributeAddress sharedAddress;
+
+        @Setup
+        public void setup(Directory directory) {
+            int threadIndex = directory.threadCounter.getAndIncrement();
+
+            this.connectionId = (long) threadIndex;
+            directory.dataDirectory.addConnection(this.connectionId, new ServerConnectionData(null, this.connectionId));
+
+            this.distinctAddress = new AttributeAddress(CLASS_ID, instanceIdOf(threadIndex % NUM_OBJECTS), 2);
+            this.sharedAddress = new AttributeAddress(CLASS_ID, instanceIdOf(0), 2);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public DataObject getSingleThread(Directory directory, Connection connection)
+            throws IllegalAttributeAccessException {
+        return directory.dataDirectory.get(LOGICAL_DEVICE_ID, connection.distinctAddress, connection.connectionId);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public DataObject getDistinctObjects(Directory directory, Connection connection)
+            throws IllegalAttributeAccessException {
+        return directory.dataDirectory.get(LOGICAL_DEVICE_ID, connection.distinctAddress, connection.connectionId);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public DataObject getSharedObject(Directory directory, Connection connection)
+            throws IllegalAttributeAccessException {
+        return directory.dataDirectory.get(LOGICAL_DEVICE_ID, connection.sharedAddress, connection.connectionId);
+    }
+
+    private static String instanceIdOf(int index) {
+        return "1.0.1.8." + index + ".255";
+    }
+
+    @CosemClass(id = CLASS_ID)
+    public static class BenchmarkObject extends CosemInterfaceObject {
+
+        @CosemAttribute(id = 2, type = Type.DOUBLE_LONG_UNSIGNED)
+        private final DataObject value;
+
+        public BenchmarkObject(String instanceId) {
+            super(instanceId);
+            this.value = DataObject.newUInteger32Data(42L);
+        }
+
+        public DataObject getValue() {
+            return this.value;
+        }
+    }
+
+}
@@ -0,0 +1,152 @@
+/**
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.openmuc.jdlms.internal;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openmuc.jdlms.CosemAttribute;
+import org.openmuc.jdlms.CosemClass;
+import org.openmuc.jdlms.CosemInterfaceObject;
+import org.openmuc.jdlms.IllegalAttributeAccessException;
+import org.openmuc.jdlms.SecuritySuite.SecurityPolicy;
+import org.openmuc.jdlms.SelectiveAccessDescription;
+import org.openmuc.jdlms.datatypes.DataObject;
+import org.openmuc.jdlms.datatypes.DataObject.Type;
+import org.openmuc.jdlms.internal.AttributeAccessor.FieldAccessor;
+import org.openmuc.jdlms.internal.AttributeAccessor.MethodAttributeAccessor;
+import org.openmuc.jdlms.internal.DataDirectoryImpl.CosemClassInstance;
+
+/**
+ * Compares reflective field and method access with the method handles used by the attribute accessors. The accessor
+ * benchmarks add the cost of the interceptor check and the parameter building on top.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AttributeAccessorBenchmark {
+
+    private static final Long CONNECTION_ID = 1L;
+
+    private BenchmarkObject object;
+    private CosemClassInstance classInstance;
+
+    private Field field;
+    private Method getMethod;
+
+    private MethodHandle getter;
+    private MethodHandle getAccessHandle;
+    private Object[] getParameter;
+
+    private FieldAccessor fieldAccessor;
+    private MethodAttributeAccessor methodAccessor;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        this.object = new BenchmarkObject();
+        CosemClass cosemClass = BenchmarkObject.class.getAnnotation(CosemClass.class);
+        this.classInstance = new CosemClassInstance(cosemClass, this.object);
+
+        this.field = BenchmarkObject.class.getDeclaredField("value");
+        this.field.setAccessible(true);
+        this.getMethod = BenchmarkObject.class.getMethod("getCounter", Long.class);
+
+        CosemAttribute valueAttribute = this.field.getAnnotation(CosemAttribute.class);
+        CosemAttribute counterAttribute = BenchmarkObject.class.getDeclaredField("counter")
+                .getAnnotation(CosemAttribute.class);
+
+        this.getter = MemberHandles.getterFor(this.field);
+        this.getAccessHandle = MemberHandles.accessorFor(this.getMethod, false);
+        this.getParameter = new Object[] { CONNECTION_ID };
+
+        this.fieldAccessor = new FieldAccessor(this.field, valueAttribute);
+        this.methodAccessor = new MethodAttributeAccessor(this.getMethod, null, counterAttribute,
+                Collections.<Integer>emptySet());
+    }
+
+    @Benchmark
+    public Object reflectiveFieldGet() throws IllegalAccessException {
+        return this.field.get(this.object);
+    }
+
+    @Benchmark
+    public DataObject handleFieldGet() throws Throwable {
+        return (DataObject) this.getter.invokeExact((CosemInterfaceObject) this.object);
+    }
+
+    @Benchmark
+    public DataObject fieldAccessorGet() throws IllegalAttributeAccessException {
+        return this.fieldAccessor.get(this.classInstance, null, CONNECTION_ID, SecurityPolicy.NOTHING);
+    }
+
+    @Benchmark
+    public Object reflectiveMethodGet() throws ReflectiveOperationException {
+        return this.getMethod.invoke(this.object, this.getParameter);
+    }
+
+    @Benchmark
+    public DataObject handleMethodGet() throws Throwable {
+        return (DataObject) this.getAccessHandle.invokeExact((CosemInterfaceObject) this.object, (DataObject) null,
+                (SelectiveAccessDescription) null, CONNECTION_ID);
+    }
+
+    @Benchmark
+    public DataObject methodAccessorGet() throws IllegalAttributeAccessException {
+        return this.methodAccessor.get(this.classInstance, null, CONNECTION_ID, SecurityPolicy.NOTHING);
+    }
+
+    @CosemClass(id = 99)
+    public static class BenchmarkObject extends CosemInterfaceObject {
+
+        @CosemAttribute(id = 2, type = Type.DOUBLE_LONG_UNSIGNED)
+        private DataObject value;
+
+        @CosemAttribute(id = 3, type = Type.DOUBLE_LONG_UNSIGNED)
+        private DataObject counter;
+
+        private long count;
+
+        public BenchmarkObject() {
+            super("1.0.1.8.0.255");
+            this.value = DataObject.newUInteger32Data(42L);
+        }
+
+        public DataObject getCounter(Long connectionId) {
+            return DataObject.newUInteger32Data(++this.count);
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.openmuc.jdlms.internal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openmuc.jdlms.datatypes.DataObject;
+import org.openmuc.jdlms.internal.asn1.cosem.Data;
+
+/**
+ * Compares decoding of a profile generic buffer like array of structures into a {@link DataObject} through the
+ * generated {@link Data} class, directly and lazily.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DataObjectCodecBenchmark {
+
+    @Param({ "10", "1000" })
+    private int numEntries;
+
+    private byte[] code;
+
+    @Setup
+    public void setup() {
+        List<DataObject> entries = new ArrayList<>(this.numEntries);
+        for (int i = 0; i < this.numEntries; i++) {
+            entries.add(DataObject.newStructureData(DataObject.newOctetStringData(new byte[12]),
+                    DataObject.newUInteger8Data((short) 0), DataObject.newUInteger32Data(i * 1000L),
+                    DataObject.newInteger16Data((short) -i)));
+        }
+        this.code = DataObjectCodec.encode(DataObject.newArrayData(entries));
+    }
+
+    @Benchmark
+    public DataObject decodeViaData() throws IOException {
+        Data data = new Data();
+        data.decode(ByteBuffer.wrap(this.code));
+        return DataConverter.convertDataToDataObject(data);
+    }
+
+    @Benchmark
+    public DataObject decodeDirect() throws IOException {
+        return DataObjectCodec.decode(ByteBuffer.wrap(this.code));
+    }
+
+    @Benchmark
+    public DataObject decodeLazyFirstEntry() throws IOException {
+        DataObject dataObject = LazyDataList.decode(this.code, 0, this.code.length);
+        List<DataObject> entries = dataObject.getValue();
+        return entries.get(0);
+    }
+
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.openmuc.jdlms.internal.asn1.axdr;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
+import org.openmuc.jdlms.datatypes.DataObject;
+import org.openmuc.jdlms.internal.DataConverter;
+import org.openmuc.jdlms.internal.asn1.cosem.Data;
+
+/**
+ * Compares decoding of a profile generic buffer like array of structures from a stream and from a buffer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AxdrDecodeBenchmark {
+
+    @Param({ "10", "1000" })
+    private int numEntries;
+
+    private byte[] code;
+
+    @Setup
+    public void setup() throws IOException {
+        List<DataObject> entries = new ArrayList<>(this.numEntries);
+        for (int i = 0; i < this.numEntries; i++) {
+            entries.add(DataObject.newStructureData(DataObject.newOctetStringData(new byte[12]),
+                    DataObject.newUInteger8Data((short) 0), DataObject.newUInteger32Data(i * 1000L),
+                    DataObject.newInteger16Data((short) -i)));
+        }
+        Data data = DataConverter.convertDataObjectToData(DataObject.newArrayData(entries));
+
+        BerByteArrayOutputStream axdrOStream = new BerByteArrayOutputStream(1024, true);
+        data.encode(axdrOStream);
+        this.code = axdrOStream.getArray();
+    }
+
+    @Benchmark
+    public Data decodeStream() throws IOException {
+        Data data = new Data();
+        data.decode(new ByteArrayInputStream(this.code));
+        return data;
+    }
+
+    @Benchmark
+    public Data decodeBuffer() throws IOException {
+        Data data = new Data();
+        data.decode(ByteBuffer.wrap(this.code));
+        return data;
+    }
+
+}
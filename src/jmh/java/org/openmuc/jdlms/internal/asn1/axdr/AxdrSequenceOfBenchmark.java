@@ -0,0 +1,84 @@
+/**
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.openmuc.jdlms.internal.asn1.axdr;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
+import org.openmuc.jdlms.internal.asn1.cosem.Data;
+import org.openmuc.jdlms.internal.asn1.cosem.Data.SubSeqOf_array;
+import org.openmuc.jdlms.internal.asn1.cosem.Unsigned32;
+
+/**
+ * Encodes large arrays, as sent for profile generic buffers. The time per element must not grow with the number of
+ * elements.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AxdrSequenceOfBenchmark {
+
+    @Param({ "100", "10000" })
+    private int numElements;
+
+    private Data data;
+    private byte[] buffer;
+
+    @Setup
+    public void setup() {
+        SubSeqOf_array array = new SubSeqOf_array();
+        for (int i = 0; i < this.numElements; i++) {
+            Data element = new Data();
+            element.setdouble_long_unsigned(new Unsigned32(i));
+            array.add(element);
+        }
+
+        this.data = new Data();
+        this.data.setarray(array);
+        this.buffer = new byte[this.numElements * 5 + 16];
+    }
+
+    @Benchmark
+    public int encodeStream() throws IOException {
+        return this.data.encode(new BerByteArrayOutputStream(this.buffer, this.buffer.length - 1));
+    }
+
+    @Benchmark
+    public int encodeBuffer() throws IOException {
+        return this.data.encode(ByteBuffer.wrap(this.buffer));
+    }
+
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.openmuc.jdlms.internal.security;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.engines.AESEngine;
+import org.bouncycastle.crypto.modes.GCMBlockCipher;
+import org.bouncycastle.crypto.modes.gcm.BasicGCMMultiplier;
+import org.bouncycastle.crypto.params.AEADParameters;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the cached GCM ciphers with a BouncyCastle cipher using the basic multiplier, which is set up for every
+ * APDU.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GcmBenchmark {
+
+    private static final byte[] SYSTEM_TITLE = "MMM00000".getBytes();
+
+    @Param({ "64", "1024" })
+    private int apduLength;
+
+    private byte[] key;
+    private byte[] aad;
+    private byte[] plaintext;
+    private int frameCounter;
+
+    private GcmCipher bcCipher;
+    private GcmCipher jceCipher;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        this.key = new byte[16];
+        random.nextBytes(this.key);
+        this.aad = new byte[17];
+        random.nextBytes(this.aad);
+        this.plaintext = new byte[this.apduLength];
+        random.nextBytes(this.plaintext);
+
+        this.bcCipher = new BcGcmCipher();
+        this.jceCipher = JceGcmCipher.isAvailable() ? new JceGcmCipher() : null;
+    }
+
+    @Benchmark
+    public byte[] basicMultiplierPerApdu() throws InvalidCipherTextException {
+        GCMBlockCipher cipher = new GCMBlockCipher(new AESEngine(), new BasicGCMMultiplier());
+        cipher.init(true, new AEADParameters(new KeyParameter(this.key), 96, nextIv(), this.aad));
+
+        byte[] ciphertext = new byte[cipher.getOutputSize(this.plaintext.length)];
+        int length = cipher.processBytes(this.plaintext, 0, this.plaintext.length, ciphertext, 0);
+        cipher.doFinal(ciphertext, length);
+        return ciphertext;
+    }
+
+    @Benchmark
+    public byte[] bcTablesCached() throws Exception {
+        byte[] ciphertext = new byte[this.plaintext.length + 12];
+        this.bcCipher.encrypt(this.key, nextIv(), this.aad, this.plaintext, 0, this.plaintext.length, ciphertext, 0);
+        return ciphertext;
+    }
+
+    @Benchmark
+    public byte[] jceCached() throws Exception {
+        byte[] ciphertext = new byte[this.plaintext.length + 12];
+        this.jceCipher.encrypt(this.key, nextIv(), this.aad, this.plaintext, 0, this.plaintext.length, ciphertext, 0);
+        return ciphertext;
+    }
+
+    private byte[] nextIv() {
+        return ByteBuffer.allocate(12).put(SYSTEM_TITLE).putInt(this.frameCounter++).array();
+    }
+
+}
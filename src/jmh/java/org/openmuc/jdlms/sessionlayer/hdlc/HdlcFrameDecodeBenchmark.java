@@ -0,0 +1,88 @@
+/**
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.openmuc.jdlms.sessionlayer.hdlc;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the HDLC frame decode throughput and compares the byte wise FCS calculation with the table driven
+ * calculation over array ranges.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HdlcFrameDecodeBenchmark {
+
+    @Param({ "128", "2030" })
+    private int informationLength;
+
+    private byte[] frame;
+
+    @Setup
+    public void setup() {
+        byte[] data = new byte[this.informationLength - 3];
+        new Random(1).nextBytes(data);
+
+        HdlcAddressPair addressPair = new HdlcAddressPair(new HdlcAddress(16), new HdlcAddress(1, 17));
+        byte[] encodedFrame = HdlcFrame.newInformationFrame(addressPair, 1, 2, data, false, true).encode();
+
+        // without the flags, as passed by the message decoder
+        this.frame = Arrays.copyOfRange(encodedFrame, 1, encodedFrame.length - 1);
+    }
+
+    @Benchmark
+    public HdlcFrame decode() throws FrameInvalidException {
+        return HdlcFrame.decode(this.frame);
+    }
+
+    @Benchmark
+    public byte[] fcsBytewise() {
+        FcsCalc fcsCalc = new FcsCalc();
+        for (byte b : this.frame) {
+            fcsCalc.update(b);
+        }
+        return fcsCalc.fcsValueInBytes();
+    }
+
+    @Benchmark
+    public byte[] fcsArrayRange() {
+        FcsCalc fcsCalc = new FcsCalc();
+        fcsCalc.update(this.frame, 0, this.frame.length);
+        return fcsCalc.fcsValueInBytes();
+    }
+
+}
@@ -25,6 +25,7 @@ package org.openmuc.jdlms.internal.asn1.cosem;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 import org.openmuc.jdlms.internal.asn1.axdr.AxdrType;
@@ -195,6 +196,113 @@ public class ACTION_Request implements AxdrType {
         throw new IOException("Error decoding AxdrChoice: Identifier matched to no item.");
     }
 
+    @Override
+    public int encode(ByteBuffer buffer) throws IOException {
+        if (code != null) {
+            buffer.put(code);
+            return code.length;
+
+        }
+        if (choice == Choices._ERR_NONE_SELECTED) {
+            throw new IOException("Error encoding AxdrChoice: No item in choice was selected.");
+        }
+
+        int codeLength = 0;
+
+        if (choice == Choices.ACTION_REQUEST_WITH_PBLOCK) {
+            AxdrEnum c = new AxdrEnum(6);
+            codeLength += c.encode(buffer);
+            codeLength += action_request_with_pblock.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.ACTION_REQUEST_WITH_LIST_AND_FIRST_PBLOCK) {
+            AxdrEnum c = new AxdrEnum(5);
+            codeLength += c.encode(buffer);
+            codeLength += action_request_with_list_and_first_pblock.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.ACTION_REQUEST_WITH_FIRST_PBLOCK) {
+            AxdrEnum c = new AxdrEnum(4);
+            codeLength += c.encode(buffer);
+            codeLength += action_request_with_first_pblock.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.ACTION_REQUEST_WITH_LIST) {
+            AxdrEnum c = new AxdrEnum(3);
+            codeLength += c.encode(buffer);
+            codeLength += action_request_with_list.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.ACTION_REQUEST_NEXT_PBLOCK) {
+            AxdrEnum c = new AxdrEnum(2);
+            codeLength += c.encode(buffer);
+            codeLength += action_request_next_pblock.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.ACTION_REQUEST_NORMAL) {
+            AxdrEnum c = new AxdrEnum(1);
+            codeLength += c.encode(buffer);
+            codeLength += action_request_normal.encode(buffer);
+            return codeLength;
+        }
+
+        // This block should be unreachable
+        throw new IOException("Error encoding AxdrChoice: No item in choice was encoded.");
+    }
+
+    @Override
+    public int decode(ByteBuffer buffer) throws IOException {
+        int codeLength = 0;
+        AxdrEnum choosen = new AxdrEnum();
+
+        codeLength += choosen.decode(buffer);
+        resetChoices();
+        this.choice = Choices.valueOf(choosen.getValue());
+
+        if (choice == Choices.ACTION_REQUEST_NORMAL) {
+            action_request_normal = new Action_Request_Normal();
+            codeLength += action_request_normal.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.ACTION_REQUEST_NEXT_PBLOCK) {
+            action_request_next_pblock = new Action_Request_Next_Pblock();
+            codeLength += action_request_next_pblock.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.ACTION_REQUEST_WITH_LIST) {
+            action_request_with_list = new Action_Request_With_List();
+            codeLength += action_request_with_list.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.ACTION_REQUEST_WITH_FIRST_PBLOCK) {
+            action_request_with_first_pblock = new Action_Request_With_First_Pblock();
+            codeLength += action_request_with_first_pblock.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.ACTION_REQUEST_WITH_LIST_AND_FIRST_PBLOCK) {
+            action_request_with_list_and_first_pblock = new Action_Request_With_List_And_First_Pblock();
+            codeLength += action_request_with_list_and_first_pblock.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.ACTION_REQUEST_WITH_PBLOCK) {
+            action_request_with_pblock = new Action_Request_With_Pblock();
+            codeLength += action_request_with_pblock.decode(buffer);
+            return codeLength;
+        }
+
+        throw new IOException("Error decoding AxdrChoice: Identifier matched to no item.");
+    }
+
     public void encodeAndSave(int encodingSizeGuess) throws IOException {
         BerByteArrayOutputStream axdrOStream = new BerByteArrayOutputStream(encodingSizeGuess);
         encode(axdrOStream);
@@ -25,6 +25,7 @@ package org.openmuc.jdlms.internal.asn1.cosem;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 import org.openmuc.jdlms.internal.asn1.axdr.AxdrType;
@@ -127,6 +128,45 @@ public class Action_Request_With_List implements AxdrType {
         return codeLength;
     }
 
+    @Override
+    public int encode(ByteBuffer buffer) throws IOException {
+
+        int codeLength;
+
+        if (code != null) {
+            codeLength = code.length;
+            buffer.put(code);
+        }
+        else {
+            codeLength = 0;
+            codeLength += invoke_id_and_priority.encode(buffer);
+
+            codeLength += cosem_method_descriptor_list.encode(buffer);
+
+            codeLength += method_invocation_parameters.encode(buffer);
+
+        }
+
+        return codeLength;
+
+    }
+
+    @Override
+    public int decode(ByteBuffer buffer) throws IOException {
+        int codeLength = 0;
+
+        invoke_id_and_priority = new Invoke_Id_And_Priority();
+        codeLength += invoke_id_and_priority.decode(buffer);
+
+        cosem_method_descriptor_list = new SubSeqOf_cosem_method_descriptor_list();
+        codeLength += cosem_method_descriptor_list.decode(buffer);
+
+        method_invocation_parameters = new SubSeqOf_method_invocation_parameters();
+        codeLength += method_invocation_parameters.decode(buffer);
+
+        return codeLength;
+    }
+
     public void encodeAndSave(int encodingSizeGuess) throws IOException {
         BerByteArrayOutputStream axdrOStream = new BerByteArrayOutputStream(encodingSizeGuess);
         encode(axdrOStream);
@@ -25,6 +25,7 @@ package org.openmuc.jdlms.internal.asn1.cosem;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 import org.openmuc.jdlms.internal.asn1.axdr.AxdrType;
@@ -692,6 +693,516 @@ public class COSEMpdu implements AxdrType {
         throw new IOException("Error decoding AxdrChoice: Identifier matched to no item.");
     }
 
+    @Override
+    public int encode(ByteBuffer buffer) throws IOException {
+        if (code != null) {
+            buffer.put(code);
+            return code.length;
+
+        }
+        if (choice == Choices._ERR_NONE_SELECTED) {
+            throw new IOException("Error encoding AxdrChoice: No item in choice was selected.");
+        }
+
+        int codeLength = 0;
+
+        if (choice == Choices.EXCEPTION_RESPONSE) {
+            AxdrEnum c = new AxdrEnum(216);
+            codeLength += c.encode(buffer);
+            codeLength += exception_response.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DED_ACTION_RESPONSE) {
+            AxdrEnum c = new AxdrEnum(215);
+            codeLength += c.encode(buffer);
+            codeLength += ded_action_response.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DED_SET_RESPONSE) {
+            AxdrEnum c = new AxdrEnum(213);
+            codeLength += c.encode(buffer);
+            codeLength += ded_set_response.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DED_GET_RESPONSE) {
+            AxdrEnum c = new AxdrEnum(212);
+            codeLength += c.encode(buffer);
+            codeLength += ded_get_response.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DED_ACTIONREQUEST) {
+            AxdrEnum c = new AxdrEnum(211);
+            codeLength += c.encode(buffer);
+            codeLength += ded_actionRequest.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DED_EVENT_NOTIFICATION_REQUEST) {
+            AxdrEnum c = new AxdrEnum(210);
+            codeLength += c.encode(buffer);
+            codeLength += ded_event_notification_request.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DED_SET_REQUEST) {
+            AxdrEnum c = new AxdrEnum(209);
+            codeLength += c.encode(buffer);
+            codeLength += ded_set_request.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DED_GET_REQUEST) {
+            AxdrEnum c = new AxdrEnum(208);
+            codeLength += c.encode(buffer);
+            codeLength += ded_get_request.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GLO_ACTION_RESPONSE) {
+            AxdrEnum c = new AxdrEnum(207);
+            codeLength += c.encode(buffer);
+            codeLength += glo_action_response.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GLO_SET_RESPONSE) {
+            AxdrEnum c = new AxdrEnum(205);
+            codeLength += c.encode(buffer);
+            codeLength += glo_set_response.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GLO_GET_RESPONSE) {
+            AxdrEnum c = new AxdrEnum(204);
+            codeLength += c.encode(buffer);
+            codeLength += glo_get_response.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GLO_ACTION_REQUEST) {
+            AxdrEnum c = new AxdrEnum(203);
+            codeLength += c.encode(buffer);
+            codeLength += glo_action_request.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GLO_EVENT_NOTIFICATION_REQUEST) {
+            AxdrEnum c = new AxdrEnum(202);
+            codeLength += c.encode(buffer);
+            codeLength += glo_event_notification_request.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GLO_SET_REQUEST) {
+            AxdrEnum c = new AxdrEnum(201);
+            codeLength += c.encode(buffer);
+            codeLength += glo_set_request.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GLO_GET_REQUEST) {
+            AxdrEnum c = new AxdrEnum(200);
+            codeLength += c.encode(buffer);
+            codeLength += glo_get_request.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.ACTION_RESPONSE) {
+            AxdrEnum c = new AxdrEnum(199);
+            codeLength += c.encode(buffer);
+            codeLength += action_response.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.SET_RESPONSE) {
+            AxdrEnum c = new AxdrEnum(197);
+            codeLength += c.encode(buffer);
+            codeLength += set_response.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GET_RESPONSE) {
+            AxdrEnum c = new AxdrEnum(196);
+            codeLength += c.encode(buffer);
+            codeLength += get_response.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.ACTION_REQUEST) {
+            AxdrEnum c = new AxdrEnum(195);
+            codeLength += c.encode(buffer);
+            codeLength += action_request.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.EVENT_NOTIFICATION_REQUEST) {
+            AxdrEnum c = new AxdrEnum(194);
+            codeLength += c.encode(buffer);
+            codeLength += event_notification_request.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.SET_REQUEST) {
+            AxdrEnum c = new AxdrEnum(193);
+            codeLength += c.encode(buffer);
+            codeLength += set_request.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GET_REQUEST) {
+            AxdrEnum c = new AxdrEnum(192);
+            codeLength += c.encode(buffer);
+            codeLength += get_request.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GLO_WRITERESPONSE) {
+            AxdrEnum c = new AxdrEnum(45);
+            codeLength += c.encode(buffer);
+            codeLength += glo_writeResponse.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GLO_READRESPONSE) {
+            AxdrEnum c = new AxdrEnum(44);
+            codeLength += c.encode(buffer);
+            codeLength += glo_readResponse.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GLO_INITIATERESPONSE) {
+            AxdrEnum c = new AxdrEnum(40);
+            codeLength += c.encode(buffer);
+            codeLength += glo_initiateResponse.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GLO_WRITEREQUEST) {
+            AxdrEnum c = new AxdrEnum(38);
+            codeLength += c.encode(buffer);
+            codeLength += glo_writeRequest.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GLO_READREQUEST) {
+            AxdrEnum c = new AxdrEnum(37);
+            codeLength += c.encode(buffer);
+            codeLength += glo_readRequest.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GLO_INITIATEREQUEST) {
+            AxdrEnum c = new AxdrEnum(33);
+            codeLength += c.encode(buffer);
+            codeLength += glo_initiateRequest.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.INFORMATIONREPORTREQUEST) {
+            AxdrEnum c = new AxdrEnum(24);
+            codeLength += c.encode(buffer);
+            codeLength += informationReportRequest.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.UNCONFIRMEDWRITEREQUEST) {
+            AxdrEnum c = new AxdrEnum(22);
+            codeLength += c.encode(buffer);
+            codeLength += unconfirmedWriteRequest.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.CONFIRMEDSERVICEERROR) {
+            AxdrEnum c = new AxdrEnum(14);
+            codeLength += c.encode(buffer);
+            codeLength += confirmedServiceError.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.WRITERESPONSE) {
+            AxdrEnum c = new AxdrEnum(13);
+            codeLength += c.encode(buffer);
+            codeLength += writeResponse.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.READRESPONSE) {
+            AxdrEnum c = new AxdrEnum(12);
+            codeLength += c.encode(buffer);
+            codeLength += readResponse.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.INITIATERESPONSE) {
+            AxdrEnum c = new AxdrEnum(8);
+            codeLength += c.encode(buffer);
+            codeLength += initiateResponse.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.WRITEREQUEST) {
+            AxdrEnum c = new AxdrEnum(6);
+            codeLength += c.encode(buffer);
+            codeLength += writeRequest.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.READREQUEST) {
+            AxdrEnum c = new AxdrEnum(5);
+            codeLength += c.encode(buffer);
+            codeLength += readRequest.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.INITIATEREQUEST) {
+            AxdrEnum c = new AxdrEnum(1);
+            codeLength += c.encode(buffer);
+            codeLength += initiateRequest.encode(buffer);
+            return codeLength;
+        }
+
+        // This block should be unreachable
+        throw new IOException("Error encoding AxdrChoice: No item in choice was encoded.");
+    }
+
+    @Override
+    public int decode(ByteBuffer buffer) throws IOException {
+        int codeLength = 0;
+        AxdrEnum choosen = new AxdrEnum();
+
+        codeLength += choosen.decode(buffer);
+        resetChoices();
+        this.choice = Choices.valueOf(choosen.getValue());
+
+        if (choice == Choices.INITIATEREQUEST) {
+            initiateRequest = new InitiateRequest();
+            codeLength += initiateRequest.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.READREQUEST) {
+            readRequest = new ReadRequest();
+            codeLength += readRequest.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.WRITEREQUEST) {
+            writeRequest = new WriteRequest();
+            codeLength += writeRequest.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.INITIATERESPONSE) {
+            initiateResponse = new InitiateResponse();
+            codeLength += initiateResponse.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.READRESPONSE) {
+            readResponse = new ReadResponse();
+            codeLength += readResponse.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.WRITERESPONSE) {
+            writeResponse = new WriteResponse();
+            codeLength += writeResponse.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.CONFIRMEDSERVICEERROR) {
+            confirmedServiceError = new ConfirmedServiceError();
+            codeLength += confirmedServiceError.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.UNCONFIRMEDWRITEREQUEST) {
+            unconfirmedWriteRequest = new UnconfirmedWriteRequest();
+            codeLength += unconfirmedWriteRequest.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.INFORMATIONREPORTREQUEST) {
+            informationReportRequest = new InformationReportRequest();
+            codeLength += informationReportRequest.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GLO_INITIATEREQUEST) {
+            glo_initiateRequest = new AxdrOctetString();
+            codeLength += glo_initiateRequest.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GLO_READREQUEST) {
+            glo_readRequest = new AxdrOctetString();
+            codeLength += glo_readRequest.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GLO_WRITEREQUEST) {
+            glo_writeRequest = new AxdrOctetString();
+            codeLength += glo_writeRequest.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GLO_INITIATERESPONSE) {
+            glo_initiateResponse = new AxdrOctetString();
+            codeLength += glo_initiateResponse.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GLO_READRESPONSE) {
+            glo_readResponse = new AxdrOctetString();
+            codeLength += glo_readResponse.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GLO_WRITERESPONSE) {
+            glo_writeResponse = new AxdrOctetString();
+            codeLength += glo_writeResponse.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GET_REQUEST) {
+            get_request = new GET_Request();
+            codeLength += get_request.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.SET_REQUEST) {
+            set_request = new SET_Request();
+            codeLength += set_request.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.EVENT_NOTIFICATION_REQUEST) {
+            event_notification_request = new EVENT_NOTIFICATION_Request();
+            codeLength += event_notification_request.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.ACTION_REQUEST) {
+            action_request = new ACTION_Request();
+            codeLength += action_request.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GET_RESPONSE) {
+            get_response = new GET_Response();
+            codeLength += get_response.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.SET_RESPONSE) {
+            set_response = new SET_Response();
+            codeLength += set_response.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.ACTION_RESPONSE) {
+            action_response = new ACTION_Response();
+            codeLength += action_response.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GLO_GET_REQUEST) {
+            glo_get_request = new AxdrOctetString();
+            codeLength += glo_get_request.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GLO_SET_REQUEST) {
+            glo_set_request = new AxdrOctetString();
+            codeLength += glo_set_request.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GLO_EVENT_NOTIFICATION_REQUEST) {
+            glo_event_notification_request = new AxdrOctetString();
+            codeLength += glo_event_notification_request.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GLO_ACTION_REQUEST) {
+            glo_action_request = new AxdrOctetString();
+            codeLength += glo_action_request.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GLO_GET_RESPONSE) {
+            glo_get_response = new AxdrOctetString();
+            codeLength += glo_get_response.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GLO_SET_RESPONSE) {
+            glo_set_response = new AxdrOctetString();
+            codeLength += glo_set_response.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GLO_ACTION_RESPONSE) {
+            glo_action_response = new AxdrOctetString();
+            codeLength += glo_action_response.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DED_GET_REQUEST) {
+            ded_get_request = new AxdrOctetString();
+            codeLength += ded_get_request.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DED_SET_REQUEST) {
+            ded_set_request = new AxdrOctetString();
+            codeLength += ded_set_request.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DED_EVENT_NOTIFICATION_REQUEST) {
+            ded_event_notification_request = new AxdrOctetString();
+            codeLength += ded_event_notification_request.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DED_ACTIONREQUEST) {
+            ded_actionRequest = new AxdrOctetString();
+            codeLength += ded_actionRequest.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DED_GET_RESPONSE) {
+            ded_get_response = new AxdrOctetString();
+            codeLength += ded_get_response.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DED_SET_RESPONSE) {
+            ded_set_response = new AxdrOctetString();
+            codeLength += ded_set_response.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DED_ACTION_RESPONSE) {
+            ded_action_response = new AxdrOctetString();
+            codeLength += ded_action_response.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.EXCEPTION_RESPONSE) {
+            exception_response = new EXCEPTION_Response();
+            codeLength += exception_response.decode(buffer);
+            return codeLength;
+        }
+
+        throw new IOException("Error decoding AxdrChoice: Identifier matched to no item.");
+    }
+
     public void encodeAndSave(int encodingSizeGuess) throws IOException {
         BerByteArrayOutputStream axdrOStream = new BerByteArrayOutputStream(encodingSizeGuess);
         encode(axdrOStream);
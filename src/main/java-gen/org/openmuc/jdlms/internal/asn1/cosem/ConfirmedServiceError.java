@@ -25,6 +25,7 @@ package org.openmuc.jdlms.internal.asn1.cosem;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 import org.openmuc.jdlms.internal.asn1.axdr.AxdrType;
@@ -403,6 +404,282 @@ public class ConfirmedServiceError implements AxdrType {
         throw new IOException("Error decoding AxdrChoice: Identifier matched to no item.");
     }
 
+    @Override
+    public int encode(ByteBuffer buffer) throws IOException {
+        if (code != null) {
+            buffer.put(code);
+            return code.length;
+
+        }
+        if (choice == Choices._ERR_NONE_SELECTED) {
+            throw new IOException("Error encoding AxdrChoice: No item in choice was selected.");
+        }
+
+        int codeLength = 0;
+
+        if (choice == Choices.TERMINATEUPLOAD) {
+            AxdrEnum c = new AxdrEnum(19);
+            codeLength += c.encode(buffer);
+            codeLength += terminateUpLoad.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.UPLOADSEGMENT) {
+            AxdrEnum c = new AxdrEnum(18);
+            codeLength += c.encode(buffer);
+            codeLength += upLoadSegment.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.INITIATEUPLOAD) {
+            AxdrEnum c = new AxdrEnum(17);
+            codeLength += c.encode(buffer);
+            codeLength += initiateUpLoad.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.TERMINATELOAD) {
+            AxdrEnum c = new AxdrEnum(16);
+            codeLength += c.encode(buffer);
+            codeLength += terminateLoad.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.LOADSEGMENT) {
+            AxdrEnum c = new AxdrEnum(15);
+            codeLength += c.encode(buffer);
+            codeLength += loadSegment.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.INITIATELOAD) {
+            AxdrEnum c = new AxdrEnum(14);
+            codeLength += c.encode(buffer);
+            codeLength += initiateLoad.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.MAKEUSABLE) {
+            AxdrEnum c = new AxdrEnum(13);
+            codeLength += c.encode(buffer);
+            codeLength += makeUsable.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.RESUME) {
+            AxdrEnum c = new AxdrEnum(12);
+            codeLength += c.encode(buffer);
+            codeLength += resume.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.STOP) {
+            AxdrEnum c = new AxdrEnum(11);
+            codeLength += c.encode(buffer);
+            codeLength += stop.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.START) {
+            AxdrEnum c = new AxdrEnum(10);
+            codeLength += c.encode(buffer);
+            codeLength += start.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.CHANGESCOPE) {
+            AxdrEnum c = new AxdrEnum(9);
+            codeLength += c.encode(buffer);
+            codeLength += changeScope.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GETTIATTRIBUTE) {
+            AxdrEnum c = new AxdrEnum(8);
+            codeLength += c.encode(buffer);
+            codeLength += getTIAttribute.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GETDATASETATTRIBUTE) {
+            AxdrEnum c = new AxdrEnum(7);
+            codeLength += c.encode(buffer);
+            codeLength += getDataSetAttribute.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.WRITE) {
+            AxdrEnum c = new AxdrEnum(6);
+            codeLength += c.encode(buffer);
+            codeLength += write.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.READ) {
+            AxdrEnum c = new AxdrEnum(5);
+            codeLength += c.encode(buffer);
+            codeLength += read.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GETVARIABLEATTRIBUTE) {
+            AxdrEnum c = new AxdrEnum(4);
+            codeLength += c.encode(buffer);
+            codeLength += getVariableAttribute.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GETNAMELIST) {
+            AxdrEnum c = new AxdrEnum(3);
+            codeLength += c.encode(buffer);
+            codeLength += getNameList.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GETSTATUS) {
+            AxdrEnum c = new AxdrEnum(2);
+            codeLength += c.encode(buffer);
+            codeLength += getStatus.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.INITIATEERROR) {
+            AxdrEnum c = new AxdrEnum(1);
+            codeLength += c.encode(buffer);
+            codeLength += initiateError.encode(buffer);
+            return codeLength;
+        }
+
+        // This block should be unreachable
+        throw new IOException("Error encoding AxdrChoice: No item in choice was encoded.");
+    }
+
+    @Override
+    public int decode(ByteBuffer buffer) throws IOException {
+        int codeLength = 0;
+        AxdrEnum choosen = new AxdrEnum();
+
+        codeLength += choosen.decode(buffer);
+        resetChoices();
+        this.choice = Choices.valueOf(choosen.getValue());
+
+        if (choice == Choices.INITIATEERROR) {
+            initiateError = new ServiceError();
+            codeLength += initiateError.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GETSTATUS) {
+            getStatus = new ServiceError();
+            codeLength += getStatus.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GETNAMELIST) {
+            getNameList = new ServiceError();
+            codeLength += getNameList.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GETVARIABLEATTRIBUTE) {
+            getVariableAttribute = new ServiceError();
+            codeLength += getVariableAttribute.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.READ) {
+            read = new ServiceError();
+            codeLength += read.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.WRITE) {
+            write = new ServiceError();
+            codeLength += write.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GETDATASETATTRIBUTE) {
+            getDataSetAttribute = new ServiceError();
+            codeLength += getDataSetAttribute.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GETTIATTRIBUTE) {
+            getTIAttribute = new ServiceError();
+            codeLength += getTIAttribute.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.CHANGESCOPE) {
+            changeScope = new ServiceError();
+            codeLength += changeScope.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.START) {
+            start = new ServiceError();
+            codeLength += start.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.STOP) {
+            stop = new ServiceError();
+            codeLength += stop.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.RESUME) {
+            resume = new ServiceError();
+            codeLength += resume.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.MAKEUSABLE) {
+            makeUsable = new ServiceError();
+            codeLength += makeUsable.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.INITIATELOAD) {
+            initiateLoad = new ServiceError();
+            codeLength += initiateLoad.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.LOADSEGMENT) {
+            loadSegment = new ServiceError();
+            codeLength += loadSegment.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.TERMINATELOAD) {
+            terminateLoad = new ServiceError();
+            codeLength += terminateLoad.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.INITIATEUPLOAD) {
+            initiateUpLoad = new ServiceError();
+            codeLength += initiateUpLoad.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.UPLOADSEGMENT) {
+            upLoadSegment = new ServiceError();
+            codeLength += upLoadSegment.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.TERMINATEUPLOAD) {
+            terminateUpLoad = new ServiceError();
+            codeLength += terminateUpLoad.decode(buffer);
+            return codeLength;
+        }
+
+        throw new IOException("Error decoding AxdrChoice: Identifier matched to no item.");
+    }
+
     public void encodeAndSave(int encodingSizeGuess) throws IOException {
         BerByteArrayOutputStream axdrOStream = new BerByteArrayOutputStream(encodingSizeGuess);
         encode(axdrOStream);
@@ -25,10 +25,12 @@ package org.openmuc.jdlms.internal.asn1.cosem;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 import org.openmuc.jasn1.ber.BerTag;
 import org.openmuc.jasn1.ber.types.BerBitString;
+import org.openmuc.jdlms.internal.asn1.axdr.ByteBufferInputStream;
 
 public class Conformance extends BerBitString {
 
@@ -56,4 +58,15 @@ public class Conformance extends BerBitString {
         return identifier.decodeAndCheck(iStream) + decode(iStream, false);
     }
 
+    public int encode(ByteBuffer buffer) throws IOException {
+        BerByteArrayOutputStream berOStream = new BerByteArrayOutputStream(16, true);
+        int codeLength = encode(berOStream);
+        buffer.put(berOStream.getArray());
+        return codeLength;
+    }
+
+    public int decode(ByteBuffer buffer) throws IOException {
+        return decode(new ByteBufferInputStream(buffer));
+    }
+
 }
@@ -25,6 +25,7 @@ package org.openmuc.jdlms.internal.asn1.cosem;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 import org.openmuc.jdlms.internal.asn1.axdr.AxdrType;
@@ -179,6 +180,40 @@ public class Data implements AxdrType {
             return codeLength;
         }
 
+        @Override
+        public int encode(ByteBuffer buffer) throws IOException {
+
+            int codeLength;
+
+            if (code != null) {
+                codeLength = code.length;
+                buffer.put(code);
+            }
+            else {
+                codeLength = 0;
+                codeLength += contents_description.encode(buffer);
+
+                codeLength += array_contents.encode(buffer);
+
+            }
+
+            return codeLength;
+
+        }
+
+        @Override
+        public int decode(ByteBuffer buffer) throws IOException {
+            int codeLength = 0;
+
+            contents_description = new TypeDescription();
+            codeLength += contents_description.decode(buffer);
+
+            array_contents = new AxdrOctetString();
+            codeLength += array_contents.decode(buffer);
+
+            return codeLength;
+        }
+
         public void encodeAndSave(int encodingSizeGuess) throws IOException {
             BerByteArrayOutputStream axdrOStream = new BerByteArrayOutputStream(encodingSizeGuess);
             encode(axdrOStream);
@@ -606,6 +641,360 @@ public class Data implements AxdrType {
         throw new IOException("Error decoding AxdrChoice: Identifier matched to no item.");
     }
 
+    @Override
+    public int encode(ByteBuffer buffer) throws IOException {
+        if (code != null) {
+            buffer.put(code);
+            return code.length;
+
+        }
+        if (choice == Choices._ERR_NONE_SELECTED) {
+            throw new IOException("Error encoding AxdrChoice: No item in choice was selected.");
+        }
+
+        int codeLength = 0;
+
+        if (choice == Choices.DONT_CARE) {
+            AxdrEnum c = new AxdrEnum(255);
+            codeLength += c.encode(buffer);
+            codeLength += dont_care.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.TIME) {
+            AxdrEnum c = new AxdrEnum(27);
+            codeLength += c.encode(buffer);
+            codeLength += time.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DATE) {
+            AxdrEnum c = new AxdrEnum(26);
+            codeLength += c.encode(buffer);
+            codeLength += date.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DATE_TIME) {
+            AxdrEnum c = new AxdrEnum(25);
+            codeLength += c.encode(buffer);
+            codeLength += date_time.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.FLOAT64) {
+            AxdrEnum c = new AxdrEnum(24);
+            codeLength += c.encode(buffer);
+            codeLength += float64.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.FLOAT32) {
+            AxdrEnum c = new AxdrEnum(23);
+            codeLength += c.encode(buffer);
+            codeLength += float32.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.ENUMERATE) {
+            AxdrEnum c = new AxdrEnum(22);
+            codeLength += c.encode(buffer);
+            codeLength += enumerate.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.LONG64_UNSIGNED) {
+            AxdrEnum c = new AxdrEnum(21);
+            codeLength += c.encode(buffer);
+            codeLength += long64_unsigned.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.LONG64) {
+            AxdrEnum c = new AxdrEnum(20);
+            codeLength += c.encode(buffer);
+            codeLength += long64.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.COMPACT_ARRAY) {
+            AxdrEnum c = new AxdrEnum(19);
+            codeLength += c.encode(buffer);
+            codeLength += compact_array.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.LONG_UNSIGNED) {
+            AxdrEnum c = new AxdrEnum(18);
+            codeLength += c.encode(buffer);
+            codeLength += long_unsigned.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.UNSIGNED) {
+            AxdrEnum c = new AxdrEnum(17);
+            codeLength += c.encode(buffer);
+            codeLength += unsigned.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.LONG_INTEGER) {
+            AxdrEnum c = new AxdrEnum(16);
+            codeLength += c.encode(buffer);
+            codeLength += long_integer.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.INTEGER) {
+            AxdrEnum c = new AxdrEnum(15);
+            codeLength += c.encode(buffer);
+            codeLength += integer.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.BCD) {
+            AxdrEnum c = new AxdrEnum(13);
+            codeLength += c.encode(buffer);
+            codeLength += bcd.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.UTF8_STRING) {
+            AxdrEnum c = new AxdrEnum(12);
+            codeLength += c.encode(buffer);
+            codeLength += utf8_string.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.VISIBLE_STRING) {
+            AxdrEnum c = new AxdrEnum(10);
+            codeLength += c.encode(buffer);
+            codeLength += visible_string.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.OCTET_STRING) {
+            AxdrEnum c = new AxdrEnum(9);
+            codeLength += c.encode(buffer);
+            codeLength += octet_string.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DOUBLE_LONG_UNSIGNED) {
+            AxdrEnum c = new AxdrEnum(6);
+            codeLength += c.encode(buffer);
+            codeLength += double_long_unsigned.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DOUBLE_LONG) {
+            AxdrEnum c = new AxdrEnum(5);
+            codeLength += c.encode(buffer);
+            codeLength += double_long.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.BIT_STRING) {
+            AxdrEnum c = new AxdrEnum(4);
+            codeLength += c.encode(buffer);
+            codeLength += bit_string.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.BOOL) {
+            AxdrEnum c = new AxdrEnum(3);
+            codeLength += c.encode(buffer);
+            codeLength += bool.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.STRUCTURE) {
+            AxdrEnum c = new AxdrEnum(2);
+            codeLength += c.encode(buffer);
+            codeLength += structure.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.ARRAY) {
+            AxdrEnum c = new AxdrEnum(1);
+            codeLength += c.encode(buffer);
+            codeLength += array.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.NULL_DATA) {
+            AxdrEnum c = new AxdrEnum(0);
+            codeLength += c.encode(buffer);
+            codeLength += null_data.encode(buffer);
+            return codeLength;
+        }
+
+        // This block should be unreachable
+        throw new IOException("Error encoding AxdrChoice: No item in choice was encoded.");
+    }
+
+    @Override
+    public int decode(ByteBuffer buffer) throws IOException {
+        int codeLength = 0;
+        AxdrEnum choosen = new AxdrEnum();
+
+        codeLength += choosen.decode(buffer);
+        resetChoices();
+        this.choice = Choices.valueOf(choosen.getValue());
+
+        if (choice == Choices.NULL_DATA) {
+            null_data = new AxdrNull();
+            codeLength += null_data.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.ARRAY) {
+            array = new SubSeqOf_array();
+            codeLength += array.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.STRUCTURE) {
+            structure = new SubSeqOf_structure();
+            codeLength += structure.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.BOOL) {
+            bool = new AxdrBoolean();
+            codeLength += bool.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.BIT_STRING) {
+            bit_string = new AxdrBitString();
+            codeLength += bit_string.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DOUBLE_LONG) {
+            double_long = new Integer32();
+            codeLength += double_long.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DOUBLE_LONG_UNSIGNED) {
+            double_long_unsigned = new Unsigned32();
+            codeLength += double_long_unsigned.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.OCTET_STRING) {
+            octet_string = new AxdrOctetString();
+            codeLength += octet_string.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.VISIBLE_STRING) {
+            visible_string = new AxdrVisibleString();
+            codeLength += visible_string.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.UTF8_STRING) {
+            utf8_string = new AxdrOctetString();
+            codeLength += utf8_string.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.BCD) {
+            bcd = new Integer8();
+            codeLength += bcd.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.INTEGER) {
+            integer = new Integer8();
+            codeLength += integer.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.LONG_INTEGER) {
+            long_integer = new Integer16();
+            codeLength += long_integer.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.UNSIGNED) {
+            unsigned = new Unsigned8();
+            codeLength += unsigned.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.LONG_UNSIGNED) {
+            long_unsigned = new Unsigned16();
+            codeLength += long_unsigned.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.COMPACT_ARRAY) {
+            compact_array = new SubSeq_compact_array();
+            codeLength += compact_array.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.LONG64) {
+            long64 = new Integer64();
+            codeLength += long64.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.LONG64_UNSIGNED) {
+            long64_unsigned = new Unsigned64();
+            codeLength += long64_unsigned.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.ENUMERATE) {
+            enumerate = new Enum();
+            codeLength += enumerate.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.FLOAT32) {
+            float32 = new AxdrOctetString();
+            codeLength += float32.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.FLOAT64) {
+            float64 = new AxdrOctetString();
+            codeLength += float64.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DATE_TIME) {
+            date_time = new AxdrOctetString();
+            codeLength += date_time.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DATE) {
+            date = new AxdrOctetString();
+            codeLength += date.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.TIME) {
+            time = new AxdrOctetString();
+            codeLength += time.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DONT_CARE) {
+            dont_care = new AxdrNull();
+            codeLength += dont_care.decode(buffer);
+            return codeLength;
+        }
+
+        throw new IOException("Error decoding AxdrChoice: Identifier matched to no item.");
+    }
+
     public void encodeAndSave(int encodingSizeGuess) throws IOException {
         BerByteArrayOutputStream axdrOStream = new BerByteArrayOutputStream(encodingSizeGuess);
         encode(axdrOStream);
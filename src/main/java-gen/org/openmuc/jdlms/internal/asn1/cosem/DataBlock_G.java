@@ -25,6 +25,7 @@ package org.openmuc.jdlms.internal.asn1.cosem;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 import org.openmuc.jdlms.internal.asn1.axdr.AxdrType;
@@ -135,6 +136,61 @@ public class DataBlock_G implements AxdrType {
             throw new IOException("Error decoding AxdrChoice: Identifier matched to no item.");
         }
 
+        @Override
+        public int encode(ByteBuffer buffer) throws IOException {
+            if (code != null) {
+                buffer.put(code);
+                return code.length;
+
+            }
+            if (choice == Choices._ERR_NONE_SELECTED) {
+                throw new IOException("Error encoding AxdrChoice: No item in choice was selected.");
+            }
+
+            int codeLength = 0;
+
+            if (choice == Choices.DATA_ACCESS_RESULT) {
+                AxdrEnum c = new AxdrEnum(1);
+                codeLength += c.encode(buffer);
+                codeLength += data_access_result.encode(buffer);
+                return codeLength;
+            }
+
+            if (choice == Choices.RAW_DATA) {
+                AxdrEnum c = new AxdrEnum(0);
+                codeLength += c.encode(buffer);
+                codeLength += raw_data.encode(buffer);
+                return codeLength;
+            }
+
+            // This block should be unreachable
+            throw new IOException("Error encoding AxdrChoice: No item in choice was encoded.");
+        }
+
+        @Override
+        public int decode(ByteBuffer buffer) throws IOException {
+            int codeLength = 0;
+            AxdrEnum choosen = new AxdrEnum();
+
+            codeLength += choosen.decode(buffer);
+            resetChoices();
+            this.choice = Choices.valueOf(choosen.getValue());
+
+            if (choice == Choices.RAW_DATA) {
+                raw_data = new AxdrOctetString();
+                codeLength += raw_data.decode(buffer);
+                return codeLength;
+            }
+
+            if (choice == Choices.DATA_ACCESS_RESULT) {
+                data_access_result = new AxdrEnum();
+                codeLength += data_access_result.decode(buffer);
+                return codeLength;
+            }
+
+            throw new IOException("Error decoding AxdrChoice: Identifier matched to no item.");
+        }
+
         public void encodeAndSave(int encodingSizeGuess) throws IOException {
             BerByteArrayOutputStream axdrOStream = new BerByteArrayOutputStream(encodingSizeGuess);
             encode(axdrOStream);
@@ -239,6 +295,45 @@ public class DataBlock_G implements AxdrType {
         return codeLength;
     }
 
+    @Override
+    public int encode(ByteBuffer buffer) throws IOException {
+
+        int codeLength;
+
+        if (code != null) {
+            codeLength = code.length;
+            buffer.put(code);
+        }
+        else {
+            codeLength = 0;
+            codeLength += last_block.encode(buffer);
+
+            codeLength += block_number.encode(buffer);
+
+            codeLength += result.encode(buffer);
+
+        }
+
+        return codeLength;
+
+    }
+
+    @Override
+    public int decode(ByteBuffer buffer) throws IOException {
+        int codeLength = 0;
+
+        last_block = new AxdrBoolean();
+        codeLength += last_block.decode(buffer);
+
+        block_number = new Unsigned32();
+        codeLength += block_number.decode(buffer);
+
+        result = new SubChoice_result();
+        codeLength += result.decode(buffer);
+
+        return codeLength;
+    }
+
     public void encodeAndSave(int encodingSizeGuess) throws IOException {
         BerByteArrayOutputStream axdrOStream = new BerByteArrayOutputStream(encodingSizeGuess);
         encode(axdrOStream);
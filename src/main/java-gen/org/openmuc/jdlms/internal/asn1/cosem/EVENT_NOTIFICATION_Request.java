@@ -25,6 +25,7 @@ package org.openmuc.jdlms.internal.asn1.cosem;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 import org.openmuc.jdlms.internal.asn1.axdr.AxdrType;
@@ -94,6 +95,45 @@ public class EVENT_NOTIFICATION_Request implements AxdrType {
         return codeLength;
     }
 
+    @Override
+    public int encode(ByteBuffer buffer) throws IOException {
+
+        int codeLength;
+
+        if (code != null) {
+            codeLength = code.length;
+            buffer.put(code);
+        }
+        else {
+            codeLength = 0;
+            codeLength += time.encode(buffer);
+
+            codeLength += cosem_attribute_descriptor.encode(buffer);
+
+            codeLength += attribute_value.encode(buffer);
+
+        }
+
+        return codeLength;
+
+    }
+
+    @Override
+    public int decode(ByteBuffer buffer) throws IOException {
+        int codeLength = 0;
+
+        time = new AxdrOptional<>(new Cosem_Date_Time(), false);
+        codeLength += time.decode(buffer);
+
+        cosem_attribute_descriptor = new Cosem_Attribute_Descriptor();
+        codeLength += cosem_attribute_descriptor.decode(buffer);
+
+        attribute_value = new Data();
+        codeLength += attribute_value.decode(buffer);
+
+        return codeLength;
+    }
+
     public void encodeAndSave(int encodingSizeGuess) throws IOException {
         BerByteArrayOutputStream axdrOStream = new BerByteArrayOutputStream(encodingSizeGuess);
         encode(axdrOStream);
@@ -25,6 +25,7 @@ package org.openmuc.jdlms.internal.asn1.cosem;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 import org.openmuc.jdlms.internal.asn1.axdr.AxdrType;
@@ -147,6 +148,74 @@ public class GET_Response implements AxdrType {
         throw new IOException("Error decoding AxdrChoice: Identifier matched to no item.");
     }
 
+    @Override
+    public int encode(ByteBuffer buffer) throws IOException {
+        if (code != null) {
+            buffer.put(code);
+            return code.length;
+
+        }
+        if (choice == Choices._ERR_NONE_SELECTED) {
+            throw new IOException("Error encoding AxdrChoice: No item in choice was selected.");
+        }
+
+        int codeLength = 0;
+
+        if (choice == Choices.GET_RESPONSE_WITH_LIST) {
+            AxdrEnum c = new AxdrEnum(3);
+            codeLength += c.encode(buffer);
+            codeLength += get_response_with_list.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GET_RESPONSE_WITH_DATABLOCK) {
+            AxdrEnum c = new AxdrEnum(2);
+            codeLength += c.encode(buffer);
+            codeLength += get_response_with_datablock.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GET_RESPONSE_NORMAL) {
+            AxdrEnum c = new AxdrEnum(1);
+            codeLength += c.encode(buffer);
+            codeLength += get_response_normal.encode(buffer);
+            return codeLength;
+        }
+
+        // This block should be unreachable
+        throw new IOException("Error encoding AxdrChoice: No item in choice was encoded.");
+    }
+
+    @Override
+    public int decode(ByteBuffer buffer) throws IOException {
+        int codeLength = 0;
+        AxdrEnum choosen = new AxdrEnum();
+
+        codeLength += choosen.decode(buffer);
+        resetChoices();
+        this.choice = Choices.valueOf(choosen.getValue());
+
+        if (choice == Choices.GET_RESPONSE_NORMAL) {
+            get_response_normal = new Get_Response_Normal();
+            codeLength += get_response_normal.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GET_RESPONSE_WITH_DATABLOCK) {
+            get_response_with_datablock = new Get_Response_With_Datablock();
+            codeLength += get_response_with_datablock.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.GET_RESPONSE_WITH_LIST) {
+            get_response_with_list = new Get_Response_With_List();
+            codeLength += get_response_with_list.decode(buffer);
+            return codeLength;
+        }
+
+        throw new IOException("Error decoding AxdrChoice: Identifier matched to no item.");
+    }
+
     public void encodeAndSave(int encodingSizeGuess) throws IOException {
         BerByteArrayOutputStream axdrOStream = new BerByteArrayOutputStream(encodingSizeGuess);
         encode(axdrOStream);
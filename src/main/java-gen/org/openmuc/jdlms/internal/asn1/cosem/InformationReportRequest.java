@@ -25,6 +25,7 @@ package org.openmuc.jdlms.internal.asn1.cosem;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 import org.openmuc.jdlms.internal.asn1.axdr.AxdrType;
@@ -128,6 +129,45 @@ public class InformationReportRequest implements AxdrType {
         return codeLength;
     }
 
+    @Override
+    public int encode(ByteBuffer buffer) throws IOException {
+
+        int codeLength;
+
+        if (code != null) {
+            codeLength = code.length;
+            buffer.put(code);
+        }
+        else {
+            codeLength = 0;
+            codeLength += current_time.encode(buffer);
+
+            codeLength += variable_access_specification.encode(buffer);
+
+            codeLength += list_of_data.encode(buffer);
+
+        }
+
+        return codeLength;
+
+    }
+
+    @Override
+    public int decode(ByteBuffer buffer) throws IOException {
+        int codeLength = 0;
+
+        current_time = new AxdrOptional<>(new AxdrGeneralizedTime(), false);
+        codeLength += current_time.decode(buffer);
+
+        variable_access_specification = new SubSeqOf_variable_access_specification();
+        codeLength += variable_access_specification.decode(buffer);
+
+        list_of_data = new SubSeqOf_list_of_data();
+        codeLength += list_of_data.decode(buffer);
+
+        return codeLength;
+    }
+
     public void encodeAndSave(int encodingSizeGuess) throws IOException {
         BerByteArrayOutputStream axdrOStream = new BerByteArrayOutputStream(encodingSizeGuess);
         encode(axdrOStream);
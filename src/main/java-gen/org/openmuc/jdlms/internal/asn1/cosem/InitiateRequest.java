@@ -25,6 +25,7 @@ package org.openmuc.jdlms.internal.asn1.cosem;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 import org.openmuc.jdlms.internal.asn1.axdr.AxdrType;
@@ -122,6 +123,60 @@ public class InitiateRequest implements AxdrType {
         return codeLength;
     }
 
+    @Override
+    public int encode(ByteBuffer buffer) throws IOException {
+
+        int codeLength;
+
+        if (code != null) {
+            codeLength = code.length;
+            buffer.put(code);
+        }
+        else {
+            codeLength = 0;
+            codeLength += dedicated_key.encode(buffer);
+
+            codeLength += response_allowed.encode(buffer);
+
+            codeLength += proposed_quality_of_service.encode(buffer);
+
+            codeLength += proposed_dlms_version_number.encode(buffer);
+
+            codeLength += proposed_conformance.encode(buffer);
+
+            codeLength += client_max_receive_pdu_size.encode(buffer);
+
+        }
+
+        return codeLength;
+
+    }
+
+    @Override
+    public int decode(ByteBuffer buffer) throws IOException {
+        int codeLength = 0;
+
+        dedicated_key = new AxdrOptional<>(new AxdrOctetString(), false);
+        codeLength += dedicated_key.decode(buffer);
+
+        response_allowed = new AxdrDefault<>(new AxdrBoolean(), new AxdrBoolean());
+        codeLength += response_allowed.decode(buffer);
+
+        proposed_quality_of_service = new AxdrOptional<>(new Integer8(), false);
+        codeLength += proposed_quality_of_service.decode(buffer);
+
+        proposed_dlms_version_number = new Unsigned8();
+        codeLength += proposed_dlms_version_number.decode(buffer);
+
+        proposed_conformance = new Conformance();
+        codeLength += proposed_conformance.decode(buffer);
+
+        client_max_receive_pdu_size = new Unsigned16();
+        codeLength += client_max_receive_pdu_size.decode(buffer);
+
+        return codeLength;
+    }
+
     public void encodeAndSave(int encodingSizeGuess) throws IOException {
         BerByteArrayOutputStream axdrOStream = new BerByteArrayOutputStream(encodingSizeGuess);
         encode(axdrOStream);
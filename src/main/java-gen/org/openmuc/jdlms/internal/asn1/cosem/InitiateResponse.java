@@ -25,6 +25,7 @@ package org.openmuc.jdlms.internal.asn1.cosem;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 import org.openmuc.jdlms.internal.asn1.axdr.AxdrType;
@@ -110,6 +111,55 @@ public class InitiateResponse implements AxdrType {
         return codeLength;
     }
 
+    @Override
+    public int encode(ByteBuffer buffer) throws IOException {
+
+        int codeLength;
+
+        if (code != null) {
+            codeLength = code.length;
+            buffer.put(code);
+        }
+        else {
+            codeLength = 0;
+            codeLength += negotiated_quality_of_service.encode(buffer);
+
+            codeLength += negotiated_dlms_version_number.encode(buffer);
+
+            codeLength += negotiated_conformance.encode(buffer);
+
+            codeLength += server_max_receive_pdu_size.encode(buffer);
+
+            codeLength += vaa_name.encode(buffer);
+
+        }
+
+        return codeLength;
+
+    }
+
+    @Override
+    public int decode(ByteBuffer buffer) throws IOException {
+        int codeLength = 0;
+
+        negotiated_quality_of_service = new AxdrOptional<>(new Integer8(), false);
+        codeLength += negotiated_quality_of_service.decode(buffer);
+
+        negotiated_dlms_version_number = new Unsigned8();
+        codeLength += negotiated_dlms_version_number.decode(buffer);
+
+        negotiated_conformance = new Conformance();
+        codeLength += negotiated_conformance.decode(buffer);
+
+        server_max_receive_pdu_size = new Unsigned16();
+        codeLength += server_max_receive_pdu_size.decode(buffer);
+
+        vaa_name = new Integer16();
+        codeLength += vaa_name.decode(buffer);
+
+        return codeLength;
+    }
+
     public void encodeAndSave(int encodingSizeGuess) throws IOException {
         BerByteArrayOutputStream axdrOStream = new BerByteArrayOutputStream(encodingSizeGuess);
         encode(axdrOStream);
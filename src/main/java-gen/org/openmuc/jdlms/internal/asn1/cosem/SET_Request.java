@@ -25,6 +25,7 @@ package org.openmuc.jdlms.internal.asn1.cosem;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 import org.openmuc.jdlms.internal.asn1.axdr.AxdrType;
@@ -179,6 +180,100 @@ public class SET_Request implements AxdrType {
         throw new IOException("Error decoding AxdrChoice: Identifier matched to no item.");
     }
 
+    @Override
+    public int encode(ByteBuffer buffer) throws IOException {
+        if (code != null) {
+            buffer.put(code);
+            return code.length;
+
+        }
+        if (choice == Choices._ERR_NONE_SELECTED) {
+            throw new IOException("Error encoding AxdrChoice: No item in choice was selected.");
+        }
+
+        int codeLength = 0;
+
+        if (choice == Choices.SET_REQUEST_WITH_LIST_AND_FIRST_DATABLOCK) {
+            AxdrEnum c = new AxdrEnum(5);
+            codeLength += c.encode(buffer);
+            codeLength += set_request_with_list_and_first_datablock.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.SET_REQUEST_WITH_LIST) {
+            AxdrEnum c = new AxdrEnum(4);
+            codeLength += c.encode(buffer);
+            codeLength += set_request_with_list.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.SET_REQUEST_WITH_DATABLOCK) {
+            AxdrEnum c = new AxdrEnum(3);
+            codeLength += c.encode(buffer);
+            codeLength += set_request_with_datablock.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.SET_REQUEST_WITH_FIRST_DATABLOCK) {
+            AxdrEnum c = new AxdrEnum(2);
+            codeLength += c.encode(buffer);
+            codeLength += set_request_with_first_datablock.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.SET_REQUEST_NORMAL) {
+            AxdrEnum c = new AxdrEnum(1);
+            codeLength += c.encode(buffer);
+            codeLength += set_request_normal.encode(buffer);
+            return codeLength;
+        }
+
+        // This block should be unreachable
+        throw new IOException("Error encoding AxdrChoice: No item in choice was encoded.");
+    }
+
+    @Override
+    public int decode(ByteBuffer buffer) throws IOException {
+        int codeLength = 0;
+        AxdrEnum choosen = new AxdrEnum();
+
+        codeLength += choosen.decode(buffer);
+        resetChoices();
+        this.choice = Choices.valueOf(choosen.getValue());
+
+        if (choice == Choices.SET_REQUEST_NORMAL) {
+            set_request_normal = new Set_Request_Normal();
+            codeLength += set_request_normal.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.SET_REQUEST_WITH_FIRST_DATABLOCK) {
+            set_request_with_first_datablock = new Set_Request_With_First_Datablock();
+            codeLength += set_request_with_first_datablock.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.SET_REQUEST_WITH_DATABLOCK) {
+            set_request_with_datablock = new Set_Request_With_Datablock();
+            codeLength += set_request_with_datablock.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.SET_REQUEST_WITH_LIST) {
+            set_request_with_list = new Set_Request_With_List();
+            codeLength += set_request_with_list.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.SET_REQUEST_WITH_LIST_AND_FIRST_DATABLOCK) {
+            set_request_with_list_and_first_datablock = new Set_Request_With_List_And_First_Datablock();
+            codeLength += set_request_with_list_and_first_datablock.decode(buffer);
+            return codeLength;
+        }
+
+        throw new IOException("Error decoding AxdrChoice: Identifier matched to no item.");
+    }
+
     public void encodeAndSave(int encodingSizeGuess) throws IOException {
         BerByteArrayOutputStream axdrOStream = new BerByteArrayOutputStream(encodingSizeGuess);
         encode(axdrOStream);
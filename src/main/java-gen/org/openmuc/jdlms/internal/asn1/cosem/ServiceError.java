@@ -25,6 +25,7 @@ package org.openmuc.jdlms.internal.asn1.cosem;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 import org.openmuc.jdlms.internal.asn1.axdr.AxdrType;
@@ -243,6 +244,152 @@ public class ServiceError implements AxdrType {
         throw new IOException("Error decoding AxdrChoice: Identifier matched to no item.");
     }
 
+    @Override
+    public int encode(ByteBuffer buffer) throws IOException {
+        if (code != null) {
+            buffer.put(code);
+            return code.length;
+
+        }
+        if (choice == Choices._ERR_NONE_SELECTED) {
+            throw new IOException("Error encoding AxdrChoice: No item in choice was selected.");
+        }
+
+        int codeLength = 0;
+
+        if (choice == Choices.TASK) {
+            AxdrEnum c = new AxdrEnum(9);
+            codeLength += c.encode(buffer);
+            codeLength += task.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.LOAD_DATA_SET) {
+            AxdrEnum c = new AxdrEnum(7);
+            codeLength += c.encode(buffer);
+            codeLength += load_data_set.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.INITIATE) {
+            AxdrEnum c = new AxdrEnum(6);
+            codeLength += c.encode(buffer);
+            codeLength += initiate.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.ACCESS) {
+            AxdrEnum c = new AxdrEnum(5);
+            codeLength += c.encode(buffer);
+            codeLength += access.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DEFINITION) {
+            AxdrEnum c = new AxdrEnum(4);
+            codeLength += c.encode(buffer);
+            codeLength += definition.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.SERVICE) {
+            AxdrEnum c = new AxdrEnum(3);
+            codeLength += c.encode(buffer);
+            codeLength += service.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.VDE_STATE_ERROR) {
+            AxdrEnum c = new AxdrEnum(2);
+            codeLength += c.encode(buffer);
+            codeLength += vde_state_error.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.HARDWARE_RESOURCE) {
+            AxdrEnum c = new AxdrEnum(1);
+            codeLength += c.encode(buffer);
+            codeLength += hardware_resource.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.APPLICATION_REFERENCE) {
+            AxdrEnum c = new AxdrEnum(0);
+            codeLength += c.encode(buffer);
+            codeLength += application_reference.encode(buffer);
+            return codeLength;
+        }
+
+        // This block should be unreachable
+        throw new IOException("Error encoding AxdrChoice: No item in choice was encoded.");
+    }
+
+    @Override
+    public int decode(ByteBuffer buffer) throws IOException {
+        int codeLength = 0;
+        AxdrEnum choosen = new AxdrEnum();
+
+        codeLength += choosen.decode(buffer);
+        resetChoices();
+        this.choice = Choices.valueOf(choosen.getValue());
+
+        if (choice == Choices.APPLICATION_REFERENCE) {
+            application_reference = new AxdrEnum();
+            codeLength += application_reference.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.HARDWARE_RESOURCE) {
+            hardware_resource = new AxdrEnum();
+            codeLength += hardware_resource.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.VDE_STATE_ERROR) {
+            vde_state_error = new AxdrEnum();
+            codeLength += vde_state_error.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.SERVICE) {
+            service = new AxdrEnum();
+            codeLength += service.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DEFINITION) {
+            definition = new AxdrEnum();
+            codeLength += definition.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.ACCESS) {
+            access = new AxdrEnum();
+            codeLength += access.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.INITIATE) {
+            initiate = new AxdrEnum();
+            codeLength += initiate.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.LOAD_DATA_SET) {
+            load_data_set = new AxdrEnum();
+            codeLength += load_data_set.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.TASK) {
+            task = new AxdrEnum();
+            codeLength += task.decode(buffer);
+            return codeLength;
+        }
+
+        throw new IOException("Error decoding AxdrChoice: Identifier matched to no item.");
+    }
+
     public void encodeAndSave(int encodingSizeGuess) throws IOException {
         BerByteArrayOutputStream axdrOStream = new BerByteArrayOutputStream(encodingSizeGuess);
         encode(axdrOStream);
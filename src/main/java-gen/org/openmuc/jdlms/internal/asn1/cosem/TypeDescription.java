@@ -25,6 +25,7 @@ package org.openmuc.jdlms.internal.asn1.cosem;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 import org.openmuc.jdlms.internal.asn1.axdr.AxdrType;
@@ -142,6 +143,40 @@ public class TypeDescription implements AxdrType {
             return codeLength;
         }
 
+        @Override
+        public int encode(ByteBuffer buffer) throws IOException {
+
+            int codeLength;
+
+            if (code != null) {
+                codeLength = code.length;
+                buffer.put(code);
+            }
+            else {
+                codeLength = 0;
+                codeLength += number_of_elements.encode(buffer);
+
+                codeLength += type_description.encode(buffer);
+
+            }
+
+            return codeLength;
+
+        }
+
+        @Override
+        public int decode(ByteBuffer buffer) throws IOException {
+            int codeLength = 0;
+
+            number_of_elements = new Unsigned16();
+            codeLength += number_of_elements.decode(buffer);
+
+            type_description = new TypeDescription();
+            codeLength += type_description.decode(buffer);
+
+            return codeLength;
+        }
+
         public void encodeAndSave(int encodingSizeGuess) throws IOException {
             BerByteArrayOutputStream axdrOStream = new BerByteArrayOutputStream(encodingSizeGuess);
             encode(axdrOStream);
@@ -570,6 +605,347 @@ public class TypeDescription implements AxdrType {
         throw new IOException("Error decoding AxdrChoice: Identifier matched to no item.");
     }
 
+    @Override
+    public int encode(ByteBuffer buffer) throws IOException {
+        if (code != null) {
+            buffer.put(code);
+            return code.length;
+
+        }
+        if (choice == Choices._ERR_NONE_SELECTED) {
+            throw new IOException("Error encoding AxdrChoice: No item in choice was selected.");
+        }
+
+        int codeLength = 0;
+
+        if (choice == Choices.DONT_CARE) {
+            AxdrEnum c = new AxdrEnum(255);
+            codeLength += c.encode(buffer);
+            codeLength += dont_care.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.TIME) {
+            AxdrEnum c = new AxdrEnum(27);
+            codeLength += c.encode(buffer);
+            codeLength += time.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DATE) {
+            AxdrEnum c = new AxdrEnum(26);
+            codeLength += c.encode(buffer);
+            codeLength += date.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DATE_TIME) {
+            AxdrEnum c = new AxdrEnum(25);
+            codeLength += c.encode(buffer);
+            codeLength += date_time.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.FLOAT64) {
+            AxdrEnum c = new AxdrEnum(24);
+            codeLength += c.encode(buffer);
+            codeLength += float64.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.FLOAT32) {
+            AxdrEnum c = new AxdrEnum(23);
+            codeLength += c.encode(buffer);
+            codeLength += float32.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.ENUMERATE) {
+            AxdrEnum c = new AxdrEnum(22);
+            codeLength += c.encode(buffer);
+            codeLength += enumerate.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.LONG64_UNSIGNED) {
+            AxdrEnum c = new AxdrEnum(21);
+            codeLength += c.encode(buffer);
+            codeLength += long64_unsigned.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.LONG64) {
+            AxdrEnum c = new AxdrEnum(20);
+            codeLength += c.encode(buffer);
+            codeLength += long64.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.LONG_UNSIGNED) {
+            AxdrEnum c = new AxdrEnum(18);
+            codeLength += c.encode(buffer);
+            codeLength += long_unsigned.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.UNSIGNED) {
+            AxdrEnum c = new AxdrEnum(17);
+            codeLength += c.encode(buffer);
+            codeLength += unsigned.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.LONG_INTEGER) {
+            AxdrEnum c = new AxdrEnum(16);
+            codeLength += c.encode(buffer);
+            codeLength += long_integer.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.INTEGER) {
+            AxdrEnum c = new AxdrEnum(15);
+            codeLength += c.encode(buffer);
+            codeLength += integer.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.BCD) {
+            AxdrEnum c = new AxdrEnum(13);
+            codeLength += c.encode(buffer);
+            codeLength += bcd.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.UTF8_STRING) {
+            AxdrEnum c = new AxdrEnum(12);
+            codeLength += c.encode(buffer);
+            codeLength += utf8_string.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.VISIBLE_STRING) {
+            AxdrEnum c = new AxdrEnum(10);
+            codeLength += c.encode(buffer);
+            codeLength += visible_string.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.OCTET_STRING) {
+            AxdrEnum c = new AxdrEnum(9);
+            codeLength += c.encode(buffer);
+            codeLength += octet_string.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DOUBLE_LONG_UNSIGNED) {
+            AxdrEnum c = new AxdrEnum(6);
+            codeLength += c.encode(buffer);
+            codeLength += double_long_unsigned.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DOUBLE_LONG) {
+            AxdrEnum c = new AxdrEnum(5);
+            codeLength += c.encode(buffer);
+            codeLength += double_long.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.BIT_STRING) {
+            AxdrEnum c = new AxdrEnum(4);
+            codeLength += c.encode(buffer);
+            codeLength += bit_string.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.BOOL) {
+            AxdrEnum c = new AxdrEnum(3);
+            codeLength += c.encode(buffer);
+            codeLength += bool.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.STRUCTURE) {
+            AxdrEnum c = new AxdrEnum(2);
+            codeLength += c.encode(buffer);
+            codeLength += structure.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.ARRAY) {
+            AxdrEnum c = new AxdrEnum(1);
+            codeLength += c.encode(buffer);
+            codeLength += array.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.NULL_DATA) {
+            AxdrEnum c = new AxdrEnum(0);
+            codeLength += c.encode(buffer);
+            codeLength += null_data.encode(buffer);
+            return codeLength;
+        }
+
+        // This block should be unreachable
+        throw new IOException("Error encoding AxdrChoice: No item in choice was encoded.");
+    }
+
+    @Override
+    public int decode(ByteBuffer buffer) throws IOException {
+        int codeLength = 0;
+        AxdrEnum choosen = new AxdrEnum();
+
+        codeLength += choosen.decode(buffer);
+        resetChoices();
+        this.choice = Choices.valueOf(choosen.getValue());
+
+        if (choice == Choices.NULL_DATA) {
+            null_data = new AxdrNull();
+            codeLength += null_data.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.ARRAY) {
+            array = new SubSeq_array();
+            codeLength += array.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.STRUCTURE) {
+            structure = new SubSeqOf_structure();
+            codeLength += structure.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.BOOL) {
+            bool = new AxdrNull();
+            codeLength += bool.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.BIT_STRING) {
+            bit_string = new AxdrNull();
+            codeLength += bit_string.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DOUBLE_LONG) {
+            double_long = new AxdrNull();
+            codeLength += double_long.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DOUBLE_LONG_UNSIGNED) {
+            double_long_unsigned = new AxdrNull();
+            codeLength += double_long_unsigned.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.OCTET_STRING) {
+            octet_string = new AxdrNull();
+            codeLength += octet_string.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.VISIBLE_STRING) {
+            visible_string = new AxdrNull();
+            codeLength += visible_string.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.UTF8_STRING) {
+            utf8_string = new AxdrNull();
+            codeLength += utf8_string.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.BCD) {
+            bcd = new AxdrNull();
+            codeLength += bcd.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.INTEGER) {
+            integer = new AxdrNull();
+            codeLength += integer.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.LONG_INTEGER) {
+            long_integer = new AxdrNull();
+            codeLength += long_integer.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.UNSIGNED) {
+            unsigned = new AxdrNull();
+            codeLength += unsigned.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.LONG_UNSIGNED) {
+            long_unsigned = new AxdrNull();
+            codeLength += long_unsigned.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.LONG64) {
+            long64 = new AxdrNull();
+            codeLength += long64.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.LONG64_UNSIGNED) {
+            long64_unsigned = new AxdrNull();
+            codeLength += long64_unsigned.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.ENUMERATE) {
+            enumerate = new AxdrNull();
+            codeLength += enumerate.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.FLOAT32) {
+            float32 = new AxdrNull();
+            codeLength += float32.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.FLOAT64) {
+            float64 = new AxdrNull();
+            codeLength += float64.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DATE_TIME) {
+            date_time = new AxdrNull();
+            codeLength += date_time.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DATE) {
+            date = new AxdrNull();
+            codeLength += date.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.TIME) {
+            time = new AxdrNull();
+            codeLength += time.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.DONT_CARE) {
+            dont_care = new AxdrNull();
+            codeLength += dont_care.decode(buffer);
+            return codeLength;
+        }
+
+        throw new IOException("Error decoding AxdrChoice: Identifier matched to no item.");
+    }
+
     public void encodeAndSave(int encodingSizeGuess) throws IOException {
         BerByteArrayOutputStream axdrOStream = new BerByteArrayOutputStream(encodingSizeGuess);
         encode(axdrOStream);
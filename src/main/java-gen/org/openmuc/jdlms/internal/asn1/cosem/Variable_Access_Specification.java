@@ -25,6 +25,7 @@ package org.openmuc.jdlms.internal.asn1.cosem;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 import org.openmuc.jdlms.internal.asn1.axdr.AxdrType;
@@ -179,6 +180,100 @@ public class Variable_Access_Specification implements AxdrType {
         throw new IOException("Error decoding AxdrChoice: Identifier matched to no item.");
     }
 
+    @Override
+    public int encode(ByteBuffer buffer) throws IOException {
+        if (code != null) {
+            buffer.put(code);
+            return code.length;
+
+        }
+        if (choice == Choices._ERR_NONE_SELECTED) {
+            throw new IOException("Error encoding AxdrChoice: No item in choice was selected.");
+        }
+
+        int codeLength = 0;
+
+        if (choice == Choices.WRITE_DATA_BLOCK_ACCESS) {
+            AxdrEnum c = new AxdrEnum(7);
+            codeLength += c.encode(buffer);
+            codeLength += write_data_block_access.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.READ_DATA_BLOCK_ACCESS) {
+            AxdrEnum c = new AxdrEnum(6);
+            codeLength += c.encode(buffer);
+            codeLength += read_data_block_access.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.BLOCK_NUMBER_ACCESS) {
+            AxdrEnum c = new AxdrEnum(5);
+            codeLength += c.encode(buffer);
+            codeLength += block_number_access.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.PARAMETERIZED_ACCESS) {
+            AxdrEnum c = new AxdrEnum(4);
+            codeLength += c.encode(buffer);
+            codeLength += parameterized_access.encode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.VARIABLE_NAME) {
+            AxdrEnum c = new AxdrEnum(2);
+            codeLength += c.encode(buffer);
+            codeLength += variable_name.encode(buffer);
+            return codeLength;
+        }
+
+        // This block should be unreachable
+        throw new IOException("Error encoding AxdrChoice: No item in choice was encoded.");
+    }
+
+    @Override
+    public int decode(ByteBuffer buffer) throws IOException {
+        int codeLength = 0;
+        AxdrEnum choosen = new AxdrEnum();
+
+        codeLength += choosen.decode(buffer);
+        resetChoices();
+        this.choice = Choices.valueOf(choosen.getValue());
+
+        if (choice == Choices.VARIABLE_NAME) {
+            variable_name = new Integer16();
+            codeLength += variable_name.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.PARAMETERIZED_ACCESS) {
+            parameterized_access = new Parameterized_Access();
+            codeLength += parameterized_access.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.BLOCK_NUMBER_ACCESS) {
+            block_number_access = new Block_Number_Access();
+            codeLength += block_number_access.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.READ_DATA_BLOCK_ACCESS) {
+            read_data_block_access = new Read_Data_Block_Access();
+            codeLength += read_data_block_access.decode(buffer);
+            return codeLength;
+        }
+
+        if (choice == Choices.WRITE_DATA_BLOCK_ACCESS) {
+            write_data_block_access = new Write_Data_Block_Access();
+            codeLength += write_data_block_access.decode(buffer);
+            return codeLength;
+        }
+
+        throw new IOException("Error decoding AxdrChoice: Identifier matched to no item.");
+    }
+
     public void encodeAndSave(int encodingSizeGuess) throws IOException {
         BerByteArrayOutputStream axdrOStream = new BerByteArrayOutputStream(encodingSizeGuess);
         encode(axdrOStream);
@@ -25,6 +25,7 @@ package org.openmuc.jdlms.internal.asn1.cosem;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 import org.openmuc.jdlms.internal.asn1.axdr.AxdrType;
@@ -163,6 +164,74 @@ public class WriteResponse extends AxdrSequenceOf<WriteResponse.SubChoice> {
             throw new IOException("Error decoding AxdrChoice: Identifier matched to no item.");
         }
 
+        @Override
+        public int encode(ByteBuffer buffer) throws IOException {
+            if (code != null) {
+                buffer.put(code);
+                return code.length;
+
+            }
+            if (choice == Choices._ERR_NONE_SELECTED) {
+                throw new IOException("Error encoding AxdrChoice: No item in choice was selected.");
+            }
+
+            int codeLength = 0;
+
+            if (choice == Choices.BLOCK_NUMBER) {
+                AxdrEnum c = new AxdrEnum(2);
+                codeLength += c.encode(buffer);
+                codeLength += block_number.encode(buffer);
+                return codeLength;
+            }
+
+            if (choice == Choices.DATA_ACCESS_ERROR) {
+                AxdrEnum c = new AxdrEnum(1);
+                codeLength += c.encode(buffer);
+                codeLength += data_access_error.encode(buffer);
+                return codeLength;
+            }
+
+            if (choice == Choices.SUCCESS) {
+                AxdrEnum c = new AxdrEnum(0);
+                codeLength += c.encode(buffer);
+                codeLength += success.encode(buffer);
+                return codeLength;
+            }
+
+            // This block should be unreachable
+            throw new IOException("Error encoding AxdrChoice: No item in choice was encoded.");
+        }
+
+        @Override
+        public int decode(ByteBuffer buffer) throws IOException {
+            int codeLength = 0;
+            AxdrEnum choosen = new AxdrEnum();
+
+            codeLength += choosen.decode(buffer);
+            resetChoices();
+            this.choice = Choices.valueOf(choosen.getValue());
+
+            if (choice == Choices.SUCCESS) {
+                success = new AxdrNull();
+                codeLength += success.decode(buffer);
+                return codeLength;
+            }
+
+            if (choice == Choices.DATA_ACCESS_ERROR) {
+                data_access_error = new AxdrEnum();
+                codeLength += data_access_error.decode(buffer);
+                return codeLength;
+            }
+
+            if (choice == Choices.BLOCK_NUMBER) {
+                block_number = new Unsigned16();
+                codeLength += block_number.decode(buffer);
+                return codeLength;
+            }
+
+            throw new IOException("Error decoding AxdrChoice: Identifier matched to no item.");
+        }
+
         public void encodeAndSave(int encodingSizeGuess) throws IOException {
             BerByteArrayOutputStream axdrOStream = new BerByteArrayOutputStream(encodingSizeGuess);
             encode(axdrOStream);
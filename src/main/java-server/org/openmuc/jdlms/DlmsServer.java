@@ -24,6 +24,7 @@ import static org.openmuc.jdlms.internal.Constants.DEFAULT_DLMS_PORT;
 import java.io.IOException;
 
 import org.openmuc.jdlms.ServerBuilder.ServerSettingsImpl;
+import org.openmuc.jdlms.internal.transportlayer.server.ServerNioTcpLayer;
 import org.openmuc.jdlms.internal.transportlayer.server.ServerTcpLayer;
 import org.openmuc.jdlms.sessionlayer.server.ServerSessionLayerFactories;
 import org.openmuc.jdlms.sessionlayer.server.ServerSessionLayerFactory;
@@ -111,10 +112,16 @@ public class DlmsServer implements AutoCloseable {
 
         private int port;
         private ServerSessionLayerFactory sessionLayerFactory;
+        private boolean wrapperSessionLayer;
+        private int numSelectors;
+        private int numWorkers;
 
         private TcpServerBuilder(int port) {
             this.port = port;
             this.sessionLayerFactory = ServerSessionLayerFactories.newWrapperSessionLayerFactory();
+            this.wrapperSessionLayer = true;
+            this.numSelectors = 0;
+            this.numWorkers = 0;
         }
 
         /**
@@ -130,6 +137,30 @@ public class DlmsServer implements AutoCloseable {
          */
         public TcpServerBuilder setSessionLayerFactory(ServerSessionLayerFactory sessionLayerFactory) {
             this.sessionLayerFactory = sessionLayerFactory;
+            this.wrapperSessionLayer = false;
+            return this;
+        }
+
+        /**
+         * Serve the associations with non-blocking I/O instead of a thread per association.
+         * 
+         * <p>
+         * The selector threads decode the incoming messages of all associations, the requests are processed by a
+         * fixed number of worker threads. This is only supported with the wrapper session layer.
+         * </p>
+         * 
+         * @param numSelectors
+         *            the number of selector threads.
+         * @param numWorkers
+         *            the number of worker threads processing the requests.
+         * @return the current builder instance.
+         */
+        public TcpServerBuilder useSelectors(int numSelectors, int numWorkers) {
+            if (numSelectors < 1 || numWorkers < 1) {
+                throw new IllegalArgumentException("At least one selector and one worker thread are required.");
+            }
+            this.numSelectors = numSelectors;
+            this.numWorkers = numWorkers;
             return this;
         }
 
@@ -152,8 +183,15 @@ public class DlmsServer implements AutoCloseable {
             final TcpServerSettingsImpl settings = new TcpServerSettingsImpl(this.port);
             setPropertiesTo(settings);
 
-            ServerTcpLayer serverLayer = new ServerTcpLayer(settings, dataDirectory, sessionLayerFactory);
-            return newServer(serverLayer);
+            if (this.numSelectors == 0) {
+                ServerTcpLayer serverLayer = new ServerTcpLayer(settings, dataDirectory, sessionLayerFactory);
+                return newServer(serverLayer);
+            }
+
+            if (!this.wrapperSessionLayer) {
+                throw new IllegalArgumentException("Selectors can only be used with the wrapper session layer.");
+            }
+            return newServer(new ServerNioTcpLayer(settings, dataDirectory, this.numSelectors, this.numWorkers));
         }
 
     }
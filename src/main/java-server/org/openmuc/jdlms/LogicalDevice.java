@@ -21,6 +21,7 @@ package org.openmuc.jdlms;
 
 import static org.openmuc.jdlms.ConformanceSetting.ACTION;
 import static org.openmuc.jdlms.ConformanceSetting.BLOCK_TRANSFER_WITH_GET_OR_READ;
+import static org.openmuc.jdlms.ConformanceSetting.BLOCK_TRANSFER_WITH_SET_OR_WRITE;
 import static org.openmuc.jdlms.ConformanceSetting.GET;
 import static org.openmuc.jdlms.ConformanceSetting.MULTIPLE_REFERENCES;
 import static org.openmuc.jdlms.ConformanceSetting.PARAMETERIZED_ACCESS;
@@ -100,8 +101,8 @@ public class LogicalDevice {
 
         setSystemTitle(manufacturerId, deviceId);
 
-        setConformance(GET, SET, ACTION, BLOCK_TRANSFER_WITH_GET_OR_READ, MULTIPLE_REFERENCES, READ, WRITE,
-                SELECTIVE_ACCESS, PARAMETERIZED_ACCESS);
+        setConformance(GET, SET, ACTION, BLOCK_TRANSFER_WITH_GET_OR_READ, BLOCK_TRANSFER_WITH_SET_OR_WRITE,
+                MULTIPLE_REFERENCES, READ, WRITE, SELECTIVE_ACCESS, PARAMETERIZED_ACCESS);
     }
 
     private void setSystemTitle(String manufacturerId, long deviceId) {
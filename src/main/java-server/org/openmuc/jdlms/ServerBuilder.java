@@ -75,6 +75,7 @@ public abstract class ServerBuilder<T extends ServerBuilder<T>> {
         private int inactivityTimeout;
         private int responseTimeout;
         private int maxClients;
+        private int maxSetTransferSize;
         private ServerConnectionListener connectionListener;
         private ReferencingMethod referencingMethod;
 
@@ -93,6 +94,11 @@ public abstract class ServerBuilder<T extends ServerBuilder<T>> {
             return this.maxClients;
         }
 
+        @Override
+        public int getMaxSetTransferSize() {
+            return this.maxSetTransferSize;
+        }
+
         @Override
         public ServerConnectionListener getConnectionListener() {
             return this.connectionListener;
@@ -108,12 +114,14 @@ public abstract class ServerBuilder<T extends ServerBuilder<T>> {
     private static final CosemAttribute LOGICAL_NAME_ATTRIBUTE = logicalNameAttribute();
 
     private static final int MANAGEMENT_LOGICAL_DEVICE_ID = 1;
+    private static final int DEFAULT_MAX_SET_TRANSFER_SIZE = 0x100000;
     private final List<LogicalDevice> logicalDevices;
     private LogicalDevice managementLd;
 
     private int inactivityTimeout;
     private int responseTimeout;
     private int maxClients;
+    private int maxSetTransferSize;
 
     private ServerConnectionListener connectionListener;
 
@@ -125,6 +133,7 @@ public abstract class ServerBuilder<T extends ServerBuilder<T>> {
         this.inactivityTimeout = 0;
         this.responseTimeout = 0;
         this.maxClients = 0;
+        this.maxSetTransferSize = DEFAULT_MAX_SET_TRANSFER_SIZE;
         this.connectionListener = null;
 
         this.referencingMethod = LOGICAL;
@@ -195,6 +204,29 @@ public abstract class ServerBuilder<T extends ServerBuilder<T>> {
         return self();
     }
 
+    /**
+     * Restricts the size of the encoded data a client may set with a SET block transfer. If the received data blocks
+     * exceed the size, the transfer is aborted with {@link AccessResultCode#LONG_SET_ABORTED}.
+     * 
+     * <p>
+     * The default value is 1 MiB.
+     * </p>
+     * 
+     * @param maxSetTransferSize
+     *            the max number of bytes received in the data blocks of a SET request.
+     * @return the self reference of the connection builder.
+     * @throws IllegalArgumentException
+     *             if the <code>maxSetTransferSize &lt; 1</code>.
+     */
+    public T setMaxSetTransferSize(int maxSetTransferSize) {
+        if (maxSetTransferSize < 1) {
+            throw new IllegalArgumentException("max SET transfer size must be positive");
+        }
+
+        this.maxSetTransferSize = maxSetTransferSize;
+        return self();
+    }
+
     /**
      * Sets the inactivity timeout. If a client doesn't send a request within that time, the server closes the
      * connection.
@@ -276,6 +308,7 @@ public abstract class ServerBuilder<T extends ServerBuilder<T>> {
         settings.inactivityTimeout = this.inactivityTimeout;
         settings.responseTimeout = this.responseTimeout;
         settings.maxClients = this.maxClients;
+        settings.maxSetTransferSize = this.maxSetTransferSize;
         settings.connectionListener = this.connectionListener;
         settings.referencingMethod = this.referencingMethod;
     }
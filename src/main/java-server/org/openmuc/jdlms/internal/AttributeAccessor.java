@@ -23,9 +23,16 @@ import static org.openmuc.jdlms.AccessResultCode.SCOPE_OF_ACCESS_VIOLATED;
 import static org.openmuc.jdlms.datatypes.DataObject.newNullData;
 import static org.openmuc.jdlms.internal.AttributeInvokationCtx.saveCallInterceptIntercept;
 import static org.openmuc.jdlms.internal.AttributeInvokationCtx.toAttributeDesctiptor;
-
+import static org.openmuc.jdlms.internal.MemberHandles.ACCESS_TYPE;
+import static org.openmuc.jdlms.internal.MemberHandles.INVOKER_TYPE;
+import static org.openmuc.jdlms.internal.MemberHandles.VOID_INVOKER_TYPE;
+import static org.openmuc.jdlms.internal.MemberHandles.accessorFor;
+import static org.openmuc.jdlms.internal.MemberHandles.getterFor;
+import static org.openmuc.jdlms.internal.MemberHandles.invokerFor;
+import static org.openmuc.jdlms.internal.MemberHandles.setterFor;
+
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Set;
 
@@ -80,10 +87,14 @@ public interface AttributeAccessor {
     static class FieldAccessor implements AttributeAccessor {
 
         private final Field field;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
         private final CosemAttribute cosemAttribute;
 
         public FieldAccessor(Field field, CosemAttribute cosemAttribute) {
             this.field = field;
+            this.getter = getterFor(field);
+            this.setter = setterFor(field);
             this.cosemAttribute = cosemAttribute;
         }
 
@@ -124,8 +135,10 @@ public interface AttributeAccessor {
 
         private DataObject saveGet(CosemInterfaceObject instance) throws IllegalAttributeAccessException {
             try {
-                return (DataObject) this.field.get(instance);
-            } catch (IllegalAccessException e) {
+                return (DataObject) this.getter.invokeExact(instance);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
                 throw new IllegalAttributeAccessException(AccessResultCode.OTHER_REASON, e);
             }
         }
@@ -161,8 +174,10 @@ public interface AttributeAccessor {
 
         private void saveSet(DataObject newVal, CosemInterfaceObject instance) throws IllegalAttributeAccessException {
             try {
-                this.field.set(instance, newVal);
-            } catch (IllegalAccessException e) {
+                this.setter.invokeExact(instance, newVal);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
                 throw new IllegalAttributeAccessException(AccessResultCode.OTHER_REASON, e);
             }
         }
@@ -228,6 +243,10 @@ public interface AttributeAccessor {
 
         private final Method getMethod;
         private final Method setMethod;
+        private final MethodHandle getInvoker;
+        private final MethodHandle setInvoker;
+        private final MethodHandle getAccessor;
+        private final MethodHandle setAccessor;
         private final Set<Integer> accessSelectors;
         private final boolean containsGetId;
         private final boolean containsSetId;
@@ -237,6 +256,11 @@ public interface AttributeAccessor {
                 Set<Integer> accessSelectors) {
             this.getMethod = getMethod;
             this.setMethod = setMethod;
+            this.getInvoker = getMethod == null ? null : invokerFor(getMethod, INVOKER_TYPE);
+            this.setInvoker = setMethod == null ? null : invokerFor(setMethod, VOID_INVOKER_TYPE);
+            this.getAccessor = getMethod == null ? null : accessorFor(getMethod, false);
+            this.setAccessor = setMethod == null ? null
+                    : accessorFor(setMethod, true).asType(ACCESS_TYPE.changeReturnType(void.class));
 
             this.cosemAttribute = cosemAttribute;
 
@@ -265,12 +289,12 @@ public interface AttributeAccessor {
         @Override
         public DataObject get(CosemClassInstance classInstance, SelectiveAccessDescription selectiveAccessDescription,
                 Long connectionId, SecurityPolicy securityPolicy) throws IllegalAttributeAccessException {
-            Object[] parameter = buildGetParameter(selectiveAccessDescription, connectionId);
             CosemInterfaceObject instance = classInstance.getInstance();
             DataObject result;
 
             DlmsInterceptor interceptor = instance.getInterceptor();
             if (interceptor != null) {
+                Object[] parameter = buildGetParameter(selectiveAccessDescription, connectionId);
                 CosemResourceDescriptor address = toAttributeDesctiptor(classInstance, this.cosemAttribute, instance);
                 DlmsInvocationContext ctx = new AttributeInvokationCtx(securityPolicy, XDlmsServiceType.GET, address,
                         instance, this.getMethod, this.cosemAttribute.type(), parameter) {
@@ -282,7 +306,15 @@ public interface AttributeAccessor {
                 result = saveCallInterceptIntercept(interceptor, ctx);
             }
             else {
-                result = saveGet(parameter, instance);
+                checkSelectiveAccess(selectiveAccessDescription);
+                try {
+                    result = (DataObject) this.getAccessor.invokeExact(instance, (DataObject) null,
+                            selectiveAccessDescription, connectionId);
+                } catch (Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw convert(e);
+                }
             }
 
             if (result == null) {
@@ -295,11 +327,10 @@ public interface AttributeAccessor {
         private DataObject saveGet(Object[] parameter, CosemInterfaceObject instance)
                 throws IllegalAttributeAccessException {
             try {
-                return (DataObject) this.getMethod.invoke(instance, parameter);
-
-            } catch (IllegalAccessException e) {
-                throw new IllegalAttributeAccessException(AccessResultCode.OTHER_REASON);
-            } catch (InvocationTargetException e) {
+                return (DataObject) this.getInvoker.invokeExact(instance, parameter);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
                 throw convert(e);
             }
         }
@@ -324,12 +355,11 @@ public interface AttributeAccessor {
         public void set(DataObject newVal, CosemClassInstance classInstance,
                 SelectiveAccessDescription selectiveAccessDescription, Long connectionId, SecurityPolicy securityPolicy)
                 throws IllegalAttributeAccessException {
-            Object[] parameter = buildSetParameter(newVal, selectiveAccessDescription, connectionId);
-
             CosemInterfaceObject instance = classInstance.getInstance();
 
             DlmsInterceptor interceptor = instance.getInterceptor();
             if (interceptor != null) {
+                Object[] parameter = buildSetParameter(newVal, selectiveAccessDescription, connectionId);
                 DlmsInvocationContext ctx = new AttributeInvokationCtx(securityPolicy, XDlmsServiceType.SET, null,
                         instance, this.setMethod, this.cosemAttribute.type(), parameter) {
 
@@ -342,17 +372,25 @@ public interface AttributeAccessor {
                 saveCallInterceptIntercept(interceptor, ctx);
             }
             else {
-                saveSet(instance, parameter);
+                checkSelectiveAccess(selectiveAccessDescription);
+                try {
+                    this.setAccessor.invokeExact(instance, newVal,
+                            selectiveAccessDescription, connectionId);
+                } catch (Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw convert(e);
+                }
             }
 
         }
 
         private void saveSet(CosemInterfaceObject instance, Object[] parameter) throws IllegalAttributeAccessException {
             try {
-                this.setMethod.invoke(instance, parameter);
-            } catch (IllegalAccessException e) {
-                throw new IllegalAttributeAccessException(AccessResultCode.OTHER_REASON);
-            } catch (InvocationTargetException e) {
+                this.setInvoker.invokeExact(instance, parameter);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
                 throw convert(e);
             }
         }
@@ -376,16 +414,19 @@ public interface AttributeAccessor {
                 return;
             }
 
-            if (this.accessSelectors.isEmpty()) {
-                throw new IllegalAttributeAccessException(SCOPE_OF_ACCESS_VIOLATED);
-            }
+            checkSelectiveAccess(selectiveAccessDescription);
 
             parameter[indexOfAccess] = selectiveAccessDescription;
         }
 
-        private IllegalAttributeAccessException convert(InvocationTargetException e)
+        private void checkSelectiveAccess(SelectiveAccessDescription selectiveAccessDescription)
                 throws IllegalAttributeAccessException {
-            Throwable targetException = e.getTargetException();
+            if (selectiveAccessDescription != null && this.accessSelectors.isEmpty()) {
+                throw new IllegalAttributeAccessException(SCOPE_OF_ACCESS_VIOLATED);
+            }
+        }
+
+        private IllegalAttributeAccessException convert(Throwable targetException) {
             if (!(targetException instanceof IllegalAttributeAccessException)) {
                 return new IllegalAttributeAccessException(AccessResultCode.OTHER_REASON);
             }
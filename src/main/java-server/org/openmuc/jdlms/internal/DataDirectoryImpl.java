@@ -30,6 +30,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.openmuc.jdlms.AccessResultCode;
 import org.openmuc.jdlms.AttributeAddress;
@@ -52,6 +55,10 @@ import org.openmuc.jdlms.SetParameter;
 import org.openmuc.jdlms.datatypes.DataObject;
 import org.openmuc.jdlms.datatypes.DataObject.Type;
 
+/**
+ * Directory of the COSEM objects of all logical devices of a server. Accesses to the same COSEM object are
+ * serialized by a lock of the object, so associations accessing different objects do not block each other.
+ */
 public class DataDirectoryImpl implements DataDirectory {
 
     private final Map<Integer, CosemLogicalDevice> logicalDeviceMap;
@@ -59,11 +66,11 @@ public class DataDirectoryImpl implements DataDirectory {
     private final Map<Long, ServerConnectionData> connectionsData;
 
     public DataDirectoryImpl() {
-        this.logicalDeviceMap = new HashMap<>();
-        this.connectionsData = new HashMap<>();
+        this.logicalDeviceMap = new ConcurrentHashMap<>();
+        this.connectionsData = new ConcurrentHashMap<>();
     }
 
-    public synchronized DataObject invokeMethod(int logicalDeviceId, MethodParameter params, Long connectionId)
+    public DataObject invokeMethod(int logicalDeviceId, MethodParameter params, Long connectionId)
             throws IllegalMethodAccessException {
         CosemClassInstance dlmsClassInstance = retrieveDlmsClassInstance(logicalDeviceId, params);
 
@@ -85,7 +92,12 @@ public class DataDirectoryImpl implements DataDirectory {
             throw new IllegalMethodAccessException(MethodResultCode.READ_WRITE_DENIED);
         }
 
-        return method.invoke(dlmsClassInstance, params.getParameter(), connectionId, securityPolicy);
+        dlmsClassInstance.lock.lock();
+        try {
+            return method.invoke(dlmsClassInstance, params.getParameter(), connectionId, securityPolicy);
+        } finally {
+            dlmsClassInstance.lock.unlock();
+        }
     }
 
     private MethodAccessor findMethod(long methodId, CosemClassInstance dlmsClassInstance)
@@ -108,7 +120,7 @@ public class DataDirectoryImpl implements DataDirectory {
         return this.logicalDeviceMap.put(logicalDeviceId, logicalDevice);
     }
 
-    public synchronized AccessResultCode set(int logicalDeviceId, SetParameter setParameter, Long connectionId) {
+    public AccessResultCode set(int logicalDeviceId, SetParameter setParameter, Long connectionId) {
         Attribute entry;
         CosemClassInstance dlmsClassInstance;
         AttributeAddress attributeAddress = setParameter.getAttributeAddress();
@@ -133,11 +145,14 @@ public class DataDirectoryImpl implements DataDirectory {
         }
 
         ServerConnectionData connectionData = getConnectionData(connectionId);
+        dlmsClassInstance.lock.lock();
         try {
             entry.accessor.set(data, dlmsClassInstance, attributeAddress.getAccessSelection(), connectionId,
                     connectionData.securitySuite.getSecurityPolicy());
         } catch (IllegalAttributeAccessException e) {
             return e.getAccessResultCode();
+        } finally {
+            dlmsClassInstance.lock.unlock();
         }
 
         return AccessResultCode.SUCCESS;
@@ -183,7 +198,7 @@ public class DataDirectoryImpl implements DataDirectory {
         }
     }
 
-    public synchronized DataObject get(int logicalDeviceId, AttributeAddress attributeAddress, Long connectionId)
+    public DataObject get(int logicalDeviceId, AttributeAddress attributeAddress, Long connectionId)
             throws IllegalAttributeAccessException {
         CosemClassInstance dlmsClassInstance = retrieveDlmsClassInstance(logicalDeviceId, attributeAddress);
 
@@ -197,8 +212,13 @@ public class DataDirectoryImpl implements DataDirectory {
         CosemAttribute attributeProperties = entry.attributeProperties;
         checkGetAccess(attributeProperties, connectionData);
 
-        return entry.accessor.get(dlmsClassInstance, attributeAddress.getAccessSelection(), connectionId,
-                connectionData.securitySuite.getSecurityPolicy());
+        dlmsClassInstance.lock.lock();
+        try {
+            return entry.accessor.get(dlmsClassInstance, attributeAddress.getAccessSelection(), connectionId,
+                    connectionData.securitySuite.getSecurityPolicy());
+        } finally {
+            dlmsClassInstance.lock.unlock();
+        }
     }
 
     private void checkGetAccess(CosemAttribute attributeProperties, ServerConnectionData connectionData)
@@ -233,7 +253,7 @@ public class DataDirectoryImpl implements DataDirectory {
 
         public CosemLogicalDevice(LogicalDevice logicalDevice, BaseNameRangeSet baseNameRanges) {
             this.baseNameRanges = baseNameRanges;
-            this.classes = new HashMap<>();
+            this.classes = new ConcurrentHashMap<>();
             this.logicalDevice = logicalDevice;
         }
 
@@ -265,9 +285,12 @@ public class DataDirectoryImpl implements DataDirectory {
         private final CosemInterfaceObject instance;
         private final CosemClass cosemClass;
 
+        private final Lock lock;
+
         public CosemClassInstance(CosemClass cosemClass, CosemInterfaceObject instance) {
             this.attributesMap = new HashMap<>();
             this.methodsMap = new HashMap<>();
+            this.lock = new ReentrantLock();
 
             this.instance = instance;
             this.cosemClass = cosemClass;
@@ -0,0 +1,181 @@
+/**
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.openmuc.jdlms.internal;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.text.MessageFormat;
+
+import org.openmuc.jdlms.CosemInterfaceObject;
+import org.openmuc.jdlms.IllegalPametrizationError;
+import org.openmuc.jdlms.SelectiveAccessDescription;
+import org.openmuc.jdlms.datatypes.DataObject;
+
+/**
+ * Binds the fields and methods of COSEM objects to method handles of a uniform type, when the server is built. Unlike
+ * reflective calls, invocations of these handles can be inlined by the JIT.
+ */
+class MemberHandles {
+
+    /**
+     * (CosemInterfaceObject)DataObject
+     */
+    static final MethodType GETTER_TYPE = methodType(DataObject.class, CosemInterfaceObject.class);
+
+    /**
+     * (CosemInterfaceObject, DataObject)void
+     */
+    static final MethodType SETTER_TYPE = methodType(void.class, CosemInterfaceObject.class, DataObject.class);
+
+    /**
+     * (CosemInterfaceObject, Object[])DataObject, a void method returns null.
+     */
+    static final MethodType INVOKER_TYPE = methodType(DataObject.class, CosemInterfaceObject.class, Object[].class);
+
+    /**
+     * (CosemInterfaceObject, Object[])void
+     */
+    static final MethodType VOID_INVOKER_TYPE = methodType(void.class, CosemInterfaceObject.class, Object[].class);
+
+    /**
+     * (CosemInterfaceObject, DataObject, SelectiveAccessDescription, Long)DataObject, a void method returns null.
+     */
+    static final MethodType ACCESS_TYPE = methodType(DataObject.class, CosemInterfaceObject.class, DataObject.class,
+            SelectiveAccessDescription.class, Long.class);
+
+    private static final int DATA_INDEX = 1;
+    private static final int ACCESS_SELECTION_INDEX = 2;
+    private static final int CONNECTION_ID_INDEX = 3;
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    public static MethodHandle getterFor(Field field) {
+        try {
+            return LOOKUP.unreflectGetter(accessible(field)).asType(GETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw inaccessible(field, e);
+        }
+    }
+
+    public static MethodHandle setterFor(Field field) {
+        try {
+            return LOOKUP.unreflectSetter(accessible(field)).asType(SETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw inaccessible(field, e);
+        }
+    }
+
+    public static MethodHandle invokerFor(Method method, MethodType invokerType) {
+        try {
+            int numOfParams = method.getParameterTypes().length;
+            return LOOKUP.unreflect(accessible(method))
+                    .asSpreader(Object[].class, numOfParams)
+                    .asType(invokerType);
+        } catch (IllegalAccessException e) {
+            throw inaccessible(method, e);
+        }
+    }
+
+    /**
+     * Binds a method to the {@link #ACCESS_TYPE}, so it can be called without building an argument array. The
+     * parameters of the method are assigned as in the argument arrays of the reflective calls: the data comes first,
+     * followed by the selective access description and a trailing connection ID.
+     * 
+     * @param method
+     *            a get, set or action method.
+     * @param dataFirst
+     *            whether the first parameter of the method takes the data.
+     * @return a method handle of type {@link #ACCESS_TYPE}.
+     */
+    public static MethodHandle accessorFor(Method method, boolean dataFirst) {
+        MethodHandle handle;
+        try {
+            handle = LOOKUP.unreflect(accessible(method));
+        } catch (IllegalAccessException e) {
+            throw inaccessible(method, e);
+        }
+
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        int numOfParams = parameterTypes.length;
+        boolean hasConnectionId = numOfParams > 0 && isLong(parameterTypes[numOfParams - 1]);
+
+        int[] reorder = new int[numOfParams + 1];
+        for (int i = numOfParams - 1; i >= 0; i--) {
+            int index;
+            if (i == 0 && dataFirst) {
+                index = DATA_INDEX;
+            }
+            else if (i == numOfParams - 1 && hasConnectionId) {
+                index = CONNECTION_ID_INDEX;
+            }
+            else if (i == (dataFirst ? 1 : 0)) {
+                index = ACCESS_SELECTION_INDEX;
+            }
+            else {
+                // parameter is not served, the reflective call passes null as well
+                handle = MethodHandles.insertArguments(handle, i + 1, (Object) null);
+                continue;
+            }
+            reorder[i + 1] = index;
+        }
+
+        Class<?>[] servedParams = new Class<?>[handle.type().parameterCount()];
+        servedParams[0] = CosemInterfaceObject.class;
+        int[] servedReorder = new int[servedParams.length];
+        for (int i = 1, j = 1; i < reorder.length; i++) {
+            if (reorder[i] != 0) {
+                servedParams[j] = ACCESS_TYPE.parameterType(reorder[i]);
+                servedReorder[j++] = reorder[i];
+            }
+        }
+
+        MethodHandle typedHandle = handle.asType(methodType(DataObject.class, servedParams));
+        return MethodHandles.permuteArguments(typedHandle, ACCESS_TYPE, servedReorder);
+    }
+
+    private static boolean isLong(Class<?> parameterType) {
+        return Long.class.isAssignableFrom(parameterType) || long.class == parameterType;
+    }
+
+    private static <T extends AccessibleObject> T accessible(T member) {
+        if (!member.isAccessible()) {
+            member.setAccessible(true);
+        }
+        return member;
+    }
+
+    private static IllegalPametrizationError inaccessible(Object member, IllegalAccessException e) {
+        String message = MessageFormat.format("{0} is not accessible: {1}", member, e.getMessage());
+        return new IllegalPametrizationError(message);
+    }
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private MemberHandles() {
+    }
+
+}
@@ -19,7 +19,7 @@
  */
 package org.openmuc.jdlms.internal;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 
@@ -33,6 +33,7 @@ import org.openmuc.jdlms.IllegalMethodAccessException;
 import org.openmuc.jdlms.MethodParameter;
 import org.openmuc.jdlms.MethodResultCode;
 import org.openmuc.jdlms.SecuritySuite.SecurityPolicy;
+import org.openmuc.jdlms.SelectiveAccessDescription;
 import org.openmuc.jdlms.datatypes.DataObject;
 import org.openmuc.jdlms.datatypes.DataObject.Type;
 import org.openmuc.jdlms.internal.DataDirectoryImpl.CosemClassInstance;
@@ -40,6 +41,8 @@ import org.openmuc.jdlms.internal.DataDirectoryImpl.CosemClassInstance;
 public class MethodAccessor {
 
     private final Method method;
+    private final MethodHandle invoker;
+    private final MethodHandle accessor;
     private final CosemMethod cosemMethod;
     private final Type parameterType;
     private final Type returnType;
@@ -47,6 +50,8 @@ public class MethodAccessor {
 
     public MethodAccessor(Method method, CosemMethod cosemMethod, Type parameterType, Type returnType) {
         this.method = method;
+        this.invoker = MemberHandles.invokerFor(method, MemberHandles.INVOKER_TYPE);
+        this.accessor = MemberHandles.accessorFor(method, parameterType != null);
         this.cosemMethod = cosemMethod;
         this.parameterType = parameterType;
         this.returnType = returnType;
@@ -60,17 +65,18 @@ public class MethodAccessor {
     public DataObject invoke(final CosemClassInstance dlmsClassInstance, DataObject argument, Long connectionId,
             final SecurityPolicy securityPolicy) throws IllegalMethodAccessException {
 
-        final Object[] parameters = buildMethodArguments(argument, connectionId);
+        boolean takesArgument = takesArgument(argument);
 
         CosemInterfaceObject instance = dlmsClassInstance.getInstance();
         DlmsInterceptor interceptor = instance.getInterceptor();
 
         DataObject result;
         if (interceptor != null) {
+            Object[] parameters = buildMethodArguments(takesArgument, argument, connectionId);
             result = invokeInterceptor(dlmsClassInstance, securityPolicy, parameters, instance, interceptor);
         }
         else {
-            result = saveInvoke(instance, parameters);
+            result = saveInvoke(instance, takesArgument ? argument : null, connectionId);
         }
 
         if (result == null && this.returnType != null) {
@@ -111,36 +117,58 @@ public class MethodAccessor {
     private DataObject saveInvoke(final CosemInterfaceObject instance, final Object[] methodArguments)
             throws IllegalMethodAccessException {
         try {
-            return (DataObject) this.method.invoke(instance, methodArguments);
-        } catch (IllegalAccessException | IllegalArgumentException e) {
+            return (DataObject) this.invoker.invokeExact(instance, methodArguments);
+        } catch (IllegalMethodAccessException e) {
+            throw e;
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
             throw new IllegalMethodAccessException(MethodResultCode.OTHER_REASON);
-        } catch (InvocationTargetException e) {
-            if (!(e.getTargetException() instanceof IllegalMethodAccessException)) {
-                throw new IllegalMethodAccessException(MethodResultCode.OTHER_REASON);
-            }
-            throw (IllegalMethodAccessException) e.getTargetException();
         }
     }
 
-    private Object[] buildMethodArguments(DataObject argument, Long connectionId) throws IllegalMethodAccessException {
-        Object[] methodArguments = new Object[numOfParams];
+    private DataObject saveInvoke(final CosemInterfaceObject instance, DataObject argument, Long connectionId)
+            throws IllegalMethodAccessException {
+        try {
+            return (DataObject) this.accessor.invokeExact(instance, argument, (SelectiveAccessDescription) null,
+                    connectionId);
+        } catch (IllegalMethodAccessException e) {
+            throw e;
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalMethodAccessException(MethodResultCode.OTHER_REASON);
+        }
+    }
 
+    private boolean takesArgument(DataObject argument) throws IllegalMethodAccessException {
         if ((argument == null || argument.isNull()) && this.parameterType == null) {
+            return false;
+        }
+        else if (argument != null
+                && (argument.getType() == this.parameterType || this.parameterType == Type.DONT_CARE)) {
+            return true;
+        }
+        else {
+            throw new IllegalMethodAccessException(MethodResultCode.TYPE_UNMATCHED);
+        }
+    }
+
+    private Object[] buildMethodArguments(boolean takesArgument, DataObject argument, Long connectionId) {
+        Object[] methodArguments = new Object[numOfParams];
+
+        if (!takesArgument) {
             if (this.numOfParams == 1) {
                 methodArguments[0] = connectionId;
             }
         }
-        else if (argument != null
-                && (argument.getType() == this.parameterType || this.parameterType == Type.DONT_CARE)) {
+        else {
             methodArguments[0] = argument;
 
             if (this.numOfParams == 2) {
                 methodArguments[1] = connectionId;
             }
         }
-        else {
-            throw new IllegalMethodAccessException(MethodResultCode.TYPE_UNMATCHED);
-        }
         return methodArguments;
     }
 
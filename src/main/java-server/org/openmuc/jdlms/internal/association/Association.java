@@ -25,6 +25,7 @@ import java.net.SocketTimeoutException;
 import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.openmuc.jdlms.DataDirectory;
 import org.openmuc.jdlms.SecuritySuite;
@@ -62,6 +63,9 @@ public class Association implements Runnable {
     protected final ServerConnectionData connectionData;
     protected final AssociationMessenger associationMessenger;
 
+    private Map<COSEMpdu.Choices, RequestProcessor> requestProcessors;
+    private final AtomicBoolean closed;
+
     public Association(DataDirectory directory, ServerSessionLayer sessionLayer, Long connectionId,
             ServerSettings settings, ServerConnectionInformationImpl serverConnectionInformation) {
         this.settings = settings;
@@ -73,12 +77,31 @@ public class Association implements Runnable {
         this.directory.addConnection(connectionId, this.connectionData);
 
         this.associationMessenger = new AssociationMessenger(connectionData, this.directory);
+        this.closed = new AtomicBoolean(false);
     }
 
     @Override
     public final void run() {
+        while (processNextMessage()) {
+            // process messages until the association has been released
+        }
+    }
+
+    /**
+     * Reads and processes the next message of the client. The first message establishes the association.
+     * 
+     * @return {@code false} if the association has been released or closed.
+     */
+    public final boolean processNextMessage() {
+        boolean open = false;
         try {
-            startAssociation();
+            if (this.requestProcessors == null) {
+                startAssociation();
+                open = true;
+            }
+            else {
+                open = processRequest(associationMessenger.readNextApdu());
+            }
         } catch (GenericAssociationException e) {
             try {
                 associationMessenger.encodeAndSend(e.getErrorMessageApdu());
@@ -92,16 +115,33 @@ public class Association implements Runnable {
         } catch (IOException e) {
             // ignore??
         } finally {
-            this.directory.removeConnection(this.connectionData.connectionId);
-            try {
-                sessionLayer().close();
-            } catch (IOException e1) {
-                // ignore
+            if (!open) {
+                closeAssociation();
             }
+        }
+        return open;
+    }
+
+    /**
+     * Closes the association without processing further messages, e.g. if the server is shut down.
+     */
+    public final void close() {
+        closeAssociation();
+    }
+
+    private void closeAssociation() {
+        if (!this.closed.compareAndSet(false, true)) {
+            return;
+        }
 
-            notifyListener(Status.CLOSED);
+        this.directory.removeConnection(this.connectionData.connectionId);
+        try {
+            sessionLayer().close();
+        } catch (IOException e1) {
+            // ignore
         }
 
+        notifyListener(Status.CLOSED);
     }
 
     private void startAssociation() throws IOException {
@@ -112,7 +152,7 @@ public class Association implements Runnable {
         notifyListener(Status.OPEN);
 
         RequestProcessorData requestProcessorData = new RequestProcessorData(sessionLayer().getLogicalDeviceId(),
-                directory, connectionData);
+                directory, connectionData, this.settings.getMaxSetTransferSize());
 
         this.connectionData.clientId = sessionLayer().getClientId();
         CosemLogicalDevice cosemLogicalDevice = this.directory.getLogicalDeviceFor(sessionLayer().getLogicalDeviceId());
@@ -125,35 +165,35 @@ public class Association implements Runnable {
 
         this.associationMessenger.encodeAndSend(aarqAPdu);
 
-        Map<COSEMpdu.Choices, RequestProcessor> requestProcessors = setUpRequestProcessors(requestProcessorData,
+        this.requestProcessors = setUpRequestProcessors(requestProcessorData,
                 initialmessageProcessor.getContextId().getReferencingMethod());
+    }
 
-        while (true) {
-            APdu apdu = associationMessenger.readNextApdu();
-            ACSEApdu acseApdu = apdu.getAcseAPdu();
-            COSEMpdu cosemPdu = apdu.getCosemPdu();
-            if (acseApdu != null && acseApdu.getRlrq() != null) {
-                sendDisconnectMessage(acseApdu.getRlrq());
-                return;
-            }
+    private boolean processRequest(APdu apdu) throws IOException {
+        ACSEApdu acseApdu = apdu.getAcseAPdu();
+        COSEMpdu cosemPdu = apdu.getCosemPdu();
+        if (acseApdu != null && acseApdu.getRlrq() != null) {
+            sendDisconnectMessage(acseApdu.getRlrq());
+            return false;
+        }
 
-            if (!connectionData.authenticated && cosemPdu.getChoiceIndex() != COSEMpdu.Choices.ACTION_REQUEST) {
-                throw new AssociationException(StateError.SERVICE_NOT_ALLOWED, ServiceError.OPERATION_NOT_POSSIBLE);
-            }
+        if (!connectionData.authenticated && cosemPdu.getChoiceIndex() != COSEMpdu.Choices.ACTION_REQUEST) {
+            throw new AssociationException(StateError.SERVICE_NOT_ALLOWED, ServiceError.OPERATION_NOT_POSSIBLE);
+        }
 
-            RequestProcessor requestProcessor = requestProcessors.get(cosemPdu.getChoiceIndex());
-            if (requestProcessor != null) {
-                requestProcessor.processRequest(cosemPdu);
-            }
-            else {
-                // TODO handle other requests..
-            }
+        RequestProcessor requestProcessor = requestProcessors.get(cosemPdu.getChoiceIndex());
+        if (requestProcessor != null) {
+            requestProcessor.processRequest(cosemPdu);
+        }
+        else {
+            // TODO handle other requests..
+        }
 
-            if (!connectionData.authenticated) {
-                // TODO
+        if (!connectionData.authenticated) {
+            // TODO
 
-            }
         }
+        return true;
     }
 
     protected Map<COSEMpdu.Choices, RequestProcessor> setUpRequestProcessors(RequestProcessorData requestProcessorData,
@@ -24,6 +24,7 @@ import static org.openmuc.jdlms.SecuritySuite.newSecuritySuiteFrom;
 import java.io.IOException;
 import java.util.Arrays;
 
+import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 import org.openmuc.jdlms.SecuritySuite;
 import org.openmuc.jdlms.SecuritySuite.EncryptionMechanism;
 import org.openmuc.jdlms.internal.APdu;
@@ -37,17 +38,31 @@ public class AssociationMessenger {
     private final ServerConnectionData connectionData;
     private final DataDirectoryImpl directory;
 
-    private SecuritySuite securitySuite;
+    private final BufferPool bufferPool;
 
-    private final byte[] buffer = new byte[0xFFFFF * 5];
+    private SecuritySuite securitySuite;
 
     public AssociationMessenger(ServerConnectionData connectionData, DataDirectoryImpl directory) {
         this.connectionData = connectionData;
         this.directory = directory;
+        this.bufferPool = BufferPool.instance();
     }
 
+    /**
+     * Encodes the APDU into a pooled buffer and hands it to the session layer without copying it.
+     * 
+     * @param aPdu
+     *            the APDU to send.
+     * @throws IOException
+     *             if the APDU could not be encoded or sent.
+     */
     public void encodeAndSend(APdu aPdu) throws IOException {
-        send(encode(aPdu));
+        EncodedApdu encodedApdu = encodeToPooledBuffer(aPdu);
+        try {
+            connectionData.sessionLayer.send(encodedApdu.buffer, encodedApdu.offset(), encodedApdu.length);
+        } finally {
+            this.bufferPool.release(encodedApdu.buffer);
+        }
     }
 
     public void send(byte[] data) throws IOException {
@@ -75,23 +90,58 @@ public class AssociationMessenger {
         return APdu.decode(bytes, connectionData.clientSystemTitle, connectionData.frameCounter, sec, null);
     }
 
-    public synchronized byte[] encode(APdu aPdu) throws IOException {
-        int length;
-
-        SecuritySuite sec = connectionData.securitySuite;
-        if (sec.getEncryptionMechanism() != EncryptionMechanism.NONE) {
+    public byte[] encode(APdu aPdu) throws IOException {
+        EncodedApdu encodedApdu = encodeToPooledBuffer(aPdu);
+        try {
+            return Arrays.copyOfRange(encodedApdu.buffer, encodedApdu.offset(), encodedApdu.buffer.length);
+        } finally {
+            this.bufferPool.release(encodedApdu.buffer);
+        }
+    }
 
-            if (this.securitySuite == null) {
-                this.securitySuite = newSecuritySuiteFrom(sec);
+    /*
+     * Responses exceeding the negotiated PDU size are encoded before they are split into blocks. The APDU is encoded
+     * once into a buffer of the negotiated PDU size, which is doubled while encoding if the APDU does not fit. The
+     * caller has to release the returned buffer.
+     */
+    private synchronized EncodedApdu encodeToPooledBuffer(APdu aPdu) throws IOException {
+        boolean ciphered = connectionData.securitySuite.getEncryptionMechanism() != EncryptionMechanism.NONE;
+
+        byte[] buffer = this.bufferPool.acquire(getMaxMessageLength());
+        boolean automaticResize = true;
+        BerByteArrayOutputStream baos = new BerByteArrayOutputStream(buffer, buffer.length - 1, automaticResize);
+
+        int encodedLength;
+        try {
+            encodedLength = encode(aPdu, baos, ciphered);
+            if (encodedLength > BufferPool.maxBufferSize()) {
+                throw new IOException("APDU exceeds the maximum encode buffer size.");
+            }
+        } catch (IOException | RuntimeException e) {
+            this.bufferPool.release(baos.buffer);
+            throw e;
+        } finally {
+            // the stream replaced the buffer by a larger one
+            if (baos.buffer != buffer) {
+                this.bufferPool.release(buffer);
             }
+        }
 
-            length = aPdu.encode(buffer, connectionData.frameCounter++, systemTitle(), this.securitySuite, null);
+        return new EncodedApdu(baos.buffer, encodedLength);
+    }
+
+    private int encode(APdu aPdu, BerByteArrayOutputStream baos, boolean ciphered) throws IOException {
+        if (!ciphered) {
+            return aPdu.encode(baos, null);
         }
-        else {
-            length = aPdu.encode(buffer, null);
+
+        if (this.securitySuite == null) {
+            this.securitySuite = newSecuritySuiteFrom(connectionData.securitySuite);
         }
 
-        return Arrays.copyOfRange(buffer, buffer.length - length, buffer.length);
+        // the frame counter is used up before encrypting, so an IV is never used twice, even if encoding fails
+        int frameCounter = connectionData.frameCounter++;
+        return aPdu.encode(baos, frameCounter, systemTitle(), this.securitySuite, null);
     }
 
     public byte[] systemTitle() {
@@ -124,4 +174,18 @@ public class AssociationMessenger {
         return pdu.encode(new NullOutputStream());
     }
 
+    private static class EncodedApdu {
+        private final byte[] buffer;
+        private final int length;
+
+        public EncodedApdu(byte[] buffer, int length) {
+            this.buffer = buffer;
+            this.length = length;
+        }
+
+        public int offset() {
+            return this.buffer.length - this.length;
+        }
+    }
+
 }
@@ -0,0 +1,113 @@
+/**
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.openmuc.jdlms.internal.association;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of encode buffers shared by all associations of a server. Buffer sizes are powers of two, so a buffer can be
+ * reused by every association whose negotiated PDU size falls into the same size class.
+ */
+class BufferPool {
+
+    private static final int MIN_SIZE_EXP = 8;
+    private static final int MAX_SIZE_EXP = 23;
+    private static final int MAX_POOLED_PER_SIZE = 64;
+
+    private static final BufferPool INSTANCE = new BufferPool();
+
+    private final ConcurrentLinkedQueue<byte[]>[] pools;
+    private final AtomicInteger[] poolSizes;
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private BufferPool() {
+        int numSizes = MAX_SIZE_EXP - MIN_SIZE_EXP + 1;
+        this.pools = new ConcurrentLinkedQueue[numSizes];
+        this.poolSizes = new AtomicInteger[numSizes];
+
+        for (int i = 0; i < numSizes; i++) {
+            this.pools[i] = new ConcurrentLinkedQueue<>();
+            this.poolSizes[i] = new AtomicInteger();
+        }
+    }
+
+    public static BufferPool instance() {
+        return INSTANCE;
+    }
+
+    /**
+     * The largest buffer the pool hands out.
+     */
+    public static int maxBufferSize() {
+        return 1 << MAX_SIZE_EXP;
+    }
+
+    /**
+     * Takes a buffer with a length of at least minSize from the pool or allocates a new one.
+     * 
+     * @param minSize
+     *            the minimum length of the buffer.
+     * @return a buffer, which length is the next power of two.
+     */
+    public byte[] acquire(int minSize) {
+        int index = indexFor(minSize);
+        if (index < 0) {
+            throw new IllegalArgumentException("Buffer size exceeds " + maxBufferSize() + " bytes.");
+        }
+
+        byte[] buffer = this.pools[index].poll();
+        if (buffer == null) {
+            return new byte[1 << (index + MIN_SIZE_EXP)];
+        }
+
+        this.poolSizes[index].decrementAndGet();
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer to the pool. Buffers not obtained via {@link #acquire(int)} are dropped.
+     * 
+     * @param buffer
+     *            the buffer to return.
+     */
+    public void release(byte[] buffer) {
+        int index = indexFor(buffer.length);
+        if (index < 0 || buffer.length != 1 << (index + MIN_SIZE_EXP)) {
+            return;
+        }
+
+        if (this.poolSizes[index].incrementAndGet() > MAX_POOLED_PER_SIZE) {
+            this.poolSizes[index].decrementAndGet();
+            return;
+        }
+        this.pools[index].offer(buffer);
+    }
+
+    private static int indexFor(int size) {
+        int exp = size <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(size - 1);
+        exp = Math.max(exp, MIN_SIZE_EXP);
+        if (exp > MAX_SIZE_EXP) {
+            return -1;
+        }
+        return exp - MIN_SIZE_EXP;
+    }
+
+}
@@ -26,10 +26,13 @@ public class RequestProcessorData {
     public final int logicalDeviceId;
     public final DataDirectoryImpl directory;
     public final ServerConnectionData connectionData;
+    public final int maxSetTransferSize;
 
-    public RequestProcessorData(int logicalDeviceId, DataDirectoryImpl dataDirectory, ServerConnectionData connectionData) {
+    public RequestProcessorData(int logicalDeviceId, DataDirectoryImpl dataDirectory, ServerConnectionData connectionData,
+            int maxSetTransferSize) {
         this.logicalDeviceId = logicalDeviceId;
         this.directory = dataDirectory;
         this.connectionData = connectionData;
+        this.maxSetTransferSize = maxSetTransferSize;
     }
 }
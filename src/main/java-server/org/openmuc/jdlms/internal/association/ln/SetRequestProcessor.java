@@ -19,8 +19,11 @@
  */
 package org.openmuc.jdlms.internal.association.ln;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Iterator;
+import java.util.List;
 
 import org.openmuc.jdlms.AccessResultCode;
 import org.openmuc.jdlms.AttributeAddress;
@@ -30,20 +33,30 @@ import org.openmuc.jdlms.SetParameter;
 import org.openmuc.jdlms.datatypes.DataObject;
 import org.openmuc.jdlms.internal.APdu;
 import org.openmuc.jdlms.internal.DataConverter;
+import org.openmuc.jdlms.internal.DataObjectCodec;
+import org.openmuc.jdlms.internal.asn1.axdr.AxdrLength;
 import org.openmuc.jdlms.internal.asn1.axdr.types.AxdrEnum;
 import org.openmuc.jdlms.internal.asn1.axdr.types.AxdrOptional;
 import org.openmuc.jdlms.internal.asn1.cosem.COSEMpdu;
 import org.openmuc.jdlms.internal.asn1.cosem.Cosem_Attribute_Descriptor;
 import org.openmuc.jdlms.internal.asn1.cosem.Cosem_Attribute_Descriptor_With_Selection;
 import org.openmuc.jdlms.internal.asn1.cosem.Data;
+import org.openmuc.jdlms.internal.asn1.cosem.DataBlock_SA;
 import org.openmuc.jdlms.internal.asn1.cosem.Invoke_Id_And_Priority;
 import org.openmuc.jdlms.internal.asn1.cosem.SET_Request;
 import org.openmuc.jdlms.internal.asn1.cosem.SET_Response;
 import org.openmuc.jdlms.internal.asn1.cosem.Selective_Access_Descriptor;
 import org.openmuc.jdlms.internal.asn1.cosem.Set_Request_Normal;
+import org.openmuc.jdlms.internal.asn1.cosem.Set_Request_With_Datablock;
+import org.openmuc.jdlms.internal.asn1.cosem.Set_Request_With_First_Datablock;
 import org.openmuc.jdlms.internal.asn1.cosem.Set_Request_With_List;
+import org.openmuc.jdlms.internal.asn1.cosem.Set_Request_With_List_And_First_Datablock;
+import org.openmuc.jdlms.internal.asn1.cosem.Set_Response_Datablock;
+import org.openmuc.jdlms.internal.asn1.cosem.Set_Response_Last_Datablock;
+import org.openmuc.jdlms.internal.asn1.cosem.Set_Response_Last_Datablock_With_List;
 import org.openmuc.jdlms.internal.asn1.cosem.Set_Response_Normal;
 import org.openmuc.jdlms.internal.asn1.cosem.Set_Response_With_List;
+import org.openmuc.jdlms.internal.asn1.cosem.Unsigned32;
 import org.openmuc.jdlms.internal.association.AssociationMessenger;
 import org.openmuc.jdlms.internal.association.RequestProcessorBase;
 import org.openmuc.jdlms.internal.association.RequestProcessorData;
@@ -65,16 +78,35 @@ public class SetRequestProcessor extends RequestProcessorBase {
         case SET_REQUEST_WITH_LIST:
             setResponse = processSetRequestWithList(setRequest.set_request_with_list);
             break;
+        case SET_REQUEST_WITH_FIRST_DATABLOCK:
+            setResponse = processSetRequestWithFirstDatablock(setRequest.set_request_with_first_datablock);
+            break;
+        case SET_REQUEST_WITH_LIST_AND_FIRST_DATABLOCK:
+            setResponse = processSetRequestWithListAndFirstDatablock(
+                    setRequest.set_request_with_list_and_first_datablock);
+            break;
         case SET_REQUEST_WITH_DATABLOCK:
+            setResponse = processUnexpectedDatablock(setRequest.set_request_with_datablock);
+            break;
         default:
-            throw new IOException("Not yet implemented");
+            throw new IOException("Received an unknown SET request.");
         }
 
-        COSEMpdu cosemPdu = new COSEMpdu();
-        cosemPdu.setset_response(setResponse);
-        APdu aPdu = new APdu(null, cosemPdu);
-        this.associationMessenger.encodeAndSend(aPdu);
+        send(setResponse);
+    }
+
+    /*
+     * The data blocks of a transfer are received by receiveDatablocks, a data block arriving here has no preceding
+     * first data block.
+     */
+    private SET_Response processUnexpectedDatablock(Set_Request_With_Datablock request) {
+        Set_Response_Last_Datablock lastDatablock = new Set_Response_Last_Datablock(request.invoke_id_and_priority,
+                new AxdrEnum(AccessResultCode.NO_LONG_SET_IN_PROGRESS.getCode()),
+                new Unsigned32(request.datablock.block_number.getValue()));
 
+        SET_Response setResponse = new SET_Response();
+        setResponse.setset_response_last_datablock(lastDatablock);
+        return setResponse;
     }
 
     private SET_Response processSetRequestWithList(Set_Request_With_List requestWithList) {
@@ -99,6 +131,137 @@ public class SetRequestProcessor extends RequestProcessorBase {
         return setResponse;
     }
 
+    private SET_Response processSetRequestWithFirstDatablock(Set_Request_With_First_Datablock request)
+            throws IOException {
+        Invoke_Id_And_Priority invokeIdAndPriority = request.invoke_id_and_priority;
+
+        ReceivedDatablocks datablocks = receiveDatablocks(invokeIdAndPriority, request.datablock);
+
+        AccessResultCode accessResultCode = datablocks.error;
+        if (accessResultCode == null) {
+            try {
+                DataObject value = DataObjectCodec.decode(ByteBuffer.wrap(datablocks.rawData.toByteArray()));
+                accessResultCode = set(value, request.cosem_attribute_descriptor, request.access_selection);
+            } catch (IOException e) {
+                accessResultCode = AccessResultCode.TYPE_UNMATCHED;
+            }
+        }
+
+        Set_Response_Last_Datablock lastDatablock = new Set_Response_Last_Datablock(invokeIdAndPriority,
+                new AxdrEnum(accessResultCode.getCode()), new Unsigned32(datablocks.blockNumber));
+
+        SET_Response setResponse = new SET_Response();
+        setResponse.setset_response_last_datablock(lastDatablock);
+        return setResponse;
+    }
+
+    private SET_Response processSetRequestWithListAndFirstDatablock(Set_Request_With_List_And_First_Datablock request)
+            throws IOException {
+        Invoke_Id_And_Priority invokeIdAndPriority = request.invoke_id_and_priority;
+        List<Cosem_Attribute_Descriptor_With_Selection> descriptors = request.attribute_descriptor_list.list();
+
+        ReceivedDatablocks datablocks = receiveDatablocks(invokeIdAndPriority, request.datablock);
+
+        Set_Response_Last_Datablock_With_List.SubSeqOf_result result = new Set_Response_Last_Datablock_With_List.SubSeqOf_result();
+        if (datablocks.error != null) {
+            addResultCodes(result, datablocks.error, descriptors.size());
+        }
+        else {
+            ByteBuffer buffer = ByteBuffer.wrap(datablocks.rawData.toByteArray());
+            try {
+                int numValues = AxdrLength.decodeLength(buffer);
+                for (int i = 0; i < descriptors.size(); i++) {
+                    Cosem_Attribute_Descriptor_With_Selection descriptor = descriptors.get(i);
+                    AccessResultCode accessResultCode = AccessResultCode.TYPE_UNMATCHED;
+                    if (i < numValues) {
+                        accessResultCode = set(DataObjectCodec.decode(buffer), descriptor.cosem_attribute_descriptor,
+                                descriptor.access_selection);
+                    }
+                    result.add(new AxdrEnum(accessResultCode.getCode()));
+                }
+            } catch (IOException e) {
+                addResultCodes(result, AccessResultCode.TYPE_UNMATCHED, descriptors.size() - result.size());
+            }
+        }
+
+        Set_Response_Last_Datablock_With_List lastDatablock = new Set_Response_Last_Datablock_With_List(
+                invokeIdAndPriority, result, new Unsigned32(datablocks.blockNumber));
+
+        SET_Response setResponse = new SET_Response();
+        setResponse.setset_response_last_datablock_with_list(lastDatablock);
+        return setResponse;
+    }
+
+    private static void addResultCodes(Set_Response_Last_Datablock_With_List.SubSeqOf_result result,
+            AccessResultCode accessResultCode, int count) {
+        for (int i = 0; i < count; i++) {
+            result.add(new AxdrEnum(accessResultCode.getCode()));
+        }
+    }
+
+    /**
+     * Receives the data blocks of a SET request, confirming every block but the last one. The transfer is ended early,
+     * if a block is out of sequence or if the data exceeds the max SET transfer size.
+     */
+    private ReceivedDatablocks receiveDatablocks(Invoke_Id_And_Priority invokeIdAndPriority,
+            DataBlock_SA firstDatablock) throws IOException {
+        ReceivedDatablocks datablocks = new ReceivedDatablocks();
+        DataBlock_SA datablock = firstDatablock;
+        long blockNumber = 1;
+
+        while (true) {
+            datablocks.blockNumber = datablock.block_number.getValue();
+            if (datablocks.blockNumber != blockNumber) {
+                datablocks.error = AccessResultCode.DATA_BLOCK_NUMBER_INVALID;
+                return datablocks;
+            }
+
+            byte[] rawData = datablock.raw_data.getValue();
+            if (rawData.length > this.requestProcessorData.maxSetTransferSize - datablocks.rawData.size()) {
+                datablocks.error = AccessResultCode.LONG_SET_ABORTED;
+                return datablocks;
+            }
+            datablocks.rawData.write(rawData);
+
+            if (datablock.last_block.getValue()) {
+                return datablocks;
+            }
+
+            SET_Response setResponse = new SET_Response();
+            setResponse.setset_response_datablock(
+                    new Set_Response_Datablock(invokeIdAndPriority, new Unsigned32(blockNumber)));
+            send(setResponse);
+
+            APdu nextApdu = this.associationMessenger.readNextApdu();
+            if (!isSetWithDatablock(nextApdu)) {
+                throw new IOException("Expected a SET request with data block.");
+            }
+
+            datablock = nextApdu.getCosemPdu().set_request.set_request_with_datablock.datablock;
+            blockNumber++;
+        }
+    }
+
+    private static class ReceivedDatablocks {
+        private final ByteArrayOutputStream rawData = new ByteArrayOutputStream();
+        private long blockNumber;
+        /**
+         * The result code, if the transfer was ended early.
+         */
+        private AccessResultCode error;
+    }
+
+    private static boolean isSetWithDatablock(APdu apdu) {
+        return apdu.getCosemPdu().getChoiceIndex() == COSEMpdu.Choices.SET_REQUEST
+                && apdu.getCosemPdu().set_request.getChoiceIndex() == SET_Request.Choices.SET_REQUEST_WITH_DATABLOCK;
+    }
+
+    private void send(SET_Response setResponse) throws IOException {
+        COSEMpdu cosemPdu = new COSEMpdu();
+        cosemPdu.setset_response(setResponse);
+        this.associationMessenger.encodeAndSend(new APdu(null, cosemPdu));
+    }
+
     private SET_Response processSetRequestNormal(Set_Request_Normal normalRequest) {
         Invoke_Id_And_Priority invokeIdAndPriority = normalRequest.invoke_id_and_priority;
 
@@ -115,8 +278,11 @@ public class SetRequestProcessor extends RequestProcessorBase {
 
     private AccessResultCode convertAndSet(Data newValue, Cosem_Attribute_Descriptor cosemAttributeAescriptor,
             AxdrOptional<Selective_Access_Descriptor> accessSelection) {
-        DataObject dataObject = DataConverter.convertDataToDataObject(newValue);
+        return set(DataConverter.convertDataToDataObject(newValue), cosemAttributeAescriptor, accessSelection);
+    }
 
+    private AccessResultCode set(DataObject dataObject, Cosem_Attribute_Descriptor cosemAttributeAescriptor,
+            AxdrOptional<Selective_Access_Descriptor> accessSelection) {
         ObisCode instanceId = new ObisCode(cosemAttributeAescriptor.instance_id.getValue());
         SelectiveAccessDescription selectiveAccessDescription = null;
 
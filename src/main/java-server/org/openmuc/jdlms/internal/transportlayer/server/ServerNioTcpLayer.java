@@ -0,0 +1,295 @@
+/**
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.openmuc.jdlms.internal.transportlayer.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openmuc.jdlms.DataDirectory;
+import org.openmuc.jdlms.internal.association.Association;
+import org.openmuc.jdlms.internal.transportlayer.server.ServerTcpLayer.TcpServerConnectionInformation;
+import org.openmuc.jdlms.sessionlayer.server.ServerNioWrapperLayer;
+import org.openmuc.jdlms.settings.server.TcpServerSettings;
+import org.openmuc.jdlms.transportlayer.client.TcpChannel;
+import org.openmuc.jdlms.transportlayer.client.TcpSelector;
+import org.openmuc.jdlms.transportlayer.server.ServerTransportLayer;
+
+/**
+ * TCP server transport layer, where a small group of selector threads decodes the wrapper PDUs of all associations
+ * and a bounded worker pool processes the requests. An association only occupies a worker, while it has received
+ * messages to process. Associations of clients, which have been inactive longer than the inactivity timeout, are
+ * closed by a timer.
+ * 
+ * @see ServerTcpLayer
+ */
+public class ServerNioTcpLayer implements ServerTransportLayer {
+
+    private final TcpServerSettings settings;
+    private final DataDirectory dataDirectory;
+    private final int numSelectors;
+    private final int numWorkers;
+    private final AtomicInteger activeConnections;
+
+    private ServerSocketChannel serverChannel;
+    private TcpSelector[] selectors;
+    private ExecutorService workers;
+    private ExecutorService acceptorExec;
+    private ScheduledExecutorService idleTimer;
+
+    public ServerNioTcpLayer(TcpServerSettings settings, DataDirectory dataDirectory, int numSelectors,
+            int numWorkers) {
+        this.settings = settings;
+        this.dataDirectory = dataDirectory;
+        this.numSelectors = numSelectors;
+        this.numWorkers = numWorkers;
+        this.activeConnections = new AtomicInteger();
+    }
+
+    @Override
+    public void start() throws IOException {
+        this.serverChannel = ServerSocketChannel.open();
+        this.serverChannel.socket().setReuseAddress(true);
+        this.serverChannel.socket().bind(new InetSocketAddress(this.settings.getTcpPort()));
+
+        this.selectors = new TcpSelector[this.numSelectors];
+        for (int i = 0; i < this.numSelectors; i++) {
+            this.selectors[i] = new TcpSelector();
+        }
+
+        this.workers = Executors.newFixedThreadPool(this.numWorkers);
+        this.idleTimer = Executors.newSingleThreadScheduledExecutor();
+
+        this.acceptorExec = Executors.newSingleThreadExecutor();
+        this.acceptorExec.execute(new Acceptor());
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.serverChannel.close();
+        this.acceptorExec.shutdown();
+
+        for (TcpSelector selector : this.selectors) {
+            selector.close();
+        }
+        this.workers.shutdown();
+        this.idleTimer.shutdown();
+    }
+
+    private class Acceptor implements Runnable {
+
+        private long connections;
+
+        @Override
+        public void run() {
+            Thread.currentThread().setName("jDLMS - SERVER-ACCEPTOR thread");
+
+            final int maxPermits = settings.getMaxClients() == 0 ? Integer.MAX_VALUE : settings.getMaxClients();
+            try {
+                while (serverChannel.isOpen()) {
+                    SocketChannel socketChannel = serverChannel.accept();
+
+                    if (activeConnections.get() >= maxPermits) {
+                        closeUnsafe(socketChannel);
+                        continue;
+                    }
+
+                    startAssociation(socketChannel);
+                }
+            } catch (IOException e) {
+                // ignore here, server has been closed
+            }
+        }
+
+        private void startAssociation(SocketChannel socketChannel) {
+            AssociationTask task = new AssociationTask();
+            ServerNioWrapperLayer sessionLayer = new ServerNioWrapperLayer(settings, task);
+
+            Long connectionId = ++connections;
+            TcpServerConnectionInformation connectionInformation = new TcpServerConnectionInformation(
+                    socketChannel.socket().getInetAddress());
+            Association association = new Association(dataDirectory, sessionLayer, connectionId, settings,
+                    connectionInformation);
+
+            TcpSelector selector = selectors[(int) (connectionId % selectors.length)];
+            try {
+                TcpChannel channel = selector.register(socketChannel, sessionLayer);
+                sessionLayer.setChannel(channel);
+            } catch (IOException e) {
+                // lets the association fail on its first read and remove the connection
+                sessionLayer.connectionInterrupted(e);
+                association.processNextMessage();
+                return;
+            }
+
+            activeConnections.incrementAndGet();
+            task.start(association, sessionLayer);
+        }
+
+        private void closeUnsafe(SocketChannel socketChannel) {
+            try {
+                socketChannel.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    /*
+     * Processes the received messages of an association on a worker. A task is scheduled at most once at a time, so
+     * the messages of an association are processed in order.
+     */
+    private class AssociationTask implements Runnable, ServerNioWrapperLayer.MessageListener {
+
+        private final AtomicBoolean scheduled;
+
+        private Association association;
+        private ServerNioWrapperLayer sessionLayer;
+
+        private final AtomicBoolean closed;
+
+        private volatile long lastProcessedTime;
+
+        public AssociationTask() {
+            // no scheduling until the association has been started
+            this.scheduled = new AtomicBoolean(true);
+            this.closed = new AtomicBoolean(false);
+        }
+
+        public void start(Association association, ServerNioWrapperLayer sessionLayer) {
+            this.association = association;
+            this.sessionLayer = sessionLayer;
+            this.lastProcessedTime = System.nanoTime();
+
+            scheduleIdleCheck(settings.getInactivityTimeout());
+
+            this.scheduled.set(false);
+            if (sessionLayer.hasReceivedMessages()) {
+                messageReceived(sessionLayer);
+            }
+        }
+
+        @Override
+        public void messageReceived(ServerNioWrapperLayer sessionLayer) {
+            if (this.scheduled.compareAndSet(false, true)) {
+                try {
+                    workers.execute(this);
+                } catch (RejectedExecutionException e) {
+                    // server has been closed, the task stays scheduled
+                    close();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                processReceivedMessages();
+            } catch (RuntimeException e) {
+                // e.g. a malformed request, the task stays scheduled
+                close();
+            }
+        }
+
+        private void processReceivedMessages() {
+            do {
+                while (this.sessionLayer.hasReceivedMessages()) {
+                    if (!this.association.processNextMessage()) {
+                        // stays scheduled, the association is closed
+                        release();
+                        return;
+                    }
+                }
+                this.lastProcessedTime = System.nanoTime();
+                this.scheduled.set(false);
+            } while (this.sessionLayer.hasReceivedMessages() && this.scheduled.compareAndSet(false, true));
+        }
+
+        private void close() {
+            if (release()) {
+                this.association.close();
+            }
+        }
+
+        /**
+         * Releases the connection slot of the association, exactly once.
+         * 
+         * @return {@code false} if the slot has already been released.
+         */
+        private boolean release() {
+            if (!this.closed.compareAndSet(false, true)) {
+                return false;
+            }
+            activeConnections.decrementAndGet();
+            return true;
+        }
+
+        private void scheduleIdleCheck(long delay) {
+            if (delay <= 0) {
+                // no inactivity timeout
+                return;
+            }
+
+            try {
+                idleTimer.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        checkIdle();
+                    }
+                }, delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // server has been closed
+            }
+        }
+
+        /*
+         * The client is inactive, if it did not send anything since the last request has been processed. While a
+         * request is processed, the server is the one to answer.
+         */
+        private void checkIdle() {
+            if (this.closed.get()) {
+                return;
+            }
+
+            long timeout = settings.getInactivityTimeout();
+            long lastActivity = Math.max(this.sessionLayer.lastReceiveTime(), this.lastProcessedTime);
+            long idleTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastActivity);
+
+            if (this.scheduled.get()) {
+                scheduleIdleCheck(timeout);
+            }
+            else if (idleTime < timeout) {
+                scheduleIdleCheck(timeout - idleTime);
+            }
+            else {
+                this.sessionLayer.inactivityTimedOut();
+            }
+        }
+    }
+
+}
@@ -19,14 +19,16 @@
  */
 package org.openmuc.jdlms.sessionlayer.server;
 
-import static org.openmuc.jdlms.sessionlayer.hdlc.HdlcFrame.newInformationFrame;
 import static org.openmuc.jdlms.sessionlayer.hdlc.HdlcFrame.newReceiveReadyFrame;
 import static org.openmuc.jdlms.sessionlayer.hdlc.HdlcFrame.newUnnumberedAcknowledgeFrame;
 import static org.openmuc.jdlms.sessionlayer.hdlc.HdlcParameters.MAX_INFORMATION_LENGTH;
+import static org.openmuc.jdlms.sessionlayer.hdlc.HdlcParameters.MAX_WINDOW_SIZE;
 
 import java.io.IOException;
-import java.nio.ByteBuffer;
+import java.text.MessageFormat;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Queue;
 
 import org.openmuc.jdlms.RawMessageData.RawMessageDataBuilder;
 import org.openmuc.jdlms.internal.association.AssociationShutdownException;
@@ -36,8 +38,11 @@ import org.openmuc.jdlms.sessionlayer.hdlc.FrameType;
 import org.openmuc.jdlms.sessionlayer.hdlc.HdlcAddressPair;
 import org.openmuc.jdlms.sessionlayer.hdlc.HdlcFrame;
 import org.openmuc.jdlms.sessionlayer.hdlc.HdlcFrameSegmentBuffer;
+import org.openmuc.jdlms.sessionlayer.hdlc.HdlcInformationFrameEncoder;
 import org.openmuc.jdlms.sessionlayer.hdlc.HdlcMessageDecoder;
+import org.openmuc.jdlms.sessionlayer.hdlc.HdlcMessageQueue;
 import org.openmuc.jdlms.sessionlayer.hdlc.HdlcParameters;
+import org.openmuc.jdlms.sessionlayer.hdlc.HdlcReceiveBuffer;
 import org.openmuc.jdlms.settings.server.ServerSettings;
 import org.openmuc.jdlms.transportlayer.StreamAccessor;
 
@@ -49,9 +54,15 @@ public class ServerHdlcSessionLayer implements ServerSessionLayer {
     private int logicalDeviceId;
     private int clientId;
     private HdlcAddressPair addressPair;
+    private HdlcInformationFrameEncoder frameEncoder;
     private HdlcParameters negParams;
     private final HdlcSequenceNumber sendSequenceNum;
     private final HdlcSequenceNumber receiveSequenceNum;
+    private final HdlcMessageQueue sendQueue;
+    private final Queue<HdlcFrame> receivedFrames;
+    private final HdlcReceiveBuffer receiveBuffer;
+    private final HdlcFrameSegmentBuffer segmentBuffer;
+    private int transmitWindowSize;
 
     public ServerHdlcSessionLayer(StreamAccessor streamAccessor, ServerSettings settings) {
         this.streamAccessor = streamAccessor;
@@ -62,6 +73,12 @@ public class ServerHdlcSessionLayer implements ServerSessionLayer {
 
         this.sendSequenceNum = new HdlcSequenceNumber();
         this.receiveSequenceNum = new HdlcSequenceNumber();
+
+        this.sendQueue = new HdlcMessageQueue(MAX_WINDOW_SIZE);
+        this.receivedFrames = new LinkedList<>();
+        this.receiveBuffer = new HdlcReceiveBuffer();
+        this.segmentBuffer = new HdlcFrameSegmentBuffer();
+        this.transmitWindowSize = HdlcParameters.MIN_WINDOW_SIZE;
     }
 
     @Override
@@ -81,6 +98,7 @@ public class ServerHdlcSessionLayer implements ServerSessionLayer {
         }
 
         this.addressPair = connectFrame.getAddressPair().switchedPair();
+        this.frameEncoder = new HdlcInformationFrameEncoder(this.addressPair);
         this.clientId = addressPair.destination().getLogicalId();
         this.logicalDeviceId = addressPair.source().getLogicalId();
 
@@ -97,13 +115,13 @@ public class ServerHdlcSessionLayer implements ServerSessionLayer {
         }
 
         int receiveInformationLength = Math.min(MAX_INFORMATION_LENGTH, clientParams.getTransmitInformationLength());
-        int receiveWindowSize = HdlcParameters.MIN_WINDOW_SIZE;
+        int receiveWindowSize = Math.min(MAX_WINDOW_SIZE, clientParams.getTransmitWindowSize());
 
         int transmitInformationLength = Math.min(MAX_INFORMATION_LENGTH, clientParams.getReceiveInformationLength());
-        int transmitWindowSize = HdlcParameters.MIN_WINDOW_SIZE;
+        this.transmitWindowSize = Math.min(MAX_WINDOW_SIZE, clientParams.getReceiveWindowSize());
 
         this.negParams = new HdlcParameters(receiveInformationLength, receiveWindowSize, transmitInformationLength,
-                transmitWindowSize);
+                this.transmitWindowSize);
 
         boolean finalFlag = true;
         byte[] responseFrame = newUnnumberedAcknowledgeFrame(this.addressPair, this.negParams, finalFlag).encode();
@@ -113,84 +131,116 @@ public class ServerHdlcSessionLayer implements ServerSessionLayer {
 
     @Override
     public byte[] readNextMessage() throws IOException {
-        RawMessageDataBuilder rawMessageBuilder = null;
+        this.segmentBuffer.clear();
 
-        HdlcFrame incommingFrame = HdlcMessageDecoder
-                .decode(rawMessageBuilder, streamAccessor, this.settings.getResponseTimeout())
-                .get(0);
+        while (true) {
+            HdlcFrame incommingFrame = nextFrame();
 
-        incommingFrame.getAddressPair(); // TODO check address pairs..
+            incommingFrame.getAddressPair(); // TODO check address pairs..
 
-        switch (incommingFrame.getFrameType()) {
+            switch (incommingFrame.getFrameType()) {
 
-        case INFORMATION:
-            return handleIncomingInfoFrame(incommingFrame);
+            case INFORMATION:
+                if (!acceptInformationFrame(incommingFrame)) {
+                    continue;
+                }
 
-        case DISCONNECT:
-            boolean finalFrame = true;
-            HdlcFrame disconnectAck = newUnnumberedAcknowledgeFrame(this.addressPair, this.negParams, finalFrame);
+                this.segmentBuffer.buffer(incommingFrame);
 
-            writeToStream(disconnectAck.encode());
-            throw new AssociationShutdownException();
+                if (!incommingFrame.isSegmented()) {
+                    return this.segmentBuffer.toByteArray();
+                }
 
-        case DISCONNECT_MODE:
-        case ERR_INVALID_TYPE:
-        case FRAME_REJECT:
-        case RECEIVE_NOT_READY:
-        case RECEIVE_READY:
-        case SET_NORMAL_RESPONSEMODE:
-        case UNNUMBERED_ACKNOWLEDGE:
-        case UNNUMBERED_INFORMATION:
-        default:
-            throw new IOException();
+                if (incommingFrame.isPollFinal()) {
+                    sendReceiveReady();
+                }
+                break;
+
+            case RECEIVE_READY:
+                this.sendQueue.clearTil(incommingFrame.getReceiveSequence());
+                if (incommingFrame.isPollFinal()) {
+                    sendReceiveReady();
+                }
+                break;
+
+            case DISCONNECT:
+                throw acknowledgeDisconnect();
+
+            case DISCONNECT_MODE:
+            case ERR_INVALID_TYPE:
+            case FRAME_REJECT:
+            case RECEIVE_NOT_READY:
+            case SET_NORMAL_RESPONSEMODE:
+            case UNNUMBERED_ACKNOWLEDGE:
+            case UNNUMBERED_INFORMATION:
+            default:
+                throw new IOException();
+            }
         }
 
     }
 
-    private byte[] handleIncomingInfoFrame(HdlcFrame incommingFrame) throws IOException {
-        if (incommingFrame.isSegmented()) {
-            return readSegmentsFromClient(incommingFrame);
-        }
-        else {
-            return incommingFrame.getInformationFieldWithoutLlc();
+    /*
+     * The frames of a burst are read into the reused receive buffer only after all frames of the previous burst have
+     * been processed.
+     */
+    private HdlcFrame nextFrame() throws IOException {
+        while (this.receivedFrames.isEmpty()) {
+            RawMessageDataBuilder rawMessageBuilder = null;
+            this.receivedFrames.addAll(HdlcMessageDecoder.decode(rawMessageBuilder, streamAccessor,
+                    this.settings.getResponseTimeout(), this.receiveBuffer));
         }
-    }
-
-    private byte[] readSegmentsFromClient(HdlcFrame incommingFrame) throws IOException {
-        HdlcFrameSegmentBuffer segmentBuffer = new HdlcFrameSegmentBuffer();
 
-        segmentBuffer.buffer(incommingFrame);
-
-        do {
-            sendReceiveReady(incommingFrame.getReceiveSequence());
-
-            incommingFrame = HdlcMessageDecoder.decode(null, streamAccessor, settings.getResponseTimeout()).get(0);
+        return this.receivedFrames.poll();
+    }
 
-            if (incommingFrame.getFrameType() != FrameType.INFORMATION) {
-                // TODO error
+    /*
+     * Checks the send sequence number of the frame. A frame out of sequence is discarded, the next receive ready frame
+     * requests the client to retransmit the frames following the last accepted one.
+     */
+    private boolean acceptInformationFrame(HdlcFrame incommingFrame) throws IOException {
+        if (incommingFrame.getSendSequence() != this.receiveSequenceNum.getValue()) {
+            if (incommingFrame.isPollFinal()) {
+                sendReceiveReady();
             }
-            segmentBuffer.buffer(incommingFrame);
+            return false;
+        }
+
+        this.receiveSequenceNum.increment();
+        this.sendQueue.clearTil(incommingFrame.getReceiveSequence());
+        return true;
+    }
 
-        } while (incommingFrame.isSegmented());
+    private AssociationShutdownException acknowledgeDisconnect() throws IOException {
+        boolean finalFrame = true;
+        HdlcFrame disconnectAck = newUnnumberedAcknowledgeFrame(this.addressPair, this.negParams, finalFrame);
 
-        return segmentBuffer.toByteArray();
+        writeToStream(disconnectAck.encode());
+        return new AssociationShutdownException();
     }
 
-    private void sendReceiveReady(int sequenceNumber) throws IOException {
-        HdlcFrame receiveReadyFrame = newReceiveReadyFrame(addressPair, sequenceNumber, false);
+    private void sendReceiveReady() throws IOException {
+        boolean finalFrame = true;
+        HdlcFrame receiveReadyFrame = newReceiveReadyFrame(addressPair, this.receiveSequenceNum.getValue(),
+                finalFrame);
 
         writeToStream(receiveReadyFrame.encode());
     }
 
     @Override
     public void send(byte[] data) throws IOException {
+        send(data, 0, data.length);
+    }
 
-        if (data.length + INFORMATION_FRAME_OVERHEAD >= this.negParams.getTransmitInformationLength()) {
-            sendAsSegments(data);
+    @Override
+    public void send(byte[] data, int off, int len) throws IOException {
+
+        if (len + INFORMATION_FRAME_OVERHEAD >= this.negParams.getTransmitInformationLength()) {
+            sendAsSegments(data, off, len);
         }
         else {
             boolean segmented = false;
-            writeToStream(infoFrameDataFor(data, segmented));
+            sendInformationFrame(data, off, len, segmented, true);
         }
 
     }
@@ -200,62 +250,66 @@ public class ServerHdlcSessionLayer implements ServerSessionLayer {
         this.streamAccessor.getOutpuStream().flush();
     }
 
-    private void sendAsSegments(byte[] data) throws IOException {
-        byte[] segment = new byte[segmentLength()];
-        ByteBuffer segmentBuffer = ByteBuffer.wrap(data);
+    private void sendAsSegments(byte[] data, int off, int len) throws IOException {
+        int end = off + len;
 
         boolean first = true;
-        sendSegment(segment, segmentBuffer, first);
-
-        first = false;
-
-        while (true) {
-            waitForRRFrame();
+        int segmentOffset = off;
+        while (segmentOffset < end) {
+            if (this.sendQueue.size() >= this.transmitWindowSize) {
+                waitForRRFrame();
+            }
 
-            sendSegment(segment, segmentBuffer, first);
+            int segmentLength = Math.min(segmentLength(), end - segmentOffset);
 
-            if (segmentBuffer.remaining() < segmentLength()) {
-                if (!segmentBuffer.hasRemaining()) {
-                    return;
-                }
-
-                segment = new byte[segmentBuffer.remaining()];
-            }
+            boolean segmented = segmentOffset + segmentLength < end;
+            sendInformationFrame(data, segmentOffset, segmentLength, segmented, first);
 
+            first = false;
+            segmentOffset += segmentLength;
         }
 
     }
 
+    /*
+     * Waits until the client acknowledges the frames of the current window. Frames not acknowledged by the client are
+     * retransmitted.
+     */
     private void waitForRRFrame() throws IOException {
-        HdlcFrame rrFrame = HdlcMessageDecoder.decode(null, streamAccessor, this.settings.getResponseTimeout()).get(0);
+        while (this.sendQueue.size() >= this.transmitWindowSize) {
+            HdlcFrame rrFrame = nextFrame();
 
-        if (rrFrame.getFrameType() != FrameType.RECEIVE_READY) {
-            // TODO error
-            System.err.println(rrFrame.getFrameType());
-        }
-    }
-
-    private void sendSegment(byte[] segment, ByteBuffer buffer, boolean first) throws IOException {
-        buffer.get(segment);
-
-        boolean segmented = buffer.hasRemaining();
+            if (rrFrame.getFrameType() == FrameType.DISCONNECT) {
+                throw acknowledgeDisconnect();
+            }
+            if (rrFrame.getFrameType() != FrameType.RECEIVE_READY) {
+                throw new IOException(MessageFormat.format("Expected a {0} frame, but received a {1} frame.",
+                        FrameType.RECEIVE_READY, rrFrame.getFrameType()));
+            }
 
-        byte[] frameData = infoFrameDataFor(segment, segmented, first);
+            this.sendQueue.clearTil(rrFrame.getReceiveSequence());
 
-        writeToStream(frameData);
+            for (byte[] frame : this.sendQueue) {
+                writeToStream(frame);
+            }
+        }
     }
 
     private int segmentLength() {
         return this.negParams.getTransmitInformationLength() - INFORMATION_FRAME_OVERHEAD;
     }
 
-    private byte[] infoFrameDataFor(byte[] segment, boolean segmented) {
-        return infoFrameDataFor(segment, segmented, true);
-    }
+    private void sendInformationFrame(byte[] data, int off, int len, boolean segmented, boolean addLlc)
+            throws IOException {
+        // the last frame of a message and the frame filling the window pass the right to send to the client
+        boolean finalFrame = !segmented || this.sendQueue.size() + 1 >= this.transmitWindowSize;
 
-    private byte[] infoFrameDataFor(byte[] segment, boolean segmented, boolean addLlc) {
-        return newInformationFrame(addressPair, this.sendSequenceNum.increment(), this.receiveSequenceNum.getValue(),
-                segment, segmented, addLlc).encode();
+        int sendSequence = this.sendSequenceNum.increment();
+        byte[] frameData = this.frameEncoder.encode(data, off, len, sendSequence, this.receiveSequenceNum.getValue(),
+                segmented, addLlc, finalFrame);
+
+        this.sendQueue.offerMessage(frameData, sendSequence);
+        writeToStream(frameData);
     }
 
     @Override
@@ -0,0 +1,215 @@
+/**
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.openmuc.jdlms.sessionlayer.server;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openmuc.jdlms.sessionlayer.client.WrapperHeader;
+import org.openmuc.jdlms.sessionlayer.client.WrapperPdu;
+import org.openmuc.jdlms.sessionlayer.client.WrapperPduDecoder;
+import org.openmuc.jdlms.settings.server.ServerSettings;
+import org.openmuc.jdlms.transportlayer.client.TcpChannel;
+
+/**
+ * Wrapper session layer of a non-blocking server connection. The wrapper PDUs are decoded on the selector thread and
+ * queued until the association reads them.
+ * 
+ * @see ServerWrapperLayer
+ */
+public class ServerNioWrapperLayer implements ServerSessionLayer, TcpChannel.Listener {
+
+    private static final byte[] END_OF_STREAM = new byte[0];
+    private static final byte[] INACTIVE = new byte[0];
+
+    private final ServerSettings settings;
+    private final WrapperPduDecoder decoder;
+    private final BlockingQueue<byte[]> receivedMessages;
+    private final MessageListener messageListener;
+
+    private TcpChannel channel;
+
+    private volatile int logicalDevice;
+    private volatile int clientId;
+
+    private WrapperHeader.WrapperHeaderBuilder headerBuilder;
+
+    private volatile long lastReceiveTime;
+
+    public ServerNioWrapperLayer(ServerSettings settings, MessageListener messageListener) {
+        this.settings = settings;
+        this.messageListener = messageListener;
+        this.decoder = new WrapperPduDecoder();
+        this.receivedMessages = new LinkedBlockingQueue<>();
+
+        this.logicalDevice = -1;
+        this.clientId = -1;
+
+        this.lastReceiveTime = System.nanoTime();
+    }
+
+    public void setChannel(TcpChannel channel) {
+        this.channel = channel;
+    }
+
+    @Override
+    public void initialize() {
+        // nothing to do here..
+    }
+
+    /**
+     * Returns the next received message. Waits for the message, if the association reads a follow-up request while
+     * processing.
+     */
+    @Override
+    public byte[] readNextMessage() throws IOException {
+        byte[] message;
+        try {
+            int timeout = this.settings.getInactivityTimeout();
+            message = timeout == 0 ? this.receivedMessages.take()
+                    : this.receivedMessages.poll(timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            // Restore interrupted state...
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for incoming message");
+        }
+
+        if (message == null || message == INACTIVE) {
+            throw new SocketTimeoutException("Client was inactive.");
+        }
+        if (message == END_OF_STREAM) {
+            // let further reads fail as well
+            this.receivedMessages.add(END_OF_STREAM);
+            throw new EOFException("Socket was closed by remote host.");
+        }
+        return message;
+    }
+
+    /**
+     * @return {@code true} if a received message has not yet been read.
+     */
+    public boolean hasReceivedMessages() {
+        return !this.receivedMessages.isEmpty();
+    }
+
+    @Override
+    public void send(byte[] data) throws IOException {
+        send(data, 0, data.length);
+    }
+
+    @Override
+    public void send(byte[] data, int off, int len) throws IOException {
+        byte[] header = this.headerBuilder.setLength(len).build().encode();
+
+        byte[] wpdu;
+        int wpduOff;
+        if (off >= WrapperHeader.HEADER_LENGTH) {
+            wpdu = data;
+            wpduOff = off - WrapperHeader.HEADER_LENGTH;
+            System.arraycopy(header, 0, wpdu, wpduOff, header.length);
+        }
+        else {
+            wpdu = ByteBuffer.allocate(len + WrapperHeader.HEADER_LENGTH).put(header).put(data, off, len).array();
+            wpduOff = 0;
+        }
+
+        this.channel.write(wpdu, wpduOff, len + WrapperHeader.HEADER_LENGTH);
+    }
+
+    /**
+     * @return the {@link System#nanoTime()} the last bytes have been received.
+     */
+    public long lastReceiveTime() {
+        return this.lastReceiveTime;
+    }
+
+    /**
+     * Lets the next read fail, because the client has been inactive for too long.
+     */
+    public void inactivityTimedOut() {
+        this.receivedMessages.add(INACTIVE);
+        this.messageListener.messageReceived(this);
+    }
+
+    @Override
+    public void dataReceived(ByteBuffer buffer) throws IOException {
+        this.lastReceiveTime = System.nanoTime();
+
+        while (buffer.hasRemaining()) {
+            WrapperPdu wrapperPdu = this.decoder.decode(buffer);
+            if (wrapperPdu == null) {
+                return;
+            }
+
+            WrapperHeader header = wrapperPdu.getheader();
+            if (this.logicalDevice == -1 || this.clientId == -1) {
+                this.headerBuilder = WrapperHeader.builder(header.getDestinationWPort(), header.getSourceWPort());
+                this.logicalDevice = header.getDestinationWPort();
+                this.clientId = header.getSourceWPort();
+            }
+            validateHeader(header);
+
+            this.receivedMessages.add(wrapperPdu.getData());
+            this.messageListener.messageReceived(this);
+        }
+    }
+
+    @Override
+    public void connectionInterrupted(IOException e) {
+        this.receivedMessages.add(END_OF_STREAM);
+        this.messageListener.messageReceived(this);
+    }
+
+    private void validateHeader(WrapperHeader header) throws IOException {
+        if (this.logicalDevice != header.getDestinationWPort() || this.clientId != header.getSourceWPort()) {
+            throw new IOException("Illegal message.");
+        }
+    }
+
+    @Override
+    public int getClientId() {
+        return this.clientId;
+    }
+
+    @Override
+    public int getLogicalDeviceId() {
+        return this.logicalDevice;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.channel != null) {
+            this.channel.close();
+        }
+    }
+
+    /**
+     * Notified on the selector thread, when a message or the end of the stream has been received.
+     */
+    public interface MessageListener {
+        void messageReceived(ServerNioWrapperLayer sessionLayer);
+    }
+
+}
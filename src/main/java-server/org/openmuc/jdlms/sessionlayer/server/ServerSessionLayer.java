@@ -29,6 +29,21 @@ public interface ServerSessionLayer extends AutoCloseable {
 
     void send(byte[] data) throws IOException;
 
+    /**
+     * Sends len bytes of data starting at off. The session layer may overwrite the bytes in front of off to prepend
+     * its header without copying the data.
+     * 
+     * @param data
+     *            the buffer holding the data to send.
+     * @param off
+     *            the start offset of the data.
+     * @param len
+     *            the number of bytes to send.
+     * @throws IOException
+     *             if the data could not be sent.
+     */
+    void send(byte[] data, int off, int len) throws IOException;
+
     int getClientId();
 
     int getLogicalDeviceId();
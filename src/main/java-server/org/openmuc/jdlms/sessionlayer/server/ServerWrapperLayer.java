@@ -47,11 +47,26 @@ public class ServerWrapperLayer implements ServerSessionLayer {
 
     @Override
     public void send(byte[] data) throws IOException {
-        byte[] header = this.headerBuilder.setLength(data.length).build().encode();
+        send(data, 0, data.length);
+    }
 
-        byte[] wpdu = ByteBuffer.allocate(data.length + WrapperHeader.HEADER_LENGTH).put(header).put(data).array();
+    @Override
+    public void send(byte[] data, int off, int len) throws IOException {
+        byte[] header = this.headerBuilder.setLength(len).build().encode();
+
+        byte[] wpdu;
+        int wpduOff;
+        if (off >= WrapperHeader.HEADER_LENGTH) {
+            wpdu = data;
+            wpduOff = off - WrapperHeader.HEADER_LENGTH;
+            System.arraycopy(header, 0, wpdu, wpduOff, header.length);
+        }
+        else {
+            wpdu = ByteBuffer.allocate(len + WrapperHeader.HEADER_LENGTH).put(header).put(data, off, len).array();
+            wpduOff = 0;
+        }
 
-        this.streamAccessor.getOutpuStream().write(wpdu);
+        this.streamAccessor.getOutpuStream().write(wpdu, wpduOff, len + WrapperHeader.HEADER_LENGTH);
         this.streamAccessor.getOutpuStream().flush();
     }
 
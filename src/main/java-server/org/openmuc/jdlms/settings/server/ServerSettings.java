@@ -30,6 +30,8 @@ public interface ServerSettings {
 
     int getMaxClients();
 
+    int getMaxSetTransferSize();
+
     ServerConnectionListener getConnectionListener();
 
     ReferencingMethod getReferencingMethod();
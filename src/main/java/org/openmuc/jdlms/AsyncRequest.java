@@ -0,0 +1,297 @@
+/*
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.openmuc.jdlms;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.openmuc.jdlms.internal.asn1.cosem.COSEMpdu;
+import org.openmuc.jdlms.internal.asn1.cosem.Invoke_Id_And_Priority;
+
+/**
+ * A confirmed service invocation, which is driven by the thread reading from the remote meter instead of a waiting
+ * caller.
+ * 
+ * <p>
+ * The request is started as soon as the number of outstanding requests allows it. Follow-up requests of a block
+ * transfer are sent from the reading thread, when the previous block has been received.
+ * </p>
+ * 
+ * <p>
+ * The state of the request is guarded by a lock, which is never held while sending or while notifying the callback.
+ * </p>
+ * 
+ * @param <T>
+ *            the type of the result.
+ */
+abstract class AsyncRequest<T> implements Runnable, ResponseHandler {
+
+    private static final int MAX_RETRIES = 3;
+
+    private static final ScheduledExecutorService timeoutScheduler = Executors
+            .newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "jDLMS - ASYNC-RESPONSE-TIMEOUT thread");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    private static final ExecutorService requestStarter = Executors.newCachedThreadPool(new ThreadFactory() {
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "jDLMS - ASYNC-REQUEST thread");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private final DlmsConnection connection;
+    private final boolean priority;
+    private final ResponseFuture<T> future;
+    private final Lock lock;
+
+    private Invoke_Id_And_Priority invokeIdAndPriority;
+    private COSEMpdu request;
+    private int retries;
+    private int transmissions;
+    private ScheduledFuture<?> timeoutTask;
+    private boolean done;
+
+    /*
+     * Set while holding the lock and handled by dispatch() after the lock has been released.
+     */
+    private COSEMpdu pendingTransmission;
+    private boolean finished;
+    private T result;
+    private IOException error;
+
+    public AsyncRequest(DlmsConnection connection, boolean priority, ResponseCallback<T> callback) {
+        this.connection = connection;
+        this.priority = priority;
+        this.future = new ResponseFuture<>(callback);
+        this.lock = new ReentrantLock();
+        this.done = false;
+    }
+
+    /**
+     * Runs the request on a thread of the shared request executor, so that the releasing thread neither sends nor
+     * notifies callbacks of the waiting requests.
+     */
+    static void start(Runnable request) {
+        requestStarter.execute(request);
+    }
+
+    public Future<T> future() {
+        return this.future;
+    }
+
+    /**
+     * Creates the initial request PDU.
+     */
+    abstract COSEMpdu createRequest(Invoke_Id_And_Priority invokeIdAndPriority) throws IOException;
+
+    /**
+     * Processes a response. Must either call {@link #send(COSEMpdu)} to continue or {@link #complete(Object)} to
+     * finish the request.
+     */
+    abstract void processResponse(COSEMpdu response) throws IOException;
+
+    @Override
+    public void run() {
+        this.lock.lock();
+        try {
+            this.invokeIdAndPriority = this.connection.reserveInvokeId(this.priority, this);
+            send(createRequest(this.invokeIdAndPriority));
+        } catch (IOException e) {
+            fail(e);
+        } catch (RuntimeException e) {
+            fail(new IOException(e));
+        } finally {
+            this.lock.unlock();
+        }
+        dispatch();
+    }
+
+    @Override
+    public void responseReceived(COSEMpdu pdu) {
+        this.lock.lock();
+        try {
+            if (this.done) {
+                return;
+            }
+            cancelTimeout();
+            ++this.transmissions;
+
+            processResponse(pdu);
+        } catch (IOException e) {
+            fail(e);
+        } catch (RuntimeException e) {
+            fail(new IOException(e));
+        } finally {
+            this.lock.unlock();
+        }
+        dispatch();
+    }
+
+    @Override
+    public void errorOccurred(IOException e) {
+        failUnlessDone(e);
+        dispatch();
+    }
+
+    final Invoke_Id_And_Priority invokeIdAndPriority() {
+        return this.invokeIdAndPriority;
+    }
+
+    final void send(COSEMpdu pdu) {
+        this.request = pdu;
+        this.retries = 0;
+        transmit();
+    }
+
+    final void complete(T result) {
+        finish();
+        this.result = result;
+    }
+
+    private void fail(IOException e) {
+        finish();
+        this.error = e;
+    }
+
+    private void failUnlessDone(IOException e) {
+        this.lock.lock();
+        try {
+            if (!this.done) {
+                fail(e);
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void finish() {
+        this.done = true;
+        this.finished = true;
+        this.pendingTransmission = null;
+        cancelTimeout();
+    }
+
+    /**
+     * Prepares the transmission of the current request. It is sent by {@link #dispatch()}.
+     */
+    private void transmit() {
+        this.pendingTransmission = this.request;
+
+        final int transmission = ++this.transmissions;
+        int responseTimeout = this.connection.responseTimeout();
+        if (responseTimeout > 0) {
+            this.timeoutTask = timeoutScheduler.schedule(new Runnable() {
+
+                @Override
+                public void run() {
+                    responseTimedOut(transmission);
+                }
+            }, responseTimeout, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Sends the pending transmission and completes the future, without holding the lock.
+     */
+    private void dispatch() {
+        while (true) {
+            COSEMpdu pdu;
+            boolean notify;
+            this.lock.lock();
+            try {
+                pdu = this.pendingTransmission;
+                this.pendingTransmission = null;
+                notify = this.finished;
+                this.finished = false;
+            } finally {
+                this.lock.unlock();
+            }
+
+            if (notify) {
+                this.connection.releaseInvokeId(this.invokeIdAndPriority);
+                if (this.error != null) {
+                    this.future.fail(this.error);
+                }
+                else {
+                    this.future.complete(this.result);
+                }
+                return;
+            }
+
+            if (pdu == null) {
+                return;
+            }
+
+            try {
+                this.connection.sendRequest(pdu);
+                return;
+            } catch (IOException e) {
+                failUnlessDone(e);
+            }
+        }
+    }
+
+    private void responseTimedOut(int transmission) {
+        this.lock.lock();
+        try {
+            // the timeout may have been cancelled too late
+            if (this.done || transmission != this.transmissions) {
+                return;
+            }
+
+            if (this.retries++ < MAX_RETRIES) {
+                transmit();
+            }
+            else {
+                fail(new ResponseTimeoutException("Waiting for response timed out."));
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        dispatch();
+    }
+
+    private void cancelTimeout() {
+        if (this.timeoutTask != null) {
+            this.timeoutTask.cancel(false);
+            this.timeoutTask = null;
+        }
+    }
+
+}
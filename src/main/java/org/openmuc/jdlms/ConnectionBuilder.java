@@ -25,6 +25,8 @@ import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 import org.openmuc.jdlms.internal.SecSuiteAccessor;
 import org.openmuc.jdlms.sessionlayer.client.SessionLayer;
@@ -65,8 +67,14 @@ public abstract class ConnectionBuilder<T extends ConnectionBuilder<T>> {
 
     private int hdlcMaxInformationLength;
 
+    private int hdlcWindowSize;
+
     private boolean selectiveAccessValidationDisabled;
 
+    private int maxOutstandingRequests;
+
+    private ThreadFactory readerThreadFactory;
+
     /**
      * Create a new connection builder, with default settings.
      */
@@ -90,7 +98,13 @@ public abstract class ConnectionBuilder<T extends ConnectionBuilder<T>> {
 
         this.hdlcMaxInformationLength = HdlcParameters.MAX_INFORMATION_LENGTH;
 
+        this.hdlcWindowSize = HdlcParameters.MAX_WINDOW_SIZE;
+
         this.selectiveAccessValidationDisabled = false;
+
+        this.maxOutstandingRequests = 1;
+
+        this.readerThreadFactory = Executors.defaultThreadFactory();
     }
 
     /**
@@ -124,6 +138,30 @@ public abstract class ConnectionBuilder<T extends ConnectionBuilder<T>> {
         this.hdlcMaxInformationLength = hdlcMaxInformationLength;
     }
 
+    /**
+     * Set the HDLC window size proposed to the remote meter.
+     * 
+     * <p>
+     * The window size is the number of information frames which may be sent without waiting for an acknowledge. The
+     * meter may answer with a smaller window size. The window size is in the range of {@code [1, 7]}. Default is
+     * {@code 7}.
+     * </p>
+     * 
+     * @param hdlcWindowSize
+     *            the number of frames.
+     * @return the ConnectionBuilder
+     * 
+     * @throws IllegalArgumentException
+     *             if the integer is not in the range {@code [1, 7]}.
+     */
+    public T setHdlcWindowSize(int hdlcWindowSize) {
+        if (hdlcWindowSize < HdlcParameters.MIN_WINDOW_SIZE || hdlcWindowSize > HdlcParameters.MAX_WINDOW_SIZE) {
+            throw new IllegalArgumentException("HDLC window size must be in the range [1, 7].");
+        }
+        this.hdlcWindowSize = hdlcWindowSize;
+        return self();
+    }
+
     /**
      * Set the LN -&gt; SN mapping, so the connection does not have to retrieve the mapping when opening the SN
      * connection.
@@ -312,6 +350,67 @@ public abstract class ConnectionBuilder<T extends ConnectionBuilder<T>> {
         return self();
     }
 
+    /**
+     * Set the maximum number of requests which may be outstanding on the connection at the same time.
+     * 
+     * <p>
+     * If more than one request is allowed, GET, SET and ACTION requests issued from different threads are sent without
+     * waiting for the previous response. The responses are matched to the requests by their invoke-id. This only
+     * applies to LN referencing, SN requests are always sent one after another. The remote meter must be able to
+     * process pipelined requests.
+     * </p>
+     * 
+     * <p>
+     * The number must be in the range {@code [1, 16]}. Default is {@code 1}.
+     * </p>
+     * 
+     * @param maxOutstandingRequests
+     *            the maximum number of outstanding requests.
+     * @return the ConnectionBuilder
+     * 
+     * @throws IllegalArgumentException
+     *             if the integer is not in the range {@code [1, 16]}.
+     */
+    public T setMaxOutstandingRequests(int maxOutstandingRequests) {
+        final int maxValue = InvokeIdResponseQueue.NUM_INVOKE_IDS;
+
+        if (maxOutstandingRequests < 1 || maxOutstandingRequests > maxValue) {
+            String msg = MessageFormat.format("Max outstanding requests has to be between 1 and {0}.", maxValue);
+            throw new IllegalArgumentException(msg);
+        }
+        this.maxOutstandingRequests = maxOutstandingRequests;
+        return self();
+    }
+
+    /**
+     * Set the factory creating the threads, which read the incoming data of the connection.
+     * 
+     * <p>
+     * Each connection uses one reader thread. Blocking sections of the client stack are guarded by
+     * {@link java.util.concurrent.locks.ReentrantLock}s rather than monitors, so the reader and the requesting threads
+     * may also be lightweight threads. On a Java runtime providing virtual threads, a factory like
+     * {@code Thread.ofVirtual().factory()} allows holding a large number of concurrent connections.
+     * </p>
+     * 
+     * <p>
+     * Default is {@link Executors#defaultThreadFactory()}.
+     * </p>
+     * 
+     * @param readerThreadFactory
+     *            the thread factory.
+     * @return the ConnectionBuilder
+     * 
+     * @throws IllegalArgumentException
+     *             if the factory is {@code null}.
+     */
+    public T setReaderThreadFactory(ThreadFactory readerThreadFactory) {
+        if (readerThreadFactory == null) {
+            throw new IllegalArgumentException("Reader thread factory must not be null.");
+        }
+        this.readerThreadFactory = readerThreadFactory;
+        return self();
+    }
+
     /**
      * Builds a new DLMS/COSEM Connection.
      * 
@@ -382,7 +481,10 @@ public abstract class ConnectionBuilder<T extends ConnectionBuilder<T>> {
         private final ReferencingMethod referencingMethod;
         private final RawMessageListener rawMessageListener;
         private final int hdlcMaxInformationLength;
+        private final int hdlcWindowSize;
         private final boolean selectiveAccessValidationDisabled;
+        private final int maxOutstandingRequests;
+        private final ThreadFactory readerThreadFactory;
 
         public SettingsImpl(ConnectionBuilder<?> builder) {
             this.systemTitle = builder.systemTitle;
@@ -395,7 +497,10 @@ public abstract class ConnectionBuilder<T extends ConnectionBuilder<T>> {
             this.referencingMethod = builder.referencingMethod;
             this.rawMessageListener = builder.rawMessageListener;
             this.hdlcMaxInformationLength = builder.hdlcMaxInformationLength;
+            this.hdlcWindowSize = builder.hdlcWindowSize;
             this.selectiveAccessValidationDisabled = builder.selectiveAccessValidationDisabled;
+            this.maxOutstandingRequests = builder.maxOutstandingRequests;
+            this.readerThreadFactory = builder.readerThreadFactory;
         }
 
         @Override
@@ -464,9 +569,24 @@ public abstract class ConnectionBuilder<T extends ConnectionBuilder<T>> {
             return this.hdlcMaxInformationLength;
         }
 
+        @Override
+        public int hdlcWindowSize() {
+            return this.hdlcWindowSize;
+        }
+
         @Override
         public boolean selectiveAccessValidationDisabled() {
             return this.selectiveAccessValidationDisabled;
         }
+
+        @Override
+        public int maxOutstandingRequests() {
+            return this.maxOutstandingRequests;
+        }
+
+        @Override
+        public ThreadFactory readerThreadFactory() {
+            return this.readerThreadFactory;
+        }
     }
 }
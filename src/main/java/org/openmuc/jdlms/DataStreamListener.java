@@ -0,0 +1,47 @@
+/*
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.openmuc.jdlms;
+
+import java.util.EventListener;
+
+import org.openmuc.jdlms.datatypes.DataObject;
+
+/**
+ * Receives the elements of a result while it is still being transferred from the remote meter.
+ * <p>
+ * If the result is an array or a structure, e.g. the buffer of a profile generic, every element is delivered as soon
+ * as it is complete. Any other result is delivered as a single element.
+ * </p>
+ * 
+ * @see DlmsConnection#getStreamed(boolean, AttributeAddress, DataStreamListener)
+ */
+public interface DataStreamListener extends EventListener {
+
+    /**
+     * Invoked when an element of the result has been received.
+     * 
+     * @param index
+     *            the index of the element in the result.
+     * @param element
+     *            the element.
+     */
+    void elementReceived(int index, DataObject element);
+}
@@ -28,12 +28,16 @@ import static org.openmuc.jdlms.internal.ObjectIdentifier.mechanismNameFrom;
 import static org.openmuc.jdlms.internal.security.RandomSequenceGenerator.generateNewChallenge;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.text.MessageFormat;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.openmuc.jasn1.ber.types.BerOctetString;
 import org.openmuc.jdlms.JDlmsException.ExceptionId;
@@ -41,6 +45,7 @@ import org.openmuc.jdlms.JDlmsException.Fault;
 import org.openmuc.jdlms.RawMessageData.MessageSource;
 import org.openmuc.jdlms.RawMessageData.RawMessageDataBuilder;
 import org.openmuc.jdlms.SecuritySuite.EncryptionMechanism;
+import org.openmuc.jdlms.datatypes.DataObject;
 import org.openmuc.jdlms.datatypes.DataObject.Type;
 import org.openmuc.jdlms.internal.APdu;
 import org.openmuc.jdlms.internal.ConformanceSettingConverter;
@@ -76,7 +81,6 @@ import org.openmuc.jdlms.internal.security.HlsProcessorGmac;
 import org.openmuc.jdlms.internal.security.HlsSecretProcessor;
 import org.openmuc.jdlms.sessionlayer.client.SessionLayer;
 import org.openmuc.jdlms.sessionlayer.client.SessionLayerListener;
-import org.openmuc.jdlms.settings.client.ReferencingMethod;
 import org.openmuc.jdlms.settings.client.Settings;
 
 /**
@@ -103,6 +107,12 @@ public abstract class DlmsConnection implements AutoCloseable {
     private int maxSendPduSize;
 
     private final ResponseQueue cosemResponseQ;
+    private final InvokeIdResponseQueue invokeIdResponseQ;
+
+    /**
+     * Guards the send buffer. A lock is used instead of a monitor, since the I/O is blocking.
+     */
+    private final Lock sendLock;
 
     DlmsConnection(Settings settings, SessionLayer sessionLayer) {
         this.settings = settings;
@@ -116,8 +126,12 @@ public abstract class DlmsConnection implements AutoCloseable {
         this.invokeId = 1;
         this.frameCounter = 1;
 
+        this.sendLock = new ReentrantLock();
+
         this.cosemResponseQ = settings == null ? new ResponseQueue()
                 : new ResponseQueue(settings.responseTimeout());
+        this.invokeIdResponseQ = settings == null ? new InvokeIdResponseQueue(1, 0)
+                : new InvokeIdResponseQueue(settings.maxOutstandingRequests(), settings.responseTimeout());
     }
 
     /**
@@ -205,6 +219,58 @@ public abstract class DlmsConnection implements AutoCloseable {
      */
     public abstract List<GetResult> get(boolean priority, List<AttributeAddress> params) throws IOException;
 
+    /**
+     * Convenience method to call {@code getStreamed(false, attributeAddress, listener)}.
+     * 
+     * @param attributeAddress
+     *            specifier of the attribute to send (See {@link AttributeAddress})
+     * @param listener
+     *            the listener receiving the elements of the value.
+     * @return the result code of the request.
+     * 
+     * @throws IOException
+     *             if the connection breaks, while requesting.
+     *             <p>
+     *             May be of type {@link FatalJDlmsException} or {@link ResponseTimeoutException}
+     *             </p>
+     * 
+     * @see #getStreamed(boolean, AttributeAddress, DataStreamListener)
+     */
+    public final AccessResultCode getStreamed(AttributeAddress attributeAddress, DataStreamListener listener)
+            throws IOException {
+        return getStreamed(false, attributeAddress, listener);
+    }
+
+    /**
+     * Requests the remote smart meter to send the value of an attribute and passes the elements of the value to the
+     * listener while they are transferred.
+     * 
+     * <p>
+     * Unlike {@link #get(boolean, AttributeAddress)}, a value transferred in several blocks is not collected before it
+     * is decoded. Every element of the value, e.g. every entry of a profile generic buffer, is passed to the listener as
+     * soon as it is complete and is not retained afterwards. The listener is invoked by the calling thread.
+     * </p>
+     * 
+     * @param priority
+     *            if true: sends this request with high priority, if supported
+     * @param attributeAddress
+     *            specifier of the attribute to send (See {@link AttributeAddress})
+     * @param listener
+     *            the listener receiving the elements of the value.
+     * @return {@link AccessResultCode#SUCCESS} if the value has been passed to the listener, otherwise the result code
+     *         of the remote meter.
+     * 
+     * @throws IOException
+     *             if the connection breaks, while requesting.
+     *             <p>
+     *             May be of type {@link FatalJDlmsException} or {@link ResponseTimeoutException}
+     *             </p>
+     * 
+     * @see DataStreamListener
+     */
+    public abstract AccessResultCode getStreamed(boolean priority, AttributeAddress attributeAddress,
+            DataStreamListener listener) throws IOException;
+
     /**
      * Requests the remote smart meter to set one attribute to the committed value.
      * 
@@ -249,6 +315,36 @@ public abstract class DlmsConnection implements AutoCloseable {
      */
     public abstract List<AccessResultCode> set(boolean priority, List<SetParameter> params) throws IOException;
 
+    /**
+     * Requests the remote smart meter to set an attribute to an already encoded value.
+     * 
+     * <p>
+     * The value is read from the stream while it is sent. If it does not fit into a single request, it is transferred
+     * in data blocks and only one block is held in memory at a time. This allows writing e.g. firmware image blocks
+     * or large tables, without holding the complete value.
+     * </p>
+     * 
+     * @param priority
+     *            Sends this request with high priority, if supported
+     * @param attributeAddress
+     *            specifier of the attribute to set (See {@link AttributeAddress})
+     * @param encodedValue
+     *            stream holding the A-XDR encoding of exactly one COSEM Data value. The stream is read until its end,
+     *            but is not closed.
+     * @return the result of the smart meter.
+     * @throws IOException
+     *             if the connection breaks, while requesting, or reading from the stream fails.
+     *             <p>
+     *             May be of type {@link FatalJDlmsException} or {@link ResponseTimeoutException}
+     *             </p>
+     * @throws IllegalArgumentException
+     *             if the stream is empty.
+     * 
+     * @see org.openmuc.jdlms.datatypes.DataObject
+     */
+    public abstract AccessResultCode setStreamed(boolean priority, AttributeAddress attributeAddress,
+            InputStream encodedValue) throws IOException;
+
     /**
      * Requests the remote smart meter to set one attributes to the committed values.
      * 
@@ -376,13 +472,124 @@ public abstract class DlmsConnection implements AutoCloseable {
      */
     public abstract List<MethodResult> action(boolean priority, List<MethodParameter> params) throws IOException;
 
+    /**
+     * Convenience method to call {@code getAsync(false, params, callback)}.
+     * 
+     * @param params
+     *            args of specifiers which attributes to send (See {@link AttributeAddress})
+     * @param callback
+     *            the callback notified about the result, may be {@code null}.
+     * @return the future result.
+     * 
+     * @see #getAsync(boolean, List, ResponseCallback)
+     */
+    public final Future<List<GetResult>> getAsync(List<AttributeAddress> params,
+            ResponseCallback<List<GetResult>> callback) {
+        return getAsync(false, params, callback);
+    }
+
+    /**
+     * Requests the remote smart meter to send the values of one or several attributes, without waiting for the
+     * response.
+     * 
+     * <p>
+     * The request is sent as soon as the number of outstanding requests allows it (see
+     * {@link ConnectionBuilder#setMaxOutstandingRequests(int)}). The result is delivered by the thread reading from the
+     * remote meter. Unlike {@link #get(boolean, List)}, a request which exceeds the max send PDU size is not split into
+     * several requests but fails.
+     * </p>
+     * 
+     * <p>
+     * SN requests carry no invoke-id and can not be pipelined. With SN referencing, asynchronous requests are processed
+     * one after the other by a thread of the connection, using the blocking read/write services.
+     * </p>
+     * 
+     * @param priority
+     *            if true: sends this request with high priority, if supported
+     * @param params
+     *            args of specifiers which attributes to send (See {@link AttributeAddress})
+     * @param callback
+     *            the callback notified about the result, may be {@code null}.
+     * @return the future list of results from the smart meter in the same order as the requests.
+     */
+    public abstract Future<List<GetResult>> getAsync(boolean priority, List<AttributeAddress> params,
+            ResponseCallback<List<GetResult>> callback);
+
+    /**
+     * Convenience method to call {@code setAsync(false, params, callback)}.
+     * 
+     * @param params
+     *            args of specifier which attributes to set to which values (See {@link SetParameter})
+     * @param callback
+     *            the callback notified about the result, may be {@code null}.
+     * @return the future result.
+     * 
+     * @see #setAsync(boolean, List, ResponseCallback)
+     */
+    public final Future<List<AccessResultCode>> setAsync(List<SetParameter> params,
+            ResponseCallback<List<AccessResultCode>> callback) {
+        return setAsync(false, params, callback);
+    }
+
+    /**
+     * Requests the remote smart meter to set one or several attributes to the committed values, without waiting for
+     * the response.
+     * 
+     * @param priority
+     *            Sends this request with high priority, if supported
+     * @param params
+     *            args of specifier which attributes to set to which values (See {@link SetParameter})
+     * @param callback
+     *            the callback notified about the result, may be {@code null}.
+     * @return the future list of results from the smart meter in the same order as the requests.
+     * 
+     * @see #getAsync(boolean, List, ResponseCallback)
+     */
+    public abstract Future<List<AccessResultCode>> setAsync(boolean priority, List<SetParameter> params,
+            ResponseCallback<List<AccessResultCode>> callback);
+
+    /**
+     * Convenience method to call {@code actionAsync(false, params, callback)}.
+     * 
+     * @param params
+     *            List of specifier which methods to be called and, if needed, what parameters to call (See
+     *            {@link MethodParameter}
+     * @param callback
+     *            the callback notified about the result, may be {@code null}.
+     * @return the future result.
+     * 
+     * @see #actionAsync(boolean, List, ResponseCallback)
+     */
+    public final Future<List<MethodResult>> actionAsync(List<MethodParameter> params,
+            ResponseCallback<List<MethodResult>> callback) {
+        return actionAsync(false, params, callback);
+    }
+
+    /**
+     * Requests the remote smart meter to call one or several methods with or without committed parameters, without
+     * waiting for the response.
+     * 
+     * @param priority
+     *            Sends this request with high priority, if supported
+     * @param params
+     *            List of specifier which methods to be called and, if needed, what parameters to call (See
+     *            {@link MethodParameter}
+     * @param callback
+     *            the callback notified about the result, may be {@code null}.
+     * @return the future list of results from the smart meter in the same order as the requests.
+     * 
+     * @see #getAsync(boolean, List, ResponseCallback)
+     */
+    public abstract Future<List<MethodResult>> actionAsync(boolean priority, List<MethodParameter> params,
+            ResponseCallback<List<MethodResult>> callback);
+
     /**
      * Disconnects gracefully from the server.
      * 
      * @throws IOException
      *             if an I/O Exception occurs while closing
      */
-    public synchronized void disconnect() throws IOException {
+    public void disconnect() throws IOException {
         try {
             ReleaseReqReason releaseReason = ReleaseReqReason.NORMAL;
 
@@ -400,17 +607,23 @@ public abstract class DlmsConnection implements AutoCloseable {
 
             APdu aPduOut = new APdu(acseApdu, cosemPdu);
             RawMessageDataBuilder rawMessageBuilder = newRawMessageDataBuilder();
-            int length = unencryptedEncode(aPduOut, rawMessageBuilder);
 
-            this.incomingApduQeue.clear();
+            APdu aPdu;
+            this.sendLock.lock();
+            try {
+                int length = unencryptedEncode(aPduOut, rawMessageBuilder);
 
-            int offset = buffer.length - length;
+                this.incomingApduQeue.clear();
 
-            APdu aPdu;
-            int retries = 0;
-            do {
-                this.sessionLayer.send(buffer, offset, length, rawMessageBuilder);
-            } while ((aPdu = waitForServerResponseAPdu()) == null && retries++ < 3);
+                int offset = buffer.length - length;
+
+                int retries = 0;
+                do {
+                    this.sessionLayer.send(buffer, offset, length, rawMessageBuilder);
+                } while ((aPdu = waitForServerResponseAPdu()) == null && retries++ < 3);
+            } finally {
+                this.sendLock.unlock();
+            }
 
             if (aPdu == null) {
                 throw new ResponseTimeoutException("Disconnect timed out.");
@@ -435,6 +648,7 @@ public abstract class DlmsConnection implements AutoCloseable {
     @Override
     public void close() throws IOException {
         this.sessionLayer.close();
+        this.invokeIdResponseQ.putError(new IOException("Connection has been closed."));
     }
 
     /**
@@ -525,6 +739,27 @@ public abstract class DlmsConnection implements AutoCloseable {
         processInitResponse(hlsSecretProcessor, clientToServerChallenge, responseAPdu);
     }
 
+    /**
+     * Passes an already received result to a stream listener.
+     */
+    static AccessResultCode passToListener(GetResult result, DataStreamListener listener) {
+        if (!result.requestSuccessful()) {
+            return result.getResultCode();
+        }
+
+        DataObject data = result.getResultData();
+        if (data.getType() == Type.ARRAY || data.getType() == Type.STRUCTURE) {
+            List<DataObject> elements = data.getValue();
+            for (int i = 0; i < elements.size(); i++) {
+                listener.elementReceived(i, elements.get(i));
+            }
+        }
+        else {
+            listener.elementReceived(0, data);
+        }
+        return AccessResultCode.SUCCESS;
+    }
+
     Settings connectionSettings() {
         return this.settings;
     }
@@ -548,7 +783,56 @@ public abstract class DlmsConnection implements AutoCloseable {
         return this.maxSendPduSize;
     }
 
-    Invoke_Id_And_Priority invokeIdAndPriorityFor(boolean priority) {
+    /**
+     * Reserves a free invoke-id for a new service invocation. Waits if the maximum number of outstanding requests has
+     * been reached.
+     * 
+     * <p>
+     * The invoke-id must be released with {@link #releaseInvokeId(Invoke_Id_And_Priority)} after the service
+     * invocation (including the block transfer) has been completed.
+     * </p>
+     */
+    Invoke_Id_And_Priority acquireInvokeId(boolean priority) throws IOException {
+        this.invokeIdResponseQ.acquire();
+        return reserveInvokeId(priority, null);
+    }
+
+    /**
+     * Starts the request as soon as the maximum number of outstanding requests allows it.
+     */
+    <T> Future<T> startAsync(AsyncRequest<T> request) {
+        this.invokeIdResponseQ.acquireAsync(request);
+        return request.future();
+    }
+
+    Invoke_Id_And_Priority reserveInvokeId(boolean priority, ResponseHandler responseHandler) {
+        Invoke_Id_And_Priority invokeIdAndPriority;
+        do {
+            invokeIdAndPriority = invokeIdAndPriorityFor(priority);
+        } while (!this.invokeIdResponseQ.reserve(PduHelper.invokeIdFrom(invokeIdAndPriority), responseHandler));
+
+        return invokeIdAndPriority;
+    }
+
+    void releaseInvokeId(Invoke_Id_And_Priority invokeIdAndPriority) {
+        int invokeId = invokeIdAndPriority == null ? PduHelper.INVALID_INVOKE_ID
+                : PduHelper.invokeIdFrom(invokeIdAndPriority);
+        this.invokeIdResponseQ.release(invokeId);
+    }
+
+    int responseTimeout() {
+        return settings == null ? 0 : settings.responseTimeout();
+    }
+
+    /**
+     * Sends the request without waiting for the response.
+     */
+    void sendRequest(COSEMpdu pdu) throws IOException {
+        RawMessageDataBuilder rawMessageBuilder = RawMessageData.builder().setMessageSource(MessageSource.CLIENT);
+        encodeAndSend(new APdu(null, pdu), rawMessageBuilder);
+    }
+
+    synchronized Invoke_Id_And_Priority invokeIdAndPriorityFor(boolean priority) {
 
         byte[] invokeIdAndPriorityBytes = new byte[] { (byte) (invokeId & 0xF) };
         if (confirmedModeEnabled()) {
@@ -564,44 +848,15 @@ public abstract class DlmsConnection implements AutoCloseable {
     }
 
     @SuppressWarnings("unchecked")
-    synchronized <T extends AxdrType> T send(COSEMpdu pdu) throws IOException {
-
-        this.cosemResponseQ.clear();
-
-        APdu aPdu = new APdu(null, pdu);
-        RawMessageDataBuilder rawMessageBuilder = RawMessageData.builder().setMessageSource(MessageSource.CLIENT);
-
-        int length = encodeAPdu(aPdu, rawMessageBuilder);
-
-        int offset = buffer.length - length;
+    <T extends AxdrType> T send(COSEMpdu pdu) throws IOException {
+        int invokeId = PduHelper.invokeIdFrom(pdu);
 
         COSEMpdu responsePdu;
-        int retries = 0;
-        do {
-            this.sessionLayer.send(buffer, offset, length, rawMessageBuilder);
-        } while ((responsePdu = this.cosemResponseQ.poll()) == null && retries++ < 3);
-
-        if (responsePdu == null) {
-            throw new ResponseTimeoutException("Waiting for response timed out.");
+        if (invokeId == PduHelper.INVALID_INVOKE_ID) {
+            responsePdu = sendAndAwaitResponse(pdu);
         }
-
-        if (settings.referencingMethod() == ReferencingMethod.LOGICAL) {
-            for (int i = 0; i < 3; i++) {
-                int invokeId = PduHelper.invokeIdFrom(responsePdu);
-
-                int prevId = (this.invokeId - 1) % 16;
-                if (prevId < 0) {
-                    prevId += 16;
-                }
-                if (invokeId == prevId) {
-                    break;
-                }
-
-                responsePdu = this.cosemResponseQ.poll();
-                if (responsePdu == null) {
-                    throw new ResponseTimeoutException("Waiting for response timed out.");
-                }
-            }
+        else {
+            responsePdu = sendAndAwaitResponse(invokeId, pdu);
         }
 
         switch (responsePdu.getChoiceIndex()) {
@@ -624,6 +879,67 @@ public abstract class DlmsConnection implements AutoCloseable {
         }
     }
 
+    /*
+     * SN requests carry no invoke-id, thus only one request can be outstanding.
+     */
+    private COSEMpdu sendAndAwaitResponse(COSEMpdu pdu) throws IOException {
+        this.sendLock.lock();
+        try {
+            this.cosemResponseQ.clear();
+
+            APdu aPdu = new APdu(null, pdu);
+            RawMessageDataBuilder rawMessageBuilder = RawMessageData.builder()
+                    .setMessageSource(MessageSource.CLIENT);
+
+            int length = encodeAPdu(aPdu, rawMessageBuilder);
+
+            int offset = buffer.length - length;
+
+            COSEMpdu responsePdu;
+            int retries = 0;
+            do {
+                this.sessionLayer.send(buffer, offset, length, rawMessageBuilder);
+            } while ((responsePdu = this.cosemResponseQ.poll()) == null && retries++ < 3);
+
+            if (responsePdu == null) {
+                throw new ResponseTimeoutException("Waiting for response timed out.");
+            }
+            return responsePdu;
+        } finally {
+            this.sendLock.unlock();
+        }
+    }
+
+    /*
+     * The lock is only held while sending, other requests may be sent while waiting for the response.
+     */
+    private COSEMpdu sendAndAwaitResponse(int invokeId, COSEMpdu pdu) throws IOException {
+        APdu aPdu = new APdu(null, pdu);
+
+        COSEMpdu responsePdu;
+        int retries = 0;
+        do {
+            RawMessageDataBuilder rawMessageBuilder = RawMessageData.builder()
+                    .setMessageSource(MessageSource.CLIENT);
+            encodeAndSend(aPdu, rawMessageBuilder);
+        } while ((responsePdu = this.invokeIdResponseQ.poll(invokeId)) == null && retries++ < 3);
+
+        if (responsePdu == null) {
+            throw new ResponseTimeoutException("Waiting for response timed out.");
+        }
+        return responsePdu;
+    }
+
+    private void encodeAndSend(APdu aPdu, RawMessageDataBuilder rawMessageBuilder) throws IOException {
+        this.sendLock.lock();
+        try {
+            int length = encodeAPdu(aPdu, rawMessageBuilder);
+            this.sessionLayer.send(buffer, buffer.length - length, length, rawMessageBuilder);
+        } finally {
+            this.sendLock.unlock();
+        }
+    }
+
     abstract Set<ConformanceSetting> proposedConformance();
 
     abstract void validateReferencingMethod() throws IOException;
@@ -837,8 +1153,10 @@ public abstract class DlmsConnection implements AutoCloseable {
                 case ACTION_RESPONSE:
                 case GET_RESPONSE:
                 case SET_RESPONSE:
+                    invokeIdResponseQ.put(cosemPdu);
+                    break;
 
-                    // SN referencing
+                // SN referencing
                 case READRESPONSE:
                 case WRITERESPONSE:
                     cosemResponseQ.put(cosemPdu);
@@ -892,6 +1210,10 @@ public abstract class DlmsConnection implements AutoCloseable {
         }
 
         private void errorOccurred(IOException ex) {
+            if (invokeIdResponseQ.putError(ex)) {
+                return;
+            }
+
             if (cosemResponseQ.beingPolled()) {
                 cosemResponseQ.putError(ex);
             }
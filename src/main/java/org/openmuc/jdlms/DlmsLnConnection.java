@@ -35,18 +35,21 @@ import static org.openmuc.jdlms.ConformanceSetting.SET;
 import static org.openmuc.jdlms.internal.DataConverter.convertDataObjectToData;
 import static org.openmuc.jdlms.internal.DlmsEnumFunctions.enumValueFrom;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Future;
 
 import org.openmuc.jdlms.JDlmsException.ExceptionId;
 import org.openmuc.jdlms.JDlmsException.Fault;
@@ -55,85 +58,110 @@ import org.openmuc.jdlms.datatypes.DataObject;
 import org.openmuc.jdlms.interfaceclass.method.AssociationLnMethod;
 import org.openmuc.jdlms.internal.ContextId;
 import org.openmuc.jdlms.internal.DataConverter;
+import org.openmuc.jdlms.internal.DataObjectCodec;
+import org.openmuc.jdlms.internal.DataObjectStreamDecoder;
+import org.openmuc.jdlms.internal.LazyDataList;
 import org.openmuc.jdlms.internal.WellKnownInstanceIds;
+import org.openmuc.jdlms.internal.asn1.axdr.AxdrLength;
 import org.openmuc.jdlms.internal.asn1.axdr.AxdrType;
 import org.openmuc.jdlms.internal.asn1.axdr.NullOutputStream;
+import org.openmuc.jdlms.internal.asn1.axdr.types.AxdrBoolean;
 import org.openmuc.jdlms.internal.asn1.axdr.types.AxdrEnum;
+import org.openmuc.jdlms.internal.asn1.axdr.types.AxdrOctetString;
 import org.openmuc.jdlms.internal.asn1.axdr.types.AxdrOptional;
 import org.openmuc.jdlms.internal.asn1.cosem.ACTION_Request;
 import org.openmuc.jdlms.internal.asn1.cosem.ACTION_Response;
 import org.openmuc.jdlms.internal.asn1.cosem.Action_Request_Next_Pblock;
 import org.openmuc.jdlms.internal.asn1.cosem.Action_Request_Normal;
 import org.openmuc.jdlms.internal.asn1.cosem.Action_Request_With_List;
+import org.openmuc.jdlms.internal.asn1.cosem.Action_Response_With_Pblock;
 import org.openmuc.jdlms.internal.asn1.cosem.Action_Response_With_List.SubSeqOf_list_of_responses;
 import org.openmuc.jdlms.internal.asn1.cosem.Action_Response_With_Optional_Data;
 import org.openmuc.jdlms.internal.asn1.cosem.COSEMpdu;
 import org.openmuc.jdlms.internal.asn1.cosem.Cosem_Attribute_Descriptor;
 import org.openmuc.jdlms.internal.asn1.cosem.Cosem_Attribute_Descriptor_With_Selection;
 import org.openmuc.jdlms.internal.asn1.cosem.Data;
+import org.openmuc.jdlms.internal.asn1.cosem.DataBlock_SA;
 import org.openmuc.jdlms.internal.asn1.cosem.GET_Request;
 import org.openmuc.jdlms.internal.asn1.cosem.GET_Response;
 import org.openmuc.jdlms.internal.asn1.cosem.Get_Data_Result;
 import org.openmuc.jdlms.internal.asn1.cosem.Get_Request_Next;
 import org.openmuc.jdlms.internal.asn1.cosem.Get_Request_Normal;
 import org.openmuc.jdlms.internal.asn1.cosem.Get_Request_With_List;
-import org.openmuc.jdlms.internal.asn1.cosem.Get_Response_With_List.SubSeqOf_result;
+import org.openmuc.jdlms.internal.asn1.cosem.Get_Response_With_Datablock;
 import org.openmuc.jdlms.internal.asn1.cosem.Invoke_Id_And_Priority;
 import org.openmuc.jdlms.internal.asn1.cosem.SET_Request;
 import org.openmuc.jdlms.internal.asn1.cosem.SET_Response;
 import org.openmuc.jdlms.internal.asn1.cosem.Selective_Access_Descriptor;
 import org.openmuc.jdlms.internal.asn1.cosem.Set_Request_Normal;
+import org.openmuc.jdlms.internal.asn1.cosem.Set_Request_With_Datablock;
+import org.openmuc.jdlms.internal.asn1.cosem.Set_Request_With_First_Datablock;
 import org.openmuc.jdlms.internal.asn1.cosem.Set_Request_With_List;
+import org.openmuc.jdlms.internal.asn1.cosem.Set_Request_With_List_And_First_Datablock;
+import org.openmuc.jdlms.internal.asn1.cosem.Unsigned32;
 import org.openmuc.jdlms.internal.asn1.cosem.Unsigned8;
 import org.openmuc.jdlms.sessionlayer.client.SessionLayer;
 import org.openmuc.jdlms.settings.client.Settings;
 
 class DlmsLnConnection extends DlmsConnection {
 
+    private static final byte[] NULL_DATA_CODE = { 0 };
+
     DlmsLnConnection(Settings settings, SessionLayer sessionlayer) throws IOException {
         super(settings, sessionlayer);
     }
 
     @Override
-    public synchronized List<GetResult> get(boolean priority, List<AttributeAddress> params) throws IOException {
+    public List<GetResult> get(boolean priority, List<AttributeAddress> params) throws IOException {
         if (params.isEmpty()) {
             return emptyList();
         }
 
-        Invoke_Id_And_Priority id = invokeIdAndPriorityFor(priority);
-        COSEMpdu pdu = createGetPdu(id, params);
+        Invoke_Id_And_Priority id = acquireInvokeId(priority);
+        try {
+            COSEMpdu pdu = createGetPdu(id, params);
 
-        int pduSize = pduSizeOf(pdu);
-        if (maxSendPduSize() != 0 && pduSize > maxSendPduSize()) {
+            int pduSize = pduSizeOf(pdu);
+            if (maxSendPduSize() != 0 && pduSize > maxSendPduSize()) {
 
-            if (params.size() > 1) {
-                return callEachGetIndividullay(params);
+                if (params.size() > 1) {
+                    releaseInvokeId(id);
+                    id = null;
+                    return callEachGetIndividullay(params);
+                }
+                else {
+                    throw getRequestTooLarge(pduSize);
+                }
             }
-            else {
-                // IEC 62056-5-3 2013, Section 6.6 The GET service, Page 52:
-                // A GET.request service primitive shall always fit in a single APDU
-                throw new NonFatalJDlmsException(ExceptionId.GET_REQUEST_TOO_LARGE, Fault.USER,
-                        MessageFormat.format(
-                                "PDU ({0} byte) is too long for single GET.request. Max send PDU size is {1} byte.",
-                                pduSize, maxSendPduSize()));
+
+            GET_Response response = send(pdu);
+
+            switch (response.getChoiceIndex()) {
+            case GET_RESPONSE_NORMAL:
+                return Arrays.asList(convertPduToGetResult(response.get_response_normal.result));
+            case GET_RESPONSE_WITH_DATABLOCK:
+                return readDataBlockG(response, params);
+            case GET_RESPONSE_WITH_LIST:
+                return convertListToDataObject(response.get_response_with_list.result.list());
+            default:
+                String msg = String.format(
+                        "Unknown response type with Choice Index %s. Please report to developer of the stack.",
+                        response.getChoiceIndex());
+                throw new IllegalStateException(msg);
+            }
+        } finally {
+            if (id != null) {
+                releaseInvokeId(id);
             }
         }
+    }
 
-        GET_Response response = send(pdu);
-
-        switch (response.getChoiceIndex()) {
-        case GET_RESPONSE_NORMAL:
-            return Arrays.asList(convertPduToGetResult(response.get_response_normal.result));
-        case GET_RESPONSE_WITH_DATABLOCK:
-            return readDataBlockG(response, params);
-        case GET_RESPONSE_WITH_LIST:
-            return convertListToDataObject(response.get_response_with_list.result.list());
-        default:
-            String msg = String.format(
-                    "Unknown response type with Choice Index %s. Please report to developer of the stack.",
-                    response.getChoiceIndex());
-            throw new IllegalStateException(msg);
-        }
+    private NonFatalJDlmsException getRequestTooLarge(int pduSize) {
+        // IEC 62056-5-3 2013, Section 6.6 The GET service, Page 52:
+        // A GET.request service primitive shall always fit in a single APDU
+        return new NonFatalJDlmsException(ExceptionId.GET_REQUEST_TOO_LARGE, Fault.USER,
+                MessageFormat.format("PDU ({0} byte) is too long for single GET.request. Max send PDU size is {1} byte.",
+                        pduSize, maxSendPduSize()));
     }
 
     private List<GetResult> callEachGetIndividullay(List<AttributeAddress> params) throws IOException {
@@ -145,35 +173,67 @@ class DlmsLnConnection extends DlmsConnection {
     }
 
     private List<GetResult> readDataBlockG(GET_Response response, List<AttributeAddress> params) throws IOException {
-        byte[] byteArray = readBlocksGet(response);
-        InputStream dataByteStream = new ByteArrayInputStream(byteArray);
+        ByteArrayOutputStream datablocks = new ByteArrayOutputStream();
+        AccessResultCode resultCode = readBlocksGet(response, datablocks);
+        if (resultCode != AccessResultCode.SUCCESS) {
+            return Collections.nCopies(params.size(), new GetResult(resultCode));
+        }
+        return decodeGetDataBlocks(datablocks.toByteArray(), params);
+    }
 
+    private static List<GetResult> decodeGetDataBlocks(byte[] byteArray, List<AttributeAddress> params)
+            throws IOException {
         if (params.size() == 1) {
-            Data resultPduData = new Data();
-            resultPduData.decode(dataByteStream);
+            // large results, e.g. profile buffers, are only decoded as far as they are accessed
+            DataObject resultData = LazyDataList.decode(byteArray, 0, byteArray.length);
+            return Arrays.asList(new GetResult(resultData));
+        }
+        else {
+            ByteBuffer buffer = ByteBuffer.wrap(byteArray);
+            int numResults = AxdrLength.decodeLength(buffer);
 
-            Get_Data_Result getResult = new Get_Data_Result();
-            getResult.setdata(resultPduData);
+            List<GetResult> result = new ArrayList<>(Math.min(numResults, params.size()));
+            for (int i = 0; i < numResults; i++) {
+                result.add(decodeGetDataResult(buffer));
+            }
+            return result;
+        }
+    }
 
-            return Arrays.asList(convertPduToGetResult(getResult));
+    private static GetResult decodeGetDataResult(ByteBuffer buffer) throws IOException {
+        if (!buffer.hasRemaining()) {
+            throw new IOException("Error decoding Get-Data-Result: unexpected end of data.");
+        }
+
+        int choice = buffer.get() & 0xff;
+        if (choice == Get_Data_Result.Choices.DATA.getValue()) {
+            return new GetResult(DataObjectCodec.decode(buffer));
+        }
+        else if (choice == Get_Data_Result.Choices.DATA_ACCESS_RESULT.getValue() && buffer.hasRemaining()) {
+            return new GetResult(enumValueFrom(buffer.get() & 0xff, AccessResultCode.class));
         }
         else {
-            SubSeqOf_result subSeqOfResult = new SubSeqOf_result();
-            subSeqOfResult.decode(dataByteStream);
-            return convertListToDataObject(subSeqOfResult.list());
+            throw new IOException("Error decoding Get-Data-Result: Identifier matched to no item.");
         }
     }
 
-    private byte[] readBlocksGet(GET_Response response) throws IOException {
+    /**
+     * Writes the raw data of all blocks to the output stream, as they are received.
+     * 
+     * @return the access result code of a block which carries no raw data or {@link AccessResultCode#SUCCESS}.
+     */
+    private AccessResultCode readBlocksGet(GET_Response response, OutputStream datablocks) throws IOException {
         final Invoke_Id_And_Priority invokeIdAndPriority = response.get_response_with_datablock.invoke_id_and_priority;
 
-        ByteArrayOutputStream datablocks = new ByteArrayOutputStream();
         GET_Request getRequest = new GET_Request();
         COSEMpdu pdu = new COSEMpdu();
 
         Get_Request_Next nextBlock = new Get_Request_Next();
         GET_Response newRes = response;
         while (!newRes.get_response_with_datablock.result.last_block.getValue()) {
+            if (newRes.get_response_with_datablock.result.result.raw_data == null) {
+                return blockResultCode(newRes);
+            }
             datablocks.write(newRes.get_response_with_datablock.result.result.raw_data.getValue());
 
             nextBlock.block_number = newRes.get_response_with_datablock.result.block_number;
@@ -206,20 +266,96 @@ class DlmsLnConnection extends DlmsConnection {
         // .forValue(response.get_response_with_datablock.result.result.data_access_result.getValue());
         // }
 
+        if (newRes.get_response_with_datablock.result.result.raw_data == null) {
+            return blockResultCode(newRes);
+        }
         datablocks.write(newRes.get_response_with_datablock.result.result.raw_data.getValue());
 
-        return datablocks.toByteArray();
+        return AccessResultCode.SUCCESS;
+    }
+
+    private static AccessResultCode blockResultCode(GET_Response response) {
+        return enumValueFrom(response.get_response_with_datablock.result.result.data_access_result,
+                AccessResultCode.class);
     }
 
     @Override
-    public synchronized List<AccessResultCode> set(boolean priority, List<SetParameter> params) throws IOException {
+    public AccessResultCode getStreamed(boolean priority, AttributeAddress attributeAddress,
+            DataStreamListener listener) throws IOException {
+        Invoke_Id_And_Priority id = acquireInvokeId(priority);
+        try {
+            COSEMpdu pdu = createGetPdu(id, Arrays.asList(attributeAddress));
+
+            int pduSize = pduSizeOf(pdu);
+            if (maxSendPduSize() != 0 && pduSize > maxSendPduSize()) {
+                throw getRequestTooLarge(pduSize);
+            }
+
+            GET_Response response = send(pdu);
+
+            switch (response.getChoiceIndex()) {
+            case GET_RESPONSE_NORMAL:
+                return passToListener(convertPduToGetResult(response.get_response_normal.result), listener);
+            case GET_RESPONSE_WITH_DATABLOCK:
+                DataObjectStreamDecoder decoder = new DataObjectStreamDecoder(listener);
+                AccessResultCode resultCode = readBlocksGet(response, decoder);
+                if (resultCode == AccessResultCode.SUCCESS) {
+                    decoder.close();
+                }
+                return resultCode;
+            default:
+                throw new IllegalStateException("Server answered with an illegal response.");
+            }
+        } finally {
+            releaseInvokeId(id);
+        }
+    }
+
+    @Override
+    public List<AccessResultCode> set(boolean priority, List<SetParameter> params) throws IOException {
         if (params.isEmpty()) {
             return emptyList();
         }
 
-        Invoke_Id_And_Priority invokeIdAndPriority = invokeIdAndPriorityFor(priority);
-        SET_Response response = createAndSendSetPdu(invokeIdAndPriority, params);
+        Invoke_Id_And_Priority invokeIdAndPriority = acquireInvokeId(priority);
+        try {
+            SET_Response response = createAndSendSetPdu(invokeIdAndPriority, params);
+            return accessResultCodesOf(response);
+        } finally {
+            releaseInvokeId(invokeIdAndPriority);
+        }
+
+    }
+
+    @Override
+    public AccessResultCode setStreamed(boolean priority, AttributeAddress attributeAddress,
+            InputStream encodedValue) throws IOException {
+        checkSetAttributeId(attributeAddress);
+
+        int firstByte = encodedValue.read();
+        if (firstByte == -1) {
+            throw new IllegalArgumentException("The encoded value must not be empty.");
+        }
+
+        Invoke_Id_And_Priority invokeIdAndPriority = acquireInvokeId(priority);
+        try {
+            SetDatablockOutputStream datablocks = new SetDatablockOutputStream(invokeIdAndPriority,
+                    Arrays.asList(attributeAddress));
+            datablocks.write(firstByte);
+
+            byte[] buffer = new byte[datablocks.blockSize()];
+            int length;
+            while ((length = encodedValue.read(buffer)) != -1) {
+                datablocks.write(buffer, 0, length);
+            }
+
+            return accessResultCodesOf(datablocks.finish()).get(0);
+        } finally {
+            releaseInvokeId(invokeIdAndPriority);
+        }
+    }
 
+    private List<AccessResultCode> accessResultCodesOf(SET_Response response) {
         switch (response.getChoiceIndex()) {
         case SET_RESPONSE_NORMAL:
             return axdrEnumToAccessResultCode(response.set_response_normal.result);
@@ -236,7 +372,6 @@ class DlmsLnConnection extends DlmsConnection {
         default:
             throw new IllegalStateException("Unknown response type");
         }
-
     }
 
     private List<AccessResultCode> axdrEnumToAccessResultCode(AxdrEnum axdrEnum) {
@@ -252,27 +387,30 @@ class DlmsLnConnection extends DlmsConnection {
     }
 
     @Override
-    public synchronized List<MethodResult> action(boolean priority, List<MethodParameter> params) throws IOException {
+    public List<MethodResult> action(boolean priority, List<MethodParameter> params) throws IOException {
         if (params.isEmpty()) {
             return emptyList();
         }
 
-        final Invoke_Id_And_Priority id = invokeIdAndPriorityFor(priority);
-
-        ACTION_Response response = createAndSendActionPdu(id, params);
-
-        switch (response.getChoiceIndex()) {
-        case ACTION_RESPONSE_NORMAL:
-            return processActionNormal(response);
-        case ACTION_RESPONSE_WITH_LIST:
-            return processActionWithList(response);
-        case ACTION_RESPONSE_WITH_PBLOCK:
-            return processActionWithPblock(id, response);
-
-        default:
-        case ACTION_RESPONSE_NEXT_PBLOCK:
-        case _ERR_NONE_SELECTED:
-            throw new IllegalStateException("Server answered with an illegal response.");
+        final Invoke_Id_And_Priority id = acquireInvokeId(priority);
+        try {
+            ACTION_Response response = createAndSendActionPdu(id, params);
+
+            switch (response.getChoiceIndex()) {
+            case ACTION_RESPONSE_NORMAL:
+                return processActionNormal(response);
+            case ACTION_RESPONSE_WITH_LIST:
+                return processActionWithList(response);
+            case ACTION_RESPONSE_WITH_PBLOCK:
+                return processActionWithPblock(id, response);
+
+            default:
+            case ACTION_RESPONSE_NEXT_PBLOCK:
+            case _ERR_NONE_SELECTED:
+                throw new IllegalStateException("Server answered with an illegal response.");
+            }
+        } finally {
+            releaseInvokeId(id);
         }
 
     }
@@ -314,21 +452,19 @@ class DlmsLnConnection extends DlmsConnection {
             response = send(pdu);
         }
         datablocks.write(response.action_response_with_pblock.pblock.raw_data.getValue());
-        InputStream dataByteStream = new ByteArrayInputStream(datablocks.toByteArray());
 
-        return decodeAndConvertActionStream(dataByteStream);
+        return decodeAndConvertActionStream(datablocks.toByteArray());
     }
 
-    private static List<MethodResult> decodeAndConvertActionStream(InputStream is) throws IOException {
+    private static List<MethodResult> decodeAndConvertActionStream(byte[] byteArray) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(byteArray);
         List<MethodResult> result = new LinkedList<>();
-        while (is.available() > 0) {
-            Get_Data_Result dataResult = new Get_Data_Result();
-            dataResult.decode(is);
+        while (buffer.hasRemaining()) {
+            GetResult dataResult = decodeGetDataResult(buffer);
             // If remote Method call returns a pdu that must be
             // segmented into blocks of data, the assumption, that
             // the result was successful is always correct.
-            DataObject resultData = DataConverter.convertDataToDataObject(dataResult.data);
-            result.add(new MethodResult(MethodResultCode.SUCCESS, resultData));
+            result.add(new MethodResult(MethodResultCode.SUCCESS, dataResult.getResultData()));
         }
         return result;
     }
@@ -385,14 +521,73 @@ class DlmsLnConnection extends DlmsConnection {
     }
 
     private SET_Response createAndSendSetPdu(Invoke_Id_And_Priority id, List<SetParameter> params) throws IOException {
-        if (!negotiatedFeatures().contains(ATTRIBUTE0_SUPPORTED_WITH_SET)) {
-            for (SetParameter param : params) {
-                if (param.getAttributeAddress().getId() == 0) {
-                    throw new IllegalArgumentException("No Attribute 0 on set allowed");
-                }
-            }
+        if (maxSendPduSize() == 0 || setRequestSizeOf(id, params) <= maxSendPduSize()) {
+            return send(createSetPdu(id, params));
+        }
+
+        // the values are encoded into the data blocks while these are sent
+        List<AttributeAddress> attributeAddresses = new ArrayList<>(params.size());
+        for (SetParameter param : params) {
+            checkSetAttributeId(param.getAttributeAddress());
+            attributeAddresses.add(param.getAttributeAddress());
+        }
+
+        SetDatablockOutputStream datablocks = new SetDatablockOutputStream(id, attributeAddresses);
+        if (params.size() > 1) {
+            datablocks.write(AxdrLength.encodeLength(params.size()));
+        }
+        for (SetParameter param : params) {
+            DataObjectCodec.encode(param.getData(), datablocks);
         }
+        return datablocks.finish();
+    }
 
+    private COSEMpdu createSetPdu(Invoke_Id_And_Priority id, List<SetParameter> params) throws IOException {
+        for (SetParameter param : params) {
+            checkSetAttributeId(param.getAttributeAddress());
+        }
+
+        SET_Request request = newSetRequest(id, params, true);
+
+        if (maxSendPduSize() == 0 || pduSizeOf(request) <= maxSendPduSize()) {
+            COSEMpdu pdu = new COSEMpdu();
+            pdu.setset_request(request);
+
+            return pdu;
+        }
+        else {
+            throw setRequestTooLarge("Block transfer requires a synchronous request.");
+        }
+
+    }
+
+    private NonFatalJDlmsException setRequestTooLarge(String reason) {
+        return new NonFatalJDlmsException(ExceptionId.SET_REQUEST_TOO_LARGE, Fault.USER, MessageFormat
+                .format("SET.request exceeds the max send PDU size of {0} byte. {1}", maxSendPduSize(), reason));
+    }
+
+    private void checkSetAttributeId(AttributeAddress attributeAddress) {
+        if (attributeAddress.getId() == 0 && !negotiatedFeatures().contains(ATTRIBUTE0_SUPPORTED_WITH_SET)) {
+            throw new IllegalArgumentException("No Attribute 0 on set allowed");
+        }
+    }
+
+    /**
+     * Computes the size of the SET request, without encoding the values.
+     */
+    private static int setRequestSizeOf(Invoke_Id_And_Priority id, List<SetParameter> params) throws IOException {
+        int size = pduSizeOf(newSetRequest(id, params, false)) - params.size() * NULL_DATA_CODE.length;
+        for (SetParameter param : params) {
+            size += DataObjectCodec.encodedLength(param.getData());
+        }
+        return size;
+    }
+
+    /**
+     * Creates a SET request. Without values, every value is replaced by null data.
+     */
+    private static SET_Request newSetRequest(Invoke_Id_And_Priority id, List<SetParameter> params,
+            boolean withValues) {
         SET_Request request = new SET_Request();
 
         if (params.size() == 1) {
@@ -404,7 +599,8 @@ class DlmsLnConnection extends DlmsConnection {
             Selective_Access_Descriptor access = selToSelectivAccessDesciptor(accessSelection);
 
             requestNormal.cosem_attribute_descriptor = attributeAddress.toDescriptor();
-            requestNormal.value = DataConverter.convertDataObjectToData(setParameter.getData());
+            requestNormal.value = withValues ? convertDataObjectToData(setParameter.getData())
+                    : new Data(NULL_DATA_CODE);
             requestNormal.access_selection.setValue(access);
             request.setset_request_normal(requestNormal);
         }
@@ -414,29 +610,23 @@ class DlmsLnConnection extends DlmsConnection {
             requestList.attribute_descriptor_list = new Set_Request_With_List.SubSeqOf_attribute_descriptor_list();
             requestList.value_list = new Set_Request_With_List.SubSeqOf_value_list();
             for (SetParameter param : params) {
-                AttributeAddress attributeAddress = param.getAttributeAddress();
-                SelectiveAccessDescription accessSelection = attributeAddress.getAccessSelection();
-                Selective_Access_Descriptor access = selToSelectivAccessDesciptor(accessSelection);
-                Cosem_Attribute_Descriptor desc = attributeAddress.toDescriptor();
-
-                requestList.attribute_descriptor_list.add(new Cosem_Attribute_Descriptor_With_Selection(desc, access));
-                requestList.value_list.add(DataConverter.convertDataObjectToData(param.getData()));
+                requestList.attribute_descriptor_list.add(descriptorWithSelectionOf(param.getAttributeAddress()));
+                requestList.value_list
+                        .add(withValues ? convertDataObjectToData(param.getData()) : new Data(NULL_DATA_CODE));
             }
             request.setset_request_with_list(requestList);
         }
 
-        if (maxSendPduSize() == 0 || pduSizeOf(request) <= maxSendPduSize()) {
-            COSEMpdu pdu = new COSEMpdu();
-            pdu.setset_request(request);
+        return request;
+    }
 
-            return send(pdu);
-        }
-        else {
-            // send fragments - implements this
-            // TODO
-            throw new IOException("recieving fragments not yet implemented..");
-        }
+    private static Cosem_Attribute_Descriptor_With_Selection descriptorWithSelectionOf(
+            AttributeAddress attributeAddress) {
+        SelectiveAccessDescription accessSelection = attributeAddress.getAccessSelection();
+        Selective_Access_Descriptor access = selToSelectivAccessDesciptor(accessSelection);
+        Cosem_Attribute_Descriptor desc = attributeAddress.toDescriptor();
 
+        return new Cosem_Attribute_Descriptor_With_Selection(desc, access);
     }
 
     private static Selective_Access_Descriptor selToSelectivAccessDesciptor(
@@ -451,6 +641,11 @@ class DlmsLnConnection extends DlmsConnection {
 
     private ACTION_Response createAndSendActionPdu(Invoke_Id_And_Priority invokeIdAndPrio, List<MethodParameter> params)
             throws IOException {
+        return send(createActionPdu(invokeIdAndPrio, params));
+    }
+
+    private COSEMpdu createActionPdu(Invoke_Id_And_Priority invokeIdAndPrio, List<MethodParameter> params)
+            throws IOException {
         for (MethodParameter param : params) {
             if (param.getId() == 0) {
                 throw new IllegalArgumentException("MethodID 0 not allowed on action");
@@ -494,7 +689,7 @@ class DlmsLnConnection extends DlmsConnection {
             COSEMpdu pdu = new COSEMpdu();
             pdu.setaction_request(request);
 
-            return send(pdu);
+            return pdu;
         }
         else {
             // send fragments
@@ -503,6 +698,165 @@ class DlmsLnConnection extends DlmsConnection {
         }
     }
 
+    @Override
+    public Future<List<GetResult>> getAsync(boolean priority, final List<AttributeAddress> params,
+            ResponseCallback<List<GetResult>> callback) {
+        if (params.isEmpty()) {
+            return ResponseFuture.completed(Collections.<GetResult>emptyList(), callback);
+        }
+        return startAsync(new AsyncRequest<List<GetResult>>(this, priority, callback) {
+
+            private final ByteArrayOutputStream datablocks = new ByteArrayOutputStream();
+
+            @Override
+            COSEMpdu createRequest(Invoke_Id_And_Priority id) throws IOException {
+                COSEMpdu pdu = createGetPdu(id, params);
+
+                int pduSize = pduSizeOf(pdu);
+                if (maxSendPduSize() != 0 && pduSize > maxSendPduSize()) {
+                    throw getRequestTooLarge(pduSize);
+                }
+                return pdu;
+            }
+
+            @Override
+            void processResponse(COSEMpdu pdu) throws IOException {
+                GET_Response response = pdu.get_response;
+
+                switch (response.getChoiceIndex()) {
+                case GET_RESPONSE_NORMAL:
+                    complete(Arrays.asList(convertPduToGetResult(response.get_response_normal.result)));
+                    break;
+                case GET_RESPONSE_WITH_LIST:
+                    complete(convertListToDataObject(response.get_response_with_list.result.list()));
+                    break;
+                case GET_RESPONSE_WITH_DATABLOCK:
+                    processDataBlock(response.get_response_with_datablock);
+                    break;
+                default:
+                    throw new IllegalStateException("Server answered with an illegal response.");
+                }
+            }
+
+            private void processDataBlock(Get_Response_With_Datablock response) throws IOException {
+                this.datablocks.write(response.result.result.raw_data.getValue());
+
+                if (response.result.last_block.getValue()) {
+                    complete(decodeGetDataBlocks(this.datablocks.toByteArray(), params));
+                    return;
+                }
+
+                Get_Request_Next nextBlock = new Get_Request_Next();
+                nextBlock.block_number = response.result.block_number;
+                nextBlock.invoke_id_and_priority = invokeIdAndPriority();
+
+                GET_Request getRequest = new GET_Request();
+                getRequest.setget_request_next(nextBlock);
+
+                COSEMpdu pdu = new COSEMpdu();
+                pdu.setget_request(getRequest);
+                send(pdu);
+            }
+        });
+    }
+
+    @Override
+    public Future<List<AccessResultCode>> setAsync(boolean priority, final List<SetParameter> params,
+            ResponseCallback<List<AccessResultCode>> callback) {
+        if (params.isEmpty()) {
+            return ResponseFuture.completed(Collections.<AccessResultCode>emptyList(), callback);
+        }
+        return startAsync(new AsyncRequest<List<AccessResultCode>>(this, priority, callback) {
+
+            @Override
+            COSEMpdu createRequest(Invoke_Id_And_Priority id) throws IOException {
+                return createSetPdu(id, params);
+            }
+
+            @Override
+            void processResponse(COSEMpdu pdu) throws IOException {
+                SET_Response response = pdu.set_response;
+
+                switch (response.getChoiceIndex()) {
+                case SET_RESPONSE_NORMAL:
+                    complete(axdrEnumToAccessResultCode(response.set_response_normal.result));
+                    break;
+                case SET_RESPONSE_WITH_LIST:
+                    complete(axdrEnumsToAccessResultCodes(response.set_response_with_list.result.list()));
+                    break;
+                case SET_RESPONSE_LAST_DATABLOCK:
+                    complete(axdrEnumToAccessResultCode(response.set_response_last_datablock.result));
+                    break;
+                case SET_RESPONSE_LAST_DATABLOCK_WITH_LIST:
+                    complete(axdrEnumsToAccessResultCodes(
+                            response.set_response_last_datablock_with_list.result.list()));
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown response type");
+                }
+            }
+        });
+    }
+
+    @Override
+    public Future<List<MethodResult>> actionAsync(boolean priority, final List<MethodParameter> params,
+            ResponseCallback<List<MethodResult>> callback) {
+        if (params.isEmpty()) {
+            return ResponseFuture.completed(Collections.<MethodResult>emptyList(), callback);
+        }
+        return startAsync(new AsyncRequest<List<MethodResult>>(this, priority, callback) {
+
+            private final ByteArrayOutputStream datablocks = new ByteArrayOutputStream();
+
+            @Override
+            COSEMpdu createRequest(Invoke_Id_And_Priority id) throws IOException {
+                return createActionPdu(id, params);
+            }
+
+            @Override
+            void processResponse(COSEMpdu pdu) throws IOException {
+                ACTION_Response response = pdu.action_response;
+
+                switch (response.getChoiceIndex()) {
+                case ACTION_RESPONSE_NORMAL:
+                    complete(processActionNormal(response));
+                    break;
+                case ACTION_RESPONSE_WITH_LIST:
+                    complete(processActionWithList(response));
+                    break;
+                case ACTION_RESPONSE_WITH_PBLOCK:
+                    processPblock(response.action_response_with_pblock);
+                    break;
+
+                default:
+                case ACTION_RESPONSE_NEXT_PBLOCK:
+                case _ERR_NONE_SELECTED:
+                    throw new IllegalStateException("Server answered with an illegal response.");
+                }
+            }
+
+            private void processPblock(Action_Response_With_Pblock response) throws IOException {
+                this.datablocks.write(response.pblock.raw_data.getValue());
+
+                if (response.pblock.last_block.getValue()) {
+                    complete(decodeAndConvertActionStream(this.datablocks.toByteArray()));
+                    return;
+                }
+
+                Action_Request_Next_Pblock nextBlock = new Action_Request_Next_Pblock();
+                nextBlock.invoke_id_and_priority = invokeIdAndPriority();
+                nextBlock.block_number = response.pblock.block_number;
+
+                ACTION_Request request = new ACTION_Request();
+                request.setaction_request_next_pblock(nextBlock);
+
+                COSEMpdu pdu = new COSEMpdu();
+                pdu.setaction_request(request);
+                send(pdu);
+            }
+        });
+    }
+
     private static void checkAttributeIdValidty(List<AttributeAddress> params) {
         for (AttributeAddress param : params) {
             if (param.getId() == 0) {
@@ -587,4 +941,168 @@ class DlmsLnConnection extends DlmsConnection {
         }
     }
 
+    /**
+     * Sends the encoded values of a SET request in data blocks while they are written.
+     * <p>
+     * A block is only sent once it is full and more data is written, so the last block can be flagged as such by
+     * {@link #finish()}. If the whole value of a single attribute fits into the first block, it is sent as normal
+     * request instead.
+     * </p>
+     */
+    private class SetDatablockOutputStream extends OutputStream {
+
+        /**
+         * The length of a block is encoded in at most three bytes, one of them is part of the measured header.
+         */
+        private static final int MAX_ADDITIONAL_LENGTH_BYTES = 2;
+
+        /**
+         * Tag, length, security header and authentication tag added by ciphering.
+         */
+        private static final int CIPHERING_OVERHEAD = 1 + 3 + 5 + 12;
+
+        private final Invoke_Id_And_Priority id;
+        private final List<AttributeAddress> attributeAddresses;
+        private final byte[] block;
+
+        private int blockLength;
+        private long blockNumber;
+        private SET_Response response;
+
+        public SetDatablockOutputStream(Invoke_Id_And_Priority id, List<AttributeAddress> attributeAddresses)
+                throws IOException {
+            this.id = id;
+            this.attributeAddresses = attributeAddresses;
+
+            int headerSize = pduSizeOf(newDatablockRequest(new byte[0], false));
+            int blockSize = maxSendPduSize() - headerSize - MAX_ADDITIONAL_LENGTH_BYTES;
+            if (connectionSettings().securitySuite().getEncryptionMechanism() != EncryptionMechanism.NONE) {
+                blockSize -= CIPHERING_OVERHEAD;
+            }
+            if (blockSize <= 0) {
+                throw setRequestTooLarge("Max send PDU size is too small for a block transfer.");
+            }
+            this.block = new byte[blockSize];
+        }
+
+        public int blockSize() {
+            return this.block.length;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (this.blockLength == this.block.length) {
+                sendBlock(false);
+            }
+            this.block[this.blockLength++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (this.blockLength == this.block.length) {
+                    sendBlock(false);
+                }
+
+                int length = Math.min(len, this.block.length - this.blockLength);
+                System.arraycopy(b, off, this.block, this.blockLength, length);
+                this.blockLength += length;
+                off += length;
+                len -= length;
+            }
+        }
+
+        /**
+         * Sends the remaining data.
+         * 
+         * @return the response to the last block or the response of a remote meter which ended the transfer early.
+         */
+        public SET_Response finish() throws IOException {
+            if (this.response != null) {
+                return this.response;
+            }
+
+            if (this.blockNumber == 0 && this.attributeAddresses.size() == 1) {
+                return send(newNormalRequest(Arrays.copyOf(this.block, this.blockLength)));
+            }
+
+            sendBlock(true);
+            return this.response;
+        }
+
+        private void sendBlock(boolean lastBlock) throws IOException {
+            if (this.response != null) {
+                // the remote meter ended the transfer, the remaining data is discarded
+                this.blockLength = 0;
+                return;
+            }
+
+            if (this.blockNumber == 0 && !negotiatedFeatures().contains(BLOCK_TRANSFER_WITH_SET_OR_WRITE)) {
+                throw setRequestTooLarge("Remote meter doesn't support block transfer with SET.");
+            }
+
+            this.blockNumber++;
+            byte[] rawData = this.blockLength == this.block.length ? this.block
+                    : Arrays.copyOf(this.block, this.blockLength);
+            SET_Response blockResponse = send(newDatablockRequest(rawData, lastBlock));
+            this.blockLength = 0;
+
+            if (lastBlock || blockResponse.getChoiceIndex() != SET_Response.Choices.SET_RESPONSE_DATABLOCK) {
+                this.response = blockResponse;
+            }
+            else if (blockResponse.set_response_datablock.block_number.getValue() != this.blockNumber) {
+                throw new FatalJDlmsException(ExceptionId.ILLEGAL_RESPONSE, Fault.SYSTEM,
+                        MessageFormat.format("Remote meter confirmed block {0} instead of {1}.",
+                                blockResponse.set_response_datablock.block_number.getValue(), this.blockNumber));
+            }
+        }
+
+        private COSEMpdu newNormalRequest(byte[] encodedValue) {
+            Set_Request_Normal requestNormal = new Set_Request_Normal();
+            requestNormal.invoke_id_and_priority = this.id;
+            AttributeAddress attributeAddress = this.attributeAddresses.get(0);
+            requestNormal.cosem_attribute_descriptor = attributeAddress.toDescriptor();
+            requestNormal.value = new Data(encodedValue);
+            requestNormal.access_selection
+                    .setValue(selToSelectivAccessDesciptor(attributeAddress.getAccessSelection()));
+
+            SET_Request request = new SET_Request();
+            request.setset_request_normal(requestNormal);
+
+            COSEMpdu pdu = new COSEMpdu();
+            pdu.setset_request(request);
+            return pdu;
+        }
+
+        private COSEMpdu newDatablockRequest(byte[] rawData, boolean lastBlock) {
+            DataBlock_SA datablock = new DataBlock_SA(new AxdrBoolean(lastBlock), new Unsigned32(this.blockNumber),
+                    new AxdrOctetString(rawData));
+
+            SET_Request request = new SET_Request();
+            if (this.blockNumber > 1) {
+                request.setset_request_with_datablock(new Set_Request_With_Datablock(this.id, datablock));
+            }
+            else if (this.attributeAddresses.size() == 1) {
+                AttributeAddress attributeAddress = this.attributeAddresses.get(0);
+                request.setset_request_with_first_datablock(new Set_Request_With_First_Datablock(this.id,
+                        attributeAddress.toDescriptor(),
+                        selToSelectivAccessDesciptor(attributeAddress.getAccessSelection()), datablock));
+            }
+            else {
+                Set_Request_With_List_And_First_Datablock requestList = new Set_Request_With_List_And_First_Datablock();
+                requestList.invoke_id_and_priority = this.id;
+                requestList.attribute_descriptor_list = new Set_Request_With_List_And_First_Datablock.SubSeqOf_attribute_descriptor_list();
+                for (AttributeAddress attributeAddress : this.attributeAddresses) {
+                    requestList.attribute_descriptor_list.add(descriptorWithSelectionOf(attributeAddress));
+                }
+                requestList.datablock = datablock;
+                request.setset_request_with_list_and_first_datablock(requestList);
+            }
+
+            COSEMpdu pdu = new COSEMpdu();
+            pdu.setset_request(request);
+            return pdu;
+        }
+    }
+
 }
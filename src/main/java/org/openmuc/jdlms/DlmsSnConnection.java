@@ -36,6 +36,9 @@ import static org.openmuc.jdlms.internal.WellKnownInstanceIds.CURRENT_ASSOCIATIO
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -47,6 +50,12 @@ import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.openmuc.jdlms.JDlmsException.ExceptionId;
 import org.openmuc.jdlms.JDlmsException.Fault;
@@ -55,6 +64,8 @@ import org.openmuc.jdlms.datatypes.DataObject;
 import org.openmuc.jdlms.interfaceclass.method.AssociationSnMethod;
 import org.openmuc.jdlms.internal.ContextId;
 import org.openmuc.jdlms.internal.DataConverter;
+import org.openmuc.jdlms.internal.DataObjectCodec;
+import org.openmuc.jdlms.internal.ReadResponseStreamDecoder;
 import org.openmuc.jdlms.internal.SnInterfaceClassList;
 import org.openmuc.jdlms.internal.WellKnownInstanceIds;
 import org.openmuc.jdlms.internal.asn1.axdr.types.AxdrOctetString;
@@ -87,6 +98,15 @@ class DlmsSnConnection extends DlmsConnection {
     private static final Integer16 ASSOCIATION_OBJECT_LIST = new Integer16((short) 0xFA08);
 
     private Map<ObisCode, SnObjectInfo> snObjectMapping;
+
+    /**
+     * SN requests carry no invoke-id, thus a request including its block transfer is not interleaved with others.
+     */
+    private final Lock requestLock = new ReentrantLock();
+    /**
+     * Runs asynchronous requests one after the other, since they can not be pipelined without invoke-id.
+     */
+    private final ExecutorService asyncExecutor;
     private volatile boolean mapIsInitialized;
 
     /**
@@ -99,6 +119,8 @@ class DlmsSnConnection extends DlmsConnection {
         super(settings, transportLayerCon);
 
         this.mapIsInitialized = false;
+        this.asyncExecutor = Executors.newSingleThreadExecutor(
+                settings == null ? Executors.defaultThreadFactory() : settings.readerThreadFactory());
 
         if (snObjectMapping != null && !snObjectMapping.isEmpty()) {
             this.snObjectMapping = snObjectMapping;
@@ -109,7 +131,53 @@ class DlmsSnConnection extends DlmsConnection {
     }
 
     @Override
-    public synchronized List<GetResult> get(boolean highPriority, List<AttributeAddress> params) throws IOException {
+    public List<GetResult> get(boolean highPriority, List<AttributeAddress> params) throws IOException {
+        this.requestLock.lock();
+        try {
+            return doGet(highPriority, params);
+        } finally {
+            this.requestLock.unlock();
+        }
+    }
+
+    @Override
+    public AccessResultCode getStreamed(boolean priority, AttributeAddress attributeAddress,
+            DataStreamListener listener) throws IOException {
+        this.requestLock.lock();
+        try {
+            return doGetStreamed(attributeAddress, listener);
+        } finally {
+            this.requestLock.unlock();
+        }
+    }
+
+    private AccessResultCode doGetStreamed(AttributeAddress attributeAddress, DataStreamListener listener)
+            throws IOException {
+        ReadRequest request = new ReadRequest();
+        try {
+            request.add(buildAddressSpec(attributeAddress));
+        } catch (AccessNotAllowedException e) {
+            return AccessResultCode.OBJECT_UNDEFINED;
+        }
+
+        COSEMpdu pdu = new COSEMpdu();
+        pdu.setreadRequest(request);
+
+        ReadResponse readResponse = send(pdu);
+        ReadResponse.SubChoice result = readResponse.get(0);
+
+        if (result.getChoiceIndex() != ReadResponse.SubChoice.Choices.DATA_BLOCK_RESULT) {
+            return passToListener(convertReadResponseToGetResult(result), listener);
+        }
+
+        ReadResponseStreamDecoder decoder = new ReadResponseStreamDecoder(listener);
+        readBlocks(readResponse, decoder);
+        decoder.close();
+
+        return decoder.resultCode();
+    }
+
+    private List<GetResult> doGet(boolean highPriority, List<AttributeAddress> params) throws IOException {
         if (saveListIsEmpty(params)) {
             return Collections.emptyList();
         }
@@ -193,23 +261,33 @@ class DlmsSnConnection extends DlmsConnection {
         }
 
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        readBlocks(readResponse, baos);
 
+        readResponse = new ReadResponse();
+        readResponse.decode(new ByteArrayInputStream(baos.toByteArray()));
+        return readResponse;
+    }
+
+    /**
+     * Writes the raw data of all blocks to the output stream, as they are received.
+     */
+    private void readBlocks(ReadResponse readResponse, OutputStream rawData) throws IOException {
         while (true) {
             Data_Block_Result dataBlockResult = readResponse.get(0).data_block_result;
+            if (dataBlockResult == null) {
+                throw new IOException("Block transfer was aborted by the remote meter.");
+            }
 
-            baos.write(dataBlockResult.raw_data.getValue());
+            rawData.write(dataBlockResult.raw_data.getValue());
 
             if (dataBlockResult.last_block.getValue()) {
-                readResponse = new ReadResponse();
-                readResponse.decode(new ByteArrayInputStream(baos.toByteArray()));
-                return readResponse;
+                return;
             }
 
             Unsigned16 blockNumber = dataBlockResult.block_number;
 
             readResponse = requestNexBlock(blockNumber);
         }
-
     }
 
     private ReadResponse requestNexBlock(Unsigned16 blockNumber) throws IOException {
@@ -224,7 +302,34 @@ class DlmsSnConnection extends DlmsConnection {
     }
 
     @Override
-    public synchronized List<AccessResultCode> set(boolean highPriority, List<SetParameter> params) throws IOException {
+    public List<AccessResultCode> set(boolean highPriority, List<SetParameter> params) throws IOException {
+        this.requestLock.lock();
+        try {
+            return doSet(highPriority, params);
+        } finally {
+            this.requestLock.unlock();
+        }
+    }
+
+    @Override
+    public AccessResultCode setStreamed(boolean priority, AttributeAddress attributeAddress,
+            InputStream encodedValue) throws IOException {
+        // WRITE is not transferred in blocks, so the value has to be sent as a whole
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int length;
+        while ((length = encodedValue.read(buffer)) != -1) {
+            encoded.write(buffer, 0, length);
+        }
+        if (encoded.size() == 0) {
+            throw new IllegalArgumentException("The encoded value must not be empty.");
+        }
+
+        DataObject data = DataObjectCodec.decode(ByteBuffer.wrap(encoded.toByteArray()));
+        return set(priority, new SetParameter(attributeAddress, data));
+    }
+
+    private List<AccessResultCode> doSet(boolean highPriority, List<SetParameter> params) throws IOException {
 
         if (saveListIsEmpty(params)) {
             return Collections.emptyList();
@@ -305,7 +410,16 @@ class DlmsSnConnection extends DlmsConnection {
     }
 
     @Override
-    public synchronized List<MethodResult> action(boolean priority, List<MethodParameter> params) throws IOException {
+    public List<MethodResult> action(boolean priority, List<MethodParameter> params) throws IOException {
+        this.requestLock.lock();
+        try {
+            return doAction(priority, params);
+        } finally {
+            this.requestLock.unlock();
+        }
+    }
+
+    private List<MethodResult> doAction(boolean priority, List<MethodParameter> params) throws IOException {
         if (saveListIsEmpty(params)) {
             return Collections.emptyList();
         }
@@ -323,6 +437,86 @@ class DlmsSnConnection extends DlmsConnection {
         return confirmedMethdoCall(params);
     }
 
+    @Override
+    public Future<List<GetResult>> getAsync(final boolean priority, final List<AttributeAddress> params,
+            ResponseCallback<List<GetResult>> callback) {
+        return startAsync(new SnAsyncRequest<List<GetResult>>(callback) {
+
+            @Override
+            List<GetResult> call() throws IOException {
+                return get(priority, params);
+            }
+        });
+    }
+
+    @Override
+    public Future<List<AccessResultCode>> setAsync(final boolean priority, final List<SetParameter> params,
+            ResponseCallback<List<AccessResultCode>> callback) {
+        return startAsync(new SnAsyncRequest<List<AccessResultCode>>(callback) {
+
+            @Override
+            List<AccessResultCode> call() throws IOException {
+                return set(priority, params);
+            }
+        });
+    }
+
+    @Override
+    public Future<List<MethodResult>> actionAsync(final boolean priority, final List<MethodParameter> params,
+            ResponseCallback<List<MethodResult>> callback) {
+        return startAsync(new SnAsyncRequest<List<MethodResult>>(callback) {
+
+            @Override
+            List<MethodResult> call() throws IOException {
+                return action(priority, params);
+            }
+        });
+    }
+
+    private <T> Future<T> startAsync(SnAsyncRequest<T> request) {
+        try {
+            this.asyncExecutor.execute(request);
+        } catch (RejectedExecutionException e) {
+            request.future.fail(new IOException("Connection has been closed."));
+        }
+        return request.future;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.asyncExecutor.shutdown();
+        super.close();
+    }
+
+    /**
+     * An asynchronous SN request, processed by the read/write path of the connection on the async executor.
+     */
+    private abstract static class SnAsyncRequest<T> implements Runnable {
+
+        private final ResponseFuture<T> future;
+
+        public SnAsyncRequest(ResponseCallback<T> callback) {
+            this.future = new ResponseFuture<>(callback);
+        }
+
+        abstract T call() throws IOException;
+
+        @Override
+        public void run() {
+            T result;
+            try {
+                result = call();
+            } catch (IOException e) {
+                this.future.fail(e);
+                return;
+            } catch (RuntimeException e) {
+                this.future.fail(new IOException(e));
+                return;
+            }
+            this.future.complete(result);
+        }
+    }
+
     private List<MethodResult> setFailureResForAllParams(List<MethodParameter> params) {
         List<MethodResult> resList = new ArrayList<>(params.size());
         final MethodResult result = new MethodResult(SCOPE_OF_ACCESS_VIOLATION);
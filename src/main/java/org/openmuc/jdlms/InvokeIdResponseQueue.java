@@ -0,0 +1,226 @@
+/*
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.openmuc.jdlms;
+
+import static org.openmuc.jdlms.internal.PduHelper.INVALID_INVOKE_ID;
+import static org.openmuc.jdlms.internal.PduHelper.invokeIdFrom;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+
+import org.openmuc.jdlms.internal.asn1.cosem.COSEMpdu;
+
+/**
+ * Matches incoming LN responses to the outstanding requests by their invoke-id.
+ * 
+ * <p>
+ * At most {@code maxOutstandingRequests} invoke-ids can be reserved at the same time. A reserved invoke-id stays
+ * reserved for the whole service invocation, including the block transfer, until it is released.
+ * </p>
+ * 
+ * <p>
+ * Responses for an invoke-id reserved with a {@link ResponseHandler} are handed to the handler on the calling (reading)
+ * thread. Otherwise they are queued until they are polled.
+ * </p>
+ */
+class InvokeIdResponseQueue {
+
+    static final int NUM_INVOKE_IDS = 16;
+
+    private final Semaphore outstandingRequests;
+    private final ResponseQueue[] responseQueues;
+    private final ResponseHandler[] responseHandlers;
+    private final boolean[] reserved;
+    private final Queue<Runnable> waitingRequests;
+
+    public InvokeIdResponseQueue(int maxOutstandingRequests, int timeout) {
+        this.outstandingRequests = new Semaphore(maxOutstandingRequests, true);
+        this.responseQueues = new ResponseQueue[NUM_INVOKE_IDS];
+        this.responseHandlers = new ResponseHandler[NUM_INVOKE_IDS];
+        this.reserved = new boolean[NUM_INVOKE_IDS];
+        this.waitingRequests = new ConcurrentLinkedQueue<>();
+
+        for (int i = 0; i < NUM_INVOKE_IDS; i++) {
+            this.responseQueues[i] = new ResponseQueue(timeout);
+        }
+    }
+
+    /**
+     * Waits until less than {@code maxOutstandingRequests} requests are outstanding.
+     * 
+     * @throws IOException
+     *             if the thread has been interrupted while waiting.
+     */
+    public void acquire() throws IOException {
+        try {
+            this.outstandingRequests.acquire();
+        } catch (InterruptedException e) {
+            // Restore interrupted state...
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a free invoke-id");
+        }
+    }
+
+    /**
+     * Runs the request as soon as less than {@code maxOutstandingRequests} requests are outstanding, without blocking
+     * the caller. The request is handed to an executor, so that it is neither run by the caller nor by the thread
+     * releasing an invoke-id.
+     * 
+     * @param request
+     *            the request, which has to reserve and release an invoke-id.
+     */
+    public void acquireAsync(Runnable request) {
+        this.waitingRequests.add(request);
+        startWaitingRequests();
+    }
+
+    /**
+     * Reserves the invoke-id, after a call to {@link #acquire()}.
+     * 
+     * @param invokeId
+     *            the invoke-id.
+     * @return false if the invoke-id is already in use by another outstanding request.
+     */
+    public boolean reserve(int invokeId) {
+        return reserve(invokeId, null);
+    }
+
+    /**
+     * Reserves the invoke-id, after the request has been started by {@link #acquireAsync(Runnable)}.
+     * 
+     * @param invokeId
+     *            the invoke-id.
+     * @param responseHandler
+     *            the handler the responses are handed to.
+     * @return false if the invoke-id is already in use by another outstanding request.
+     */
+    public synchronized boolean reserve(int invokeId, ResponseHandler responseHandler) {
+        if (this.reserved[invokeId]) {
+            return false;
+        }
+        this.reserved[invokeId] = true;
+        this.responseHandlers[invokeId] = responseHandler;
+        this.responseQueues[invokeId].clear();
+        return true;
+    }
+
+    /**
+     * Releases the invoke-id and the outstanding request acquired with {@link #acquire()}.
+     * 
+     * @param invokeId
+     *            the invoke-id reserved with {@link #reserve(int)} or {@code INVALID_INVOKE_ID} if no
+     *            invoke-id has been reserved.
+     */
+    public void release(int invokeId) {
+        if (invokeId != INVALID_INVOKE_ID) {
+            synchronized (this) {
+                this.reserved[invokeId] = false;
+                this.responseHandlers[invokeId] = null;
+                this.responseQueues[invokeId].clear();
+            }
+        }
+        this.outstandingRequests.release();
+
+        startWaitingRequests();
+    }
+
+    public COSEMpdu poll(int invokeId) throws IOException {
+        return this.responseQueues[invokeId].poll();
+    }
+
+    /**
+     * Hands the response to the request with the same invoke-id.
+     * 
+     * @param pdu
+     *            the received response.
+     * @return false if no request is waiting for a response with this invoke-id.
+     */
+    public boolean put(COSEMpdu pdu) {
+        int invokeId = invokeIdFrom(pdu);
+        if (invokeId == INVALID_INVOKE_ID) {
+            return false;
+        }
+
+        ResponseHandler responseHandler;
+        synchronized (this) {
+            if (!this.reserved[invokeId]) {
+                return false;
+            }
+
+            responseHandler = this.responseHandlers[invokeId];
+            if (responseHandler == null) {
+                return this.responseQueues[invokeId].offer(pdu);
+            }
+        }
+
+        responseHandler.responseReceived(pdu);
+        return true;
+    }
+
+    /**
+     * Forwards the error to all requests currently waiting for a response.
+     * 
+     * @param ex
+     *            the error.
+     * @return false if no request is waiting for a response.
+     */
+    public boolean putError(IOException ex) {
+        boolean delivered = false;
+        List<ResponseHandler> handlers = new ArrayList<>(NUM_INVOKE_IDS);
+
+        synchronized (this) {
+            for (int i = 0; i < NUM_INVOKE_IDS; i++) {
+                if (!this.reserved[i]) {
+                    continue;
+                }
+
+                if (this.responseHandlers[i] != null) {
+                    handlers.add(this.responseHandlers[i]);
+                }
+                else if (this.responseQueues[i].beingPolled()) {
+                    this.responseQueues[i].putError(ex);
+                    delivered = true;
+                }
+            }
+        }
+
+        for (ResponseHandler handler : handlers) {
+            handler.errorOccurred(ex);
+        }
+        return delivered || !handlers.isEmpty();
+    }
+
+    private void startWaitingRequests() {
+        while (!this.waitingRequests.isEmpty() && this.outstandingRequests.tryAcquire()) {
+            Runnable request = this.waitingRequests.poll();
+            if (request == null) {
+                this.outstandingRequests.release();
+                return;
+            }
+            AsyncRequest.start(request);
+        }
+    }
+
+}
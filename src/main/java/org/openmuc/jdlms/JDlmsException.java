@@ -136,6 +136,11 @@ public abstract class JDlmsException extends IOException {
          */
         GET_REQUEST_TOO_LARGE,
 
+        /**
+         * SET.request PDU is too large and can't be sent in data blocks.
+         */
+        SET_REQUEST_TOO_LARGE,
+
         // ---------------------jRXTX------------------------------
         /**
          * The specified COM port does not exist.
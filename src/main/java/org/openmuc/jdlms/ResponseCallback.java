@@ -0,0 +1,57 @@
+/*
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.openmuc.jdlms;
+
+import java.io.IOException;
+import java.util.EventListener;
+
+/**
+ * The listener interface for receiving the result of an asynchronous request.
+ * 
+ * <p>
+ * The methods are invoked by the thread reading from the remote meter and should therefore return quickly.
+ * </p>
+ * 
+ * @param <T>
+ *            the type of the result.
+ * 
+ * @see DlmsConnection#getAsync(boolean, java.util.List, ResponseCallback)
+ * @see DlmsConnection#setAsync(boolean, java.util.List, ResponseCallback)
+ * @see DlmsConnection#actionAsync(boolean, java.util.List, ResponseCallback)
+ */
+public interface ResponseCallback<T> extends EventListener {
+
+    /**
+     * Invoked when the remote meter has answered the request.
+     * 
+     * @param result
+     *            the result of the request.
+     */
+    void completed(T result);
+
+    /**
+     * Invoked when the request failed.
+     * 
+     * @param e
+     *            the cause. May be of type {@link FatalJDlmsException} or {@link ResponseTimeoutException}.
+     */
+    void failed(IOException e);
+}
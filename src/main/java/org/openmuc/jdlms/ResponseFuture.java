@@ -0,0 +1,106 @@
+/*
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.openmuc.jdlms;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Future of an asynchronous request. A pending request can not be cancelled, since it has already been sent.
+ */
+class ResponseFuture<T> implements Future<T> {
+
+    private final CountDownLatch doneSignal;
+    private final ResponseCallback<T> callback;
+
+    private T result;
+    private IOException exception;
+
+    public ResponseFuture(ResponseCallback<T> callback) {
+        this.doneSignal = new CountDownLatch(1);
+        this.callback = callback;
+    }
+
+    static <T> ResponseFuture<T> completed(T result, ResponseCallback<T> callback) {
+        ResponseFuture<T> future = new ResponseFuture<>(callback);
+        future.complete(result);
+        return future;
+    }
+
+    void complete(T result) {
+        this.result = result;
+        this.doneSignal.countDown();
+
+        if (this.callback != null) {
+            this.callback.completed(result);
+        }
+    }
+
+    void fail(IOException exception) {
+        this.exception = exception;
+        this.doneSignal.countDown();
+
+        if (this.callback != null) {
+            this.callback.failed(exception);
+        }
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return false;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return false;
+    }
+
+    @Override
+    public boolean isDone() {
+        return this.doneSignal.getCount() == 0;
+    }
+
+    @Override
+    public T get() throws InterruptedException, ExecutionException {
+        this.doneSignal.await();
+        return resultOrException();
+    }
+
+    @Override
+    public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        if (!this.doneSignal.await(timeout, unit)) {
+            throw new TimeoutException();
+        }
+        return resultOrException();
+    }
+
+    private T resultOrException() throws ExecutionException {
+        if (this.exception != null) {
+            throw new ExecutionException(this.exception);
+        }
+        return this.result;
+    }
+
+}
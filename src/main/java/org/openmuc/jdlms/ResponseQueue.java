@@ -26,12 +26,15 @@ import java.io.IOException;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.openmuc.jdlms.internal.asn1.cosem.COSEMpdu;
 
 class ResponseQueue {
 
     private final BlockingQueue<COSEMpdu> queue = new ArrayBlockingQueue<>(1);
+    private final Lock pollLock = new ReentrantLock();
     private final int timeout;
     private volatile boolean polled;
     private IOException lastError;
@@ -54,12 +57,30 @@ class ResponseQueue {
         }
     }
 
+    /**
+     * Inserts the PDU if the queue is empty, without waiting for it to be polled.
+     * 
+     * @param data
+     *            the received PDU.
+     * @return true if the PDU was inserted, false if a previous response has not yet been polled.
+     */
+    public boolean offer(COSEMpdu data) {
+        return this.queue.offer(data);
+    }
+
     public void putError(IOException ex) {
         this.lastError = ex;
         put(new COSEMpdu());
     }
 
-    public synchronized COSEMpdu poll() throws IOException {
+    public COSEMpdu poll() throws IOException {
+        try {
+            this.pollLock.lockInterruptibly();
+        } catch (InterruptedException e) {
+            // Restore interrupted state...
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for incoming response");
+        }
         this.polled = true;
         try {
             COSEMpdu cosemPdu = timeout == 0 ? queue.take()
@@ -77,6 +98,7 @@ class ResponseQueue {
             throw new IOException("Interrupted while waiting for incoming response");
         } finally {
             this.polled = false;
+            this.pollLock.unlock();
         }
     }
 
@@ -28,6 +28,7 @@ import java.net.UnknownHostException;
 import java.nio.ByteOrder;
 
 import org.openmuc.jdlms.sessionlayer.client.HdlcLayer;
+import org.openmuc.jdlms.sessionlayer.client.NioWrapperLayer;
 import org.openmuc.jdlms.sessionlayer.client.SessionLayer;
 import org.openmuc.jdlms.sessionlayer.client.WrapperHeader;
 import org.openmuc.jdlms.sessionlayer.client.WrapperLayer;
@@ -36,6 +37,7 @@ import org.openmuc.jdlms.sessionlayer.hdlc.HdlcAddressPair;
 import org.openmuc.jdlms.settings.client.HdlcTcpSettings;
 import org.openmuc.jdlms.settings.client.Settings;
 import org.openmuc.jdlms.transportlayer.client.TcpLayer;
+import org.openmuc.jdlms.transportlayer.client.TcpSelector;
 import org.openmuc.jdlms.transportlayer.client.TransportLayer;
 import org.openmuc.jdlms.transportlayer.client.UdpLayer;
 
@@ -49,6 +51,7 @@ public class TcpConnectionBuilder extends ConnectionBuilder<TcpConnectionBuilder
     private int port;
     private InetSessionLayerType sessionLayerType;
     private InetTransportProtocol tranportProtocol;
+    private TcpSelector tcpSelector;
 
     /**
      * Construct a {@link TcpConnectionBuilder} with client ID 1, logical device address 16 and a default TCP port 4059.
@@ -96,6 +99,17 @@ public class TcpConnectionBuilder extends ConnectionBuilder<TcpConnectionBuilder
         return this;
     }
 
+    /**
+     * Use the HDLC session layer.
+     * 
+     * <p>
+     * All HDLC connections to the same address and port share one physical link, e.g. meters of a RS-485 multi-drop
+     * bus behind a TCP gateway. The meters are addressed by their HDLC addresses and polled one after another. The
+     * link is closed when the last connection has been closed.
+     * </p>
+     * 
+     * @return the builder.
+     */
     public TcpConnectionBuilder useHdlc() {
         this.sessionLayerType = InetSessionLayerType.HDLC;
         return this;
@@ -106,6 +120,25 @@ public class TcpConnectionBuilder extends ConnectionBuilder<TcpConnectionBuilder
         return this;
     }
 
+    /**
+     * Use a non-blocking TCP channel, which is served by the given selector instead of a reader thread per connection.
+     * 
+     * <p>
+     * This only applies to the wrapper session layer over TCP. Responses are processed and asynchronous callbacks are
+     * notified on the selector thread.
+     * </p>
+     * 
+     * @param tcpSelector
+     *            the selector shared by the connections, or {@code null} to use a blocking socket.
+     * @return the builder.
+     * 
+     * @see TcpSelector#defaultInstance()
+     */
+    public TcpConnectionBuilder useSelector(TcpSelector tcpSelector) {
+        this.tcpSelector = tcpSelector;
+        return this;
+    }
+
     @Override
     public DlmsConnection build() throws IOException {
         TcpSettingsImpl settings = new TcpSettingsImpl(this);
@@ -118,10 +151,20 @@ public class TcpConnectionBuilder extends ConnectionBuilder<TcpConnectionBuilder
     protected SessionLayer buildSessionLayer(TcpSettingsImpl settings) throws IOException {
         switch (sessionLayerType) {
         case HDLC:
+            if (this.tcpSelector != null) {
+                throw new IllegalArgumentException("A selector can only be used with the wrapper session layer.");
+            }
             return new HdlcLayer(settings);
 
         default:
         case WRAPPER:
+            if (this.tcpSelector != null) {
+                if (this.tranportProtocol != InetTransportProtocol.TCP) {
+                    throw new IllegalArgumentException("A selector can only be used with TCP.");
+                }
+                return new NioWrapperLayer(settings, this.tcpSelector);
+            }
+
             TransportLayer tl;
             if (this.tranportProtocol == InetTransportProtocol.TCP) {
                 tl = new TcpLayer(settings);
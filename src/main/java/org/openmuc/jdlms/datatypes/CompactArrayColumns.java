@@ -0,0 +1,697 @@
+/*
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.openmuc.jdlms.datatypes;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openmuc.jdlms.datatypes.CompactArray.DescriptionArray;
+import org.openmuc.jdlms.datatypes.CompactArray.TypeDesc;
+import org.openmuc.jdlms.internal.asn1.axdr.AxdrLength;
+
+/**
+ * A column wise view of the contents of a {@link CompactArray}.
+ * <p>
+ * Every element of the compact array is a row. The element type description is flattened into columns: every simple
+ * type of a structure is a column and an array of <code>n</code> elements inside the element type contributes
+ * <code>n</code> columns. A compact array of a simple type has a single column.
+ * </p>
+ * <p>
+ * Numbers are held in primitive arrays, octet strings and date formats are referenced in the array contents. No object
+ * is created per cell while decoding.
+ * </p>
+ * 
+ * @see #decode(CompactArray)
+ * @see #encode(TypeDesc, Object...)
+ */
+public class CompactArrayColumns {
+
+    /**
+     * Timestamp of a date time which is not fully specified.
+     * 
+     * @see #getTimestampColumn(int)
+     */
+    public static final long TIMESTAMP_NOT_SPECIFIED = Long.MIN_VALUE;
+
+    private static final int DEVIATION_NOT_SPECIFIED = (short) 0x8000;
+
+    private final byte[] arrayContents;
+    private final int numRows;
+    private final Column[] columns;
+
+    private CompactArrayColumns(byte[] arrayContents, int numRows, Column[] columns) {
+        this.arrayContents = arrayContents;
+        this.numRows = numRows;
+        this.columns = columns;
+    }
+
+    /**
+     * Decodes the contents of a compact array into columns.
+     * 
+     * @param compactArray
+     *            the compact array.
+     * @return the columns.
+     * @throws IllegalArgumentException
+     *             if the array contents don't match the type description.
+     */
+    public static CompactArrayColumns decode(CompactArray compactArray) throws IllegalArgumentException {
+        TypeDesc.Type[] columnTypes = columnTypes(compactArray.getTypeDescription());
+        byte[] contents = compactArray.getArrayContents();
+
+        try {
+            int numRows = countRows(columnTypes, contents);
+
+            Column[] columns = new Column[columnTypes.length];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = new Column(columnTypes[i], numRows);
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(contents);
+            for (int row = 0; row < numRows; row++) {
+                for (Column column : columns) {
+                    column.decode(buffer, row);
+                }
+            }
+
+            return new CompactArrayColumns(contents, numRows, columns);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Array contents don't match the type description.", e);
+        }
+    }
+
+    /**
+     * Encodes columns into a compact array.
+     * <p>
+     * A column must be given for every column of the type description:
+     * </p>
+     * <ul>
+     * <li>{@code long[]} for integer number, enumerate, BCD and boolean columns</li>
+     * <li>{@code double[]} for floating point number columns</li>
+     * <li>{@code byte[][]} for octet string, visible string and UTF-8 string columns</li>
+     * <li>{@code BitString[]} for bit string columns</li>
+     * <li>{@code CosemDateTime[]}, {@code CosemDate[]} or {@code CosemTime[]} for date format columns</li>
+     * <li><code>null</code> for null data and don't care columns</li>
+     * </ul>
+     * 
+     * @param typeDescription
+     *            the type description of the elements.
+     * @param columns
+     *            the columns, all of the same length.
+     * @return the compact array.
+     * @throws IllegalArgumentException
+     *             if the columns don't match the type description.
+     */
+    public static CompactArray encode(TypeDesc typeDescription, Object... columns) throws IllegalArgumentException {
+        TypeDesc.Type[] columnTypes = columnTypes(typeDescription);
+        if (columns.length != columnTypes.length) {
+            throw new IllegalArgumentException(
+                    "Type description has " + columnTypes.length + " columns, but got " + columns.length + ".");
+        }
+
+        int numRows = -1;
+        for (int i = 0; i < columns.length; i++) {
+            int columnLength = columnLength(columnTypes[i], columns[i], i);
+            if (numRows != -1 && columnLength != -1 && columnLength != numRows) {
+                throw new IllegalArgumentException("Column " + i + " has " + columnLength + " rows instead of "
+                        + numRows + ".");
+            }
+            if (columnLength != -1) {
+                numRows = columnLength;
+            }
+        }
+        numRows = Math.max(numRows, 0);
+
+        int contentsLength = 0;
+        for (int i = 0; i < columns.length; i++) {
+            contentsLength += encodedLength(columnTypes[i], columns[i], numRows);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(contentsLength);
+        for (int row = 0; row < numRows; row++) {
+            for (int i = 0; i < columns.length; i++) {
+                encodeCell(columnTypes[i], columns[i], row, buffer);
+            }
+        }
+
+        return new CompactArray(typeDescription, buffer.array());
+    }
+
+    /**
+     * The number of rows, i.e. elements of the compact array.
+     * 
+     * @return the number of rows.
+     */
+    public int getNumberOfRows() {
+        return this.numRows;
+    }
+
+    /**
+     * The number of columns.
+     * 
+     * @return the number of columns.
+     */
+    public int getNumberOfColumns() {
+        return this.columns.length;
+    }
+
+    /**
+     * The type of a column.
+     * 
+     * @param column
+     *            the column index.
+     * @return the type.
+     */
+    public TypeDesc.Type getColumnType(int column) {
+        return this.columns[column].type;
+    }
+
+    /**
+     * Returns the values of an integer number, enumerate, BCD or boolean column.
+     * <p>
+     * The returned array backs this view. A boolean is either <code>1</code> or <code>0</code>.
+     * </p>
+     * 
+     * @param column
+     *            the column index.
+     * @return the values.
+     * @throws IllegalArgumentException
+     *             if the column is of another type.
+     */
+    public long[] getLongColumn(int column) throws IllegalArgumentException {
+        return checkedColumn(column, this.columns[column].longs != null).longs;
+    }
+
+    /**
+     * Returns the values of a floating point number column.
+     * <p>
+     * The returned array backs this view.
+     * </p>
+     * 
+     * @param column
+     *            the column index.
+     * @return the values.
+     * @throws IllegalArgumentException
+     *             if the column is of another type.
+     */
+    public double[] getDoubleColumn(int column) throws IllegalArgumentException {
+        return checkedColumn(column, this.columns[column].doubles != null).doubles;
+    }
+
+    /**
+     * Returns the values of a date time column as milliseconds since the epoch.
+     * <p>
+     * The deviation is applied, a date time without deviation is taken as UTC. Not specified hundredths are taken as
+     * <code>0</code>. A date time with other fields not specified is returned as {@link #TIMESTAMP_NOT_SPECIFIED}.
+     * </p>
+     * 
+     * @param column
+     *            the column index.
+     * @return a new array holding the timestamps.
+     * @throws IllegalArgumentException
+     *             if the column is of another type.
+     */
+    public long[] getTimestampColumn(int column) throws IllegalArgumentException {
+        Column dateTimes = checkedColumn(column, this.columns[column].type == TypeDesc.Type.DATE_TIME);
+
+        long[] timestamps = new long[this.numRows];
+        for (int row = 0; row < this.numRows; row++) {
+            timestamps[row] = toEpochMillis(this.arrayContents, dateTimes.offsets[row]);
+        }
+        return timestamps;
+    }
+
+    /**
+     * Returns the values of a date time column.
+     * 
+     * @param column
+     *            the column index.
+     * @return a new array holding the date times.
+     * @throws IllegalArgumentException
+     *             if the column is of another type.
+     */
+    public CosemDateTime[] getDateTimeColumn(int column) throws IllegalArgumentException {
+        Column dateTimes = checkedColumn(column, this.columns[column].type == TypeDesc.Type.DATE_TIME);
+
+        CosemDateTime[] values = new CosemDateTime[this.numRows];
+        for (int row = 0; row < this.numRows; row++) {
+            values[row] = CosemDateTime.decode(bytes(dateTimes, row));
+        }
+        return values;
+    }
+
+    /**
+     * Returns a single cell as {@link DataObject}.
+     * 
+     * @param column
+     *            the column index.
+     * @param row
+     *            the row index.
+     * @return the cell.
+     */
+    public DataObject getDataObject(int column, int row) {
+        Column c = this.columns[column];
+        if (row < 0 || row >= this.numRows) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + this.numRows + " rows.");
+        }
+
+        switch (c.type) {
+        case BOOL:
+            return DataObject.newBoolData(c.longs[row] != 0);
+        case BIT_STRING:
+            return DataObject.newBitStringData(new BitString(bytes(c, row), c.lengths[row]));
+        case OCTET_STRING:
+            return DataObject.newOctetStringData(bytes(c, row));
+        case VISIBLE_STRING:
+            return DataObject.newVisibleStringData(bytes(c, row));
+        case UTF8_STRING:
+            return DataObject.newUtf8StringData(bytes(c, row));
+        case DATE_TIME:
+            return DataObject.newDateTimeData(CosemDateTime.decode(bytes(c, row)));
+        case DATE:
+            return DataObject.newDateData(CosemDate.decode(bytes(c, row)));
+        case TIME:
+            return DataObject.newTimeData(CosemTime.decode(bytes(c, row)));
+        case FLOAT32:
+            return DataObject.newFloat32Data((float) c.doubles[row]);
+        case FLOAT64:
+            return DataObject.newFloat64Data(c.doubles[row]);
+        case NULL_DATA:
+        case DONT_CARE:
+            return DataObject.newNullData();
+        default:
+            return DataObject.newNumberData(DataObject.Type.valueOf(c.type.name()), c.longs[row]);
+        }
+    }
+
+    private Column checkedColumn(int column, boolean matches) throws IllegalArgumentException {
+        if (!matches) {
+            throw new IllegalArgumentException("Column " + column + " is of type " + this.columns[column].type + ".");
+        }
+        return this.columns[column];
+    }
+
+    private byte[] bytes(Column column, int row) {
+        int offset = column.offsets[row];
+        int length = column.type == TypeDesc.Type.BIT_STRING ? numBytes(column.lengths[row]) : column.lengths[row];
+        return Arrays.copyOfRange(this.arrayContents, offset, offset + length);
+    }
+
+    private static TypeDesc.Type[] columnTypes(TypeDesc typeDescription) {
+        List<TypeDesc.Type> columnTypes = new ArrayList<>();
+        addColumnTypes(typeDescription, columnTypes);
+        return columnTypes.toArray(new TypeDesc.Type[columnTypes.size()]);
+    }
+
+    private static void addColumnTypes(TypeDesc typeDescription, List<TypeDesc.Type> columnTypes) {
+        switch (typeDescription.getType()) {
+        case STRUCTURE:
+            List<TypeDesc> structure = typeDescription.getValue();
+            for (TypeDesc element : structure) {
+                addColumnTypes(element, columnTypes);
+            }
+            break;
+        case ARRAY:
+            DescriptionArray array = typeDescription.getValue();
+            for (int i = 0; i < array.getNumOfeElements(); i++) {
+                addColumnTypes(array.getTypeDescription(), columnTypes);
+            }
+            break;
+        case ERR_NONE_SELECTED:
+            throw new IllegalArgumentException("Type description holds an unknown type.");
+        default:
+            columnTypes.add(typeDescription.getType());
+        }
+    }
+
+    /**
+     * Returns the number of bytes of a value of the type, or <code>-1</code> if the length is encoded.
+     */
+    private static int fixedLength(TypeDesc.Type type) {
+        switch (type) {
+        case NULL_DATA:
+        case DONT_CARE:
+            return 0;
+        case BOOL:
+        case BCD:
+        case INTEGER:
+        case UNSIGNED:
+        case ENUMERATE:
+            return 1;
+        case LONG_INTEGER:
+        case LONG_UNSIGNED:
+            return 2;
+        case DOUBLE_LONG:
+        case DOUBLE_LONG_UNSIGNED:
+        case FLOAT32:
+        case TIME:
+            return 4;
+        case DATE:
+            return 5;
+        case LONG64:
+        case LONG64_UNSIGNED:
+        case FLOAT64:
+            return 8;
+        case DATE_TIME:
+            return 12;
+        default:
+            return -1;
+        }
+    }
+
+    private static int countRows(TypeDesc.Type[] columnTypes, byte[] contents) throws IOException {
+        int rowLength = 0;
+        for (TypeDesc.Type type : columnTypes) {
+            int length = fixedLength(type);
+            if (length == -1) {
+                return countVariableLengthRows(columnTypes, contents);
+            }
+            rowLength += length;
+        }
+
+        if (rowLength == 0) {
+            if (contents.length != 0) {
+                throw new IOException("Elements without content, but array contents are not empty.");
+            }
+            return 0;
+        }
+
+        if (contents.length % rowLength != 0) {
+            throw new IOException("Array contents are no multiple of the element length " + rowLength + ".");
+        }
+        return contents.length / rowLength;
+    }
+
+    private static int countVariableLengthRows(TypeDesc.Type[] columnTypes, byte[] contents) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(contents);
+        int numRows = 0;
+        while (buffer.hasRemaining()) {
+            for (TypeDesc.Type type : columnTypes) {
+                int length = fixedLength(type);
+                if (length == -1) {
+                    length = AxdrLength.decodeLength(buffer);
+                    if (type == TypeDesc.Type.BIT_STRING) {
+                        length = numBytes(length);
+                    }
+                }
+                skip(buffer, length);
+            }
+            numRows++;
+        }
+        return numRows;
+    }
+
+    private static void skip(ByteBuffer buffer, int length) throws IOException {
+        if (buffer.remaining() < length) {
+            throw new IOException("Unexpected end of array contents.");
+        }
+        buffer.position(buffer.position() + length);
+    }
+
+    private static int numBytes(int numBits) {
+        return numBits / 8 + (numBits % 8 == 0 ? 0 : 1);
+    }
+
+    private static int columnLength(TypeDesc.Type type, Object column, int index) {
+        if (fixedLength(type) == 0) {
+            return -1;
+        }
+
+        boolean matches;
+        switch (type) {
+        case FLOAT32:
+        case FLOAT64:
+            matches = column instanceof double[];
+            break;
+        case OCTET_STRING:
+        case VISIBLE_STRING:
+        case UTF8_STRING:
+            matches = column instanceof byte[][];
+            break;
+        case BIT_STRING:
+            matches = column instanceof BitString[];
+            break;
+        case DATE_TIME:
+            matches = column instanceof CosemDateTime[];
+            break;
+        case DATE:
+            matches = column instanceof CosemDate[];
+            break;
+        case TIME:
+            matches = column instanceof CosemTime[];
+            break;
+        default:
+            matches = column instanceof long[];
+        }
+
+        if (!matches) {
+            throw new IllegalArgumentException("Column " + index + " doesn't fit type " + type + ".");
+        }
+
+        if (column instanceof long[]) {
+            return ((long[]) column).length;
+        }
+        else if (column instanceof double[]) {
+            return ((double[]) column).length;
+        }
+        else {
+            return ((Object[]) column).length;
+        }
+    }
+
+    private static int encodedLength(TypeDesc.Type type, Object column, int numRows) {
+        int length = fixedLength(type);
+        if (length != -1) {
+            return length * numRows;
+        }
+
+        int columnLength = 0;
+        for (int row = 0; row < numRows; row++) {
+            int valueLength;
+            int lengthValue;
+            if (type == TypeDesc.Type.BIT_STRING) {
+                BitString bitString = ((BitString[]) column)[row];
+                valueLength = bitString.getBitString().length;
+                lengthValue = bitString.getNumBits();
+            }
+            else {
+                valueLength = ((byte[][]) column)[row].length;
+                lengthValue = valueLength;
+            }
+            columnLength += lengthOfLength(lengthValue) + valueLength;
+        }
+        return columnLength;
+    }
+
+    private static int lengthOfLength(int length) {
+        int lengthOfLength = 1;
+        if (length >= 128) {
+            while ((length >> (8 * lengthOfLength)) != 0) {
+                lengthOfLength++;
+            }
+            lengthOfLength++;
+        }
+        return lengthOfLength;
+    }
+
+    private static void encodeCell(TypeDesc.Type type, Object column, int row, ByteBuffer buffer) {
+        switch (type) {
+        case NULL_DATA:
+        case DONT_CARE:
+            break;
+        case FLOAT32:
+            buffer.putFloat((float) ((double[]) column)[row]);
+            break;
+        case FLOAT64:
+            buffer.putDouble(((double[]) column)[row]);
+            break;
+        case OCTET_STRING:
+        case VISIBLE_STRING:
+        case UTF8_STRING:
+            byte[] octetString = ((byte[][]) column)[row];
+            AxdrLength.encodeLength(buffer, octetString.length);
+            buffer.put(octetString);
+            break;
+        case BIT_STRING:
+            BitString bitString = ((BitString[]) column)[row];
+            AxdrLength.encodeLength(buffer, bitString.getNumBits());
+            buffer.put(bitString.getBitString());
+            break;
+        case DATE_TIME:
+        case DATE:
+        case TIME:
+            buffer.put(((CosemDateFormat[]) column)[row].encode());
+            break;
+        default:
+            encodeInteger(type, ((long[]) column)[row], buffer);
+        }
+    }
+
+    private static void encodeInteger(TypeDesc.Type type, long value, ByteBuffer buffer) {
+        if (type == TypeDesc.Type.BOOL) {
+            buffer.put((byte) (value != 0 ? 0x01 : 0x00));
+            return;
+        }
+
+        DataObject.checkRange(DataObject.Type.valueOf(type.name()), value);
+
+        switch (fixedLength(type)) {
+        case 1:
+            buffer.put((byte) value);
+            break;
+        case 2:
+            buffer.putShort((short) value);
+            break;
+        case 4:
+            buffer.putInt((int) value);
+            break;
+        default:
+            buffer.putLong(value);
+        }
+    }
+
+    /**
+     * Converts a date time encoding to milliseconds since the epoch, without creating a calendar.
+     */
+    private static long toEpochMillis(byte[] contents, int offset) {
+        int year = ((contents[offset] & 0xff) << 8) | (contents[offset + 1] & 0xff);
+        int month = contents[offset + 2] & 0xff;
+        int dayOfMonth = contents[offset + 3] & 0xff;
+        int hour = contents[offset + 5] & 0xff;
+        int minute = contents[offset + 6] & 0xff;
+        int second = contents[offset + 7] & 0xff;
+        int hundredths = contents[offset + 8] & 0xff;
+        int deviation = (short) (((contents[offset + 9] & 0xff) << 8) | (contents[offset + 10] & 0xff));
+
+        if (year == 0xffff || month < 1 || month > 12 || dayOfMonth < 1 || dayOfMonth > 31 || hour > 23
+                || minute > 59 || second > 59) {
+            return TIMESTAMP_NOT_SPECIFIED;
+        }
+        if (hundredths == 0xff) {
+            hundredths = 0;
+        }
+        else if (hundredths > 99) {
+            return TIMESTAMP_NOT_SPECIFIED;
+        }
+        if (deviation == DEVIATION_NOT_SPECIFIED) {
+            deviation = 0;
+        }
+
+        long seconds = ((daysSinceEpoch(year, month, dayOfMonth) * 24 + hour) * 60 + minute) * 60 + second;
+        // the deviation is the difference from local time to GMT in minutes
+        return (seconds + deviation * 60L) * 1000 + hundredths * 10;
+    }
+
+    /**
+     * Days since 1970-01-01 of a date of the proleptic Gregorian calendar.
+     */
+    private static long daysSinceEpoch(int year, int month, int dayOfMonth) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = (y >= 0 ? y : y - 399) / 400;
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + dayOfMonth - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static class Column {
+        private final TypeDesc.Type type;
+        private final long[] longs;
+        private final double[] doubles;
+        private final int[] offsets;
+        private final int[] lengths;
+
+        public Column(TypeDesc.Type type, int numRows) {
+            this.type = type;
+
+            int fixedLength = fixedLength(type);
+            boolean floatingPoint = type == TypeDesc.Type.FLOAT32 || type == TypeDesc.Type.FLOAT64;
+            boolean referenced = fixedLength == -1 || type == TypeDesc.Type.DATE_TIME || type == TypeDesc.Type.DATE
+                    || type == TypeDesc.Type.TIME;
+
+            this.doubles = floatingPoint ? new double[numRows] : null;
+            this.offsets = referenced ? new int[numRows] : null;
+            this.lengths = referenced ? new int[numRows] : null;
+            this.longs = !floatingPoint && !referenced && fixedLength > 0 ? new long[numRows] : null;
+        }
+
+        public void decode(ByteBuffer buffer, int row) throws IOException {
+            int fixedLength = fixedLength(this.type);
+
+            if (this.offsets != null) {
+                int length = fixedLength;
+                int byteLength = fixedLength;
+                if (fixedLength == -1) {
+                    length = AxdrLength.decodeLength(buffer);
+                    byteLength = this.type == TypeDesc.Type.BIT_STRING ? numBytes(length) : length;
+                }
+                this.offsets[row] = buffer.position();
+                this.lengths[row] = length;
+                skip(buffer, byteLength);
+                return;
+            }
+
+            if (buffer.remaining() < fixedLength) {
+                throw new IOException("Unexpected end of array contents.");
+            }
+
+            switch (this.type) {
+            case NULL_DATA:
+            case DONT_CARE:
+                break;
+            case FLOAT32:
+                this.doubles[row] = buffer.getFloat();
+                break;
+            case FLOAT64:
+                this.doubles[row] = buffer.getDouble();
+                break;
+            case BOOL:
+                this.longs[row] = buffer.get() != 0 ? 1 : 0;
+                break;
+            case BCD:
+            case INTEGER:
+                this.longs[row] = buffer.get();
+                break;
+            case UNSIGNED:
+            case ENUMERATE:
+                this.longs[row] = buffer.get() & 0xff;
+                break;
+            case LONG_INTEGER:
+                this.longs[row] = buffer.getShort();
+                break;
+            case LONG_UNSIGNED:
+                this.longs[row] = buffer.getShort() & 0xffff;
+                break;
+            case DOUBLE_LONG:
+                this.longs[row] = buffer.getInt();
+                break;
+            case DOUBLE_LONG_UNSIGNED:
+                this.longs[row] = buffer.getInt() & 0xffffffffL;
+                break;
+            default:
+                this.longs[row] = buffer.getLong();
+            }
+        }
+    }
+
+}
@@ -27,6 +27,8 @@ import java.text.MessageFormat;
 import java.util.Arrays;
 import java.util.List;
 
+import org.openmuc.jdlms.internal.LazyDataList;
+
 /**
  * Container class holding data about to send to the smart meter or received by the smart meter
  * <p>
@@ -37,10 +39,22 @@ import java.util.List;
 public class DataObject {
 
     private final Object value;
+
+    /**
+     * The value of a number, floating point numbers are stored as the bits of a double.
+     */
+    private final long number;
     private final Type type;
 
     private DataObject(Object value, Type type) {
         this.value = value;
+        this.number = 0;
+        this.type = type;
+    }
+
+    private DataObject(long number, Type type) {
+        this.value = null;
+        this.number = number;
         this.type = type;
     }
 
@@ -70,7 +84,8 @@ public class DataObject {
      *             If a sub element of array has another data type than the first
      */
     public static DataObject newArrayData(List<DataObject> array) throws IllegalArgumentException {
-        if (!array.isEmpty()) {
+        // the element types of a lazy list have already been checked on its encoding
+        if (!array.isEmpty() && !(array instanceof LazyDataList)) {
             Type arrayType = array.get(0).getType();
 
             int index = 0;
@@ -86,6 +101,66 @@ public class DataObject {
         return new DataObject(array, Type.ARRAY);
     }
 
+    /**
+     * Constructs a array of integer numbers.
+     * <p>
+     * COSEM Type {@link Type#ARRAY}
+     * </p>
+     * <p>
+     * The numbers are held in the given array, which must not be modified afterwards. The elements of the array are
+     * created when they are accessed.
+     * </p>
+     * 
+     * @param elementType
+     *            the type of the numbers, one of the integer number types e.g. {@link Type#LONG_UNSIGNED}
+     * @param values
+     *            the numbers
+     * @return The data
+     * @throws IllegalArgumentException
+     *             if the type is not an integer number type or a number is out of range for the type
+     * @see #getLongArray()
+     */
+    public static DataObject newArrayData(Type elementType, long[] values) throws IllegalArgumentException {
+        if (!elementType.isNumber() || isFloatingPoint(elementType)) {
+            throw new IllegalArgumentException(elementType + " is not an integer number type.");
+        }
+
+        for (int i = 0; i < values.length; i++) {
+            checkRange(elementType, values[i]);
+        }
+
+        return new DataObject(new NumberArray(elementType, values), Type.ARRAY);
+    }
+
+    /**
+     * Constructs a array of floating point numbers.
+     * <p>
+     * COSEM Type {@link Type#ARRAY}
+     * </p>
+     * 
+     * @param elementType
+     *            the type of the numbers, either {@link Type#FLOAT32} or {@link Type#FLOAT64}
+     * @param values
+     *            the numbers
+     * @return The data
+     * @throws IllegalArgumentException
+     *             if the type is not a floating point number type
+     * @see #getDoubleArray()
+     */
+    public static DataObject newArrayData(Type elementType, double[] values) throws IllegalArgumentException {
+        if (!isFloatingPoint(elementType)) {
+            throw new IllegalArgumentException(elementType + " is not a floating point number type.");
+        }
+
+        long[] numbers = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            double value = elementType == Type.FLOAT32 ? (float) values[i] : values[i];
+            numbers[i] = Double.doubleToRawLongBits(value);
+        }
+
+        return new DataObject(new NumberArray(elementType, numbers), Type.ARRAY);
+    }
+
     public static DataObject newCompactArrayData(CompactArray compactArray) {
         return new DataObject(compactArray, Type.COMPACT_ARRAY);
     }
@@ -164,7 +239,7 @@ public class DataObject {
      * @return The data
      */
     public static DataObject newInteger32Data(int int32) {
-        return new DataObject(int32, Type.DOUBLE_LONG);
+        return new DataObject((long) int32, Type.DOUBLE_LONG);
     }
 
     /**
@@ -242,7 +317,7 @@ public class DataObject {
      * @return The data
      */
     public static DataObject newBcdData(byte bcd) throws IllegalArgumentException {
-        return new DataObject(bcd, Type.BCD);
+        return new DataObject((long) bcd, Type.BCD);
     }
 
     /**
@@ -257,7 +332,7 @@ public class DataObject {
      * @return The data
      */
     public static DataObject newInteger8Data(byte int8) throws IllegalArgumentException {
-        return new DataObject(int8, Type.INTEGER);
+        return new DataObject((long) int8, Type.INTEGER);
     }
 
     /**
@@ -277,7 +352,7 @@ public class DataObject {
         if (uInt8 < 0 || uInt8 > 0xFF) {
             throw new IllegalArgumentException("Unsigned8 " + uInt8 + " out of range");
         }
-        return new DataObject(uInt8, Type.UNSIGNED);
+        return new DataObject((long) uInt8, Type.UNSIGNED);
     }
 
     /**
@@ -292,7 +367,7 @@ public class DataObject {
      * @return The data
      */
     public static DataObject newInteger16Data(short int16) {
-        return new DataObject(int16, Type.LONG_INTEGER);
+        return new DataObject((long) int16, Type.LONG_INTEGER);
     }
 
     /**
@@ -311,7 +386,7 @@ public class DataObject {
         if (uInt16 < 0 || uInt16 > 0xFFFF) {
             throw new IllegalArgumentException("Unsigned16 " + uInt16 + " out of range");
         }
-        return new DataObject(uInt16, Type.LONG_UNSIGNED);
+        return new DataObject((long) uInt16, Type.LONG_UNSIGNED);
     }
 
     /**
@@ -366,7 +441,7 @@ public class DataObject {
         if (enumVal < 0 || enumVal > 0xFF) {
             throw new IllegalArgumentException("Enumeration " + enumVal + " out of range");
         }
-        return new DataObject(enumVal, Type.ENUMERATE);
+        return new DataObject((long) enumVal, Type.ENUMERATE);
     }
 
     /**
@@ -382,7 +457,7 @@ public class DataObject {
      * 
      */
     public static DataObject newFloat32Data(float float32) {
-        return new DataObject(float32, Type.FLOAT32);
+        return new DataObject(Double.doubleToRawLongBits(float32), Type.FLOAT32);
     }
 
     /**
@@ -397,7 +472,7 @@ public class DataObject {
      * 
      */
     public static DataObject newFloat64Data(double float64) {
-        return new DataObject(float64, Type.FLOAT64);
+        return new DataObject(Double.doubleToRawLongBits(float64), Type.FLOAT64);
     }
 
     /**
@@ -464,7 +539,95 @@ public class DataObject {
      */
     @SuppressWarnings("unchecked")
     public <T> T getValue() throws ClassCastException {
-        return (T) this.value;
+        return (T) getRawValue();
+    }
+
+    /**
+     * Returns the value of a number as int.
+     * <p>
+     * The value is converted like {@link Number#intValue()} does.
+     * </p>
+     * 
+     * @return the value.
+     * @throws ClassCastException
+     *             if the data is not a number.
+     * @see #isNumber()
+     */
+    public int getInt() throws ClassCastException {
+        return (int) getLong();
+    }
+
+    /**
+     * Returns the value of a number as long.
+     * <p>
+     * The value is converted like {@link Number#longValue()} does.
+     * </p>
+     * 
+     * @return the value.
+     * @throws ClassCastException
+     *             if the data is not a number.
+     * @see #isNumber()
+     */
+    public long getLong() throws ClassCastException {
+        checkNumber();
+        return isFloatingPoint(this.type) ? (long) Double.longBitsToDouble(this.number) : this.number;
+    }
+
+    /**
+     * Returns the value of a number as double.
+     * 
+     * @return the value.
+     * @throws ClassCastException
+     *             if the data is not a number.
+     * @see #isNumber()
+     */
+    public double getDouble() throws ClassCastException {
+        checkNumber();
+        return isFloatingPoint(this.type) ? Double.longBitsToDouble(this.number) : this.number;
+    }
+
+    /**
+     * Returns the values of an array of numbers as long array.
+     * 
+     * @return a new array holding the values.
+     * @throws ClassCastException
+     *             if the data is not an array of numbers.
+     * @see #getLong()
+     */
+    public long[] getLongArray() throws ClassCastException {
+        List<DataObject> array = arrayValue();
+        if (array instanceof NumberArray) {
+            return ((NumberArray) array).toLongArray();
+        }
+
+        long[] values = new long[array.size()];
+        int i = 0;
+        for (DataObject element : array) {
+            values[i++] = element.getLong();
+        }
+        return values;
+    }
+
+    /**
+     * Returns the values of an array of numbers as double array.
+     * 
+     * @return a new array holding the values.
+     * @throws ClassCastException
+     *             if the data is not an array of numbers.
+     * @see #getDouble()
+     */
+    public double[] getDoubleArray() throws ClassCastException {
+        List<DataObject> array = arrayValue();
+        if (array instanceof NumberArray) {
+            return ((NumberArray) array).toDoubleArray();
+        }
+
+        double[] values = new double[array.size()];
+        int i = 0;
+        for (DataObject element : array) {
+            values[i++] = element.getDouble();
+        }
+        return values;
     }
 
     /**
@@ -473,6 +636,9 @@ public class DataObject {
      * @return the raw object-value.
      */
     public Object getRawValue() {
+        if (this.type.isNumber()) {
+            return boxedNumber(this.type, this.number);
+        }
         return this.value;
     }
 
@@ -553,6 +719,95 @@ public class DataObject {
         return type == Type.NULL_DATA;
     }
 
+    static DataObject newNumberData(Type type, long number) {
+        return new DataObject(number, type);
+    }
+
+    static boolean isFloatingPoint(Type type) {
+        return type == Type.FLOAT32 || type == Type.FLOAT64;
+    }
+
+    private static Number boxedNumber(Type type, long number) {
+        switch (type) {
+        case BCD:
+        case INTEGER:
+            return Byte.valueOf((byte) number);
+        case LONG_INTEGER:
+        case UNSIGNED:
+            return Short.valueOf((short) number);
+        case DOUBLE_LONG:
+        case LONG_UNSIGNED:
+        case ENUMERATE:
+            return Integer.valueOf((int) number);
+        case FLOAT32:
+            return Float.valueOf((float) Double.longBitsToDouble(number));
+        case FLOAT64:
+            return Double.valueOf(Double.longBitsToDouble(number));
+        case DOUBLE_LONG_UNSIGNED:
+        case LONG64:
+        case LONG64_UNSIGNED:
+        default:
+            return Long.valueOf(number);
+        }
+    }
+
+    static void checkRange(Type type, long value) throws IllegalArgumentException {
+        long min;
+        long max;
+        switch (type) {
+        case BCD:
+        case INTEGER:
+            min = Byte.MIN_VALUE;
+            max = Byte.MAX_VALUE;
+            break;
+        case LONG_INTEGER:
+            min = Short.MIN_VALUE;
+            max = Short.MAX_VALUE;
+            break;
+        case DOUBLE_LONG:
+            min = Integer.MIN_VALUE;
+            max = Integer.MAX_VALUE;
+            break;
+        case UNSIGNED:
+        case ENUMERATE:
+            min = 0;
+            max = 0xFF;
+            break;
+        case LONG_UNSIGNED:
+            min = 0;
+            max = 0xFFFF;
+            break;
+        case DOUBLE_LONG_UNSIGNED:
+            min = 0;
+            max = 0xFFFFFFFFL;
+            break;
+        case LONG64_UNSIGNED:
+            min = 0;
+            max = Long.MAX_VALUE;
+            break;
+        case LONG64:
+        default:
+            return;
+        }
+
+        if (value < min || value > max) {
+            throw new IllegalArgumentException(type + " " + value + " out of range");
+        }
+    }
+
+    private void checkNumber() throws ClassCastException {
+        if (!this.type.isNumber()) {
+            throw new ClassCastException(this.type + " is not a number.");
+        }
+    }
+
+    private List<DataObject> arrayValue() throws ClassCastException {
+        if (this.type != Type.ARRAY) {
+            throw new ClassCastException(this.type + " is not an array.");
+        }
+        return getValue();
+    }
+
     /**
      * Returns a string representation of the {@link DataObject}.
      * 
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.openmuc.jdlms.datatypes;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+import org.openmuc.jdlms.datatypes.DataObject.Type;
+
+/**
+ * An array of numbers, held in a primitive array instead of one {@link DataObject} per element.
+ */
+final class NumberArray extends AbstractList<DataObject> implements RandomAccess {
+
+    private final Type elementType;
+
+    /**
+     * The numbers as stored in {@link DataObject}, floating point numbers as the bits of a double.
+     */
+    private final long[] numbers;
+
+    NumberArray(Type elementType, long[] numbers) {
+        this.elementType = elementType;
+        this.numbers = numbers;
+    }
+
+    @Override
+    public DataObject get(int index) {
+        return DataObject.newNumberData(this.elementType, this.numbers[index]);
+    }
+
+    @Override
+    public int size() {
+        return this.numbers.length;
+    }
+
+    long[] toLongArray() {
+        if (!DataObject.isFloatingPoint(this.elementType)) {
+            return this.numbers.clone();
+        }
+
+        long[] values = new long[this.numbers.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Double.longBitsToDouble(this.numbers[i]);
+        }
+        return values;
+    }
+
+    double[] toDoubleArray() {
+        boolean floatingPoint = DataObject.isFloatingPoint(this.elementType);
+
+        double[] values = new double[this.numbers.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = floatingPoint ? Double.longBitsToDouble(this.numbers[i]) : this.numbers[i];
+        }
+        return values;
+    }
+
+}
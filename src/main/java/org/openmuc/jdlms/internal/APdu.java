@@ -22,10 +22,11 @@ package org.openmuc.jdlms.internal;
 
 import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.text.MessageFormat;
+import java.util.Arrays;
 
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 import org.openmuc.jdlms.FatalJDlmsException;
@@ -68,6 +69,10 @@ public class APdu {
         return cosemPdu;
     }
 
+    /**
+     * Decodes and deciphers an APDU. The ciphered part of the given bytes is decrypted in place, so the bytes can not
+     * be decoded again afterwards.
+     */
     public static APdu decode(byte[] bytes, byte[] serverSystemTitle, int frameCounter, SecuritySuite securitySuite,
             RawMessageDataBuilder rawMessageBuilder) throws IOException {
         return decode(bytes, true, serverSystemTitle, frameCounter, securitySuite, rawMessageBuilder);
@@ -126,7 +131,10 @@ public class APdu {
 
     private static APdu decode(byte[] bytes, boolean encrypt, byte[] provServerSysT, int frameCounter,
             SecuritySuite securitySuite, RawMessageData.RawMessageDataBuilder rawMessageBuilder) throws IOException {
-        DataInputStream is = new DataInputStream(new ByteArrayInputStream(bytes));
+        // the COSEM PDU is decoded from and decrypted within the source, so its position is needed
+        byte[] source = bytes;
+        ByteArrayInputStream sourceIs = new ByteArrayInputStream(source);
+        DataInputStream is = new DataInputStream(sourceIs);
 
         try {
             APdu aPdu = new APdu();
@@ -142,7 +150,7 @@ public class APdu {
                 validateAssociateResult(aPdu);
 
                 if (acseAPdu.getAarq() != null) {
-                    is = new DataInputStream(new ByteArrayInputStream(acseAPdu.getAarq().getUserInformation().value));
+                    source = acseAPdu.getAarq().getUserInformation().value;
                 }
                 else if (acseAPdu.getAare() != null) {
                     byte[] userInfo = acseAPdu.getAare().getUserInformation().value;
@@ -156,7 +164,12 @@ public class APdu {
                                 .put(remaining)
                                 .array();
                     }
-                    is = new DataInputStream(new ByteArrayInputStream(userInfo));
+                    source = userInfo;
+                }
+
+                if (source != bytes) {
+                    sourceIs = new ByteArrayInputStream(source);
+                    is = new DataInputStream(sourceIs);
                 }
 
                 if (encrypt) {
@@ -186,27 +199,40 @@ public class APdu {
             byte[] ciphertext = null;
             byte[] plaintext = null;
 
-            InputStream cosemPduIs = is;
+            ByteBuffer cosemPduBuffer = ByteBuffer.wrap(source, source.length - sourceIs.available(),
+                    sourceIs.available());
             if (encrypt) {
-
-                is.read();
+                if (!cosemPduBuffer.hasRemaining()) {
+                    throw new EOFException();
+                }
+                cosemPduBuffer.get();
 
                 AxdrLength axdrLength = new AxdrLength();
-                axdrLength.decode(is);
+                axdrLength.decode(cosemPduBuffer);
                 int encLength = axdrLength.getValue();
 
-                ciphertext = new byte[encLength];
-                is.readFully(ciphertext);
+                int offset = cosemPduBuffer.position();
+                if (encLength > cosemPduBuffer.remaining()) {
+                    throw new EOFException();
+                }
+
+                if (rawMessageBuilder != null) {
+                    ciphertext = Arrays.copyOfRange(source, offset, offset + encLength);
+                }
+
+                int plaintextLength = GcmModule.decryptInPlace(source, offset, encLength, serverSysT,
+                        securitySuite);
 
-                plaintext = GcmModule.decrypt(ciphertext, serverSysT, securitySuite);
+                if (rawMessageBuilder != null) {
+                    plaintext = Arrays.copyOfRange(source, offset, offset + plaintextLength);
+                }
 
-                cosemPduIs = new ByteArrayInputStream(plaintext);
+                cosemPduBuffer = ByteBuffer.wrap(source, offset, plaintextLength);
             }
 
-            int size = cosemPduIs.available();
-            if (size > 0) {
+            if (cosemPduBuffer.hasRemaining()) {
                 aPdu.cosemPdu = new COSEMpdu();
-                aPdu.cosemPdu.decode(cosemPduIs);
+                aPdu.cosemPdu.decode(cosemPduBuffer);
             }
 
             setDataToBuilder(aPdu, rawMessageBuilder, ciphertext, plaintext);
@@ -282,10 +308,36 @@ public class APdu {
 
     public int encode(byte[] buffer, int frameCounter, byte[] systemTitle, SecuritySuite securitySuite,
             RawMessageDataBuilder rawMessageBuilder) throws IOException {
-        BerByteArrayOutputStream baos = new BerByteArrayOutputStream(buffer, buffer.length - 1);
-        int numBytesEncoded = encodeCosemPdu(buffer, baos);
+        return encode(new BerByteArrayOutputStream(buffer, buffer.length - 1), frameCounter, systemTitle,
+                securitySuite, rawMessageBuilder);
+    }
+
+    /**
+     * Encodes and ciphers this APDU into the buffer of the stream. The encoding ends at the end of the buffer. If the
+     * stream resizes automatically, its buffer is replaced by a larger one when the APDU does not fit.
+     * 
+     * @param baos
+     *            the stream to encode the APDU to.
+     * @param frameCounter
+     *            the frame counter used to cipher the COSEM PDU.
+     * @param systemTitle
+     *            the system title used to cipher the COSEM PDU.
+     * @param securitySuite
+     *            the security suite used to cipher the COSEM PDU.
+     * @param rawMessageBuilder
+     *            the raw message builder or null.
+     * @return the number of bytes encoded.
+     * @throws IOException
+     *             if the APDU could not be encoded.
+     */
+    public int encode(BerByteArrayOutputStream baos, int frameCounter, byte[] systemTitle,
+            SecuritySuite securitySuite, RawMessageDataBuilder rawMessageBuilder) throws IOException {
+        int numBytesEncoded = encodeCosemPdu(baos);
 
         // -- encrypting
+        reserve(baos, GcmModule.MAX_CIPHERING_OVERHEAD);
+        byte[] buffer = baos.buffer;
+
         int origTag = buffer[buffer.length - numBytesEncoded] & 0xff;
         int newTag;
 
@@ -295,13 +347,14 @@ public class APdu {
         else {
             newTag = origTag + 8;
         }
-        byte[] ciphertext = GcmModule.processPlain(buffer, buffer.length - numBytesEncoded, numBytesEncoded,
-                systemTitle, frameCounter, securitySuite, (byte) newTag);
+        numBytesEncoded = GcmModule.encryptInPlace(buffer, numBytesEncoded, systemTitle, frameCounter, securitySuite,
+                (byte) newTag);
 
-        numBytesEncoded = ciphertext.length;
-
-        System.arraycopy(ciphertext, 0, buffer, buffer.length - numBytesEncoded, ciphertext.length);
-        baos = new BerByteArrayOutputStream(buffer, buffer.length - numBytesEncoded - 1);
+        byte[] ciphertext = null;
+        if (rawMessageBuilder != null) {
+            ciphertext = Arrays.copyOfRange(buffer, buffer.length - numBytesEncoded, buffer.length);
+        }
+        baos.index = buffer.length - numBytesEncoded - 1;
         // -- encrypting
 
         numBytesEncoded = encodeAcsePdu(numBytesEncoded, baos);
@@ -310,8 +363,23 @@ public class APdu {
     }
 
     public int encode(byte[] buffer, RawMessageDataBuilder rawMessageBuilder) throws IOException {
-        BerByteArrayOutputStream baos = new BerByteArrayOutputStream(buffer, buffer.length - 1);
-        int numBytesEncoded = encodeCosemPdu(buffer, baos);
+        return encode(new BerByteArrayOutputStream(buffer, buffer.length - 1), rawMessageBuilder);
+    }
+
+    /**
+     * Encodes this APDU into the buffer of the stream. The encoding ends at the end of the buffer. If the stream
+     * resizes automatically, its buffer is replaced by a larger one when the APDU does not fit.
+     * 
+     * @param baos
+     *            the stream to encode the APDU to.
+     * @param rawMessageBuilder
+     *            the raw message builder or null.
+     * @return the number of bytes encoded.
+     * @throws IOException
+     *             if the APDU could not be encoded.
+     */
+    public int encode(BerByteArrayOutputStream baos, RawMessageDataBuilder rawMessageBuilder) throws IOException {
+        int numBytesEncoded = encodeCosemPdu(baos);
 
         numBytesEncoded = encodeAcsePdu(numBytesEncoded, baos);
 
@@ -320,10 +388,30 @@ public class APdu {
         return numBytesEncoded;
     }
 
-    private int encodeCosemPdu(byte[] buffer, BerByteArrayOutputStream baos) throws IOException {
+    private int encodeCosemPdu(BerByteArrayOutputStream baos) throws IOException {
         return cosemPdu == null ? 0 : cosemPdu.encode(baos);
     }
 
+    /*
+     * The COSEM PDU is ciphered in place, so the room for the ciphering overhead is written in front of it. A resizing
+     * stream enlarges its buffer while writing, a fixed buffer is left to the ciphering to check.
+     */
+    private static void reserve(BerByteArrayOutputStream baos, int length) throws IOException {
+        if (baos.index + 1 >= length) {
+            return;
+        }
+
+        // resizing moves the encoded bytes to the end of the new buffer
+        int encodedLength = baos.buffer.length - baos.index;
+        try {
+            baos.write(new byte[length]);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // the buffer doesn't resize
+        } finally {
+            baos.index = baos.buffer.length - encodedLength;
+        }
+    }
+
     private static void setDataToBuilder(APdu apdu, RawMessageDataBuilder rawMessageBuilder, byte[] ciphertext,
             byte[] provPlaintext) {
         if (rawMessageBuilder == null) {
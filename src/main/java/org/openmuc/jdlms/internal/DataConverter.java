@@ -20,52 +20,41 @@
  */
 package org.openmuc.jdlms.internal;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 
 import org.openmuc.jdlms.AttributeAddress;
 import org.openmuc.jdlms.EventNotification;
-import org.openmuc.jdlms.IllegalPametrizationError;
 import org.openmuc.jdlms.ObisCode;
 import org.openmuc.jdlms.datatypes.BitString;
 import org.openmuc.jdlms.datatypes.CompactArray;
 import org.openmuc.jdlms.datatypes.CompactArray.DescriptionArray;
 import org.openmuc.jdlms.datatypes.CompactArray.TypeDesc;
 import org.openmuc.jdlms.datatypes.CosemDate;
-import org.openmuc.jdlms.datatypes.CosemDateFormat;
 import org.openmuc.jdlms.datatypes.CosemDateTime;
 import org.openmuc.jdlms.datatypes.CosemTime;
 import org.openmuc.jdlms.datatypes.DataObject;
 import org.openmuc.jdlms.datatypes.DataObject.Type;
-import org.openmuc.jdlms.internal.asn1.axdr.types.AxdrBitString;
-import org.openmuc.jdlms.internal.asn1.axdr.types.AxdrBoolean;
-import org.openmuc.jdlms.internal.asn1.axdr.types.AxdrNull;
-import org.openmuc.jdlms.internal.asn1.axdr.types.AxdrOctetString;
-import org.openmuc.jdlms.internal.asn1.axdr.types.AxdrSequenceOf;
-import org.openmuc.jdlms.internal.asn1.axdr.types.AxdrVisibleString;
+import org.openmuc.jdlms.internal.asn1.axdr.types.AxdrInteger;
 import org.openmuc.jdlms.internal.asn1.cosem.Data;
 import org.openmuc.jdlms.internal.asn1.cosem.Data.Choices;
-import org.openmuc.jdlms.internal.asn1.cosem.Data.SubSeqOf_array;
-import org.openmuc.jdlms.internal.asn1.cosem.Data.SubSeqOf_structure;
 import org.openmuc.jdlms.internal.asn1.cosem.Data.SubSeq_compact_array;
 import org.openmuc.jdlms.internal.asn1.cosem.EVENT_NOTIFICATION_Request;
-import org.openmuc.jdlms.internal.asn1.cosem.Enum;
-import org.openmuc.jdlms.internal.asn1.cosem.Integer16;
-import org.openmuc.jdlms.internal.asn1.cosem.Integer32;
-import org.openmuc.jdlms.internal.asn1.cosem.Integer64;
-import org.openmuc.jdlms.internal.asn1.cosem.Integer8;
 import org.openmuc.jdlms.internal.asn1.cosem.TypeDescription;
 import org.openmuc.jdlms.internal.asn1.cosem.TypeDescription.SubSeq_array;
-import org.openmuc.jdlms.internal.asn1.cosem.Unsigned16;
-import org.openmuc.jdlms.internal.asn1.cosem.Unsigned32;
-import org.openmuc.jdlms.internal.asn1.cosem.Unsigned64;
-import org.openmuc.jdlms.internal.asn1.cosem.Unsigned8;
 
 public final class DataConverter {
 
     public static DataObject convertDataToDataObject(Data pdu) {
+        if (pdu.code != null) {
+            try {
+                return DataObjectCodec.decode(ByteBuffer.wrap(pdu.code));
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Data holds a malformed encoding.", e);
+            }
+        }
 
         Choices choice = pdu.getChoiceIndex();
         ByteBuffer buf;
@@ -73,14 +62,22 @@ public final class DataConverter {
 
         switch (choice) {
         case ARRAY:
-            innerData = new LinkedList<>();
+            if (pdu.array.size() > 0) {
+                Choices elementChoice = pdu.array.get(0).getChoiceIndex();
+                Type numberType = DataObjectCodec.numberType(elementChoice.getValue());
+                if (numberType != null) {
+                    return convertNumberArray(pdu.array.list(), elementChoice, numberType);
+                }
+            }
+
+            innerData = new ArrayList<>(pdu.array.size());
             for (Data item : pdu.array.list()) {
                 innerData.add(convertDataToDataObject(item));
             }
             return DataObject.newArrayData(innerData);
 
         case STRUCTURE:
-            innerData = new LinkedList<>();
+            innerData = new ArrayList<>(pdu.structure.size());
             for (Data item : pdu.structure.list()) {
                 innerData.add(convertDataToDataObject(item));
             }
@@ -167,279 +164,87 @@ public final class DataConverter {
 
     }
 
-    private static TypeDesc convert(TypeDescription contentsDescription) {
-        if (contentsDescription.getChoiceIndex() == TypeDescription.Choices.ARRAY) {
-            SubSeq_array array = contentsDescription.array;
-            int numOfeElements = (int) array.number_of_elements.getValue();
-            TypeDesc typeDescription = convert(array.type_description);
-            return new TypeDesc(new DescriptionArray(numOfeElements, typeDescription), TypeDesc.Type.ARRAY);
-        }
-        else if (contentsDescription.getChoiceIndex() == TypeDescription.Choices.STRUCTURE) {
-            TypeDescription.SubSeqOf_structure structure = contentsDescription.structure;
-            List<TypeDescription> list = structure.list();
+    private static DataObject convertNumberArray(List<Data> items, Choices elementChoice, Type numberType) {
+        boolean floatingPoint = elementChoice == Choices.FLOAT32 || elementChoice == Choices.FLOAT64;
+        long[] longValues = floatingPoint ? null : new long[items.size()];
+        double[] doubleValues = floatingPoint ? new double[items.size()] : null;
 
-            List<TypeDesc> structList = new ArrayList<>(list.size());
-            for (TypeDescription typeDescription : list) {
-                structList.add(convert(typeDescription));
+        int index = 0;
+        for (Data item : items) {
+            if (item.getChoiceIndex() != elementChoice) {
+                throw new IllegalArgumentException("Array is of type " + elementChoice + ", but array at " + index
+                        + " is of type " + item.getChoiceIndex());
             }
-            return new TypeDesc(structList, TypeDesc.Type.STRUCTURE);
-        }
-        else {
-            return new TypeDesc(TypeDesc.Type.forValue(contentsDescription.getChoiceIndex().getValue()));
-        }
-
-    }
-
-    public static Data convertDataObjectToData(DataObject data) {
-        Data result = new Data();
-
-        Type type;
-
-        if (data == null || (type = data.getType()) == Type.DONT_CARE) {
-            result.setdont_care(new AxdrNull());
-        }
-        else if (data.isNull()) {
-            result.setnull_data(new AxdrNull());
-        }
-        else if (data.isCosemDateFormat()) {
-            CosemDateFormat cal = data.getValue();
-            result.setoctet_string(new AxdrOctetString(cal.encode()));
-
-        }
-        else if (data.isNumber()) {
-            result = convertNumberToPduData(data, type);
 
-        }
-        else if (data.isByteArray()) {
-            result = converByteArrayToPduData(data, type);
-
-        }
-        else if (data.isBitString()) {
-            BitString value = data.getValue();
-            result.setbit_string(new AxdrBitString(value.getBitString(), value.getNumBits()));
-
-        }
-        else if (type == Type.BOOLEAN) {
-            Boolean boolValue = data.getValue();
-            result.setbool(new AxdrBoolean(boolValue));
-
-        }
-        else if (data.isComplex()) {
-            result = convertComplexToPduData(data, type);
+            if (elementChoice == Choices.FLOAT32) {
+                doubleValues[index] = ByteBuffer.wrap(item.float32.getValue()).getFloat();
+            }
+            else if (elementChoice == Choices.FLOAT64) {
+                doubleValues[index] = ByteBuffer.wrap(item.float64.getValue()).getDouble();
+            }
+            else {
+                longValues[index] = integerOf(item).getValue();
+            }
+            index++;
         }
 
-        return result;
+        return floatingPoint ? DataObject.newArrayData(numberType, doubleValues)
+                : DataObject.newArrayData(numberType, longValues);
     }
 
-    private static TypeDescription convert(TypeDesc typeDescription) {
-        TypeDescription genTypeDescription = new TypeDescription(); // generated type
-        switch (typeDescription.getType()) {
-        case ARRAY:
-            DescriptionArray array = typeDescription.getValue();
-            genTypeDescription.setarray(
-                    new SubSeq_array(new Unsigned16(array.getNumOfeElements()), convert(array.getTypeDescription())));
-            break;
-        case STRUCTURE:
-            TypeDescription.SubSeqOf_structure newStruct = new TypeDescription.SubSeqOf_structure();
-            List<TypeDesc> struct = typeDescription.getValue();
-            for (TypeDesc typeDesc : struct) {
-                newStruct.add(convert(typeDesc));
-            }
-            genTypeDescription.setstructure(newStruct);
-
-            break;
+    private static AxdrInteger integerOf(Data pdu) {
+        switch (pdu.getChoiceIndex()) {
         case BCD:
-            genTypeDescription.setbcd(new AxdrNull());
-            break;
-        case BIT_STRING:
-            genTypeDescription.setbit_string(new AxdrNull());
-            break;
-        case BOOL:
-            genTypeDescription.setbool(new AxdrNull());
-            break;
-        case DATE:
-            genTypeDescription.setdate(new AxdrNull());
-            break;
-        case DATE_TIME:
-            genTypeDescription.setdate_time(new AxdrNull());
-            break;
-        case DONT_CARE:
-            genTypeDescription.setdont_care(new AxdrNull());
-            break;
+            return pdu.bcd;
+        case INTEGER:
+            return pdu.integer;
+        case UNSIGNED:
+            return pdu.unsigned;
+        case ENUMERATE:
+            return pdu.enumerate;
+        case LONG_INTEGER:
+            return pdu.long_integer;
+        case LONG_UNSIGNED:
+            return pdu.long_unsigned;
         case DOUBLE_LONG:
-            genTypeDescription.setdouble_long(new AxdrNull());
-            break;
+            return pdu.double_long;
         case DOUBLE_LONG_UNSIGNED:
-            genTypeDescription.setdouble_long_unsigned(new AxdrNull());
-            break;
-        case ENUMERATE:
-            genTypeDescription.setenumerate(new AxdrNull());
-            break;
-        case FLOAT32:
-            genTypeDescription.setfloat32(new AxdrNull());
-            break;
-        case FLOAT64:
-            genTypeDescription.setfloat64(new AxdrNull());
-            break;
-        case INTEGER:
-            genTypeDescription.setinteger(new AxdrNull());
-            break;
+            return pdu.double_long_unsigned;
         case LONG64:
-            genTypeDescription.setlong64(new AxdrNull());
-            break;
+            return pdu.long64;
         case LONG64_UNSIGNED:
-            genTypeDescription.setlong64_unsigned(new AxdrNull());
-            break;
-        case LONG_INTEGER:
-            genTypeDescription.setlong_integer(new AxdrNull());
-            break;
-        case LONG_UNSIGNED:
-            genTypeDescription.setlong_unsigned(new AxdrNull());
-            break;
-        case NULL_DATA:
-            genTypeDescription.setnull_data(new AxdrNull());
-            break;
-        case OCTET_STRING:
-            genTypeDescription.setoctet_string(new AxdrNull());
-            break;
-        case TIME:
-            genTypeDescription.settime(new AxdrNull());
-            break;
-        case UNSIGNED:
-            genTypeDescription.setunsigned(new AxdrNull());
-            break;
-        case UTF8_STRING:
-            genTypeDescription.setutf8_string(new AxdrNull());
-            break;
-        case VISIBLE_STRING:
-            genTypeDescription.setvisible_string(new AxdrNull());
-            break;
-
-        case ERR_NONE_SELECTED:
+            return pdu.long64_unsigned;
         default:
-            throw new IllegalPametrizationError("Unknown type, can't convert.");
+            throw new IllegalArgumentException(pdu.getChoiceIndex() + " is not an integer.");
         }
-        return genTypeDescription;
     }
 
-    private static Data convertComplexToPduData(DataObject data, Type type) {
-        Data result = new Data();
-
-        if (data.getType() == Type.COMPACT_ARRAY) {
-            CompactArray compactArray = data.getValue();
-
-            TypeDescription contentsDescription = convert(compactArray.getTypeDescription());
-            AxdrOctetString arrayContents = new AxdrOctetString(compactArray.getArrayContents());
-            SubSeq_compact_array compVal = new SubSeq_compact_array(contentsDescription, arrayContents);
-            result.setcompact_array(compVal);
+    private static TypeDesc convert(TypeDescription contentsDescription) {
+        if (contentsDescription.getChoiceIndex() == TypeDescription.Choices.ARRAY) {
+            SubSeq_array array = contentsDescription.array;
+            int numOfeElements = (int) array.number_of_elements.getValue();
+            TypeDesc typeDescription = convert(array.type_description);
+            return new TypeDesc(new DescriptionArray(numOfeElements, typeDescription), TypeDesc.Type.ARRAY);
         }
-        else {
+        else if (contentsDescription.getChoiceIndex() == TypeDescription.Choices.STRUCTURE) {
+            TypeDescription.SubSeqOf_structure structure = contentsDescription.structure;
+            List<TypeDescription> list = structure.list();
 
-            List<DataObject> dataList = data.getValue();
-            if (type == Type.STRUCTURE) {
-                result.setstructure(new SubSeqOf_structure());
-                setSeq(result.structure, dataList);
-            }
-            else if (type == Type.ARRAY) {
-                result.setarray(new SubSeqOf_array());
-                setSeq(result.array, dataList);
+            List<TypeDesc> structList = new ArrayList<>(list.size());
+            for (TypeDescription typeDescription : list) {
+                structList.add(convert(typeDescription));
             }
+            return new TypeDesc(structList, TypeDesc.Type.STRUCTURE);
         }
-
-        return result;
-    }
-
-    private static void setSeq(AxdrSequenceOf<Data> seq, List<DataObject> dataList) {
-        for (DataObject element : dataList) {
-            seq.add(convertDataObjectToData(element));
-        }
-    }
-
-    private static Data converByteArrayToPduData(DataObject data, Type type) {
-        byte[] value = data.getValue();
-
-        Data result = new Data();
-
-        switch (type) {
-        case OCTET_STRING:
-            result.setoctet_string(new AxdrOctetString(value));
-            break;
-        case VISIBLE_STRING:
-            result.setvisible_string(new AxdrVisibleString(value));
-            break;
-        case UTF8_STRING:
-            result.setutf8_string(new AxdrOctetString(value));
-            break;
-        default:
-            // can't be reached
-            throw new IllegalPametrizationError("No such type: " + type);
+        else {
+            return new TypeDesc(TypeDesc.Type.forValue(contentsDescription.getChoiceIndex().getValue()));
         }
 
-        return result;
     }
 
-    private static Data convertNumberToPduData(DataObject data, Type type) {
-        ByteBuffer buffer;
-        Number value = data.getValue();
-
-        Data result = new Data();
-
-        switch (type) {
-        case FLOAT64:
-            buffer = ByteBuffer.allocate(8).putDouble(value.doubleValue());
-            buffer.flip();
-
-            result.setfloat64(new AxdrOctetString(buffer.array()));
-            break;
-
-        case FLOAT32:
-            buffer = ByteBuffer.allocate(4).putFloat(value.floatValue());
-            buffer.flip();
-
-            result.setfloat32(new AxdrOctetString(buffer.array()));
-            break;
-
-        case ENUMERATE:
-            result.setenumerate(new Enum(value.longValue()));
-            break;
-
-        case LONG64_UNSIGNED:
-            result.setlong64_unsigned(new Unsigned64(value.longValue()));
-            break;
-
-        case LONG64:
-            result.setlong64(new Integer64(value.longValue()));
-            break;
-
-        case LONG_UNSIGNED:
-            result.setlong_unsigned(new Unsigned16(value.longValue()));
-            break;
-
-        case UNSIGNED:
-            result.setunsigned(new Unsigned8(value.longValue()));
-            break;
-
-        case LONG_INTEGER:
-            result.setlong_integer(new Integer16(value.longValue()));
-            break;
-        case INTEGER:
-            result.setinteger(new Integer8(value.longValue()));
-            break;
-        case BCD:
-            result.setbcd(new Integer8(value.longValue()));
-            break;
-        case DOUBLE_LONG_UNSIGNED:
-            result.setdouble_long_unsigned(new Unsigned32(value.longValue()));
-            break;
-        case DOUBLE_LONG:
-            result.setdouble_long(new Integer32(value.longValue()));
-
-            break;
-        default:
-            // can't be rached
-            throw new IllegalArgumentException("No such number: " + type);
-        }
-        return result;
+    public static Data convertDataObjectToData(DataObject data) {
+        // the data is encoded right away, instead of building a Data object graph
+        return new Data(DataObjectCodec.encode(data));
     }
 
     public static EventNotification convertNotiReqToNotification(EVENT_NOTIFICATION_Request pdu) {
@@ -0,0 +1,792 @@
+/*
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.openmuc.jdlms.internal;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openmuc.jdlms.IllegalPametrizationError;
+import org.openmuc.jdlms.datatypes.BitString;
+import org.openmuc.jdlms.datatypes.CompactArray;
+import org.openmuc.jdlms.datatypes.CompactArray.DescriptionArray;
+import org.openmuc.jdlms.datatypes.CompactArray.TypeDesc;
+import org.openmuc.jdlms.datatypes.CosemDate;
+import org.openmuc.jdlms.datatypes.CosemDateFormat;
+import org.openmuc.jdlms.datatypes.CosemDateTime;
+import org.openmuc.jdlms.datatypes.CosemTime;
+import org.openmuc.jdlms.datatypes.DataObject;
+import org.openmuc.jdlms.internal.asn1.axdr.AxdrLength;
+
+/**
+ * Encodes and decodes {@link DataObject}s directly to and from the A-XDR encoding of the COSEM Data type.
+ * <p>
+ * The encoding is the same as the one of the generated {@link org.openmuc.jdlms.internal.asn1.cosem.Data} class, but
+ * no intermediate Data object graph is built.
+ * </p>
+ */
+public final class DataObjectCodec {
+
+    static final int NULL_DATA = 0;
+    static final int ARRAY = 1;
+    static final int STRUCTURE = 2;
+    static final int BOOL = 3;
+    static final int BIT_STRING = 4;
+    static final int DOUBLE_LONG = 5;
+    static final int DOUBLE_LONG_UNSIGNED = 6;
+    static final int OCTET_STRING = 9;
+    static final int VISIBLE_STRING = 10;
+    static final int UTF8_STRING = 12;
+    static final int BCD = 13;
+    static final int INTEGER = 15;
+    static final int LONG_INTEGER = 16;
+    static final int UNSIGNED = 17;
+    static final int LONG_UNSIGNED = 18;
+    static final int COMPACT_ARRAY = 19;
+    static final int LONG64 = 20;
+    static final int LONG64_UNSIGNED = 21;
+    static final int ENUMERATE = 22;
+    static final int FLOAT32 = 23;
+    static final int FLOAT64 = 24;
+    static final int DATE_TIME = 25;
+    static final int DATE = 26;
+    static final int TIME = 27;
+    static final int DONT_CARE = 255;
+
+    /**
+     * Decodes a data object starting at the current position of the buffer.
+     * 
+     * @param buffer
+     *            the buffer to read from.
+     * @return the decoded data object.
+     * @throws IOException
+     *             if the encoding is malformed. An {@link EOFException} if the buffer ends before the data object is
+     *             complete.
+     */
+    public static DataObject decode(ByteBuffer buffer) throws IOException {
+        int tag = readTag(buffer);
+
+        switch (tag) {
+        case NULL_DATA:
+        case DONT_CARE:
+            return DataObject.newNullData();
+
+        case ARRAY:
+            return decodeArray(buffer);
+
+        case STRUCTURE:
+            return DataObject.newStructureData(decodeElements(buffer, AxdrLength.decodeLength(buffer)));
+
+        case BOOL:
+            checkRemaining(buffer, 1);
+            return DataObject.newBoolData(buffer.get() != 0x00);
+
+        case BIT_STRING:
+            int numBits = AxdrLength.decodeLength(buffer);
+            byte[] bitString = readBytes(buffer, numBytes(numBits));
+            return DataObject.newBitStringData(new BitString(bitString, numBits));
+
+        case DOUBLE_LONG:
+            checkRemaining(buffer, 4);
+            return DataObject.newInteger32Data(buffer.getInt());
+
+        case DOUBLE_LONG_UNSIGNED:
+            checkRemaining(buffer, 4);
+            return DataObject.newUInteger32Data(buffer.getInt() & 0xffffffffL);
+
+        case OCTET_STRING:
+            return DataObject.newOctetStringData(readOctetString(buffer));
+
+        case VISIBLE_STRING:
+            return DataObject.newVisibleStringData(readOctetString(buffer));
+
+        case UTF8_STRING:
+            return DataObject.newUtf8StringData(readOctetString(buffer));
+
+        case BCD:
+            checkRemaining(buffer, 1);
+            return DataObject.newBcdData(buffer.get());
+
+        case INTEGER:
+            checkRemaining(buffer, 1);
+            return DataObject.newInteger8Data(buffer.get());
+
+        case LONG_INTEGER:
+            checkRemaining(buffer, 2);
+            return DataObject.newInteger16Data(buffer.getShort());
+
+        case UNSIGNED:
+            checkRemaining(buffer, 1);
+            return DataObject.newUInteger8Data((short) (buffer.get() & 0xff));
+
+        case LONG_UNSIGNED:
+            checkRemaining(buffer, 2);
+            return DataObject.newUInteger16Data(buffer.getShort() & 0xffff);
+
+        case LONG64:
+            checkRemaining(buffer, 8);
+            return DataObject.newInteger64Data(buffer.getLong());
+
+        case LONG64_UNSIGNED:
+            checkRemaining(buffer, 8);
+            return DataObject.newUInteger64Data(buffer.getLong());
+
+        case ENUMERATE:
+            checkRemaining(buffer, 1);
+            return DataObject.newEnumerateData(buffer.get() & 0xff);
+
+        case FLOAT32:
+            int float32End = floatEnd(buffer, 4);
+            float float32 = buffer.getFloat();
+            buffer.position(float32End);
+            return DataObject.newFloat32Data(float32);
+
+        case FLOAT64:
+            int float64End = floatEnd(buffer, 8);
+            double float64 = buffer.getDouble();
+            buffer.position(float64End);
+            return DataObject.newFloat64Data(float64);
+
+        case DATE_TIME:
+            return DataObject.newDateTimeData(CosemDateTime.decode(readOctetString(buffer)));
+
+        case DATE:
+            return DataObject.newDateData(CosemDate.decode(readOctetString(buffer)));
+
+        case TIME:
+            return DataObject.newTimeData(CosemTime.decode(readOctetString(buffer)));
+
+        case COMPACT_ARRAY:
+            TypeDesc typeDescription = decodeTypeDescription(buffer);
+            byte[] arrayContents = readOctetString(buffer);
+            return DataObject.newCompactArrayData(new CompactArray(typeDescription, arrayContents));
+
+        default:
+            throw new IOException("Error decoding Data: Identifier matched to no item.");
+        }
+    }
+
+    /**
+     * Encodes a data object.
+     * 
+     * @param data
+     *            the data object to encode, <code>null</code> is encoded as don't care.
+     * @return the encoding.
+     */
+    public static byte[] encode(DataObject data) {
+        byte[] code = new byte[encodedLength(data)];
+        encode(data, ByteBuffer.wrap(code));
+        return code;
+    }
+
+    /**
+     * Encodes a data object to an output stream.
+     * <p>
+     * Arrays, structures and strings are written piece by piece, so the complete encoding is never held in memory.
+     * </p>
+     * 
+     * @param data
+     *            the data object to encode, <code>null</code> is encoded as don't care.
+     * @param out
+     *            the stream to write to.
+     * @throws IOException
+     *             if writing to the stream fails.
+     */
+    public static void encode(DataObject data, OutputStream out) throws IOException {
+        if (data == null) {
+            out.write(DONT_CARE);
+            return;
+        }
+
+        switch (data.getType()) {
+        case ARRAY:
+        case STRUCTURE:
+            List<DataObject> elements = data.getValue();
+            out.write(data.getType() == DataObject.Type.ARRAY ? ARRAY : STRUCTURE);
+            out.write(AxdrLength.encodeLength(elements.size()));
+            for (DataObject element : elements) {
+                encode(element, out);
+            }
+            break;
+
+        case OCTET_STRING:
+        case VISIBLE_STRING:
+        case UTF8_STRING:
+            byte[] octetString = data.getValue();
+            out.write(data.getType() == DataObject.Type.OCTET_STRING ? OCTET_STRING
+                    : data.getType() == DataObject.Type.VISIBLE_STRING ? VISIBLE_STRING : UTF8_STRING);
+            out.write(AxdrLength.encodeLength(octetString.length));
+            out.write(octetString);
+            break;
+
+        default:
+            out.write(encode(data));
+        }
+    }
+
+    /**
+     * Encodes a data object at the current position of the buffer.
+     * 
+     * @param data
+     *            the data object to encode, <code>null</code> is encoded as don't care.
+     * @param buffer
+     *            the buffer to write to.
+     * @return the number of bytes written.
+     * @see #encodedLength(DataObject)
+     */
+    public static int encode(DataObject data, ByteBuffer buffer) {
+        int start = buffer.position();
+
+        if (data == null) {
+            buffer.put((byte) DONT_CARE);
+            return 1;
+        }
+
+        switch (data.getType()) {
+        case ARRAY:
+        case STRUCTURE:
+            List<DataObject> elements = data.getValue();
+            buffer.put((byte) (data.getType() == DataObject.Type.ARRAY ? ARRAY : STRUCTURE));
+            AxdrLength.encodeLength(buffer, elements.size());
+            for (DataObject element : elements) {
+                encode(element, buffer);
+            }
+            break;
+
+        case COMPACT_ARRAY:
+            CompactArray compactArray = data.getValue();
+            buffer.put((byte) COMPACT_ARRAY);
+            encodeTypeDescription(compactArray.getTypeDescription(), buffer);
+            encodeOctetString(compactArray.getArrayContents(), buffer);
+            break;
+
+        case BOOLEAN:
+            Boolean bool = data.getValue();
+            buffer.put((byte) BOOL).put((byte) (bool ? 0x01 : 0x00));
+            break;
+
+        case BIT_STRING:
+            BitString bitString = data.getValue();
+            buffer.put((byte) BIT_STRING);
+            AxdrLength.encodeLength(buffer, bitString.getNumBits());
+            buffer.put(bitString.getBitString());
+            break;
+
+        case OCTET_STRING:
+            buffer.put((byte) OCTET_STRING);
+            encodeOctetString((byte[]) data.getValue(), buffer);
+            break;
+
+        case VISIBLE_STRING:
+            buffer.put((byte) VISIBLE_STRING);
+            encodeOctetString((byte[]) data.getValue(), buffer);
+            break;
+
+        case UTF8_STRING:
+            buffer.put((byte) UTF8_STRING);
+            encodeOctetString((byte[]) data.getValue(), buffer);
+            break;
+
+        case DATE_TIME:
+        case DATE:
+        case TIME:
+            // date formats are transmitted as octet strings
+            CosemDateFormat dateFormat = data.getValue();
+            buffer.put((byte) OCTET_STRING);
+            encodeOctetString(dateFormat.encode(), buffer);
+            break;
+
+        case BCD:
+            buffer.put((byte) BCD).put(((Number) data.getValue()).byteValue());
+            break;
+
+        case INTEGER:
+            buffer.put((byte) INTEGER).put(((Number) data.getValue()).byteValue());
+            break;
+
+        case UNSIGNED:
+            buffer.put((byte) UNSIGNED).put(((Number) data.getValue()).byteValue());
+            break;
+
+        case ENUMERATE:
+            buffer.put((byte) ENUMERATE).put(((Number) data.getValue()).byteValue());
+            break;
+
+        case LONG_INTEGER:
+            buffer.put((byte) LONG_INTEGER).putShort(((Number) data.getValue()).shortValue());
+            break;
+
+        case LONG_UNSIGNED:
+            buffer.put((byte) LONG_UNSIGNED).putShort(((Number) data.getValue()).shortValue());
+            break;
+
+        case DOUBLE_LONG:
+            buffer.put((byte) DOUBLE_LONG).putInt(((Number) data.getValue()).intValue());
+            break;
+
+        case DOUBLE_LONG_UNSIGNED:
+            buffer.put((byte) DOUBLE_LONG_UNSIGNED).putInt(((Number) data.getValue()).intValue());
+            break;
+
+        case LONG64:
+            buffer.put((byte) LONG64).putLong(((Number) data.getValue()).longValue());
+            break;
+
+        case LONG64_UNSIGNED:
+            buffer.put((byte) LONG64_UNSIGNED).putLong(((Number) data.getValue()).longValue());
+            break;
+
+        case FLOAT32:
+            buffer.put((byte) FLOAT32).put((byte) 4).putFloat(((Number) data.getValue()).floatValue());
+            break;
+
+        case FLOAT64:
+            buffer.put((byte) FLOAT64).put((byte) 8).putDouble(((Number) data.getValue()).doubleValue());
+            break;
+
+        case NULL_DATA:
+            buffer.put((byte) NULL_DATA);
+            break;
+
+        case DONT_CARE:
+        default:
+            buffer.put((byte) DONT_CARE);
+            break;
+        }
+
+        return buffer.position() - start;
+    }
+
+    /**
+     * Calculates the length of the encoding of a data object.
+     * 
+     * @param data
+     *            the data object.
+     * @return the number of bytes {@link #encode(DataObject, ByteBuffer)} will write.
+     */
+    public static int encodedLength(DataObject data) {
+        if (data == null) {
+            return 1;
+        }
+
+        switch (data.getType()) {
+        case ARRAY:
+        case STRUCTURE:
+            List<DataObject> elements = data.getValue();
+            int length = 1 + lengthOfLength(elements.size());
+            for (DataObject element : elements) {
+                length += encodedLength(element);
+            }
+            return length;
+
+        case COMPACT_ARRAY:
+            CompactArray compactArray = data.getValue();
+            return 1 + typeDescriptionLength(compactArray.getTypeDescription())
+                    + octetStringLength(compactArray.getArrayContents().length);
+
+        case BIT_STRING:
+            BitString bitString = data.getValue();
+            return 1 + lengthOfLength(bitString.getNumBits()) + bitString.getBitString().length;
+
+        case OCTET_STRING:
+        case VISIBLE_STRING:
+        case UTF8_STRING:
+            byte[] octetString = data.getValue();
+            return 1 + octetStringLength(octetString.length);
+
+        case DATE_TIME:
+        case DATE:
+        case TIME:
+            CosemDateFormat dateFormat = data.getValue();
+            return 1 + octetStringLength(dateFormat.length());
+
+        case BOOLEAN:
+        case BCD:
+        case INTEGER:
+        case UNSIGNED:
+        case ENUMERATE:
+            return 2;
+
+        case LONG_INTEGER:
+        case LONG_UNSIGNED:
+            return 3;
+
+        case DOUBLE_LONG:
+        case DOUBLE_LONG_UNSIGNED:
+            return 5;
+
+        case FLOAT32:
+            return 6;
+
+        case LONG64:
+        case LONG64_UNSIGNED:
+            return 9;
+
+        case FLOAT64:
+            return 10;
+
+        case NULL_DATA:
+        case DONT_CARE:
+        default:
+            return 1;
+        }
+    }
+
+    /**
+     * Skips over the encoding of a data object starting at the current position of the buffer, without decoding it.
+     * <p>
+     * The encoding is validated on the way, including that all elements of an array are of the same type.
+     * </p>
+     */
+    static void skip(ByteBuffer buffer) throws IOException {
+        int tag = readTag(buffer);
+
+        switch (tag) {
+        case NULL_DATA:
+        case DONT_CARE:
+            break;
+
+        case ARRAY:
+            skipArray(buffer);
+            break;
+
+        case STRUCTURE:
+            int numElements = AxdrLength.decodeLength(buffer);
+            for (int i = 0; i < numElements; i++) {
+                skip(buffer);
+            }
+            break;
+
+        case BOOL:
+        case BCD:
+        case INTEGER:
+        case UNSIGNED:
+        case ENUMERATE:
+            skip(buffer, 1);
+            break;
+
+        case LONG_INTEGER:
+        case LONG_UNSIGNED:
+            skip(buffer, 2);
+            break;
+
+        case DOUBLE_LONG:
+        case DOUBLE_LONG_UNSIGNED:
+            skip(buffer, 4);
+            break;
+
+        case LONG64:
+        case LONG64_UNSIGNED:
+            skip(buffer, 8);
+            break;
+
+        case BIT_STRING:
+            skip(buffer, numBytes(AxdrLength.decodeLength(buffer)));
+            break;
+
+        case OCTET_STRING:
+        case VISIBLE_STRING:
+        case UTF8_STRING:
+        case FLOAT32:
+        case FLOAT64:
+        case DATE_TIME:
+        case DATE:
+        case TIME:
+            skip(buffer, AxdrLength.decodeLength(buffer));
+            break;
+
+        case COMPACT_ARRAY:
+            decodeTypeDescription(buffer);
+            skip(buffer, AxdrLength.decodeLength(buffer));
+            break;
+
+        default:
+            throw new IOException("Error decoding Data: Identifier matched to no item.");
+        }
+    }
+
+    private static void skipArray(ByteBuffer buffer) throws IOException {
+        int numElements = AxdrLength.decodeLength(buffer);
+        if (numElements == 0) {
+            return;
+        }
+
+        int firstTagPos = buffer.position();
+        for (int i = 0; i < numElements; i++) {
+            if (buffer.hasRemaining() && buffer.get(buffer.position()) != buffer.get(firstTagPos)) {
+                throw new IOException("Array element at " + i + " is not of the same type as the first element.");
+            }
+            skip(buffer);
+        }
+    }
+
+    private static DataObject decodeArray(ByteBuffer buffer) throws IOException {
+        int numElements = AxdrLength.decodeLength(buffer);
+
+        if (numElements > 0 && buffer.hasRemaining()) {
+            int elementTag = buffer.get(buffer.position()) & 0xff;
+            DataObject.Type numberType = numberType(elementTag);
+            if (numberType != null) {
+                return decodeNumberArray(buffer, numElements, elementTag, numberType);
+            }
+        }
+
+        return DataObject.newArrayData(decodeElements(buffer, numElements));
+    }
+
+    private static DataObject decodeNumberArray(ByteBuffer buffer, int numElements, int elementTag,
+            DataObject.Type numberType) throws IOException {
+        // every number is encoded in at least two bytes
+        checkRemaining(buffer, numElements);
+
+        if (elementTag == FLOAT32 || elementTag == FLOAT64) {
+            int size = elementTag == FLOAT32 ? 4 : 8;
+            double[] values = new double[numElements];
+            for (int i = 0; i < numElements; i++) {
+                checkElementTag(buffer, elementTag, i);
+                int end = floatEnd(buffer, size);
+                values[i] = size == 4 ? buffer.getFloat() : buffer.getDouble();
+                buffer.position(end);
+            }
+            return DataObject.newArrayData(numberType, values);
+        }
+
+        long[] values = new long[numElements];
+        for (int i = 0; i < numElements; i++) {
+            checkElementTag(buffer, elementTag, i);
+            values[i] = readInteger(buffer, elementTag);
+        }
+        return DataObject.newArrayData(numberType, values);
+    }
+
+    private static void checkElementTag(ByteBuffer buffer, int elementTag, int index) throws IOException {
+        if (readTag(buffer) != elementTag) {
+            throw new IOException("Array element at " + index + " is not of the same type as the first element.");
+        }
+    }
+
+    private static long readInteger(ByteBuffer buffer, int tag) throws IOException {
+        switch (tag) {
+        case BCD:
+        case INTEGER:
+            checkRemaining(buffer, 1);
+            return buffer.get();
+        case UNSIGNED:
+        case ENUMERATE:
+            checkRemaining(buffer, 1);
+            return buffer.get() & 0xff;
+        case LONG_INTEGER:
+            checkRemaining(buffer, 2);
+            return buffer.getShort();
+        case LONG_UNSIGNED:
+            checkRemaining(buffer, 2);
+            return buffer.getShort() & 0xffff;
+        case DOUBLE_LONG:
+            checkRemaining(buffer, 4);
+            return buffer.getInt();
+        case DOUBLE_LONG_UNSIGNED:
+            checkRemaining(buffer, 4);
+            return buffer.getInt() & 0xffffffffL;
+        case LONG64:
+        case LONG64_UNSIGNED:
+            checkRemaining(buffer, 8);
+            return buffer.getLong();
+        default:
+            throw new IOException("Error decoding Data: " + tag + " is not an integer.");
+        }
+    }
+
+    /**
+     * Returns the number type of the tag or <code>null</code> if the tag is not one of a number.
+     */
+    static DataObject.Type numberType(int tag) {
+        switch (tag) {
+        case BCD:
+            return DataObject.Type.BCD;
+        case INTEGER:
+            return DataObject.Type.INTEGER;
+        case UNSIGNED:
+            return DataObject.Type.UNSIGNED;
+        case ENUMERATE:
+            return DataObject.Type.ENUMERATE;
+        case LONG_INTEGER:
+            return DataObject.Type.LONG_INTEGER;
+        case LONG_UNSIGNED:
+            return DataObject.Type.LONG_UNSIGNED;
+        case DOUBLE_LONG:
+            return DataObject.Type.DOUBLE_LONG;
+        case DOUBLE_LONG_UNSIGNED:
+            return DataObject.Type.DOUBLE_LONG_UNSIGNED;
+        case LONG64:
+            return DataObject.Type.LONG64;
+        case LONG64_UNSIGNED:
+            return DataObject.Type.LONG64_UNSIGNED;
+        case FLOAT32:
+            return DataObject.Type.FLOAT32;
+        case FLOAT64:
+            return DataObject.Type.FLOAT64;
+        default:
+            return null;
+        }
+    }
+
+    private static List<DataObject> decodeElements(ByteBuffer buffer, int numElements) throws IOException {
+        // every element is encoded in at least one byte
+        List<DataObject> elements = new ArrayList<>(Math.min(numElements, buffer.remaining()));
+        for (int i = 0; i < numElements; i++) {
+            elements.add(decode(buffer));
+        }
+        return elements;
+    }
+
+    private static TypeDesc decodeTypeDescription(ByteBuffer buffer) throws IOException {
+        int tag = readTag(buffer);
+
+        if (tag == ARRAY) {
+            checkRemaining(buffer, 2);
+            int numElements = buffer.getShort() & 0xffff;
+            TypeDesc elementType = decodeTypeDescription(buffer);
+            return new TypeDesc(new DescriptionArray(numElements, elementType), TypeDesc.Type.ARRAY);
+        }
+        else if (tag == STRUCTURE) {
+            int numElements = AxdrLength.decodeLength(buffer);
+            List<TypeDesc> structure = new ArrayList<>(Math.min(numElements, buffer.remaining()));
+            for (int i = 0; i < numElements; i++) {
+                structure.add(decodeTypeDescription(buffer));
+            }
+            return new TypeDesc(structure, TypeDesc.Type.STRUCTURE);
+        }
+
+        TypeDesc.Type type = TypeDesc.Type.forValue(tag);
+        if (type == TypeDesc.Type.ERR_NONE_SELECTED) {
+            throw new IOException("Error decoding TypeDescription: Identifier matched to no item.");
+        }
+        return new TypeDesc(type);
+    }
+
+    private static void encodeTypeDescription(TypeDesc typeDescription, ByteBuffer buffer) {
+        TypeDesc.Type type = typeDescription.getType();
+        if (type == TypeDesc.Type.ERR_NONE_SELECTED) {
+            throw new IllegalPametrizationError("Unknown type, can't convert.");
+        }
+
+        buffer.put((byte) type.getCode());
+
+        if (type == TypeDesc.Type.ARRAY) {
+            DescriptionArray array = typeDescription.getValue();
+            buffer.putShort((short) array.getNumOfeElements());
+            encodeTypeDescription(array.getTypeDescription(), buffer);
+        }
+        else if (type == TypeDesc.Type.STRUCTURE) {
+            List<TypeDesc> structure = typeDescription.getValue();
+            AxdrLength.encodeLength(buffer, structure.size());
+            for (TypeDesc element : structure) {
+                encodeTypeDescription(element, buffer);
+            }
+        }
+    }
+
+    private static int typeDescriptionLength(TypeDesc typeDescription) {
+        if (typeDescription.getType() == TypeDesc.Type.ARRAY) {
+            DescriptionArray array = typeDescription.getValue();
+            return 3 + typeDescriptionLength(array.getTypeDescription());
+        }
+        else if (typeDescription.getType() == TypeDesc.Type.STRUCTURE) {
+            List<TypeDesc> structure = typeDescription.getValue();
+            int length = 1 + lengthOfLength(structure.size());
+            for (TypeDesc element : structure) {
+                length += typeDescriptionLength(element);
+            }
+            return length;
+        }
+        return 1;
+    }
+
+    private static void encodeOctetString(byte[] octetString, ByteBuffer buffer) {
+        AxdrLength.encodeLength(buffer, octetString.length);
+        buffer.put(octetString);
+    }
+
+    private static int octetStringLength(int length) {
+        return lengthOfLength(length) + length;
+    }
+
+    private static int lengthOfLength(int length) {
+        if (length < 128) {
+            return 1;
+        }
+
+        int lengthOfLength = 1;
+        while ((length >> (8 * lengthOfLength)) != 0) {
+            lengthOfLength++;
+        }
+        return lengthOfLength + 1;
+    }
+
+    private static int floatEnd(ByteBuffer buffer, int size) throws IOException {
+        int length = AxdrLength.decodeLength(buffer);
+        if (length < size) {
+            throw new IOException("Floating point number encoded in " + length + " instead of " + size + " bytes.");
+        }
+        checkRemaining(buffer, length);
+        return buffer.position() + length;
+    }
+
+    private static byte[] readOctetString(ByteBuffer buffer) throws IOException {
+        return readBytes(buffer, AxdrLength.decodeLength(buffer));
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer, int length) throws IOException {
+        checkRemaining(buffer, length);
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static int numBytes(int numBits) {
+        return numBits / 8 + (numBits % 8 == 0 ? 0 : 1);
+    }
+
+    private static int readTag(ByteBuffer buffer) throws IOException {
+        checkRemaining(buffer, 1);
+        return buffer.get() & 0xff;
+    }
+
+    private static void skip(ByteBuffer buffer, int length) throws IOException {
+        checkRemaining(buffer, length);
+        buffer.position(buffer.position() + length);
+    }
+
+    private static void checkRemaining(ByteBuffer buffer, int length) throws IOException {
+        if (buffer.remaining() < length) {
+            throw new EOFException("Unexpected end of Data encoding.");
+        }
+    }
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private DataObjectCodec() {
+    }
+}
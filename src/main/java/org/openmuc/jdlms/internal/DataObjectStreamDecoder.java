@@ -0,0 +1,169 @@
+/*
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.openmuc.jdlms.internal;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import org.openmuc.jdlms.DataStreamListener;
+import org.openmuc.jdlms.datatypes.DataObject;
+import org.openmuc.jdlms.internal.asn1.axdr.AxdrLength;
+
+/**
+ * Decodes the A-XDR encoding of a data object while it is written block by block.
+ * <p>
+ * The elements of a top level array or structure are passed to the listener as soon as they are complete. Only the
+ * bytes of an element which is not yet complete are retained between two writes.
+ * </p>
+ */
+public final class DataObjectStreamDecoder extends OutputStream {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final DataStreamListener listener;
+
+    /*
+     * The bytes of the element which is not yet complete, in the range start to end. The buffer is reused for all
+     * writes and only grows if an element exceeds it.
+     */
+    private byte[] pending;
+    private int start;
+    private int end;
+
+    private int numElements = -1;
+    private int index;
+
+    public DataObjectStreamDecoder(DataStreamListener listener) {
+        this.listener = listener;
+        this.pending = new byte[INITIAL_CAPACITY];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] { (byte) b });
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (this.start == this.end) {
+            ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+            decodeElements(buffer);
+            this.start = this.end = 0;
+            append(b, buffer.position(), buffer.remaining());
+        }
+        else {
+            append(b, off, len);
+            ByteBuffer buffer = ByteBuffer.wrap(this.pending, this.start, this.end - this.start);
+            decodeElements(buffer);
+            this.start = buffer.position();
+        }
+    }
+
+    /**
+     * Checks that the written data was complete.
+     * 
+     * @throws IOException
+     *             if the data object is not complete.
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.numElements == -1 || this.index < this.numElements) {
+            throw new EOFException("Unexpected end of Data encoding.");
+        }
+    }
+
+    private void decodeElements(ByteBuffer buffer) throws IOException {
+        if (this.numElements == -1 && !decodeHeader(buffer)) {
+            return;
+        }
+
+        while (this.index < this.numElements && isElementComplete(buffer)) {
+            DataObject element = DataObjectCodec.decode(buffer);
+            this.listener.elementReceived(this.index++, element);
+        }
+
+        if (this.index == this.numElements && buffer.hasRemaining()) {
+            throw new IOException("Data is followed by " + buffer.remaining() + " unexpected bytes.");
+        }
+    }
+
+    /*
+     * Skipping validates the encoding without creating the data objects, an element is decoded once it is complete.
+     */
+    private static boolean isElementComplete(ByteBuffer buffer) throws IOException {
+        if (!buffer.hasRemaining()) {
+            return false;
+        }
+
+        int elementStart = buffer.position();
+        try {
+            DataObjectCodec.skip(buffer);
+            return true;
+        } catch (EOFException e) {
+            return false;
+        } finally {
+            buffer.position(elementStart);
+        }
+    }
+
+    private boolean decodeHeader(ByteBuffer buffer) throws IOException {
+        if (!buffer.hasRemaining()) {
+            return false;
+        }
+
+        int tag = buffer.get(buffer.position()) & 0xff;
+        if (tag != DataObjectCodec.ARRAY && tag != DataObjectCodec.STRUCTURE) {
+            this.numElements = 1;
+            return true;
+        }
+
+        int headerStart = buffer.position();
+        buffer.get();
+        try {
+            this.numElements = AxdrLength.decodeLength(buffer);
+            return true;
+        } catch (EOFException e) {
+            buffer.position(headerStart);
+            return false;
+        }
+    }
+
+    private void append(byte[] b, int off, int len) {
+        int length = this.end - this.start;
+
+        if (this.end + len > this.pending.length) {
+            byte[] target = this.pending;
+            if (length + len > this.pending.length) {
+                target = new byte[Math.max(this.pending.length * 2, length + len)];
+            }
+            System.arraycopy(this.pending, this.start, target, 0, length);
+            this.pending = target;
+            this.start = 0;
+            this.end = length;
+        }
+
+        System.arraycopy(b, off, this.pending, this.end, len);
+        this.end += len;
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.openmuc.jdlms.internal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.openmuc.jdlms.datatypes.DataObject;
+import org.openmuc.jdlms.internal.asn1.axdr.AxdrLength;
+
+/**
+ * A read only {@link List} of {@link DataObject}s, backed by the A-XDR encoding of a COSEM array or structure.
+ * <p>
+ * An element is decoded on its first access. The elements are located by skipping over their encodings using the
+ * length prefixes, so unneeded elements are never decoded.
+ * </p>
+ */
+public final class LazyDataList extends AbstractList<DataObject> implements RandomAccess {
+
+    private final byte[] buffer;
+
+    /**
+     * Start offset of every element, followed by the end offset of the last element.
+     */
+    private final int[] offsets;
+    private final DataObject[] elements;
+
+    private LazyDataList(byte[] buffer, int[] offsets) {
+        this.buffer = buffer;
+        this.offsets = offsets;
+        this.elements = new DataObject[offsets.length - 1];
+    }
+
+    /**
+     * Decodes a COSEM Data lazily.
+     * <p>
+     * The whole encoding is validated, but the elements of arrays and structures are only decoded when they are
+     * accessed. The buffer is referenced by the returned object and must not be modified afterwards.
+     * </p>
+     * 
+     * @param buffer
+     *            the buffer holding the encoded data.
+     * @param offset
+     *            the offset of the encoded data.
+     * @param length
+     *            the number of bytes available.
+     * @return the data.
+     * @throws IOException
+     *             if the encoding is malformed.
+     */
+    public static DataObject decode(byte[] buffer, int offset, int length) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(buffer, offset, length);
+        DataObjectCodec.skip(buf);
+
+        return decodeElement(buffer, offset, buf.position());
+    }
+
+    @Override
+    public DataObject get(int index) {
+        DataObject element = elements[index];
+        if (element == null) {
+            try {
+                element = decodeElement(buffer, offsets[index], offsets[index + 1]);
+            } catch (IOException e) {
+                // the encoding has been validated before
+                throw new IllegalStateException(e);
+            }
+            elements[index] = element;
+        }
+        return element;
+    }
+
+    @Override
+    public int size() {
+        return elements.length;
+    }
+
+    private static DataObject decodeElement(byte[] buffer, int offset, int end) throws IOException {
+        int tag = buffer[offset] & 0xff;
+
+        if (tag == DataObjectCodec.ARRAY || tag == DataObjectCodec.STRUCTURE) {
+            ByteBuffer buf = ByteBuffer.wrap(buffer, offset + 1, end - offset - 1);
+
+            int numElements = AxdrLength.decodeLength(buf);
+            if (tag == DataObjectCodec.ARRAY && numElements > 0
+                    && DataObjectCodec.numberType(buffer[buf.position()] & 0xff) != null) {
+                // arrays of numbers are held in primitive arrays anyway
+                return DataObjectCodec.decode(ByteBuffer.wrap(buffer, offset, end - offset));
+            }
+
+            int[] offsets = new int[numElements + 1];
+            for (int i = 0; i < numElements; i++) {
+                offsets[i] = buf.position();
+                DataObjectCodec.skip(buf);
+            }
+            offsets[numElements] = buf.position();
+
+            LazyDataList list = new LazyDataList(buffer, offsets);
+            return tag == DataObjectCodec.ARRAY ? DataObject.newArrayData(list) : DataObject.newStructureData(list);
+        }
+
+        return DataObjectCodec.decode(ByteBuffer.wrap(buffer, offset, end - offset));
+    }
+
+}
@@ -20,10 +20,13 @@
  */
 package org.openmuc.jdlms.internal;
 
+import org.openmuc.jdlms.internal.asn1.cosem.ACTION_Request;
 import org.openmuc.jdlms.internal.asn1.cosem.ACTION_Response;
 import org.openmuc.jdlms.internal.asn1.cosem.COSEMpdu;
+import org.openmuc.jdlms.internal.asn1.cosem.GET_Request;
 import org.openmuc.jdlms.internal.asn1.cosem.GET_Response;
 import org.openmuc.jdlms.internal.asn1.cosem.Invoke_Id_And_Priority;
+import org.openmuc.jdlms.internal.asn1.cosem.SET_Request;
 import org.openmuc.jdlms.internal.asn1.cosem.SET_Response;
 
 public class PduHelper {
@@ -91,6 +94,69 @@ public class PduHelper {
 
     }
 
+    private static int invokeIdFrom(GET_Request pdu) {
+        switch (pdu.getChoiceIndex()) {
+        case GET_REQUEST_NORMAL:
+            return invokeIdFrom(pdu.get_request_normal.invoke_id_and_priority);
+
+        case GET_REQUEST_NEXT:
+            return invokeIdFrom(pdu.get_request_next.invoke_id_and_priority);
+
+        case GET_REQUEST_WITH_LIST:
+            return invokeIdFrom(pdu.get_request_with_list.invoke_id_and_priority);
+
+        default:
+            return INVALID_INVOKE_ID;
+        }
+    }
+
+    private static int invokeIdFrom(SET_Request pdu) {
+        switch (pdu.getChoiceIndex()) {
+        case SET_REQUEST_NORMAL:
+            return invokeIdFrom(pdu.set_request_normal.invoke_id_and_priority);
+
+        case SET_REQUEST_WITH_FIRST_DATABLOCK:
+            return invokeIdFrom(pdu.set_request_with_first_datablock.invoke_id_and_priority);
+
+        case SET_REQUEST_WITH_DATABLOCK:
+            return invokeIdFrom(pdu.set_request_with_datablock.invoke_id_and_priority);
+
+        case SET_REQUEST_WITH_LIST:
+            return invokeIdFrom(pdu.set_request_with_list.invoke_id_and_priority);
+
+        case SET_REQUEST_WITH_LIST_AND_FIRST_DATABLOCK:
+            return invokeIdFrom(pdu.set_request_with_list_and_first_datablock.invoke_id_and_priority);
+
+        default:
+            return INVALID_INVOKE_ID;
+        }
+    }
+
+    private static int invokeIdFrom(ACTION_Request pdu) {
+        switch (pdu.getChoiceIndex()) {
+        case ACTION_REQUEST_NORMAL:
+            return invokeIdFrom(pdu.action_request_normal.invoke_id_and_priority);
+
+        case ACTION_REQUEST_NEXT_PBLOCK:
+            return invokeIdFrom(pdu.action_request_next_pblock.invoke_id_and_priority);
+
+        case ACTION_REQUEST_WITH_LIST:
+            return invokeIdFrom(pdu.action_request_with_list.invoke_id_and_priority);
+
+        case ACTION_REQUEST_WITH_FIRST_PBLOCK:
+            return invokeIdFrom(pdu.action_request_with_first_pblock.invoke_id_and_priority);
+
+        case ACTION_REQUEST_WITH_LIST_AND_FIRST_PBLOCK:
+            return invokeIdFrom(pdu.action_request_with_list_and_first_pblock.invoke_id_and_priority);
+
+        case ACTION_REQUEST_WITH_PBLOCK:
+            return invokeIdFrom(pdu.action_request_with_pblock.invoke_id_and_priority);
+
+        default:
+            return INVALID_INVOKE_ID;
+        }
+    }
+
     public static int invokeIdFrom(COSEMpdu cosemPdu) {
         switch (cosemPdu.getChoiceIndex()) {
         case ACTION_RESPONSE:
@@ -100,6 +166,13 @@ public class PduHelper {
         case SET_RESPONSE:
             return invokeIdFrom(cosemPdu.set_response);
 
+        case ACTION_REQUEST:
+            return invokeIdFrom(cosemPdu.action_request);
+        case GET_REQUEST:
+            return invokeIdFrom(cosemPdu.get_request);
+        case SET_REQUEST:
+            return invokeIdFrom(cosemPdu.set_request);
+
         default:
             return INVALID_INVOKE_ID;
         }
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.openmuc.jdlms.internal;
+
+import static org.openmuc.jdlms.internal.DlmsEnumFunctions.enumValueFrom;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.openmuc.jdlms.AccessResultCode;
+import org.openmuc.jdlms.DataStreamListener;
+
+/**
+ * Decodes the raw data of a READ block transfer with a single result while it is written block by block.
+ * <p>
+ * The raw data holds the encoding of a ReadResponse. The data of its result is passed on to a
+ * {@link DataObjectStreamDecoder}, a data access error is kept as result code.
+ * </p>
+ */
+public final class ReadResponseStreamDecoder extends OutputStream {
+
+    private static final int DATA = 0;
+    private static final int DATA_ACCESS_ERROR = 1;
+
+    private final DataObjectStreamDecoder dataDecoder;
+
+    private final byte[] header = new byte[3];
+    private int headerLength;
+
+    private AccessResultCode resultCode;
+
+    public ReadResponseStreamDecoder(DataStreamListener listener) {
+        this.dataDecoder = new DataObjectStreamDecoder(listener);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] { (byte) b });
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        int end = off + len;
+        while (off < end && this.resultCode == null) {
+            this.header[this.headerLength++] = b[off++];
+            decodeHeader();
+        }
+
+        if (off == end) {
+            return;
+        }
+
+        if (this.resultCode != AccessResultCode.SUCCESS) {
+            throw new IOException("Data access error is followed by " + (end - off) + " unexpected bytes.");
+        }
+
+        this.dataDecoder.write(b, off, end - off);
+    }
+
+    private void decodeHeader() throws IOException {
+        if (this.headerLength == 1 && this.header[0] != 1) {
+            throw new IOException("Expected a single read result, but got " + (this.header[0] & 0xff) + ".");
+        }
+
+        if (this.headerLength == 2) {
+            if (this.header[1] == DATA) {
+                this.resultCode = AccessResultCode.SUCCESS;
+            }
+            else if (this.header[1] != DATA_ACCESS_ERROR) {
+                throw new IOException("Error decoding ReadResponse: Identifier matched to no item.");
+            }
+        }
+
+        if (this.headerLength == 3) {
+            try {
+                this.resultCode = enumValueFrom(this.header[2] & 0xff, AccessResultCode.class);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Unknown data access result " + (this.header[2] & 0xff) + ".", e);
+            }
+        }
+    }
+
+    /**
+     * Checks that the written data was complete.
+     * 
+     * @throws IOException
+     *             if the read response is not complete.
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.resultCode == null) {
+            throw new EOFException("Unexpected end of ReadResponse encoding.");
+        }
+
+        if (this.resultCode == AccessResultCode.SUCCESS) {
+            this.dataDecoder.close();
+        }
+    }
+
+    /**
+     * The result code of the read, available after the data has been written completely.
+     * 
+     * @return the result code.
+     */
+    public AccessResultCode resultCode() {
+        return this.resultCode;
+    }
+
+}
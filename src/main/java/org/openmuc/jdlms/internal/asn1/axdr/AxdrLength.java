@@ -19,8 +19,10 @@
  */
 package org.openmuc.jdlms.internal.asn1.axdr;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 
@@ -59,6 +61,56 @@ public class AxdrLength {
         return codeLength;
     }
 
+    public static int encodeLength(ByteBuffer buffer, int length) {
+        if (length < 128) {
+            buffer.put((byte) length);
+            return 1;
+        }
+
+        int lengthOfLength = 1;
+        while ((length >> (8 * lengthOfLength)) != 0) {
+            lengthOfLength++;
+        }
+
+        buffer.put((byte) (lengthOfLength | 0x80));
+        for (int i = lengthOfLength - 1; i >= 0; i--) {
+            buffer.put((byte) (length >> (8 * i)));
+        }
+
+        return lengthOfLength + 1;
+    }
+
+    public static int decodeLength(ByteBuffer buffer) throws IOException {
+        if (!buffer.hasRemaining()) {
+            throw new EOFException("Error Decoding AxdrLength");
+        }
+
+        int length = buffer.get() & 0xff;
+
+        if ((length & 0x80) != 0x80) {
+            return length;
+        }
+
+        int encodedLength = length ^ 0x80;
+        if (encodedLength > 4) {
+            throw new IOException("Error Decoding AxdrLength");
+        }
+        if (buffer.remaining() < encodedLength) {
+            throw new EOFException("Error Decoding AxdrLength");
+        }
+
+        length = 0;
+        for (int i = 0; i < encodedLength; i++) {
+            length = (length << 8) | (buffer.get() & 0xff);
+        }
+
+        if (length < 0) {
+            throw new IOException("Error Decoding AxdrLength");
+        }
+
+        return length;
+    }
+
     public static byte[] encodeLength(int length) throws IOException {
 
         if (length == 0) {
@@ -138,6 +190,34 @@ public class AxdrLength {
         return codeLength;
     }
 
+    public int encode(ByteBuffer buffer) {
+        return encodeLength(buffer, length);
+    }
+
+    public int decode(ByteBuffer buffer) throws IOException {
+        if (!buffer.hasRemaining()) {
+            throw new IOException("Error Decoding AxdrLength");
+        }
+
+        length = buffer.get() & 0xff;
+
+        if ((length & 0x80) != 0x80) {
+            return 1;
+        }
+
+        int encodedLength = length ^ 0x80;
+        if (buffer.remaining() < encodedLength) {
+            throw new IOException("Error Decoding AxdrLength");
+        }
+
+        length = 0;
+        for (int i = 0; i < encodedLength; i++) {
+            length = (length << 8) | (buffer.get() & 0xff);
+        }
+
+        return encodedLength + 1;
+    }
+
     public int getValue() {
         return length;
     }
@@ -21,6 +21,7 @@ package org.openmuc.jdlms.internal.asn1.axdr;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 
@@ -28,4 +29,29 @@ public interface AxdrType extends Cloneable {
     int encode(BerByteArrayOutputStream axdrOStream) throws IOException;
 
     int decode(InputStream iStream) throws IOException;
+
+    /**
+     * Encodes this type at the current position of the buffer, in contrast to
+     * {@link #encode(BerByteArrayOutputStream)} from front to back.
+     * 
+     * @param buffer
+     *            the buffer to encode to.
+     * @return the number of bytes written.
+     * @throws IOException
+     *             if the type could not be encoded.
+     * @throws java.nio.BufferOverflowException
+     *             if there is not enough room left in the buffer.
+     */
+    int encode(ByteBuffer buffer) throws IOException;
+
+    /**
+     * Decodes this type directly from the current position of the buffer.
+     * 
+     * @param buffer
+     *            the buffer to decode from.
+     * @return the number of bytes read.
+     * @throws IOException
+     *             if the buffer does not hold a valid encoding of this type.
+     */
+    int decode(ByteBuffer buffer) throws IOException;
 }
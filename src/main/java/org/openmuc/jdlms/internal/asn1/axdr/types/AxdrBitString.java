@@ -21,6 +21,7 @@ package org.openmuc.jdlms.internal.asn1.axdr.types;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 import org.openmuc.jdlms.internal.asn1.axdr.AxdrLength;
@@ -116,6 +117,43 @@ public class AxdrBitString implements AxdrType {
         return codeLength;
     }
 
+    @Override
+    public int encode(ByteBuffer buffer) throws IOException {
+        int codeLength = bitString.length;
+
+        if (!fixedLength) {
+            codeLength += AxdrLength.encodeLength(buffer, numBits);
+        }
+
+        buffer.put(bitString);
+
+        return codeLength;
+    }
+
+    @Override
+    public int decode(ByteBuffer buffer) throws IOException {
+        int codeLength = 0;
+
+        if (!fixedLength) {
+            AxdrLength l = new AxdrLength();
+            codeLength += l.decode(buffer);
+
+            numBits = l.getValue();
+        }
+
+        int byteArrayLength = numBits % 8 == 0 ? numBits / 8 : numBits / 8 + 1;
+
+        codeLength += byteArrayLength;
+
+        if (buffer.remaining() < byteArrayLength) {
+            throw new IOException("Error Decoding AxdrBitString");
+        }
+        bitString = new byte[byteArrayLength];
+        buffer.get(bitString);
+
+        return codeLength;
+    }
+
     public byte[] getValue() {
         return bitString;
     }
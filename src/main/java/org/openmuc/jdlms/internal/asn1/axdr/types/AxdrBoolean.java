@@ -21,6 +21,7 @@ package org.openmuc.jdlms.internal.asn1.axdr.types;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 import org.openmuc.jdlms.internal.asn1.axdr.AxdrType;
@@ -76,6 +77,33 @@ public class AxdrBoolean implements AxdrType {
         return 1;
     }
 
+    @Override
+    public int encode(ByteBuffer buffer) throws IOException {
+
+        if (code != null) {
+            buffer.put(code);
+        }
+        else if (val) {
+            buffer.put((byte) 0x01);
+        }
+        else {
+            buffer.put((byte) 0x00);
+        }
+
+        return 1;
+    }
+
+    @Override
+    public int decode(ByteBuffer buffer) throws IOException {
+        if (!buffer.hasRemaining()) {
+            return 0;
+        }
+
+        val = buffer.get() != 0x00;
+
+        return 1;
+    }
+
     public void encodeAndSave(int encodingSizeGuess) throws IOException {
         BerByteArrayOutputStream berOStream = new BerByteArrayOutputStream(encodingSizeGuess);
         encode(berOStream);
@@ -22,6 +22,7 @@ package org.openmuc.jdlms.internal.asn1.axdr.types;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 import org.openmuc.jdlms.internal.asn1.axdr.AxdrType;
@@ -72,6 +73,34 @@ public class AxdrDefault<T extends AxdrType> {
         return codeLength;
     }
 
+    public int encode(ByteBuffer buffer) throws IOException {
+        boolean usage = !value.equals(defaultValue);
+
+        int codeLength = new AxdrBoolean(usage).encode(buffer);
+
+        if (usage) {
+            codeLength += value.encode(buffer);
+        }
+
+        return codeLength;
+    }
+
+    public int decode(ByteBuffer buffer) throws IOException {
+        int codeLength = 0;
+
+        AxdrBoolean axdrUsage = new AxdrBoolean();
+        codeLength += axdrUsage.decode(buffer);
+
+        if (axdrUsage.getValue()) {
+            codeLength += value.decode(buffer);
+        }
+        else {
+            setValueToDefault();
+        }
+
+        return codeLength;
+    }
+
     public T getValue() {
         return value;
     }
@@ -19,8 +19,10 @@
  */
 package org.openmuc.jdlms.internal.asn1.axdr.types;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 import org.openmuc.jdlms.internal.asn1.axdr.AxdrType;
@@ -29,33 +31,43 @@ public class AxdrInteger implements AxdrType {
 
     private long val = 0;
 
-    private Long maxVal = null;
+    private final long maxVal;
 
-    private Long minVal = null;
+    private final long minVal;
 
     protected byte[] code = null;
 
-    private boolean isFixedLength = false;
+    /**
+     * The number of bytes of a fixed length integer, 0 if the integer is encoded with a length.
+     */
+    private final int fixedLength;
 
-    private boolean isUnsigned = false;
+    private final boolean isUnsigned;
 
     public AxdrInteger() {
+        this(Long.MIN_VALUE, Long.MAX_VALUE, 0, 0);
     }
 
     public AxdrInteger(long val) {
+        this();
         setValue(val);
     }
 
     public AxdrInteger(byte[] code) {
+        this();
         this.code = code;
     }
 
     protected AxdrInteger(long min, long max, long val) {
+        this(min, max, Math.max(byteLength(min, min), byteLength(max, min)), val);
+    }
+
+    private AxdrInteger(long min, long max, int fixedLength, long val) {
         minVal = min;
         maxVal = max;
+        this.fixedLength = fixedLength;
+        isUnsigned = fixedLength != 0 && min >= 0;
         setValue(val);
-        isFixedLength = true;
-        isUnsigned = (min >= 0);
     }
 
     @Override
@@ -67,20 +79,15 @@ public class AxdrInteger implements AxdrType {
             axdrOStream.write(code);
         }
         else {
-            if (isFixedLength) {
-                codeLength = Math.max(getByteLength(minVal), getByteLength(maxVal));
+            if (isFixedLength()) {
+                codeLength = fixedLength;
 
                 for (int i = 0; i < codeLength; i++) {
                     axdrOStream.write(((int) (val >> 8 * (i))) & 0xff);
                 }
             }
             else {
-                if (val >= 0 && val <= 127) {
-                    codeLength = 1;
-                }
-                else {
-                    codeLength = getByteLength(val);
-                }
+                codeLength = variableLength();
 
                 for (int i = 0; i < codeLength; i++) {
                     axdrOStream.write(((int) (val >> 8 * (i))) & 0xff);
@@ -96,18 +103,17 @@ public class AxdrInteger implements AxdrType {
     @Override
     public int decode(InputStream iStream) throws IOException {
         int codeLength = 0;
-        byte[] byteCode;
-        byte length = 0;
+        int length = 0;
 
-        if (isFixedLength) {
-            length = (byte) Math.max(getByteLength(minVal), getByteLength(maxVal));
+        if (isFixedLength()) {
+            length = fixedLength;
             codeLength = length;
         }
         else {
-            length = (byte) iStream.read();
+            length = readByte(iStream);
 
             if ((length & 0x80) == 0x80) {
-                length = (byte) (length ^ 0x80);
+                length = length ^ 0x80;
                 codeLength = length + 1;
             }
             else {
@@ -116,22 +122,87 @@ public class AxdrInteger implements AxdrType {
             }
         }
 
-        byteCode = new byte[length];
-        Util.readFully(iStream, byteCode);
+        if (length == 0) {
+            val = 0;
+            return codeLength;
+        }
 
-        if ((byteCode[0] & 0x80) == 0x80 && !isUnsigned) {
-            val = -1;
-            for (int i = 0; i < length; i++) {
-                int numShiftBits = 8 * (length - i - 1);
-                val &= ((byteCode[i]) << numShiftBits) | ~(0xff << numShiftBits);
+        int firstByte = readByte(iStream);
+        val = (firstByte & 0x80) == 0x80 && !isUnsigned ? -1 : 0;
+        val = (val << 8) | firstByte;
+
+        for (int i = 1; i < length; i++) {
+            val = (val << 8) | readByte(iStream);
+        }
+
+        return codeLength;
+    }
+
+    private static int readByte(InputStream iStream) throws IOException {
+        int b = iStream.read();
+        if (b == -1) {
+            throw new EOFException("Unexpected end of input stream.");
+        }
+        return b;
+    }
+
+    @Override
+    public int encode(ByteBuffer buffer) throws IOException {
+        if (code != null) {
+            buffer.put(code);
+            return code.length;
+        }
+
+        int codeLength;
+        if (isFixedLength()) {
+            codeLength = fixedLength;
+        }
+        else {
+            codeLength = variableLength();
+
+            buffer.put((byte) ((codeLength & 0xff) | 0x80));
+        }
+
+        for (int i = codeLength - 1; i >= 0; i--) {
+            buffer.put((byte) (val >> 8 * (i)));
+        }
+
+        return isFixedLength() ? codeLength : codeLength + 1;
+    }
+
+    @Override
+    public int decode(ByteBuffer buffer) throws IOException {
+        int codeLength = 0;
+        int length = 0;
+
+        if (isFixedLength()) {
+            length = fixedLength;
+            codeLength = length;
+        }
+        else {
+            Util.checkRemaining(buffer, 1);
+            length = buffer.get() & 0xff;
+
+            if ((length & 0x80) == 0x80) {
+                length = length ^ 0x80;
+                codeLength = length + 1;
             }
+            else {
+                val = length;
+                return 1;
+            }
+        }
 
+        Util.checkRemaining(buffer, length);
+
+        if (length > 0 && (buffer.get(buffer.position()) & 0x80) == 0x80 && !isUnsigned) {
+            val = -1;
         }
         else {
             val = 0;
-            for (int i = 0; i < length; i++) {
-                val |= (long) (byteCode[i] & 0xff) << (8 * (length - i - 1));
-            }
+        }
+        for (int i = 0; i < length; i++) {
+            val = (val << 8) | (buffer.get() & 0xff);
         }
 
         return codeLength;
@@ -143,35 +214,37 @@ public class AxdrInteger implements AxdrType {
         code = berOStream.getArray();
     }
 
-    private int getByteLength(long val) {
-        if (minVal != null && minVal >= 0) {
-            for (int i = 1; i <= 8; i++) {
-                long upperBound = (long) (Math.pow(2, (i * 8)) - 1);
-                if (upperBound >= val) {
-                    return i;
-                }
-            }
+    private boolean isFixedLength() {
+        return fixedLength != 0;
+    }
+
+    private int variableLength() {
+        if (val >= 0 && val <= 127) {
+            return 1;
         }
-        else {
-            for (int i = 1; i <= 8; i++) {
-                long bound = (long) Math.pow(2d, (i * 8d) - 1d);
+        return byteLength(val, Long.MIN_VALUE);
+    }
 
-                long lowerBound = bound * -1;
-                long upperBound = bound - 1l;
-                if (lowerBound <= val && upperBound >= val) {
-                    return i;
-                }
-            }
+    /*
+     * The number of bytes needed to encode the value, as two's complement if negative values are allowed.
+     */
+    private static int byteLength(long val, long min) {
+        int numBits;
+        if (min >= 0) {
+            numBits = 64 - Long.numberOfLeadingZeros(val);
+        }
+        else {
+            // one bit more for the sign
+            numBits = 65 - Long.numberOfLeadingZeros(val < 0 ? ~val : val);
         }
-        // Unreachable, a long has at max 8 Byte
-        return 0;
+        return Math.max(1, (numBits + 7) / 8);
     }
 
     @Override
     public boolean equals(Object o) {
         if (o != null && o instanceof AxdrInteger) {
             AxdrInteger other = (AxdrInteger) o;
-            if (other.val == val && other.maxVal.equals(maxVal) && other.minVal.equals(minVal)) {
+            if (other.val == val && other.maxVal == maxVal && other.minVal == minVal) {
                 return true;
             }
         }
@@ -180,15 +253,15 @@ public class AxdrInteger implements AxdrType {
 
     @Override
     public int hashCode() {
-        return minVal.hashCode() ^ maxVal.hashCode() ^ (int) val;
+        return (int) (minVal ^ (minVal >>> 32)) ^ (int) (maxVal ^ (maxVal >>> 32)) ^ (int) val;
     }
 
     public Long getMax() {
-        return maxVal;
+        return isFixedLength() ? maxVal : null;
     }
 
     public Long getMin() {
-        return minVal;
+        return isFixedLength() ? minVal : null;
     }
 
     public long getValue() {
@@ -196,10 +269,10 @@ public class AxdrInteger implements AxdrType {
     }
 
     public void setValue(long newVal) {
-        if (minVal != null && minVal > newVal) {
+        if (minVal > newVal) {
             throw new IllegalArgumentException("Value " + newVal + " is smaller than minimum " + minVal);
         }
-        if (maxVal != null && maxVal < newVal) {
+        if (maxVal < newVal) {
             throw new IllegalArgumentException("Value " + newVal + " is greater than maximum " + maxVal);
         }
 
@@ -21,6 +21,7 @@ package org.openmuc.jdlms.internal.asn1.axdr.types;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 import org.openmuc.jdlms.internal.asn1.axdr.AxdrType;
@@ -40,6 +41,16 @@ public class AxdrNull implements AxdrType {
         return 0;
     }
 
+    @Override
+    public int encode(ByteBuffer buffer) throws IOException {
+        return 0;
+    }
+
+    @Override
+    public int decode(ByteBuffer buffer) throws IOException {
+        return 0;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o != null && o instanceof AxdrNull) {
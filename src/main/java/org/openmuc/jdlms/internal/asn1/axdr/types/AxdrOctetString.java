@@ -21,6 +21,7 @@ package org.openmuc.jdlms.internal.asn1.axdr.types;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 import org.openmuc.jdlms.internal.asn1.axdr.AxdrLength;
@@ -95,6 +96,45 @@ public class AxdrOctetString implements AxdrType {
 
     }
 
+    @Override
+    public int encode(ByteBuffer buffer) throws IOException {
+        int codeLength = 0;
+
+        if (length == 0) {
+            codeLength += AxdrLength.encodeLength(buffer, octetString.length);
+        }
+
+        buffer.put(octetString);
+        codeLength += octetString.length;
+
+        return codeLength;
+    }
+
+    @Override
+    public int decode(ByteBuffer buffer) throws IOException {
+
+        int codeLength = 0;
+        int length = this.length;
+
+        if (length == 0) {
+            AxdrLength l = new AxdrLength();
+            codeLength += l.decode(buffer);
+
+            length = l.getValue();
+            octetString = new byte[length];
+        }
+
+        if (length != 0) {
+            if (buffer.remaining() < length) {
+                throw new IOException("Error Decoding AxdrOctetString");
+            }
+            buffer.get(octetString, 0, length);
+            codeLength += length;
+        }
+
+        return codeLength;
+    }
+
     public byte[] getValue() {
         return octetString;
     }
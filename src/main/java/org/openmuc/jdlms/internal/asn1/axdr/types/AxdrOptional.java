@@ -21,6 +21,7 @@ package org.openmuc.jdlms.internal.asn1.axdr.types;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
 import org.openmuc.jdlms.internal.asn1.axdr.AxdrType;
@@ -65,6 +66,31 @@ public class AxdrOptional<T extends AxdrType> {
         return codeLength;
     }
 
+    public int encode(ByteBuffer buffer) throws IOException {
+        int codeLength = new AxdrBoolean(usage).encode(buffer);
+
+        if (usage) {
+            codeLength += value.encode(buffer);
+        }
+
+        return codeLength;
+    }
+
+    public int decode(ByteBuffer buffer) throws IOException {
+        int codeLength = 0;
+
+        AxdrBoolean axdrUsage = new AxdrBoolean();
+        codeLength += axdrUsage.decode(buffer);
+
+        usage = axdrUsage.getValue();
+
+        if (usage) {
+            codeLength += value.decode(buffer);
+        }
+
+        return codeLength;
+    }
+
     public void setUsed(boolean use) {
         usage = use;
     }
@@ -21,10 +21,10 @@ package org.openmuc.jdlms.internal.asn1.axdr.types;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
@@ -35,19 +35,22 @@ public abstract class AxdrSequenceOf<E extends AxdrType> implements AxdrType {
 
     public byte[] code = null;
     private Integer length = null;
-    private List<E> seqOf;
+    /*
+     * The elements are encoded back to front, so the list has to provide random access.
+     */
+    private ArrayList<E> seqOf;
 
     public AxdrSequenceOf() {
-        seqOf = new LinkedList<>();
+        seqOf = new ArrayList<>();
     }
 
     public AxdrSequenceOf(byte[] code) {
         this.code = code;
-        seqOf = new LinkedList<>();
+        seqOf = new ArrayList<>();
     }
 
     public AxdrSequenceOf(List<E> seqOf) {
-        this.seqOf = seqOf;
+        this.seqOf = new ArrayList<>(seqOf);
     }
 
     protected AxdrSequenceOf(int length) {
@@ -96,7 +99,7 @@ public abstract class AxdrSequenceOf<E extends AxdrType> implements AxdrType {
             numElements = length.getValue();
         }
 
-        seqOf = new LinkedList<>();
+        seqOf = new ArrayList<>(initialCapacity(numElements, iStream.available()));
 
         for (int i = 0; i < numElements; i++) {
             E subElem = createListElement();
@@ -107,6 +110,60 @@ public abstract class AxdrSequenceOf<E extends AxdrType> implements AxdrType {
         return codeLength;
     }
 
+    @Override
+    public int encode(ByteBuffer buffer) throws IOException {
+        if (code != null) {
+            buffer.put(code);
+            return code.length;
+        }
+
+        if (length != null && length != seqOf.size()) {
+            throw new IOException("Error decoding AxdrSequenceOf: Size of elements does not match.");
+        }
+
+        int codeLength = 0;
+        if (length == null) {
+            codeLength += AxdrLength.encodeLength(buffer, seqOf.size());
+        }
+
+        for (E element : seqOf) {
+            codeLength += element.encode(buffer);
+        }
+
+        return codeLength;
+    }
+
+    @Override
+    public int decode(ByteBuffer buffer) throws IOException {
+        int codeLength = 0;
+        int numElements = this.length == null ? 0 : this.length;
+
+        if (numElements == 0) {
+            AxdrLength length = new AxdrLength();
+            codeLength += length.decode(buffer);
+
+            numElements = length.getValue();
+        }
+
+        seqOf = new ArrayList<>(initialCapacity(numElements, buffer.remaining()));
+
+        for (int i = 0; i < numElements; i++) {
+            E subElem = createListElement();
+            codeLength += subElem.decode(buffer);
+            seqOf.add(subElem);
+        }
+
+        return codeLength;
+    }
+
+    /*
+     * The decoded length is only a hint. It is limited by the number of available bytes, so a corrupt length can not
+     * cause a huge allocation.
+     */
+    private static int initialCapacity(int numElements, int numBytesAvailable) {
+        return Math.max(0, Math.min(numElements, numBytesAvailable));
+    }
+
     public void encodeAndSave(int encodingSizeGuess) throws IOException {
         BerByteArrayOutputStream axdrOStream = new BerByteArrayOutputStream(encodingSizeGuess);
         encode(axdrOStream);
@@ -22,6 +22,7 @@ package org.openmuc.jdlms.internal.asn1.axdr.types;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 class Util {
 
@@ -31,6 +32,12 @@ class Util {
 
     }
 
+    static void checkRemaining(ByteBuffer buffer, int len) throws EOFException {
+        if (buffer.remaining() < len) {
+            throw new EOFException("Unexpected end of buffer.");
+        }
+    }
+
     static void readFully(InputStream is, byte[] buffer, int off, int len) throws IOException {
 
         do {
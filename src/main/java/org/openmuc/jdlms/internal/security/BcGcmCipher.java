@@ -0,0 +1,103 @@
+/*
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.openmuc.jdlms.internal.security;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.bouncycastle.crypto.DataLengthException;
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.engines.AESEngine;
+import org.bouncycastle.crypto.modes.GCMBlockCipher;
+import org.bouncycastle.crypto.modes.gcm.Tables8kGCMMultiplier;
+import org.bouncycastle.crypto.params.AEADParameters;
+import org.bouncycastle.crypto.params.KeyParameter;
+
+/**
+ * GCM cipher of BouncyCastle using a table driven multiplier. Each thread reuses its cipher, so the key schedule and
+ * the multiplication tables are only rebuilt if the key changes.
+ */
+public class BcGcmCipher implements GcmCipher {
+
+    private static final int TAG_LENGTH_BITS = 96;
+
+    private final ThreadLocal<CipherContext> cipherContexts;
+
+    public BcGcmCipher() {
+        this.cipherContexts = new ThreadLocal<CipherContext>() {
+            @Override
+            protected CipherContext initialValue() {
+                return new CipherContext();
+            }
+        };
+    }
+
+    @Override
+    public int encrypt(byte[] key, byte[] iv, byte[] aad, byte[] in, int inOff, int len, byte[] out, int outOff)
+            throws IOException {
+        // the cipher processes block by block, so the output never overtakes the unread input
+        try {
+            GCMBlockCipher cipher = this.cipherContexts.get().init(true, key, iv, aad);
+            int length = cipher.processBytes(in, inOff, len, out, outOff);
+            return length + cipher.doFinal(out, outOff + length);
+        } catch (IllegalArgumentException | IllegalStateException | DataLengthException
+                | InvalidCipherTextException e) {
+            throw new IOException("Unable to cipher/encrypt xDLMS APDU", e);
+        }
+    }
+
+    @Override
+    public int decrypt(byte[] key, byte[] iv, byte[] aad, byte[] in, int inOff, int len, byte[] out, int outOff)
+            throws IOException {
+        GCMBlockCipher cipher = this.cipherContexts.get().init(false, key, iv, aad);
+
+        try {
+            int length = cipher.processBytes(in, inOff, len, out, outOff);
+            return length + cipher.doFinal(out, outOff + length);
+        } catch (IllegalStateException | DataLengthException | InvalidCipherTextException e) {
+            throw new IOException("Unable to decipher/decrypt xDLMS pdu", e);
+        }
+    }
+
+    private static class CipherContext {
+        private GCMBlockCipher cipher;
+        private byte[] key;
+
+        public GCMBlockCipher init(boolean forEncryption, byte[] key, byte[] iv, byte[] aad) {
+            // a null key parameter lets the cipher keep its key schedule and tables
+            KeyParameter keyParameter = null;
+            if (this.cipher == null || !Arrays.equals(this.key, key)) {
+                this.cipher = newCipher();
+                this.key = key.clone();
+                keyParameter = new KeyParameter(key);
+            }
+
+            // the cipher refuses to encrypt twice with the same key and IV
+            this.cipher.init(forEncryption, new AEADParameters(keyParameter, TAG_LENGTH_BITS, iv, aad));
+            return this.cipher;
+        }
+
+        private static GCMBlockCipher newCipher() {
+            return new GCMBlockCipher(new AESEngine(), new Tables8kGCMMultiplier());
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.openmuc.jdlms.internal.security;
+
+import java.io.IOException;
+
+/**
+ * AES-GCM with a 96 bit IV and a 96 bit authentication tag, as used to cipher xDLMS APDUs.
+ * <p>
+ * Implementations have to be thread safe.
+ * </p>
+ * 
+ * @see GcmModule#setGcmCipher(GcmCipher)
+ */
+public interface GcmCipher {
+
+    /**
+     * Encrypts and authenticates the plaintext. The output may overlap the input, as long as it does not start behind
+     * the input.
+     * 
+     * @param key
+     *            the global unicast encryption key.
+     * @param iv
+     *            the 12 byte IV, built of the system title and the frame counter.
+     * @param aad
+     *            the additional authenticated data, may be empty.
+     * @param in
+     *            the buffer holding the plaintext.
+     * @param inOff
+     *            the offset of the plaintext.
+     * @param len
+     *            the length of the plaintext.
+     * @param out
+     *            the buffer to write the ciphertext followed by the authentication tag to. Must have room for
+     *            {@code len + 12} bytes.
+     * @param outOff
+     *            the offset of the ciphertext in the output buffer.
+     * @return the number of bytes written to the output buffer.
+     * @throws IOException
+     *             if the plaintext could not be encrypted.
+     */
+    int encrypt(byte[] key, byte[] iv, byte[] aad, byte[] in, int inOff, int len, byte[] out, int outOff)
+            throws IOException;
+
+    /**
+     * Decrypts the ciphertext and verifies its authentication tag. The output may overlap the input, as long as it
+     * does not start behind the input.
+     * 
+     * @param key
+     *            the global unicast encryption key.
+     * @param iv
+     *            the 12 byte IV, built of the system title and the frame counter.
+     * @param aad
+     *            the additional authenticated data, may be empty.
+     * @param in
+     *            the buffer holding the ciphertext followed by the authentication tag.
+     * @param inOff
+     *            the offset of the ciphertext.
+     * @param len
+     *            the length of the ciphertext including the authentication tag.
+     * @param out
+     *            the buffer to write the plaintext to. Must have room for {@code len - 12} bytes.
+     * @param outOff
+     *            the offset of the plaintext in the output buffer.
+     * @return the number of bytes written to the output buffer.
+     * @throws IOException
+     *             if the ciphertext could not be decrypted or is not authentic.
+     */
+    int decrypt(byte[] key, byte[] iv, byte[] aad, byte[] in, int inOff, int len, byte[] out, int outOff)
+            throws IOException;
+
+}
@@ -22,13 +22,8 @@ package org.openmuc.jdlms.internal.security;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
-import org.bouncycastle.crypto.InvalidCipherTextException;
-import org.bouncycastle.crypto.engines.AESEngine;
-import org.bouncycastle.crypto.modes.GCMBlockCipher;
-import org.bouncycastle.crypto.modes.gcm.BasicGCMMultiplier;
-import org.bouncycastle.crypto.params.AEADParameters;
-import org.bouncycastle.crypto.params.KeyParameter;
 import org.openmuc.jdlms.SecuritySuite;
 import org.openmuc.jdlms.SecuritySuite.EncryptionMechanism;
 import org.openmuc.jdlms.internal.asn1.axdr.AxdrLength;
@@ -37,34 +32,90 @@ public class GcmModule {
 
     private static final int FC_LENGTH = 4;
     private static final int IV_LENGTH = 12;
-    private static final int IV_LENGTH_BITS = IV_LENGTH * 8;
     private static final int LENGTH_FC_TAG_SC = 6;
+    private static final int SECURITY_HEADER_LENGTH = 5;
+    private static final int AUTH_TAG_LENGTH = 12;
+    private static final int MAX_HEADER_LENGTH = LENGTH_FC_TAG_SC + 4;
+
+    /**
+     * The maximum number of bytes a ciphered APDU is longer than its plaintext.
+     */
+    public static final int MAX_CIPHERING_OVERHEAD = MAX_HEADER_LENGTH + AUTH_TAG_LENGTH;
+
+    private static volatile GcmCipher gcmCipher = JceGcmCipher.isAvailable() ? new JceGcmCipher()
+            : new BcGcmCipher();
+
+    /**
+     * Replaces the cipher used for all APDUs. By default the GCM cipher of the Java runtime is used, if the runtime
+     * supports it, else the table driven cipher of BouncyCastle.
+     * 
+     * @param gcmCipher
+     *            the cipher to use.
+     */
+    public static void setGcmCipher(GcmCipher gcmCipher) {
+        if (gcmCipher == null) {
+            throw new IllegalArgumentException("GCM cipher must not be null.");
+        }
+        GcmModule.gcmCipher = gcmCipher;
+    }
+
+    public static GcmCipher getGcmCipher() {
+        return gcmCipher;
+    }
 
     public static byte[] processPlain(byte[] plaintext, int off, int len, byte[] systemTitle, int frameCounter,
             SecuritySuite securitySuite, byte tag) throws IOException {
-        byte[] frameCounterBytes = ByteBuffer.allocate(4).putInt(frameCounter).array();
+        byte[] buffer = new byte[len + AUTH_TAG_LENGTH + MAX_HEADER_LENGTH];
+        System.arraycopy(plaintext, off, buffer, buffer.length - len, len);
 
-        byte[] iv = ByteBuffer.allocate(systemTitle.length + 4).put(systemTitle).putInt(frameCounter).array();
+        int cipheredApduLength = encryptInPlace(buffer, len, systemTitle, frameCounter, securitySuite, tag);
 
-        byte[] additionalAssociationData = createAadIfExists(securitySuite);
+        return Arrays.copyOfRange(buffer, buffer.length - cipheredApduLength, buffer.length);
+    }
 
-        AEADParameters parameters = new AEADParameters(new KeyParameter(securitySuite.getGlobalUnicastEncryptionKey()),
-                IV_LENGTH_BITS, iv, additionalAssociationData);
+    /**
+     * Ciphers the plaintext at the end of the buffer without copying it. The ciphered APDU, consisting of the tag, the
+     * length, the security header, the ciphertext and the authentication tag, replaces the plaintext and ends at the
+     * end of the buffer.
+     * 
+     * @param buffer
+     *            the buffer holding the plaintext at its end.
+     * @param len
+     *            the length of the plaintext.
+     * @param systemTitle
+     *            the system title of the sender.
+     * @param frameCounter
+     *            the frame counter of the sender.
+     * @param securitySuite
+     *            the security suite.
+     * @param tag
+     *            the tag of the ciphered APDU.
+     * @return the length of the ciphered APDU.
+     * @throws IOException
+     *             if the plaintext could not be encrypted.
+     * @throws ArrayIndexOutOfBoundsException
+     *             if there is not enough room in front of the plaintext.
+     */
+    public static int encryptInPlace(byte[] buffer, int len, byte[] systemTitle, int frameCounter,
+            SecuritySuite securitySuite, byte tag) throws IOException {
+        int plaintextOffset = buffer.length - len;
+        int ciphertextOffset = plaintextOffset - AUTH_TAG_LENGTH;
+        if (ciphertextOffset < 0) {
+            throw new ArrayIndexOutOfBoundsException(ciphertextOffset);
+        }
 
-        GCMBlockCipher encCipher = createBlockCipher(true, parameters);
+        byte[] iv = ByteBuffer.allocate(IV_LENGTH).put(systemTitle).putInt(frameCounter).array();
 
-        byte[] chipherText = new byte[encCipher.getOutputSize(len)];
-        int length = encCipher.processBytes(plaintext, off, len, chipherText, 0);
-        try {
-            encCipher.doFinal(chipherText, length);
-        } catch (IllegalStateException | InvalidCipherTextException e) {
-            throw new IOException("Unable to cipher/encrypt xDLMS APDU", e);
-        }
+        byte[] additionalAssociationData = createAadIfExists(securitySuite);
 
-        int chipherTextLength = chipherText.length;
+        int chipherTextLength = gcmCipher.encrypt(securitySuite.getGlobalUnicastEncryptionKey(), iv,
+                additionalAssociationData, buffer, plaintextOffset, len, buffer, ciphertextOffset);
 
         if (!securitySuite.getSecurityPolicy().isAuthenticated()) {
-            chipherTextLength -= 12;
+            // drop the authentication tag, the ciphertext has the length of the plaintext
+            chipherTextLength -= AUTH_TAG_LENGTH;
+            System.arraycopy(buffer, ciphertextOffset, buffer, plaintextOffset, chipherTextLength);
+            ciphertextOffset = plaintextOffset;
         }
         byte[] lengthBytes = AxdrLength.encodeLength(chipherTextLength + 5);
 
@@ -72,13 +123,13 @@ public class GcmModule {
 
         byte controlByte = securityControlByteFrom(securitySuite);
 
-        return ByteBuffer.allocate(cipheredApduLength)
+        ByteBuffer.wrap(buffer, buffer.length - cipheredApduLength, cipheredApduLength - chipherTextLength)
                 .put(tag)
                 .put(lengthBytes)
                 .put(controlByte)
-                .put(frameCounterBytes)
-                .put(chipherText, 0, chipherTextLength)
-                .array();
+                .putInt(frameCounter);
+
+        return cipheredApduLength;
     }
 
     private static byte[] createAadIfExists(SecuritySuite securitySuite) {
@@ -96,29 +147,39 @@ public class GcmModule {
 
     public static byte[] decrypt(byte[] cipheredApdu, byte[] systemTitle, SecuritySuite securitySuite)
             throws IOException {
-        byte[] iv = ByteBuffer.allocate(IV_LENGTH).put(systemTitle).put(cipheredApdu, 1, FC_LENGTH).array();
-
-        byte[] additionalAssociationData = createAadIfExists(securitySuite);
-        AEADParameters parameters = new AEADParameters(new KeyParameter(securitySuite.getGlobalUnicastEncryptionKey()),
-                IV_LENGTH_BITS, iv, additionalAssociationData);
+        byte[] buffer = cipheredApdu.clone();
+        int plaintextLength = decryptInPlace(buffer, 0, buffer.length, systemTitle, securitySuite);
 
-        GCMBlockCipher decCipher = createBlockCipher(false, parameters);
+        return Arrays.copyOf(buffer, plaintextLength);
+    }
 
-        byte[] dec = new byte[decCipher.getOutputSize(cipheredApdu.length - 5)];
-        int length = decCipher.processBytes(cipheredApdu, 5, cipheredApdu.length - 5, dec, 0);
-        try {
-            decCipher.doFinal(dec, length);
-        } catch (IllegalStateException | InvalidCipherTextException e) {
-            throw new IOException("Unable to decipher/decrypt xDLMS pdu", e);
-        }
+    /**
+     * Deciphers the ciphered APDU within the buffer. The plaintext replaces the security header and the ciphertext and
+     * starts at {@code off}.
+     * 
+     * @param buffer
+     *            the buffer holding the security control byte, the frame counter, the ciphertext and the
+     *            authentication tag.
+     * @param off
+     *            the offset of the security control byte.
+     * @param len
+     *            the length of the ciphered part, including the security header.
+     * @param systemTitle
+     *            the system title of the sender.
+     * @param securitySuite
+     *            the security suite.
+     * @return the length of the plaintext.
+     * @throws IOException
+     *             if the ciphertext could not be decrypted or is not authentic.
+     */
+    public static int decryptInPlace(byte[] buffer, int off, int len, byte[] systemTitle, SecuritySuite securitySuite)
+            throws IOException {
+        byte[] iv = ByteBuffer.allocate(IV_LENGTH).put(systemTitle).put(buffer, off + 1, FC_LENGTH).array();
 
-        return dec;
-    }
+        byte[] additionalAssociationData = createAadIfExists(securitySuite);
 
-    private static GCMBlockCipher createBlockCipher(boolean forEncryption, AEADParameters parameters) {
-        GCMBlockCipher decCipher = new GCMBlockCipher(new AESEngine(), new BasicGCMMultiplier());
-        decCipher.init(forEncryption, parameters);
-        return decCipher;
+        return gcmCipher.decrypt(securitySuite.getGlobalUnicastEncryptionKey(), iv, additionalAssociationData, buffer,
+                off + SECURITY_HEADER_LENGTH, len - SECURITY_HEADER_LENGTH, buffer, off);
     }
 
     private static byte securityControlByteFrom(SecuritySuite securitySuite) {
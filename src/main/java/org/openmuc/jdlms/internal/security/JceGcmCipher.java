@@ -0,0 +1,142 @@
+/*
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.openmuc.jdlms.internal.security;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.security.GeneralSecurityException;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.Arrays;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * GCM cipher of the Java runtime, which uses the AES instructions of the CPU if available. Each thread reuses its
+ * cipher, so the key schedule is only rebuilt if the key changes.
+ */
+public class JceGcmCipher implements GcmCipher {
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int TAG_LENGTH_BITS = 96;
+
+    private static final Constructor<? extends AlgorithmParameterSpec> GCM_SPEC_CONSTRUCTOR = gcmSpecConstructor();
+
+    private final ThreadLocal<CipherContext> cipherContexts;
+
+    public JceGcmCipher() {
+        if (!isAvailable()) {
+            throw new IllegalStateException(TRANSFORMATION + " is not supported by the Java runtime.");
+        }
+
+        this.cipherContexts = new ThreadLocal<CipherContext>() {
+            @Override
+            protected CipherContext initialValue() {
+                return new CipherContext();
+            }
+        };
+    }
+
+    /**
+     * GCM is supported by the Java runtime as of Java 8.
+     * 
+     * @return {@code true} if the Java runtime provides AES-GCM.
+     */
+    public static boolean isAvailable() {
+        if (GCM_SPEC_CONSTRUCTOR == null) {
+            return false;
+        }
+        try {
+            Cipher.getInstance(TRANSFORMATION);
+            return true;
+        } catch (GeneralSecurityException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public int encrypt(byte[] key, byte[] iv, byte[] aad, byte[] in, int inOff, int len, byte[] out, int outOff)
+            throws IOException {
+        try {
+            Cipher cipher = this.cipherContexts.get().init(Cipher.ENCRYPT_MODE, key, iv, aad);
+            return cipher.doFinal(in, inOff, len, out, outOff);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Unable to cipher/encrypt xDLMS APDU", e);
+        }
+    }
+
+    @Override
+    public int decrypt(byte[] key, byte[] iv, byte[] aad, byte[] in, int inOff, int len, byte[] out, int outOff)
+            throws IOException {
+        try {
+            Cipher cipher = this.cipherContexts.get().init(Cipher.DECRYPT_MODE, key, iv, aad);
+            return cipher.doFinal(in, inOff, len, out, outOff);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Unable to decipher/decrypt xDLMS pdu", e);
+        }
+    }
+
+    private static class CipherContext {
+        private Cipher cipher;
+        private byte[] key;
+        private SecretKeySpec keySpec;
+
+        public Cipher init(int opmode, byte[] key, byte[] iv, byte[] aad) throws GeneralSecurityException {
+            if (!Arrays.equals(this.key, key)) {
+                this.key = key.clone();
+                this.keySpec = new SecretKeySpec(key, "AES");
+            }
+
+            AlgorithmParameterSpec params = newGcmSpec(iv);
+            if (this.cipher == null) {
+                this.cipher = Cipher.getInstance(TRANSFORMATION);
+            }
+
+            // the cipher refuses to encrypt twice with the same key and IV
+            this.cipher.init(opmode, this.keySpec, params);
+
+            this.cipher.updateAAD(aad);
+            return this.cipher;
+        }
+    }
+
+    private static AlgorithmParameterSpec newGcmSpec(byte[] iv) throws GeneralSecurityException {
+        try {
+            return GCM_SPEC_CONSTRUCTOR.newInstance(TAG_LENGTH_BITS, iv);
+        } catch (ReflectiveOperationException e) {
+            throw new GeneralSecurityException(e);
+        }
+    }
+
+    /*
+     * GCMParameterSpec has been added in Java 8, this library is still compatible with Java 7.
+     */
+    private static Constructor<? extends AlgorithmParameterSpec> gcmSpecConstructor() {
+        try {
+            Class<? extends AlgorithmParameterSpec> specClass = Class.forName("javax.crypto.spec.GCMParameterSpec")
+                    .asSubclass(AlgorithmParameterSpec.class);
+            return specClass.getConstructor(int.class, byte[].class);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+}
@@ -20,13 +20,17 @@
 package org.openmuc.jdlms.sessionlayer.client;
 
 import static org.openmuc.jdlms.JDlmsException.ExceptionId.CONNECTION_ALREADY_CLOSED;
-import static org.openmuc.jdlms.sessionlayer.hdlc.HdlcFrame.newInformationFrame;
 import static org.openmuc.jdlms.sessionlayer.hdlc.HdlcFrame.newReceiveReadyFrame;
 
 import java.io.IOException;
 import java.io.InterruptedIOException;
-import java.nio.ByteBuffer;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.openmuc.jdlms.FatalJDlmsException;
 import org.openmuc.jdlms.JDlmsException.Fault;
@@ -34,12 +38,19 @@ import org.openmuc.jdlms.RawMessageData;
 import org.openmuc.jdlms.RawMessageData.MessageSource;
 import org.openmuc.jdlms.RawMessageData.RawMessageDataBuilder;
 import org.openmuc.jdlms.RawMessageListener;
+import org.openmuc.jdlms.ResponseTimeoutException;
 import org.openmuc.jdlms.sessionlayer.hdlc.*;
 import org.openmuc.jdlms.sessionlayer.hdlc.HdlcConnection.Listener;
 import org.openmuc.jdlms.settings.client.HdlcSettings;
 
 /**
  * SessionLayer implementing the HDLC protocol IEC 62056-46 for further details.
+ * 
+ * <p>
+ * Information frames are sent with the negotiated window size. Up to window size frames are sent, before the layer
+ * waits for the acknowledge of the meter. Frames which are not acknowledged are kept in the send queue and are
+ * retransmitted.
+ * </p>
  */
 public class HdlcLayer implements SessionLayer {
 
@@ -51,6 +62,7 @@ public class HdlcLayer implements SessionLayer {
     private HdlcSequenceNumber recSeqNum;
 
     private final HdlcMessageQueue sendQueue;
+    private final HdlcInformationFrameEncoder frameEncoder;
 
     private int sendWindowSize;
     private int sendInformationLength;
@@ -59,6 +71,11 @@ public class HdlcLayer implements SessionLayer {
 
     private final HdlcConnection hdlcConnection;
 
+    private final Lock lock;
+
+    private final Lock windowLock;
+    private final Condition windowAcknowledged;
+
     public HdlcLayer(HdlcSettings settings) {
         this(settings, HdlcDispatcher.instance());
     }
@@ -69,90 +86,93 @@ public class HdlcLayer implements SessionLayer {
         this.sendSeqNum = new HdlcSequenceNumber();
         this.recSeqNum = new HdlcSequenceNumber();
 
-        this.sendQueue = new HdlcMessageQueue(1);
+        this.sendQueue = new HdlcMessageQueue(HdlcParameters.MAX_WINDOW_SIZE);
+        this.frameEncoder = new HdlcInformationFrameEncoder(settings.addressPair());
 
         this.closed = true;
 
+        this.lock = new ReentrantLock();
+
+        this.windowLock = new ReentrantLock();
+        this.windowAcknowledged = this.windowLock.newCondition();
+
         this.hdlcConnection = factory.getHdlcConnection(settings, new HdlcConnectionListenerImpl());
     }
 
     @Override
-    public synchronized void startListening(SessionLayerListener listener) throws IOException {
-        connectionListener = listener;
+    public void startListening(SessionLayerListener listener) throws IOException {
+        this.lock.lock();
+        try {
+            connectionListener = listener;
 
-        HdlcParameters parameterNegotiation = this.hdlcConnection.open(this.settings);
-        this.sendInformationLength = parameterNegotiation.getReceiveInformationLength();
-        this.sendWindowSize = parameterNegotiation.getReceiveWindowSize();
+            HdlcParameters parameterNegotiation = this.hdlcConnection.open(this.settings);
+            this.sendInformationLength = parameterNegotiation.getReceiveInformationLength();
+            this.sendWindowSize = Math.min(parameterNegotiation.getReceiveWindowSize(),
+                    this.settings.hdlcWindowSize());
 
-        // if (this.sendQueue.getCapacity() < sendWindowSize) {
-        // this.sendQueue.reszize(sendWindowSize);
-        // }
-        this.closed = false;
+            this.closed = false;
+        } finally {
+            this.lock.unlock();
+        }
     }
 
     @Override
-    public synchronized void send(byte[] tSdu, int off, int len, RawMessageDataBuilder rawMessageDataBuilder)
+    public void send(byte[] tSdu, int off, int len, RawMessageDataBuilder rawMessageDataBuilder)
             throws IOException {
-        int toIndex = off + len;
-        final byte[] data = Arrays.copyOfRange(tSdu, off, toIndex);
-
-        if (len > maxMessageLength()) {
-            sendAsSegments(rawMessageDataBuilder, data);
-        }
-        else {
-            boolean segmented = false;
-            boolean addLlc = true;
-            sendInfoFrame(rawMessageDataBuilder, data, segmented, addLlc);
+        this.lock.lock();
+        try {
+            if (len > segmentLength()) {
+                sendAsSegments(rawMessageDataBuilder, tSdu, off, len);
+            }
+            else {
+                boolean segmented = false;
+                boolean addLlc = true;
+                sendInfoFrame(rawMessageDataBuilder, tSdu, off, len, segmented, addLlc);
+            }
+        } finally {
+            this.lock.unlock();
         }
     }
 
-    private void sendAsSegments(RawMessageDataBuilder rawMessageDataBuilder, byte[] data) throws IOException {
-        ByteBuffer segmentBufferBuffer = ByteBuffer.wrap(data);
-        byte[] segment = new byte[this.sendInformationLength - 12];
+    private void sendAsSegments(RawMessageDataBuilder rawMessageDataBuilder, byte[] data, int off, int len)
+            throws IOException {
+        int end = off + len;
 
         boolean addLlc = true;
-        sendSegment(rawMessageDataBuilder, segmentBufferBuffer, segment, addLlc);
-
-        addLlc = false;
-        while (true) {
-            sendSegment(rawMessageDataBuilder, segmentBufferBuffer, segment, addLlc);
-
-            if (segmentBufferBuffer.remaining() < segment.length) {
-                if (!segmentBufferBuffer.hasRemaining()) {
-                    return;
-                }
+        int segmentOffset = off;
+        while (segmentOffset < end) {
+            int segmentLength = Math.min(segmentLength(), end - segmentOffset);
 
-                segment = new byte[segmentBufferBuffer.remaining()];
-            }
+            boolean segmented = segmentOffset + segmentLength < end;
+            sendInfoFrame(rawMessageDataBuilder, data, segmentOffset, segmentLength, segmented, addLlc);
 
+            addLlc = false;
+            segmentOffset += segmentLength;
         }
-
     }
 
-    private void sendSegment(RawMessageDataBuilder rawMessageDataBuilder, ByteBuffer segmentBufferBuffer,
-            byte[] segment, boolean addLlc) throws IOException {
-        segmentBufferBuffer.get(segment);
-        boolean segmented = segmentBufferBuffer.hasRemaining();
-
-        sendInfoFrame(rawMessageDataBuilder, segment, segmented, addLlc);
-    }
-
-    private int maxMessageLength() {
-        return this.sendInformationLength * this.sendWindowSize;
+    private int segmentLength() {
+        return this.sendInformationLength - 12;
     }
 
     @Override
-    public synchronized void close() throws IOException {
-        if (this.closed) {
-            throw new FatalJDlmsException(CONNECTION_ALREADY_CLOSED, Fault.USER, "Connection has been already closed.");
-        }
+    public void close() throws IOException {
+        this.lock.lock();
         try {
-            this.hdlcConnection.disconnect(settings);
+            if (this.closed) {
+                throw new FatalJDlmsException(CONNECTION_ALREADY_CLOSED, Fault.USER,
+                        "Connection has been already closed.");
+            }
+            try {
+                this.hdlcConnection.disconnect(settings);
+            } finally {
+                closed = true;
+                sendSeqNum = null;
+                recSeqNum = null;
+                sendQueue.clear();
+            }
         } finally {
-            closed = true;
-            sendSeqNum = null;
-            recSeqNum = null;
-            sendQueue.clear();
+            this.lock.unlock();
         }
     }
 
@@ -164,20 +184,91 @@ public class HdlcLayer implements SessionLayer {
         }
     }
 
-    private void sendInfoFrame(RawMessageDataBuilder rawMessageDataBuilder, byte[] data, boolean segmented,
-            boolean addLlc) throws IOException {
-        HdlcAddressPair addressPair = settings.addressPair();
-        HdlcFrame frame = newInformationFrame(addressPair, this.sendSeqNum.increment(), this.recSeqNum.getValue(), data,
-                segmented, addLlc);
+    private void sendInfoFrame(RawMessageDataBuilder rawMessageDataBuilder, byte[] data, int off, int len,
+            boolean segmented, boolean addLlc) throws IOException {
+        awaitFreeWindowSlot();
+
+        // the last frame of a message and the frame filling the window request an acknowledge
+        boolean poll = !segmented || this.sendQueue.size() + 1 >= this.sendWindowSize;
 
-        sendAndBufferFrame(rawMessageDataBuilder, frame);
+        int sendSequence = this.sendSeqNum.increment();
+        byte[] frame = this.frameEncoder.encode(data, off, len, sendSequence, this.recSeqNum.getValue(), segmented,
+                addLlc, poll);
+
+        sendAndBufferFrame(rawMessageDataBuilder, frame, sendSequence, poll);
     }
 
-    private void sendAndBufferFrame(RawMessageDataBuilder rawMessageDataBuilder, HdlcFrame infoFrame)
-            throws IOException {
-        byte[] dataToSend = infoFrame.encode();
+    private void awaitFreeWindowSlot() throws IOException {
+        boolean retransmitted = false;
+
+        while (true) {
+            this.windowLock.lock();
+            try {
+                if (this.sendQueue.size() < this.sendWindowSize) {
+                    return;
+                }
+                if (awaitAcknowledge()) {
+                    continue;
+                }
+            } finally {
+                this.windowLock.unlock();
+            }
+
+            if (retransmitted) {
+                throw new ResponseTimeoutException("Remote meter did not acknowledge the sent HDLC frames.");
+            }
+
+            resendFrames(queuedFrames());
+            retransmitted = true;
+        }
+    }
+
+    private boolean awaitAcknowledge() throws InterruptedIOException {
+        int timeout = this.settings.responseTimeout();
+        try {
+            if (timeout == 0) {
+                this.windowAcknowledged.await();
+                return true;
+            }
+            return this.windowAcknowledged.await(timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the HDLC acknowledge.");
+        }
+    }
+
+    private List<byte[]> queuedFrames() {
+        this.windowLock.lock();
+        try {
+            List<byte[]> frames = new ArrayList<>(this.sendQueue.size());
+            for (byte[] frame : this.sendQueue) {
+                frames.add(frame);
+            }
+            return frames;
+        } finally {
+            this.windowLock.unlock();
+        }
+    }
+
+    private void resendFrames(List<byte[]> frames) throws IOException {
+        Iterator<byte[]> iterator = frames.iterator();
+        while (iterator.hasNext()) {
+            byte[] frame = iterator.next();
+            notifyRawMessageListener(frame, MessageSource.CLIENT);
+
+            // the acknowledge timeout starts when the last frame has been written to the link
+            if (iterator.hasNext()) {
+                this.hdlcConnection.send(settings, frame);
+            }
+            else {
+                this.hdlcConnection.transmit(settings, frame);
+            }
+        }
+    }
 
-        sendQueue.offerMessage(dataToSend, infoFrame.getSendSequence());
+    private void sendAndBufferFrame(RawMessageDataBuilder rawMessageDataBuilder, byte[] dataToSend, int sendSequence,
+            boolean poll) throws IOException {
+        sendQueue.offerMessage(dataToSend, sendSequence);
 
         RawMessageListener rawMessageListener = this.settings.rawMessageListener();
 
@@ -188,7 +279,13 @@ public class HdlcLayer implements SessionLayer {
             rawMessageListener.messageCaptured(rawMessageData);
         }
 
-        this.hdlcConnection.send(dataToSend);
+        // the response timeout of a polled frame starts when the frame has been written to the link
+        if (poll) {
+            this.hdlcConnection.transmit(settings, dataToSend);
+        }
+        else {
+            this.hdlcConnection.send(settings, dataToSend);
+        }
     }
 
     private class HdlcConnectionListenerImpl implements Listener {
@@ -196,7 +293,7 @@ public class HdlcLayer implements SessionLayer {
         private final HdlcFrameSegmentBuffer segmentBuffer;
 
         public HdlcConnectionListenerImpl() {
-            this.segmentBuffer = new HdlcFrameSegmentBuffer();
+            this.segmentBuffer = new HdlcFrameSegmentBuffer(settings.rawMessageListener() != null);
         }
 
         private void sendAcknowledge() throws IOException {
@@ -207,7 +304,7 @@ public class HdlcLayer implements SessionLayer {
             notifyRawMessageListener(ackFrame, messageSource);
 
             try {
-                hdlcConnection.send(ackFrame);
+                hdlcConnection.send(settings, ackFrame);
             } catch (InterruptedIOException e) {
                 // ignore this
             }
@@ -215,46 +312,61 @@ public class HdlcLayer implements SessionLayer {
 
         @Override
         public void dataReceived(RawMessageDataBuilder rawMessageDataBuilder, HdlcFrame frame) {
+            try {
+                if (frame.getFrameType() == FrameType.INFORMATION) {
+                    informationFrameReceived(rawMessageDataBuilder, frame);
+                }
+                else if (frame.getFrameType() == FrameType.RECEIVE_READY) {
+                    resendFrames(lostFramesOf(frame.getReceiveSequence()));
+                }
+            } catch (IOException e) {
+                closeUnsafe();
+                connectionInterrupted(e);
+            }
+        }
+
+        private void informationFrameReceived(RawMessageDataBuilder rawMessageDataBuilder, HdlcFrame frame)
+                throws IOException {
+            if (frame.getSendSequence() != recSeqNum.getValue()) {
+                // discard the frame, the acknowledge requests the retransmission of the missing frames
+                if (frame.isPollFinal()) {
+                    sendAcknowledge();
+                }
+                return;
+            }
+
             recSeqNum.increment();
+            acknowledgeSendFramesTil(frame.getReceiveSequence());
 
             if (frame.isSegmented()) {
                 segmentBuffer.buffer(frame);
 
                 notifyListener(rawMessageDataBuilder);
 
-                try {
+                if (frame.isPollFinal()) {
                     sendAcknowledge();
-                } catch (IOException e) {
-                    closeUnsafe();
-                    connectionInterrupted(e);
-                    return;
                 }
+                return;
             }
-            else if (frame.getFrameType() == FrameType.INFORMATION) {
-                acknowledgeSendFramesTil(frame.getReceiveSequence());
-                byte[] cosemFrame;
-                if (!segmentBuffer.isEmpty()) {
 
-                    segmentBuffer.buffer(frame);
-                    notifyListener(rawMessageDataBuilder);
+            byte[] cosemFrame;
+            if (!segmentBuffer.isEmpty()) {
 
-                    if (settings.rawMessageListener() != null) {
-                        rawMessageDataBuilder.setMessage(this.segmentBuffer.concatFramesBytes());
-                    }
+                segmentBuffer.buffer(frame);
+                notifyListener(rawMessageDataBuilder);
 
-                    cosemFrame = segmentBuffer.toByteArray();
-                    segmentBuffer.clear();
-                }
-                else {
-                    cosemFrame = frame.getInformationFieldWithoutLlc();
+                if (settings.rawMessageListener() != null) {
+                    rawMessageDataBuilder.setMessage(this.segmentBuffer.concatFramesBytes());
                 }
 
-                connectionListener.dataReceived(cosemFrame, rawMessageDataBuilder);
+                cosemFrame = segmentBuffer.toByteArray();
+                segmentBuffer.clear();
             }
-            else if (frame.getFrameType() == FrameType.RECEIVE_READY) {
-                acknowledgeSendFramesTil(frame.getReceiveSequence());
-                sendQueuedFrames();
+            else {
+                cosemFrame = frame.getInformationFieldWithoutLlc();
             }
+
+            connectionListener.dataReceived(cosemFrame, rawMessageDataBuilder);
         }
 
         private void notifyListener(RawMessageDataBuilder rawMessageDataBuilder) {
@@ -264,12 +376,26 @@ public class HdlcLayer implements SessionLayer {
             }
         }
 
-        private void acknowledgeSendFramesTil(int sendSeq) {
-            if (sendSeq == 0) {
-                sendSeq = 8;
+        private List<byte[]> lostFramesOf(int receiveSequence) {
+            windowLock.lock();
+            try {
+                acknowledgeSendFramesTil(receiveSequence);
+
+                // frames not acknowledged by the meter got lost
+                return queuedFrames();
+            } finally {
+                windowLock.unlock();
             }
+        }
 
-            sendQueue.clearTil(sendSeq);
+        private void acknowledgeSendFramesTil(int receiveSequence) {
+            windowLock.lock();
+            try {
+                sendQueue.clearTil(receiveSequence);
+                windowAcknowledged.signalAll();
+            } finally {
+                windowLock.unlock();
+            }
         }
 
         @Override
@@ -277,18 +403,6 @@ public class HdlcLayer implements SessionLayer {
             connectionListener.connectionInterrupted(e);
         }
 
-        private void sendQueuedFrames() {
-            try {
-                for (byte[] message : sendQueue) {
-                    hdlcConnection.send(message);
-                }
-            } catch (IOException e) {
-                closeUnsafe();
-                connectionListener.connectionInterrupted(e);
-            }
-
-        }
-
     }
 
     private void notifyRawMessageListener(byte[] data, MessageSource messageSource) {
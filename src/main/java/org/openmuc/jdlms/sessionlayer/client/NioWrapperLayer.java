@@ -0,0 +1,133 @@
+/*
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.openmuc.jdlms.sessionlayer.client;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+
+import org.openmuc.jdlms.RawMessageData;
+import org.openmuc.jdlms.RawMessageData.MessageSource;
+import org.openmuc.jdlms.RawMessageData.RawMessageDataBuilder;
+import org.openmuc.jdlms.RawMessageListener;
+import org.openmuc.jdlms.sessionlayer.client.WrapperHeader.WrapperHeaderBuilder;
+import org.openmuc.jdlms.settings.client.TcpSettings;
+import org.openmuc.jdlms.transportlayer.client.TcpChannel;
+import org.openmuc.jdlms.transportlayer.client.TcpSelector;
+
+/**
+ * Wrapper session layer over a non-blocking TCP channel. The connection needs no reader thread of its own, the wrapper
+ * PDUs are decoded by the thread of the {@link TcpSelector}.
+ * 
+ * @see WrapperLayer
+ */
+public class NioWrapperLayer implements SessionLayer {
+
+    private final TcpSettings settings;
+    private final TcpSelector tcpSelector;
+    private final WrapperHeaderBuilder headerBuilder;
+
+    private SessionLayerListener eventListener;
+    private TcpChannel channel;
+
+    public NioWrapperLayer(TcpSettings settings, TcpSelector tcpSelector) {
+        this.settings = settings;
+        this.tcpSelector = tcpSelector;
+        this.headerBuilder = WrapperHeader.builder(settings.clientId(), settings.logicalDeviceId());
+    }
+
+    @Override
+    public void startListening(SessionLayerListener eventListener) throws IOException {
+        if (this.channel != null && !this.channel.isClosed()) {
+            return;
+        }
+        this.eventListener = eventListener;
+
+        InetSocketAddress address = new InetSocketAddress(this.settings.inetAddress(), this.settings.port());
+        this.channel = this.tcpSelector.connect(address, new ChannelListener());
+    }
+
+    @Override
+    public void send(byte[] tSdu, int off, int len, RawMessageDataBuilder rawMessageDataBuilder) throws IOException {
+        byte[] wpdu = ByteBuffer.allocate(len + WrapperHeader.HEADER_LENGTH)
+                .put(this.headerBuilder.setLength(len).build().encode())
+                .put(tSdu, off, len)
+                .array();
+
+        try {
+            this.channel.write(wpdu, 0, wpdu.length);
+        } finally {
+            RawMessageListener rawMessageListener = this.settings.rawMessageListener();
+            if (rawMessageListener != null) {
+                rawMessageListener.messageCaptured(
+                        rawMessageDataBuilder.setMessage(wpdu).setMessageSource(MessageSource.CLIENT).build());
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.channel != null) {
+            this.channel.close();
+        }
+    }
+
+    private class ChannelListener implements TcpChannel.Listener {
+
+        private final WrapperPduDecoder decoder;
+
+        public ChannelListener() {
+            this.decoder = new WrapperPduDecoder();
+        }
+
+        @Override
+        public void dataReceived(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                WrapperPdu wrapperPdu = this.decoder.decode(buffer);
+                if (wrapperPdu == null) {
+                    return;
+                }
+                wrapperPdu.validate(settings);
+
+                eventListener.dataReceived(wrapperPdu.getData(), createMsgBuilder(wrapperPdu));
+            }
+        }
+
+        @Override
+        public void connectionInterrupted(IOException e) {
+            eventListener.connectionInterrupted(e);
+        }
+
+        private RawMessageDataBuilder createMsgBuilder(WrapperPdu wrapperPdu) {
+            if (settings.rawMessageListener() == null) {
+                return null;
+            }
+            WrapperHeader header = wrapperPdu.getheader();
+            byte[] message = ByteBuffer.allocate(WrapperHeader.HEADER_LENGTH + header.getPayloadLength())
+                    .put(header.encode())
+                    .put(wrapperPdu.getData())
+                    .array();
+
+            return RawMessageData.builder().setMessage(message);
+        }
+    }
+
+}
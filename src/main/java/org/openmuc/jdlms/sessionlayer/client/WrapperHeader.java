@@ -100,6 +100,40 @@ public class WrapperHeader {
         }
     }
 
+    /**
+     * Decodes a header from a buffer holding at least {@link #HEADER_LENGTH} bytes.
+     * 
+     * @param buffer
+     *            the buffer positioned at the start of the header.
+     * @return the decoded header.
+     * @throws IOException
+     *             if the header is not a valid wrapper header.
+     */
+    public static WrapperHeader decode(ByteBuffer buffer) throws IOException {
+        byte firstByte = buffer.get(buffer.position());
+        if (firstByte == 0x00) {
+            buffer.order(ByteOrder.BIG_ENDIAN);
+        } else if (firstByte == 0x01) {
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+        } else {
+            throw new FatalJDlmsException(ExceptionId.WRAPPER_HEADER_INVALID_VERSION, SYSTEM,
+                    "Message does not start with 0x00 or 0x01 as expected in by the wrapper header." +
+                            " Starts with: " + Integer.toHexString(firstByte));
+        }
+
+        int version = buffer.getShort() & 0xFFFF;
+        if (version != 1) {
+            throw new FatalJDlmsException(ExceptionId.WRAPPER_HEADER_INVALID_VERSION, SYSTEM,
+                    format("Header version was %d, this stack is only compatible to version 1.", version));
+        }
+
+        int sourceWPort = buffer.getShort() & 0xFFFF;
+        int destinationWPort = buffer.getShort() & 0xFFFF;
+        int length = buffer.getShort() & 0xFFFF;
+
+        return new WrapperHeader(version, sourceWPort, destinationWPort, length, buffer.order());
+    }
+
     private static WrapperHeader decodeBE(DataInputStream iStream) throws IOException {
         byte version = iStream.readByte();
 
@@ -54,7 +54,7 @@ public class WrapperLayer implements SessionLayer {
 
         this.closed = true;
 
-        this.exec = Executors.newSingleThreadExecutor();
+        this.exec = Executors.newSingleThreadExecutor(settings.readerThreadFactory());
     }
 
     protected WrapperHeaderBuilder createWrapperHeaderBuilder(Settings settings) {
@@ -35,7 +35,7 @@ public class WrapperPdu {
     private WrapperHeader header;
     private byte[] data;
 
-    private WrapperPdu(WrapperHeader header, byte[] data) {
+    WrapperPdu(WrapperHeader header, byte[] data) {
         this.header = header;
         this.data = data;
     }
@@ -63,6 +63,10 @@ public class WrapperPdu {
         return new WrapperPdu(header, messageData);
     }
 
+    void validate(Settings settings) throws FatalJDlmsException {
+        validate(this.header, this.data.length, settings);
+    }
+
     private static void validate(WrapperHeader header, int payloadLength, Settings settings)
             throws FatalJDlmsException {
         if (header.getSourceWPort() != settings.logicalDeviceId()) {
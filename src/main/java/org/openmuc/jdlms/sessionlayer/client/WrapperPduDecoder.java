@@ -0,0 +1,89 @@
+/*
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.openmuc.jdlms.sessionlayer.client;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Decodes wrapper PDUs incrementally from the chunks of bytes received from a non-blocking channel.
+ */
+public class WrapperPduDecoder {
+
+    private final ByteBuffer headerBuffer;
+
+    private WrapperHeader header;
+    private ByteBuffer payloadBuffer;
+
+    public WrapperPduDecoder() {
+        this.headerBuffer = ByteBuffer.allocate(WrapperHeader.HEADER_LENGTH);
+    }
+
+    /**
+     * Consumes bytes of the buffer until a wrapper PDU is complete or the buffer has no bytes remaining.
+     * 
+     * @param buffer
+     *            the received bytes.
+     * @return the complete PDU or {@code null} if more bytes are needed.
+     * @throws IOException
+     *             if the received bytes are not a valid wrapper header.
+     */
+    public WrapperPdu decode(ByteBuffer buffer) throws IOException {
+        if (this.header == null) {
+            transfer(buffer, this.headerBuffer);
+
+            if (this.headerBuffer.hasRemaining()) {
+                return null;
+            }
+
+            this.headerBuffer.flip();
+            this.header = WrapperHeader.decode(this.headerBuffer);
+            this.headerBuffer.clear();
+
+            this.payloadBuffer = ByteBuffer.allocate(this.header.getPayloadLength());
+        }
+
+        transfer(buffer, this.payloadBuffer);
+
+        if (this.payloadBuffer.hasRemaining()) {
+            return null;
+        }
+
+        WrapperHeader completeHeader = this.header;
+        byte[] payload = this.payloadBuffer.array();
+
+        this.header = null;
+        this.payloadBuffer = null;
+
+        return new WrapperPdu(completeHeader, payload);
+    }
+
+    private static void transfer(ByteBuffer src, ByteBuffer dst) {
+        int limit = src.position() + Math.min(src.remaining(), dst.remaining());
+
+        ByteBuffer chunk = src.duplicate();
+        chunk.limit(limit);
+        dst.put(chunk);
+
+        src.position(limit);
+    }
+
+}
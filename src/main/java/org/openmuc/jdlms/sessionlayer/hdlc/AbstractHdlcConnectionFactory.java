@@ -9,8 +9,11 @@ public abstract class AbstractHdlcConnectionFactory implements HdlcConnectionFac
     @Override
     public HdlcConnection getHdlcConnection(HdlcSettings settings,
                                             HdlcConnection.Listener listener) {
-        HdlcConnection hdlcConnection = createHdlcConnection(settings);
-        hdlcConnection.registerNewListener(settings.addressPair(), listener);
+        HdlcConnection hdlcConnection;
+        do {
+            // a connection which has been released in the meantime must not be shared
+            hdlcConnection = createHdlcConnection(settings);
+        } while (!hdlcConnection.registerNewListener(settings.addressPair(), listener));
         return hdlcConnection;
     }
 
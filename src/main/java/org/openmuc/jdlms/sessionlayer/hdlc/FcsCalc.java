@@ -33,6 +33,11 @@ class FcsCalc {
 
     private static final short[] FCS_TABLE = new short[256];
 
+    /**
+     * Tables to compute 8 bytes at once (slicing-by-8). Table k holds the FCS of a byte followed by k zero bytes.
+     */
+    private static final int[][] SLICING_TABLES = new int[8][256];
+
     private static final short INITIAL_FCS = (short) 0xFFFF;
     private static final short GOOD_FCS = (short) 0xF0B8;
 
@@ -56,6 +61,16 @@ class FcsCalc {
 
             FCS_TABLE[b] = (short) (v & 0xffff);
         }
+
+        for (int b = 0; b <= 0xff; b++) {
+            SLICING_TABLES[0][b] = FCS_TABLE[b] & 0xffff;
+        }
+        for (int k = 1; k < SLICING_TABLES.length; k++) {
+            for (int b = 0; b <= 0xff; b++) {
+                int previous = SLICING_TABLES[k - 1][b];
+                SLICING_TABLES[k][b] = (previous >>> 8) ^ SLICING_TABLES[0][previous & 0xff];
+            }
+        }
     }
 
     private short fcsValue;
@@ -95,9 +110,51 @@ class FcsCalc {
      * @see FcsCalc#update(byte)
      */
     public void update(byte[] data, int length) {
-        for (int i = 0; i < length; i++) {
-            update(data[i]);
+        update(data, 0, length);
+    }
+
+    /**
+     * Updates the FCS value by computing length number of bytes from an array, beginning at offset.
+     * 
+     * <p>
+     * Eight bytes are computed at once, using one table lookup per byte.
+     * </p>
+     * 
+     * @param data
+     *            Array of data to compute
+     * @param offset
+     *            Index of the first byte to compute
+     * @param length
+     *            Number of bytes to compute
+     * @see FcsCalc#update(byte)
+     */
+    public void update(byte[] data, int offset, int length) {
+        final int[] t0 = SLICING_TABLES[0];
+        final int[] t1 = SLICING_TABLES[1];
+        final int[] t2 = SLICING_TABLES[2];
+        final int[] t3 = SLICING_TABLES[3];
+        final int[] t4 = SLICING_TABLES[4];
+        final int[] t5 = SLICING_TABLES[5];
+        final int[] t6 = SLICING_TABLES[6];
+        final int[] t7 = SLICING_TABLES[7];
+
+        int fcs = this.fcsValue & 0xFFFF;
+        int index = offset;
+        final int end = offset + length;
+
+        for (; index <= end - 8; index += 8) {
+            fcs ^= (data[index] & 0xFF) | (data[index + 1] & 0xFF) << 8;
+
+            fcs = t7[fcs & 0xFF] ^ t6[fcs >>> 8] ^ t5[data[index + 2] & 0xFF] ^ t4[data[index + 3] & 0xFF]
+                    ^ t3[data[index + 4] & 0xFF] ^ t2[data[index + 5] & 0xFF] ^ t1[data[index + 6] & 0xFF]
+                    ^ t0[data[index + 7] & 0xFF];
+        }
+
+        for (; index < end; index++) {
+            fcs = (fcs >>> 8) ^ t0[(fcs ^ data[index]) & 0xFF];
         }
+
+        this.fcsValue = (short) fcs;
     }
 
     /**
@@ -109,13 +166,24 @@ class FcsCalc {
      * @return the generated checksum
      */
     public byte[] fcsValueInBytes() {
-        int invFcs = (fcsValue ^ 0xFFFF);
         byte[] result = new byte[2];
+        writeFcsValue(result, 0);
+        return result;
+    }
 
-        result[0] = (byte) (invFcs & 0xFF);
-        result[1] = (byte) ((invFcs & 0xFF00) >>> 8);
+    /**
+     * Writes the current FCS value to the given array, in the same order as {@link #fcsValueInBytes()}.
+     * 
+     * @param buffer
+     *            the array to write to
+     * @param offset
+     *            the position of the first FCS byte
+     */
+    public void writeFcsValue(byte[] buffer, int offset) {
+        int invFcs = (fcsValue ^ 0xFFFF);
 
-        return result;
+        buffer[offset] = (byte) (invFcs & 0xFF);
+        buffer[offset + 1] = (byte) ((invFcs & 0xFF00) >>> 8);
     }
 
     /**
@@ -101,22 +101,26 @@ public class HdlcAddress {
     }
 
     public static HdlcAddress decode(byte[] data, int length) throws FrameInvalidException {
+        return decode(data, 0, length);
+    }
+
+    public static HdlcAddress decode(byte[] data, int offset, int length) throws FrameInvalidException {
         int logicalDeviceAddr = 0;
         int physicalDevAddr = 0;
 
         switch (length) {
         case 1:
-            logicalDeviceAddr = (data[0] & 0xFF) >> 1;
+            logicalDeviceAddr = (data[offset] & 0xFF) >> 1;
             break;
         case 2:
-            logicalDeviceAddr = (data[0] & 0xFF) >> 1;
-            physicalDevAddr = (data[1] & 0xFF) >> 1;
+            logicalDeviceAddr = (data[offset] & 0xFF) >> 1;
+            physicalDevAddr = (data[offset + 1] & 0xFF) >> 1;
             break;
         case 4:
-            logicalDeviceAddr = ((data[0] & 0xFF) >> 1) << 7;
-            logicalDeviceAddr |= ((data[1] & 0xFF) >> 1);
-            physicalDevAddr = ((data[2] & 0xFF) >> 1) << 7;
-            physicalDevAddr |= (data[3] & 0xFF) >> 1;
+            logicalDeviceAddr = ((data[offset] & 0xFF) >> 1) << 7;
+            logicalDeviceAddr |= ((data[offset + 1] & 0xFF) >> 1);
+            physicalDevAddr = ((data[offset + 2] & 0xFF) >> 1) << 7;
+            physicalDevAddr |= (data[offset + 3] & 0xFF) >> 1;
             break;
         default:
             throw new FrameInvalidException("Received HdlcAddress has a invalid bytelength of " + length);
@@ -10,10 +10,13 @@ import org.openmuc.jdlms.transportlayer.client.TransportLayer;
 import java.io.IOException;
 import java.io.InterruptedIOException;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static org.openmuc.jdlms.JDlmsException.ExceptionId.HDLC_CONNECTION_CLOSE_ERROR;
 import static org.openmuc.jdlms.JDlmsException.ExceptionId.HDLC_CONNECTION_ESTABLISH_ERROR;
@@ -29,70 +32,159 @@ public class HdlcConnection {
     private final TransportLayer transportLayer;
     private final Settings settings;
     private final Map<HdlcAddressPair, Listener> listeners;
+    private final Lock listenersLock;
+    private final Lock connectionLock;
 
     private HdlcAddressPair connectionKey;
     private final BlockingQueue<HdlcFrame> incommingQueue;
     private ExecutorService connectionreaderExecutor;
+    private volatile HdlcLinkScheduler linkScheduler;
+    private boolean released;
 
     protected HdlcConnection(Settings settings, TransportLayer transportLayer) {
         this.settings = settings;
         this.transportLayer = transportLayer;
         this.listeners = new LinkedHashMap<>();
+        this.listenersLock = new ReentrantLock();
+        this.connectionLock = new ReentrantLock();
 
         this.incommingQueue = new ArrayBlockingQueue<>(1);
+        this.released = false;
     }
 
-    public synchronized void send(byte[] data) throws IOException {
-        this.transportLayer.getOutpuStream().write(data);
-        this.transportLayer.getOutpuStream().flush();
+    /**
+     * Queues a frame to be sent to the station. The frames of all stations sharing the physical link are sent one
+     * station after another, so this method does not wait until the frame has been sent.
+     * 
+     * @param settings
+     *            the settings of the station.
+     * @param data
+     *            the encoded frame.
+     * @throws IOException
+     *             if the physical link has been closed.
+     */
+    public void send(HdlcSettings settings, byte[] data) throws IOException {
+        scheduler().schedule(settings.addressPair(), data, settings.responseTimeout());
     }
 
-    public synchronized HdlcParameters open(HdlcSettings settings) throws IOException {
-        if (this.transportLayer.isClosed()) {
-            this.transportLayer.open();
-            onTransportLayerOpen();
+    /**
+     * Sends a frame to the station and waits until it has been written to the physical link. The response timeout of
+     * a frame having the poll bit set has to be started after this method returned, since the station may have to
+     * wait for its turn on the link.
+     * 
+     * @param settings
+     *            the settings of the station.
+     * @param data
+     *            the encoded frame.
+     * @throws IOException
+     *             if the physical link has been closed.
+     */
+    public void transmit(HdlcSettings settings, byte[] data) throws IOException {
+        scheduler().transmit(settings.addressPair(), data, settings.responseTimeout());
+    }
+
+    private HdlcLinkScheduler scheduler() throws IOException {
+        HdlcLinkScheduler scheduler = this.linkScheduler;
+        if (scheduler == null) {
+            throw new IOException("HDLC link has not been opened.");
         }
+        return scheduler;
+    }
 
-        this.connectionKey = settings.addressPair();
+    public HdlcParameters open(HdlcSettings settings) throws IOException {
+        this.connectionLock.lock();
         try {
-            return connectSequence(settings);
-        } catch (IOException ex) {
-            closeAndShutdown(settings);
-            throw ex;
+            this.connectionKey = settings.addressPair();
+            try {
+                if (this.transportLayer.isClosed()) {
+                    this.transportLayer.open();
+                    onTransportLayerOpen();
+                }
+
+                return connectSequence(settings);
+            } catch (IOException ex) {
+                closeAndShutdown(settings);
+                throw ex;
+            } finally {
+                this.connectionKey = null;
+            }
         } finally {
-            this.connectionKey = null;
+            this.connectionLock.unlock();
         }
     }
 
     protected void onTransportLayerOpen() {
-        this.connectionreaderExecutor = Executors.newSingleThreadExecutor();
+        this.linkScheduler = new HdlcLinkScheduler();
+
+        this.connectionreaderExecutor = Executors.newFixedThreadPool(2, this.settings.readerThreadFactory());
         this.connectionreaderExecutor.execute(new ConnectionReader());
+        this.connectionreaderExecutor.execute(new ConnectionWriter(this.linkScheduler));
     }
 
-    public synchronized void disconnect(HdlcSettings settings) throws IOException {
-        this.connectionKey = settings.addressPair();
-
+    public void disconnect(HdlcSettings settings) throws IOException {
+        this.connectionLock.lock();
         try {
-            sendDisconnectSequence(settings);
+            this.connectionKey = settings.addressPair();
+
+            try {
+                sendDisconnectSequence(settings);
+            } finally {
+                closeAndShutdown(settings);
+            }
         } finally {
-            closeAndShutdown(settings);
+            this.connectionLock.unlock();
         }
     }
 
     private void closeAndShutdown(HdlcSettings settings) throws IOException {
-        removeListenerAndTryClosePhysicalLayer(settings);
-
         this.connectionKey = null;
-        this.connectionreaderExecutor.shutdown();
+
+        removeListenerAndTryClosePhysicalLayer(settings);
     }
 
+    /*
+     * The physical link is shared by all stations registered at this connection, it is closed when the last station
+     * has been removed.
+     */
     private void removeListenerAndTryClosePhysicalLayer(HdlcSettings settings) throws IOException {
-        synchronized (this.listeners) {
-            this.listeners.remove(settings.addressPair());
-
-            if (this.listeners.isEmpty()) {
-                this.transportLayer.close();
+        this.listenersLock.lock();
+        try {
+            if (this.listeners.remove(settings.addressPair()) != null && this.listeners.isEmpty()) {
+                release();
             }
+        } finally {
+            this.listenersLock.unlock();
+        }
+    }
+
+    private void release() throws IOException {
+        if (this.released) {
+            return;
+        }
+        this.released = true;
+
+        if (this.linkScheduler != null) {
+            this.linkScheduler.stop();
+        }
+        if (this.connectionreaderExecutor != null) {
+            this.connectionreaderExecutor.shutdown();
+        }
+
+        this.transportLayer.close();
+    }
+
+    /**
+     * Returns whether the physical link has been closed, after the last station has been removed or the link has
+     * been interrupted. A released connection must not be shared any more.
+     * 
+     * @return true if the connection has been released.
+     */
+    boolean isReleased() {
+        this.listenersLock.lock();
+        try {
+            return this.released;
+        } finally {
+            this.listenersLock.unlock();
         }
     }
 
@@ -100,7 +192,7 @@ public class HdlcConnection {
         boolean poll = true;
         byte[] dfData = newDisconnectFrame(settings.addressPair(), poll).encode();
 
-        send(dfData);
+        transmit(settings, dfData);
 
         RawMessageListener rawMessageListener = settings.rawMessageListener();
         notifyListener(dfData, CLIENT, rawMessageListener);
@@ -133,7 +225,7 @@ public class HdlcConnection {
 
     protected HdlcParameters connectSequence(HdlcSettings settings) throws IOException {
         int informationLength = settings.hdlcMaxInformationLength();
-        int windowSize = HdlcParameters.MIN_WINDOW_SIZE;
+        int windowSize = settings.hdlcWindowSize();
         HdlcParameters dNegotiation = new HdlcParameters(informationLength, windowSize, informationLength,
                 windowSize);
 
@@ -163,7 +255,7 @@ public class HdlcConnection {
         RawMessageListener rawMessageListener = settings.rawMessageListener();
         notifyListener(snrmData, CLIENT, rawMessageListener);
 
-        send(snrmData);
+        transmit(settings, snrmData);
         HdlcFrame answerFrame = waitForFrame(settings.responseTimeout());
 
         if (answerFrame == null) {
@@ -214,9 +306,43 @@ public class HdlcConnection {
         }
     }
 
-    void registerNewListener(HdlcAddressPair key, Listener listener) {
-        synchronized (this.listeners) {
+    boolean registerNewListener(HdlcAddressPair key, Listener listener) {
+        this.listenersLock.lock();
+        try {
+            if (this.released) {
+                return false;
+            }
+
             this.listeners.put(key, listener);
+            return true;
+        } finally {
+            this.listenersLock.unlock();
+        }
+    }
+
+    private void notifyAllListners(IOException e) {
+        List<Listener> listenersToNotify;
+        this.listenersLock.lock();
+        try {
+            listenersToNotify = new ArrayList<>(this.listeners.values());
+        } finally {
+            this.listenersLock.unlock();
+        }
+
+        for (Listener listener : listenersToNotify) {
+            listener.connectionInterrupted(e);
+        }
+    }
+
+    private void closeAll() {
+        this.listenersLock.lock();
+        try {
+            this.listeners.clear();
+            release();
+        } catch (IOException e) {
+            // ignore
+        } finally {
+            this.listenersLock.unlock();
         }
     }
 
@@ -228,6 +354,8 @@ public class HdlcConnection {
 
     private class ConnectionReader implements Runnable {
 
+        private final HdlcReceiveBuffer receiveBuffer = new HdlcReceiveBuffer();
+
         @Override
         public void run() {
             Thread.currentThread().setName("HDLC CONNECTION READER");
@@ -243,21 +371,6 @@ public class HdlcConnection {
             }
         }
 
-        private void closeAll() {
-            try {
-                transportLayer.close();
-                listeners.clear();
-            } catch (IOException e) {
-                // ignore
-            }
-        }
-
-        private void notifyAllListners(IOException e) {
-            for (Listener listener : listeners.values()) {
-                listener.connectionInterrupted(e);
-            }
-        }
-
         private void mainLoop() throws IOException {
             while (!transportLayer.isClosed()) {
                 RawMessageData.RawMessageDataBuilder rawMessageBuilder = null;
@@ -266,20 +379,26 @@ public class HdlcConnection {
                 }
 
                 List<HdlcFrame> frames = HdlcMessageDecoder.decode(rawMessageBuilder, transportLayer,
-                        settings.responseTimeout());
+                        settings.responseTimeout(), this.receiveBuffer);
 
                 for (HdlcFrame hdlcFrame : frames) {
                     HdlcAddressPair switchedPair = hdlcFrame.getAddressPair().switchedPair();
+                    if (hdlcFrame.isPollFinal()) {
+                        linkScheduler.finalFrameReceived(switchedPair);
+                    }
+
                     if (connectionKey != null && connectionKey.equals(switchedPair)) {
                         try {
-                            incommingQueue.put(hdlcFrame);
+                            // the frame is processed by another thread, after the receive buffer may have been reused
+                            incommingQueue.put(hdlcFrame.detach());
                         } catch (InterruptedException e) {
                             // ignore this
                             // Restore interrupted state...
                             Thread.currentThread().interrupt();
                         }
                     } else {
-                        synchronized (listeners) {
+                        listenersLock.lock();
+                        try {
                             Listener listener = listeners.get(switchedPair);
 
                             if (listener != null) {
@@ -289,6 +408,8 @@ public class HdlcConnection {
                             // // ignore
                             // }
 
+                        } finally {
+                            listenersLock.unlock();
                         }
                     }
 
@@ -298,4 +419,31 @@ public class HdlcConnection {
 
     }
 
+    private class ConnectionWriter implements Runnable {
+
+        private final HdlcLinkScheduler scheduler;
+
+        public ConnectionWriter(HdlcLinkScheduler scheduler) {
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        public void run() {
+            Thread.currentThread().setName("HDLC CONNECTION WRITER");
+
+            try {
+                while (this.scheduler.serveNextStation(transportLayer.getOutpuStream())) {
+                    // serve the stations until the link has been closed
+                }
+            } catch (InterruptedException e) {
+                // Restore interrupted state...
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                notifyAllListners(e);
+                closeAll();
+            }
+        }
+
+    }
+
 }
@@ -48,45 +48,56 @@ public class HdlcDispatcher extends AbstractHdlcConnectionFactory {
         return instance;
     }
 
+    /**
+     * Returns the connection to the physical link of the settings. Meters reached over the same TCP/UDP endpoint or
+     * serial port share one connection, the frames are dispatched by their HDLC address pair.
+     */
     @Override
     protected synchronized HdlcConnection createHdlcConnection(HdlcSettings settings) {
-        HdlcConnection hdlcConnection;
+        Object key;
 
         if (settings instanceof HdlcTcpSettings) {
             HdlcTcpSettings inetSettings = (HdlcTcpSettings) settings;
-
-            hdlcConnection = getCachedConnection(new InetEntry(inetSettings.inetAddress(), inetSettings.port()));
-
-            if (hdlcConnection == null) {
-                TransportLayer transportLayer;
-
-                if (inetSettings.tranportProtocol() == InetTransportProtocol.TCP) {
-                    transportLayer = new TcpLayer(inetSettings);
-                } else {
-                    transportLayer = new UdpLayer(inetSettings);
-                }
-
-                hdlcConnection = createNewConnection(settings, transportLayer);
-            }
+            key = new InetEntry(inetSettings.inetAddress(), inetSettings.port());
         } else if (settings instanceof SerialSettings) {
-            SerialSettings serialSettings = (SerialSettings) settings;
-
-            hdlcConnection = getCachedConnection(serialSettings.serialPortName());
-
-            if (hdlcConnection == null) {
-                TransportLayer transportLayer = new Iec21Layer(serialSettings);
-                hdlcConnection = createNewConnection(settings, transportLayer);
-            }
+            key = ((SerialSettings) settings).serialPortName();
         } else {
             // TODO: handle this properly.
             throw new UnsupportedOperationException();
         }
 
+        HdlcConnection hdlcConnection = getCachedConnection(key);
+
+        if (hdlcConnection == null) {
+            hdlcConnection = createNewConnection(settings, newTransportLayer(settings));
+            this.hdlcConnectionMap.put(key, hdlcConnection);
+        }
+
         return hdlcConnection;
     }
 
+    private static TransportLayer newTransportLayer(HdlcSettings settings) {
+        if (settings instanceof SerialSettings) {
+            return new Iec21Layer((SerialSettings) settings);
+        }
+
+        HdlcTcpSettings inetSettings = (HdlcTcpSettings) settings;
+        if (inetSettings.tranportProtocol() == InetTransportProtocol.TCP) {
+            return new TcpLayer(inetSettings);
+        } else {
+            return new UdpLayer(inetSettings);
+        }
+    }
+
     protected HdlcConnection getCachedConnection(Object key) {
-        return hdlcConnectionMap.get(key);
+        HdlcConnection hdlcConnection = hdlcConnectionMap.get(key);
+
+        if (hdlcConnection != null && hdlcConnection.isReleased()) {
+            hdlcConnectionMap.remove(key);
+            return null;
+        }
+
+        return hdlcConnection;
     }
 
     protected HdlcConnection createNewConnection(HdlcSettings settings,
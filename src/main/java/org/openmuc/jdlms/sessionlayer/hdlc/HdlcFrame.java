@@ -33,7 +33,7 @@ public class HdlcFrame {
      * 
      * See IEC 62056-46:2002 + A1 2007 5.3.2
      */
-    private static final byte[] LLC_REQUEST;
+    static final byte[] LLC_REQUEST;
 
     static {
         byte destinationLsap = (byte) 0xE6;
@@ -47,7 +47,13 @@ public class HdlcFrame {
 
     private final FrameType frameType;
 
+    /**
+     * The information field is the range [informationOffset, informationOffset + informationLength) of this array. A
+     * decoded frame references the range of the received bytes.
+     */
     private final byte[] informationField;
+    private final int informationOffset;
+    private final int informationLength;
 
     private int sendSequence;
     private int receiveSequence;
@@ -59,10 +65,13 @@ public class HdlcFrame {
 
     private int length;
 
-    private HdlcFrame(FrameType frameType, byte[] informationField, int sendSequence, int receiveSequence,
-            boolean segmented, byte controlField, HdlcAddressPair addressPair, int length) {
+    private HdlcFrame(FrameType frameType, byte[] informationField, int informationOffset, int informationLength,
+            int sendSequence, int receiveSequence, boolean segmented, byte controlField, HdlcAddressPair addressPair,
+            int length) {
         this.frameType = frameType;
         this.informationField = informationField;
+        this.informationOffset = informationOffset;
+        this.informationLength = informationLength;
         this.sendSequence = sendSequence;
         this.receiveSequence = receiveSequence;
         this.segmented = segmented;
@@ -85,6 +94,8 @@ public class HdlcFrame {
         this.addressPair = addressPair;
 
         this.informationField = informationField;
+        this.informationOffset = 0;
+        this.informationLength = informationField != null ? informationField.length : 0;
 
         this.length = 2 + getDestinationAddress().getLength() + getSourceAddress().getLength() + 1 + 2;
         if (informationField != null) {
@@ -93,32 +104,58 @@ public class HdlcFrame {
     }
 
     public static HdlcFrame decode(byte[] frame) throws FrameInvalidException {
-        final FcsCalc fcsCalc = new FcsCalc();
-        ByteBuffer buffer = ByteBuffer.wrap(frame);
+        return decode(frame, 0, frame.length);
+    }
+
+    /**
+     * Decodes a frame without flags from a range of the given array. The information field of the frame is not
+     * copied, it references the range of the array.
+     * 
+     * @param frame
+     *            the array containing the frame.
+     * @param offset
+     *            the offset of the frame in the array.
+     * @param length
+     *            the length of the frame.
+     * @return the decoded frame.
+     * @throws FrameInvalidException
+     *             if the frame is not valid.
+     */
+    public static HdlcFrame decode(byte[] frame, int offset, int length) throws FrameInvalidException {
+        if (length < 2) {
+            throw new FrameInvalidException("Frame is too short.");
+        }
 
-        byte frameFormatH = buffer.get();
+        byte frameFormatH = frame[offset];
         if ((frameFormatH & 0xF0) != 0xA0) {
             throw new FrameInvalidException("Illegal frame format");
         }
         boolean segmented = (0x08 & frameFormatH) == 0x08;
 
-        fcsCalc.update(frameFormatH);
-        byte frameFormatL = buffer.get();
+        int end = offset + length;
 
-        int length = frame.length;
+        // content of the frame format field can be ignored, has been read in MessageDecoder
+        int index = offset + 2;
 
-        // content can be ignored, has been read in MessageDecoder
-        fcsCalc.update(frameFormatL);
+        int destinationLength = addressLength(frame, index, end);
+        HdlcAddress destination = HdlcAddress.decode(frame, index, destinationLength);
+        index += destinationLength;
 
-        HdlcAddress destination = readAddress(fcsCalc, buffer);
-        HdlcAddress source = readAddress(fcsCalc, buffer);
+        int sourceLength = addressLength(frame, index, end);
+        HdlcAddress source = HdlcAddress.decode(frame, index, sourceLength);
+        index += sourceLength;
 
-        byte controlField = buffer.get();
-        fcsCalc.update(controlField);
+        // control field and header check sequence
+        if (end < index + 3) {
+            throw new FrameInvalidException("Frame is too short.");
+        }
+        byte controlField = frame[index++];
 
         FrameType frameType = readFrameType(controlField);
 
-        verifyFcsCalc(fcsCalc, buffer);
+        index += 2;
+        final FcsCalc fcsCalc = new FcsCalc();
+        verifyFcs(fcsCalc, frame, offset, index);
 
         int sendSequence = 0;
         int receiveSequence = 0;
@@ -141,36 +178,48 @@ public class HdlcFrame {
         }
 
         byte[] informationField;
-        if (buffer.hasRemaining()) {
-            informationField = readInformationField(fcsCalc, buffer);
+        int informationOffset;
+        int informationLength;
+        if (index < end) {
+            informationLength = end - index - 2;
+            if (informationLength < 0) {
+                throw new FrameInvalidException("Frame is too short.");
+            }
+            informationField = frame;
+            informationOffset = index;
+
+            // the frame check sequence covers the whole frame, including the header check sequence
+            verifyFcs(fcsCalc, frame, index, end);
         }
         else {
             informationField = new byte[0];
+            informationOffset = 0;
+            informationLength = 0;
         }
 
         HdlcAddressPair addressPair = new HdlcAddressPair(source, destination);
-        return new HdlcFrame(frameType, informationField, sendSequence, receiveSequence, segmented, controlField,
-                addressPair, length);
+        return new HdlcFrame(frameType, informationField, informationOffset, informationLength, sendSequence,
+                receiveSequence, segmented, controlField, addressPair, length);
     }
 
-    private static byte[] readInformationField(final FcsCalc fcsCalc, ByteBuffer buffer) throws FrameInvalidException {
-        byte[] informationField;
-        int infoLength = buffer.remaining() - 2;
-        informationField = new byte[infoLength];
+    private static void verifyFcs(final FcsCalc fcsCalc, byte[] frame, int from, int to)
+            throws FrameInvalidException {
+        fcsCalc.update(frame, from, to - from);
+        fcsCalc.validateCurrentFcsValue();
+    }
 
-        for (int i = 0; i < infoLength; i++) {
-            byte data = buffer.get();
-            fcsCalc.update(data);
-            informationField[i] = data;
+    private static int addressLength(byte[] frame, int offset, int end) throws FrameInvalidException {
+        // the last byte of an address has its lowest bit set
+        for (int length = 1; length <= 4; length++) {
+            if (offset + length > end) {
+                throw new FrameInvalidException("Frame is too short.");
+            }
+            if ((frame[offset + length - 1] & 0x01) == 0x01) {
+                return length;
+            }
         }
-        verifyFcsCalc(fcsCalc, buffer);
-        return informationField;
-    }
 
-    private static void verifyFcsCalc(final FcsCalc fcsCalc, ByteBuffer buffer) throws FrameInvalidException {
-        fcsCalc.update(buffer.get());
-        fcsCalc.update(buffer.get());
-        fcsCalc.validateCurrentFcsValue();
+        throw new FrameInvalidException("HLDC address is illegal in frame.");
     }
 
     private static FrameType readFrameType(byte controlField) throws FrameInvalidException {
@@ -183,24 +232,34 @@ public class HdlcFrame {
         return frameType;
     }
 
-    private static HdlcAddress readAddress(final FcsCalc fcsCalc, ByteBuffer buffer) throws FrameInvalidException {
-        byte[] data = new byte[4];
-        byte currentByte = 0;
-        int length = 0;
-        while ((currentByte & 0x01) == 0) {
-            if (length == 4) {
-                throw new FrameInvalidException("HLDC address is illegal in frame.");
-            }
-            currentByte = buffer.get();
-            fcsCalc.update(currentByte);
-            data[length++] = currentByte;
-        }
-
-        return HdlcAddress.decode(data, length);
+    public static HdlcFrame newInformationFrame(HdlcAddressPair addressPair, int sendSequence, int receiveSequence,
+            byte[] data, boolean segmented, boolean addLcc) {
+        boolean poll = !segmented;
+        return newInformationFrame(addressPair, sendSequence, receiveSequence, data, segmented, addLcc, poll);
     }
 
+    /**
+     * Creates a new information frame.
+     * 
+     * @param addressPair
+     *            the address pair.
+     * @param sendSequence
+     *            the send sequence number N(S) of the frame.
+     * @param receiveSequence
+     *            the receive sequence number N(R), the send sequence number of the next expected frame.
+     * @param data
+     *            the data to send.
+     * @param segmented
+     *            true if further segments of the message follow this frame.
+     * @param addLcc
+     *            true if the LLC bytes should be added in front of the data.
+     * @param poll
+     *            true if the poll/final bit should be set, to request an acknowledge from the receiver or to mark the
+     *            last frame of the sending window.
+     * @return the new frame.
+     */
     public static HdlcFrame newInformationFrame(HdlcAddressPair addressPair, int sendSequence, int receiveSequence,
-            byte[] data, boolean segmented, boolean addLcc) {
+            byte[] data, boolean segmented, boolean addLcc, boolean poll) {
         byte[] informationField = data;
         if (addLcc) {
             informationField = ByteBuffer.allocate(LLC_REQUEST.length + data.length).put(LLC_REQUEST).put(data).array();
@@ -215,7 +274,7 @@ public class HdlcFrame {
         hdlcFrame.controlField = hdlcFrame.frameType.value();
         hdlcFrame.controlField |= ((sendSequence % 8) << 1);
         hdlcFrame.controlField |= ((receiveSequence % 8) << 5);
-        if (!segmented) {
+        if (poll) {
             hdlcFrame.controlField |= 0x10;
         }
 
@@ -358,12 +417,16 @@ public class HdlcFrame {
     }
 
     public byte[] getInformationField() {
-        return informationField;
+        if (!hasInformationField() || informationOffset == 0 && informationLength == informationField.length) {
+            return informationField;
+        }
+        return Arrays.copyOfRange(informationField, informationOffset, informationOffset + informationLength);
     }
 
     public byte[] getInformationFieldWithoutLlc() {
-        if (hasInformationField() && informationField.length > 0) {
-            return Arrays.copyOfRange(this.informationField, LLC_REQUEST.length, this.informationField.length);
+        if (hasInformationField() && informationLength > 0) {
+            return Arrays.copyOfRange(this.informationField, informationOffset + LLC_REQUEST.length,
+                    informationOffset + informationLength);
         }
         else {
             return this.informationField;
@@ -371,6 +434,38 @@ public class HdlcFrame {
 
     }
 
+    /**
+     * Copies the information field to the given array.
+     * 
+     * @param skipLlc
+     *            true if the LLC bytes in front of the data should not be copied.
+     * @param dest
+     *            the destination array.
+     * @param destPos
+     *            the position in the destination array.
+     * @return the number of copied bytes.
+     */
+    int copyInformationField(boolean skipLlc, byte[] dest, int destPos) {
+        int skip = skipLlc ? Math.min(LLC_REQUEST.length, informationLength) : 0;
+        int copyLength = informationLength - skip;
+
+        System.arraycopy(informationField, informationOffset + skip, dest, destPos, copyLength);
+        return copyLength;
+    }
+
+    int getInformationLength() {
+        return informationLength;
+    }
+
+    /**
+     * Returns a frame equal to this one, which does not reference the received bytes. Needed to keep the frame beyond
+     * the next read into the receive buffer.
+     */
+    HdlcFrame detach() {
+        return new HdlcFrame(frameType, getInformationField(), 0, informationLength, sendSequence, receiveSequence,
+                segmented, controlField, addressPair, length);
+    }
+
     public int getLength() {
         return length;
     }
@@ -387,6 +482,31 @@ public class HdlcFrame {
         return segmented;
     }
 
+    public boolean isPollFinal() {
+        return (controlField & 0x10) == 0x10;
+    }
+
+    /**
+     * Reads the poll/final bit of an encoded frame, without decoding the whole frame.
+     * 
+     * @param frame
+     *            the encoded frame including the flags.
+     * @return true if the poll/final bit is set.
+     */
+    public static boolean pollFinalBitOf(byte[] frame) {
+        // skip the opening flag and the frame format field
+        int index = 3;
+
+        // the last byte of the destination and source address has its lowest bit set
+        for (int i = 0; i < 2; i++) {
+            while ((frame[index++] & 0x01) == 0) {
+                // skip address byte
+            }
+        }
+
+        return (frame[index] & 0x10) == 0x10;
+    }
+
     public byte[] encode() {
         byte[] data = encodeWithoutFlags();
         return ByteBuffer.allocate(data.length + 2).put(FLAG).put(data).put(FLAG).array();
@@ -411,8 +531,8 @@ public class HdlcFrame {
 
         if (hasInformationField()) {
             fcsCalc.update(fcsCalc.fcsValueInBytes());
-            codeBuffer.put(informationField);
-            fcsCalc.update(informationField);
+            codeBuffer.put(informationField, informationOffset, informationLength);
+            fcsCalc.update(informationField, informationOffset, informationLength);
             codeBuffer.put(fcsCalc.fcsValueInBytes());
         }
 
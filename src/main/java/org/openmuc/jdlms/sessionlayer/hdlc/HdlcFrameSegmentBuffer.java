@@ -21,68 +21,109 @@ package org.openmuc.jdlms.sessionlayer.hdlc;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Arrays;
 
+/**
+ * Reassembles the information fields of segmented frames to one APDU.
+ * 
+ * <p>
+ * The information field of each segment is copied once, directly from the received bytes into a contiguous buffer.
+ * The buffer is kept between the messages, so it only grows if a message is larger than all previous ones. The
+ * reassembled APDU is copied out of it once more by {@link #toByteArray()}.
+ * </p>
+ */
 public class HdlcFrameSegmentBuffer {
 
-    private final List<HdlcFrame> segments;
+    private static final int INITIAL_CAPACITY = 256;
 
-    public HdlcFrameSegmentBuffer() {
-        this.segments = new LinkedList<>();
-    }
+    private final ByteArrayOutputStream frames;
 
-    public void buffer(HdlcFrame segment) {
-        this.segments.add(segment);
-    }
+    private byte[] buffer;
+    private int size;
+    private int numberOfSegments;
 
-    public boolean isEmpty() {
-        return this.segments.isEmpty();
+    /**
+     * Creates a segment buffer which does not keep the encoded frames.
+     */
+    public HdlcFrameSegmentBuffer() {
+        this(false);
     }
 
-    public byte[] toByteArray() {
-        Iterator<HdlcFrame> iter = this.segments.iterator();
+    /**
+     * @param keepFrames
+     *            true if the encoded frames should be kept, to be returned by {@link #concatFramesBytes()}.
+     */
+    public HdlcFrameSegmentBuffer(boolean keepFrames) {
+        this.frames = keepFrames ? new ByteArrayOutputStream() : null;
 
-        if (!iter.hasNext()) {
-            return new byte[0];
-        }
+        this.buffer = new byte[INITIAL_CAPACITY];
+        this.size = 0;
+        this.numberOfSegments = 0;
+    }
 
-        ByteArrayOutputStream bios = new ByteArrayOutputStream();
+    public void buffer(HdlcFrame segment) {
+        ensureCapacity(this.size + segment.getInformationLength());
 
-        try {
-            HdlcFrame next = iter.next();
-            bios.write(next.getInformationFieldWithoutLlc());
+        // only the first segment starts with the LLC bytes
+        boolean skipLlc = this.numberOfSegments == 0;
+        this.size += segment.copyInformationField(skipLlc, this.buffer, this.size);
+        this.numberOfSegments++;
 
-            while (iter.hasNext()) {
-                next = iter.next();
-                bios.write(next.getInformationField());
+        if (this.frames != null) {
+            try {
+                this.frames.write(segment.encodeWithoutFlags());
+            } catch (IOException e) {
+                // should not occur
             }
+            this.frames.write(0x7E);
+        }
+    }
 
-        } catch (IOException e) {
-            // should not occur
+    private void ensureCapacity(int capacity) {
+        if (capacity > this.buffer.length) {
+            this.buffer = Arrays.copyOf(this.buffer, Math.max(capacity, 2 * this.buffer.length));
         }
+    }
 
-        return bios.toByteArray();
+    public boolean isEmpty() {
+        return this.numberOfSegments == 0;
+    }
+
+    /**
+     * Returns a copy of the reassembled APDU. The session layers hand the APDU on as an array of its exact length,
+     * which is decoded and deciphered in place and may be kept by the receiver, so the reused buffer cannot be handed
+     * out.
+     * 
+     * @return the reassembled APDU.
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(this.buffer, this.size);
     }
 
     public void clear() {
-        this.segments.clear();
+        this.size = 0;
+        this.numberOfSegments = 0;
+
+        if (this.frames != null) {
+            this.frames.reset();
+        }
     }
 
+    /**
+     * Returns the buffered frames including the flags.
+     * 
+     * @return the buffered frames, only the flag if the frames are not kept.
+     */
     public byte[] concatFramesBytes() {
-
         ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
         byteArrayOutputStream.write(0x7E);
-        for (HdlcFrame hdlcFrame : segments) {
 
+        if (this.frames != null) {
             try {
-                byteArrayOutputStream.write(hdlcFrame.encodeWithoutFlags());
+                this.frames.writeTo(byteArrayOutputStream);
             } catch (IOException e) {
                 // should not occur
             }
-
-            byteArrayOutputStream.write(0x7E);
         }
 
         return byteArrayOutputStream.toByteArray();
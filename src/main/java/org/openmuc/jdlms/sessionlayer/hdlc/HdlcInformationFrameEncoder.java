@@ -0,0 +1,124 @@
+/*
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.openmuc.jdlms.sessionlayer.hdlc;
+
+/**
+ * Encodes the segments of an APDU to information frames.
+ * 
+ * <p>
+ * The frame is written field by field directly from the range of the source array to the encoded frame, so the data
+ * of a segment is copied exactly once. The encoded addresses are computed only once per encoder.
+ * </p>
+ */
+public class HdlcInformationFrameEncoder {
+
+    private static final byte FLAG = 0x7E;
+
+    /**
+     * Frame format, control field, header check sequence and frame check sequence.
+     */
+    private static final int FRAME_OVERHEAD = 2 + 1 + 2 + 2;
+
+    private final byte[] addresses;
+
+    public HdlcInformationFrameEncoder(HdlcAddressPair addressPair) {
+        byte[] destination = addressPair.destination().encode();
+        byte[] source = addressPair.source().encode();
+
+        this.addresses = new byte[destination.length + source.length];
+        System.arraycopy(destination, 0, this.addresses, 0, destination.length);
+        System.arraycopy(source, 0, this.addresses, destination.length, source.length);
+    }
+
+    /**
+     * Encodes an information frame including the opening and the closing flag.
+     * 
+     * @param data
+     *            the array containing the segment.
+     * @param offset
+     *            the offset of the segment in the array.
+     * @param length
+     *            the length of the segment.
+     * @param sendSequence
+     *            the send sequence number N(S) of the frame.
+     * @param receiveSequence
+     *            the receive sequence number N(R), the send sequence number of the next expected frame.
+     * @param segmented
+     *            true if further segments of the message follow this frame.
+     * @param addLlc
+     *            true if the LLC bytes should be added in front of the data.
+     * @param poll
+     *            true if the poll/final bit should be set.
+     * @return the encoded frame.
+     */
+    public byte[] encode(byte[] data, int offset, int length, int sendSequence, int receiveSequence,
+            boolean segmented, boolean addLlc, boolean poll) {
+        int informationLength = addLlc ? HdlcFrame.LLC_REQUEST.length + length : length;
+        int frameLength = FRAME_OVERHEAD + this.addresses.length + informationLength;
+
+        byte[] frame = new byte[frameLength + 2];
+        int index = 0;
+
+        frame[index++] = FLAG;
+
+        int frameFormat = 0xA000 | frameLength;
+        if (segmented) {
+            frameFormat |= 0x0800;
+        }
+        frame[index++] = (byte) (frameFormat >> 8);
+        frame[index++] = (byte) frameFormat;
+
+        System.arraycopy(this.addresses, 0, frame, index, this.addresses.length);
+        index += this.addresses.length;
+
+        int controlField = FrameType.INFORMATION.value() | ((sendSequence % 8) << 1) | ((receiveSequence % 8) << 5);
+        if (poll) {
+            controlField |= 0x10;
+        }
+        frame[index++] = (byte) controlField;
+
+        // the header check sequence covers the frame format, the addresses and the control field
+        FcsCalc fcsCalc = new FcsCalc();
+        fcsCalc.update(frame, 1, index - 1);
+        fcsCalc.writeFcsValue(frame, index);
+
+        // the frame check sequence continues the header check sequence
+        fcsCalc.update(frame, index, 2);
+        index += 2;
+
+        int informationOffset = index;
+        if (addLlc) {
+            System.arraycopy(HdlcFrame.LLC_REQUEST, 0, frame, index, HdlcFrame.LLC_REQUEST.length);
+            index += HdlcFrame.LLC_REQUEST.length;
+        }
+        System.arraycopy(data, offset, frame, index, length);
+        index += length;
+
+        fcsCalc.update(frame, informationOffset, informationLength);
+        fcsCalc.writeFcsValue(frame, index);
+        index += 2;
+
+        frame[index] = FLAG;
+
+        return frame;
+    }
+
+}
@@ -0,0 +1,349 @@
+/*
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.openmuc.jdlms.sessionlayer.hdlc;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Schedules the frames of all secondary stations (meters) sharing one physical link.
+ * 
+ * <p>
+ * The frames are queued per station. The stations are served round robin, one station at a time: the frames of the
+ * station are sent until a frame with the poll bit has been sent. Then the link is reserved for the station until it
+ * responds with a frame having the final bit set or the response timeout of the station elapsed. This way only one
+ * meter of a multi-drop bus answers at a time (normal response mode, see IEC 62056-46).
+ * </p>
+ * 
+ * <p>
+ * Since a station may wait for its turn, the response timer of a station has to be started when its frame has been
+ * written to the link, see {@link #transmit(HdlcAddressPair, byte[], long)}.
+ * </p>
+ */
+class HdlcLinkScheduler {
+
+    private final Map<HdlcAddressPair, Queue<ScheduledFrame>> sendQueues;
+    private final Queue<HdlcAddressPair> pollCycle;
+
+    private final Lock lock;
+    private final Condition frameScheduled;
+    private final Condition frameTransmitted;
+    private final Condition finalFrameReceived;
+
+    private HdlcAddressPair currentStation;
+    private HdlcAddressPair polledStation;
+    private boolean stopped;
+
+    public HdlcLinkScheduler() {
+        this.sendQueues = new HashMap<>();
+        this.pollCycle = new LinkedList<>();
+
+        this.lock = new ReentrantLock();
+        this.frameScheduled = this.lock.newCondition();
+        this.frameTransmitted = this.lock.newCondition();
+        this.finalFrameReceived = this.lock.newCondition();
+
+        this.stopped = false;
+    }
+
+    /**
+     * Queues an encoded frame for the station, without waiting for the link.
+     * 
+     * @param addressPair
+     *            the address pair of the frame.
+     * @param frame
+     *            the encoded frame including the flags.
+     * @param timeout
+     *            the response timeout of the station in milliseconds, i.e. the time the station may hold the link.
+     *            0 means that there is no timeout.
+     * @throws IOException
+     *             if the scheduler has been stopped.
+     */
+    public void schedule(HdlcAddressPair addressPair, byte[] frame, long timeout) throws IOException {
+        this.lock.lock();
+        try {
+            enqueue(addressPair, new ScheduledFrame(frame, timeout));
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Queues an encoded frame for the station and waits until it has been written to the link.
+     * 
+     * @param addressPair
+     *            the address pair of the frame.
+     * @param frame
+     *            the encoded frame including the flags.
+     * @param timeout
+     *            the response timeout of the station in milliseconds, i.e. the time the station may hold the link.
+     *            0 means that there is no timeout.
+     * @throws IOException
+     *             if the scheduler has been stopped.
+     */
+    public void transmit(HdlcAddressPair addressPair, byte[] frame, long timeout) throws IOException {
+        this.lock.lock();
+        try {
+            ScheduledFrame scheduledFrame = new ScheduledFrame(frame, timeout);
+            enqueue(addressPair, scheduledFrame);
+
+            while (!scheduledFrame.transmitted) {
+                if (this.stopped) {
+                    throw new IOException("HDLC link has been closed.");
+                }
+                this.frameTransmitted.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the HDLC link.");
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void enqueue(HdlcAddressPair addressPair, ScheduledFrame frame) throws IOException {
+        if (this.stopped) {
+            throw new IOException("HDLC link has been closed.");
+        }
+
+        Queue<ScheduledFrame> sendQueue = this.sendQueues.get(addressPair);
+        if (sendQueue == null) {
+            sendQueue = new LinkedList<>();
+            this.sendQueues.put(addressPair, sendQueue);
+        }
+
+        if (sendQueue.isEmpty() && !addressPair.equals(this.currentStation)) {
+            this.pollCycle.add(addressPair);
+        }
+        sendQueue.add(frame);
+
+        this.frameScheduled.signalAll();
+    }
+
+    /**
+     * Releases the link, if the station is the one currently polled.
+     * 
+     * @param addressPair
+     *            the address pair of the received frame having the final bit set.
+     */
+    public void finalFrameReceived(HdlcAddressPair addressPair) {
+        this.lock.lock();
+        try {
+            if (addressPair.equals(this.polledStation)) {
+                this.polledStation = null;
+                this.finalFrameReceived.signalAll();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    public void stop() {
+        this.lock.lock();
+        try {
+            this.stopped = true;
+            this.sendQueues.clear();
+            this.pollCycle.clear();
+
+            this.frameScheduled.signalAll();
+            this.frameTransmitted.signalAll();
+            this.finalFrameReceived.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Sends the queued frames of the next station and waits for its final frame.
+     * 
+     * @param outputStream
+     *            the output stream of the physical link.
+     * @return false if the scheduler has been stopped.
+     * @throws IOException
+     *             if writing to the link fails.
+     * @throws InterruptedException
+     *             if the thread has been interrupted while waiting.
+     */
+    public boolean serveNextStation(OutputStream outputStream) throws IOException, InterruptedException {
+        HdlcAddressPair station;
+
+        this.lock.lock();
+        try {
+            while (this.pollCycle.isEmpty() && !this.stopped) {
+                this.frameScheduled.await();
+            }
+            if (this.stopped) {
+                return false;
+            }
+
+            station = this.pollCycle.poll();
+            this.currentStation = station;
+        } finally {
+            this.lock.unlock();
+        }
+
+        try {
+            transmitTilPoll(station, outputStream);
+        } finally {
+            releaseStation(station);
+        }
+        return true;
+    }
+
+    private void transmitTilPoll(HdlcAddressPair station, OutputStream outputStream)
+            throws IOException, InterruptedException {
+        long timeout = 0;
+        ScheduledFrame frame;
+        while ((frame = nextFrameOf(station, timeout)) != null) {
+            boolean poll = HdlcFrame.pollFinalBitOf(frame.data);
+
+            if (poll) {
+                setPolledStation(station);
+            }
+
+            outputStream.write(frame.data);
+            outputStream.flush();
+
+            frameTransmitted(frame);
+            timeout = frame.timeout;
+
+            if (poll) {
+                awaitFinalFrame(timeout);
+                return;
+            }
+        }
+    }
+
+    private ScheduledFrame nextFrameOf(HdlcAddressPair station, long timeout) throws InterruptedException {
+        this.lock.lock();
+        try {
+            Queue<ScheduledFrame> sendQueue = this.sendQueues.get(station);
+            if (sendQueue == null) {
+                return null;
+            }
+
+            // the station is in the middle of sending a window
+            long nanos = TimeUnit.MILLISECONDS.toNanos(timeout);
+            while (sendQueue.isEmpty() && !this.stopped) {
+                if (timeout == 0) {
+                    this.frameScheduled.await();
+                }
+                else if (nanos > 0) {
+                    nanos = this.frameScheduled.awaitNanos(nanos);
+                }
+                else {
+                    return null;
+                }
+            }
+
+            if (this.stopped) {
+                return null;
+            }
+            return sendQueue.poll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void setPolledStation(HdlcAddressPair station) {
+        this.lock.lock();
+        try {
+            this.polledStation = station;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void frameTransmitted(ScheduledFrame frame) {
+        this.lock.lock();
+        try {
+            frame.transmitted = true;
+            this.frameTransmitted.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void awaitFinalFrame(long timeout) throws InterruptedException {
+        this.lock.lock();
+        try {
+            long nanos = TimeUnit.MILLISECONDS.toNanos(timeout);
+            while (this.polledStation != null && !this.stopped) {
+                if (timeout == 0) {
+                    this.finalFrameReceived.await();
+                }
+                else if (nanos > 0) {
+                    nanos = this.finalFrameReceived.awaitNanos(nanos);
+                }
+                else {
+                    // the station didn't answer, give the other stations their turn
+                    this.polledStation = null;
+                }
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void releaseStation(HdlcAddressPair station) {
+        this.lock.lock();
+        try {
+            this.currentStation = null;
+            this.polledStation = null;
+
+            Queue<ScheduledFrame> sendQueue = this.sendQueues.get(station);
+            if (sendQueue == null) {
+                return;
+            }
+
+            if (sendQueue.isEmpty()) {
+                this.sendQueues.remove(station);
+            }
+            else {
+                this.pollCycle.add(station);
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private static class ScheduledFrame {
+        private final byte[] data;
+        private final long timeout;
+        private boolean transmitted;
+
+        public ScheduledFrame(byte[] data, long timeout) {
+            this.data = data;
+            this.timeout = timeout;
+            this.transmitted = false;
+        }
+    }
+
+}
@@ -21,7 +21,7 @@ package org.openmuc.jdlms.sessionlayer.hdlc;
 
 import java.io.DataInputStream;
 import java.io.IOException;
-import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -39,27 +39,52 @@ public class HdlcMessageDecoder {
 
     public static List<HdlcFrame> decode(RawMessageDataBuilder rawMessageBuilder, StreamAccessor streamAccessor,
             int timeout) throws IOException {
+        return decode(rawMessageBuilder, streamAccessor, timeout, new HdlcReceiveBuffer());
+    }
+
+    /**
+     * Reads and decodes the frames of the next received burst. The frames are read into the given buffer, their
+     * information fields are not copied.
+     * 
+     * @param rawMessageBuilder
+     *            the builder of the raw message, may be {@code null}.
+     * @param streamAccessor
+     *            the stream accessor to read from.
+     * @param timeout
+     *            the timeout to read the rest of a frame, once the frame started.
+     * @param receiveBuffer
+     *            the buffer to read the frames into. Frames decoded by a previous call with this buffer become
+     *            invalid.
+     * @return the valid frames of the burst.
+     * @throws IOException
+     *             if the stream could not be read or the received bytes are not framed correctly.
+     */
+    public static List<HdlcFrame> decode(RawMessageDataBuilder rawMessageBuilder, StreamAccessor streamAccessor,
+            int timeout, HdlcReceiveBuffer receiveBuffer) throws IOException {
         DataInputStream iStream = streamAccessor.getInputStream();
         List<HdlcFrame> frames = new LinkedList<>();
 
+        receiveBuffer.clear();
+
         streamAccessor.setTimeout(0);
         validateFlag(iStream.readByte());
 
         do {
-            byte[] frameBytes = readFrame(iStream, streamAccessor, timeout);
+            int offset = readFrame(iStream, streamAccessor, timeout, receiveBuffer);
+            byte[] buffer = receiveBuffer.array();
+            int length = frameLength(buffer[offset], buffer[offset + 1]);
+
+            byte flag = iStream.readByte();
+            validateFlag(flag);
+            buffer[offset + length] = flag;
+
             if (rawMessageBuilder != null) {
                 rawMessageBuilder.setMessageSource(MessageSource.SERVER);
-                rawMessageBuilder.setMessage(ByteBuffer.allocate(frameBytes.length + 2)
-                        .put(HDLC_FLAG)
-                        .put(frameBytes)
-                        .put(HDLC_FLAG)
-                        .array());
+                rawMessageBuilder.setMessage(Arrays.copyOfRange(buffer, offset - 1, offset + length + 1));
             }
 
-            validateFlag(iStream.readByte());
-
             try {
-                frames.add(HdlcFrame.decode(frameBytes));
+                frames.add(HdlcFrame.decode(buffer, offset, length));
             } catch (FrameInvalidException e) {
                 // ignore illegal frames
             }
@@ -69,22 +94,39 @@ public class HdlcMessageDecoder {
         return frames;
     }
 
-    private static byte[] readFrame(DataInputStream iStream, StreamAccessor streamAccessor, int timeout)
-            throws IOException {
-        short frameFormat = iStream.readShort();
+    /*
+     * Reads the frame into the receive buffer, preceded by its opening flag and followed by the space for the closing
+     * flag. Returns the offset of the frame (without the opening flag) in the receive buffer.
+     */
+    private static int readFrame(DataInputStream iStream, StreamAccessor streamAccessor, int timeout,
+            HdlcReceiveBuffer receiveBuffer) throws IOException {
+        byte frameFormatH = iStream.readByte();
+        // consecutive frames either share a flag or each frame has its own opening and closing flag
+        while (frameFormatH == HDLC_FLAG) {
+            frameFormatH = iStream.readByte();
+        }
+        byte frameFormatL = iStream.readByte();
         if (streamAccessor != null) {
             streamAccessor.setTimeout(timeout);
         }
 
-        int length = HDLC_LENGTH_MASK & frameFormat;
+        int length = frameLength(frameFormatH, frameFormatL);
+
+        int flagOffset = receiveBuffer.reserve(length + 2);
+        byte[] buffer = receiveBuffer.array();
 
-        byte[] data = new byte[length];
+        int offset = flagOffset + 1;
+        buffer[flagOffset] = HDLC_FLAG;
+        buffer[offset] = frameFormatH;
+        buffer[offset + 1] = frameFormatL;
+        iStream.readFully(buffer, offset + 2, length - 2);
 
-        data[0] = (byte) ((frameFormat & 0xFF00) >> 8);
-        data[1] = (byte) (frameFormat & 0xFF);
-        iStream.readFully(data, 2, length - 2);
+        return offset;
+    }
 
-        return data;
+    private static int frameLength(byte frameFormatH, byte frameFormatL) {
+        // the frame contains at least the frame format field
+        return Math.max(2, HDLC_LENGTH_MASK & ((frameFormatH & 0xFF) << 8 | frameFormatL & 0xFF));
     }
 
     private static void validateFlag(byte flag) throws FatalJDlmsException {
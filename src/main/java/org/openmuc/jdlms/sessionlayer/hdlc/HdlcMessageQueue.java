@@ -27,6 +27,8 @@ import java.util.concurrent.TimeUnit;
 
 public class HdlcMessageQueue implements Iterable<byte[]> {
 
+    private static final int SEQUENCE_MODULUS = 8;
+
     private BlockingQueue<HdlcMessage> sendQueue;
     private int capacity;
 
@@ -47,11 +49,34 @@ public class HdlcMessageQueue implements Iterable<byte[]> {
         return this.capacity;
     }
 
-    public void clearTil(int sendSeq) {
+    /**
+     * Removes all messages acknowledged by the receive sequence number N(R) of the remote station.
+     * 
+     * <p>
+     * N(R) is the send sequence number of the next frame the remote station expects, so all queued messages in front
+     * of this number are acknowledged. Messages remaining in the queue have to be retransmitted.
+     * </p>
+     * 
+     * @param receiveSequence
+     *            the receive sequence number N(R).
+     * @return the number of removed messages. If the sequence number does not lie within the window of the queued
+     *         messages, nothing is removed.
+     */
+    public int clearTil(int receiveSequence) {
+        HdlcMessage head = this.sendQueue.peek();
+        if (head == null) {
+            return 0;
+        }
+
+        int numAcknowledged = (receiveSequence - head.sequenceCounter + SEQUENCE_MODULUS) % SEQUENCE_MODULUS;
+        if (numAcknowledged > this.sendQueue.size()) {
+            return 0;
+        }
 
-        while (!sendQueue.isEmpty() && sendQueue.poll().sequenceCounter < sendSeq) {
-            // do nothing, sendQueue.poll() already removed the frame
+        for (int i = 0; i < numAcknowledged; i++) {
+            this.sendQueue.poll();
         }
+        return numAcknowledged;
     }
 
     public int size() {
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.openmuc.jdlms.sessionlayer.hdlc;
+
+/**
+ * Reusable buffer the frames of one received burst are read into.
+ * 
+ * <p>
+ * The frames decoded from this buffer reference their information field inside the buffer instead of copying it. A
+ * decoded frame is therefore only valid until the next burst is read into the same buffer.
+ * </p>
+ * 
+ * @see HdlcMessageDecoder#decode(org.openmuc.jdlms.RawMessageData.RawMessageDataBuilder,
+ *      org.openmuc.jdlms.transportlayer.StreamAccessor, int, HdlcReceiveBuffer)
+ */
+public class HdlcReceiveBuffer {
+
+    /**
+     * Two frames of maximum length, including the opening and the closing flag.
+     */
+    private static final int INITIAL_CAPACITY = 2 * (0x07FF + 2);
+
+    private byte[] buffer;
+    private int size;
+
+    public HdlcReceiveBuffer() {
+        this.buffer = new byte[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    /**
+     * Discards the content of the buffer, frames decoded from the buffer become invalid.
+     */
+    void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * Reserves space for the next frame of the burst. If the buffer is full, a larger one replaces it. The frames
+     * decoded beforehand keep referencing the old buffer, so its content does not need to be copied.
+     * 
+     * @param length
+     *            the number of bytes to reserve.
+     * @return the offset of the reserved space in {@link #array()}.
+     */
+    int reserve(int length) {
+        if (this.size + length > this.buffer.length) {
+            this.buffer = new byte[Math.max(length, 2 * this.buffer.length)];
+            this.size = 0;
+        }
+
+        int offset = this.size;
+        this.size += length;
+        return offset;
+    }
+
+    byte[] array() {
+        return this.buffer;
+    }
+
+}
@@ -26,4 +26,6 @@ public interface HdlcSettings extends Settings {
     HdlcAddressPair addressPair();
 
     int hdlcMaxInformationLength();
+
+    int hdlcWindowSize();
 }
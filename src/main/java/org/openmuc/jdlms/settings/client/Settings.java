@@ -20,6 +20,8 @@
  */
 package org.openmuc.jdlms.settings.client;
 
+import java.util.concurrent.ThreadFactory;
+
 import org.openmuc.jdlms.RawMessageListener;
 import org.openmuc.jdlms.SecuritySuite;
 
@@ -49,5 +51,11 @@ public interface Settings {
 
     int hdlcMaxInformationLength();
 
+    int hdlcWindowSize();
+
     boolean selectiveAccessValidationDisabled();
+
+    int maxOutstandingRequests();
+
+    ThreadFactory readerThreadFactory();
 }
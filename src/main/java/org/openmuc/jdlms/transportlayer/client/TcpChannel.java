@@ -0,0 +1,204 @@
+/*
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.openmuc.jdlms.transportlayer.client;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A non-blocking TCP connection registered at a {@link TcpSelector}.
+ * 
+ * <p>
+ * Writes are done by the calling thread as far as the socket accepts the data, the remainder is written by the
+ * selector thread.
+ * </p>
+ */
+public class TcpChannel implements Closeable {
+
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    private final TcpSelector tcpSelector;
+    private final SocketChannel socketChannel;
+    private final Listener listener;
+
+    private final ByteBuffer readBuffer;
+    private final Queue<ByteBuffer> writeQueue;
+    private final Lock writeLock;
+
+    private SelectionKey selectionKey;
+    private volatile boolean closed;
+
+    TcpChannel(TcpSelector tcpSelector, SocketChannel socketChannel, Listener listener) {
+        this.tcpSelector = tcpSelector;
+        this.socketChannel = socketChannel;
+        this.listener = listener;
+
+        this.readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        this.writeQueue = new ArrayDeque<>();
+        this.writeLock = new ReentrantLock();
+        this.closed = false;
+    }
+
+    /**
+     * Writes the data to the remote host without blocking on a full socket buffer.
+     * 
+     * @param data
+     *            the data.
+     * @param off
+     *            the start offset in the data.
+     * @param len
+     *            the number of bytes to write.
+     * @throws IOException
+     *             if the channel is closed or an I/O error occurs.
+     */
+    public void write(byte[] data, int off, int len) throws IOException {
+        this.writeLock.lock();
+        try {
+            if (this.closed) {
+                throw new ClosedChannelException();
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(data, off, len);
+            if (this.writeQueue.isEmpty()) {
+                this.socketChannel.write(buffer);
+                if (!buffer.hasRemaining()) {
+                    return;
+                }
+            }
+
+            ByteBuffer remainder = ByteBuffer.allocate(buffer.remaining());
+            remainder.put(buffer).flip();
+            this.writeQueue.add(remainder);
+        } finally {
+            this.writeLock.unlock();
+        }
+
+        this.tcpSelector.requestWrite(this);
+    }
+
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.closed = true;
+        this.socketChannel.close();
+    }
+
+    void register(Selector selector) {
+        try {
+            this.selectionKey = this.socketChannel.register(selector, SelectionKey.OP_READ, this);
+        } catch (ClosedChannelException e) {
+            interrupt(e);
+        }
+    }
+
+    void enableWriteInterest() {
+        if (this.selectionKey != null && this.selectionKey.isValid()) {
+            this.selectionKey.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+    }
+
+    /*
+     * Called by the selector thread.
+     */
+    void flush() {
+        this.writeLock.lock();
+        try {
+            ByteBuffer buffer;
+            while ((buffer = this.writeQueue.peek()) != null) {
+                this.socketChannel.write(buffer);
+                if (buffer.hasRemaining()) {
+                    return;
+                }
+                this.writeQueue.poll();
+            }
+            this.selectionKey.interestOps(SelectionKey.OP_READ);
+        } catch (IOException e) {
+            interrupt(e);
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    /*
+     * Called by the selector thread.
+     */
+    void read() {
+        try {
+            int numBytes = this.socketChannel.read(this.readBuffer);
+            if (numBytes < 0) {
+                interrupt(new EOFException("Socket was closed by remote host."));
+                return;
+            }
+
+            this.readBuffer.flip();
+            this.listener.dataReceived(this.readBuffer);
+            this.readBuffer.compact();
+        } catch (IOException e) {
+            interrupt(e);
+        }
+    }
+
+    void interrupt(IOException e) {
+        if (this.closed) {
+            return;
+        }
+
+        try {
+            close();
+        } catch (IOException closeException) {
+            // ignore
+        }
+        this.listener.connectionInterrupted(e);
+    }
+
+    /**
+     * Listener of a {@link TcpChannel}. The methods are called by the selector thread.
+     */
+    public interface Listener {
+
+        /**
+         * Called when data has been received. Unconsumed bytes remaining in the buffer are passed again with the next
+         * data.
+         * 
+         * @param buffer
+         *            the received data.
+         * @throws IOException
+         *             if the data is invalid. The channel will be closed.
+         */
+        void dataReceived(ByteBuffer buffer) throws IOException;
+
+        void connectionInterrupted(IOException e);
+    }
+
+}
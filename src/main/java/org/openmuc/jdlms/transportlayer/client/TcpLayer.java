@@ -26,6 +26,8 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.net.Socket;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.net.SocketFactory;
 
@@ -43,8 +45,14 @@ public class TcpLayer implements TransportLayer {
 
     private final TcpSettings settings;
 
+    /**
+     * Guards opening the connection. A lock is used instead of a monitor, since connecting is blocking.
+     */
+    private final Lock openLock;
+
     public TcpLayer(TcpSettings settings) {
         this.settings = settings;
+        this.openLock = new ReentrantLock();
         closed = true;
     }
 
@@ -69,7 +77,16 @@ public class TcpLayer implements TransportLayer {
     }
 
     @Override
-    public synchronized void open() throws IOException {
+    public void open() throws IOException {
+        this.openLock.lock();
+        try {
+            doOpen();
+        } finally {
+            this.openLock.unlock();
+        }
+    }
+
+    private void doOpen() throws IOException {
         if (!closed) {
             throw new IOException("Connection has already been opened..");
         }
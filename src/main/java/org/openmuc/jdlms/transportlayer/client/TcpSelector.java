@@ -0,0 +1,234 @@
+/*
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.openmuc.jdlms.transportlayer.client;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A selector shared by many TCP connections. One thread reads from all registered channels and completes pending
+ * writes.
+ * 
+ * <p>
+ * The received data is delivered on the selector thread, thus listeners must not block. A head-end may use the
+ * {@link #defaultInstance()} or spread its connections over a few selectors.
+ * </p>
+ * 
+ * @see TcpChannel
+ */
+public class TcpSelector implements Closeable {
+
+    private static TcpSelector defaultInstance;
+
+    private final Selector selector;
+    private final Queue<TcpChannel> pendingRegistrations;
+    private final Queue<TcpChannel> pendingWrites;
+    private volatile boolean closed;
+
+    /**
+     * Creates a new selector with its own thread.
+     * 
+     * @throws IOException
+     *             if the selector could not be opened.
+     */
+    public TcpSelector() throws IOException {
+        this(Executors.defaultThreadFactory());
+    }
+
+    /**
+     * Creates a new selector with its own thread.
+     * 
+     * @param threadFactory
+     *            the factory creating the selector thread.
+     * @throws IOException
+     *             if the selector could not be opened.
+     */
+    public TcpSelector(ThreadFactory threadFactory) throws IOException {
+        this.selector = Selector.open();
+        this.pendingRegistrations = new ConcurrentLinkedQueue<>();
+        this.pendingWrites = new ConcurrentLinkedQueue<>();
+        this.closed = false;
+
+        Thread thread = threadFactory.newThread(new SelectorLoop());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Returns the selector shared by all connections, which didn't specify a selector.
+     * 
+     * @return the default selector.
+     * @throws IOException
+     *             if the selector could not be opened.
+     */
+    public static synchronized TcpSelector defaultInstance() throws IOException {
+        if (defaultInstance == null || defaultInstance.closed) {
+            defaultInstance = new TcpSelector();
+        }
+        return defaultInstance;
+    }
+
+    /**
+     * Connects to the remote address and registers the channel at this selector.
+     * 
+     * @param address
+     *            the remote address.
+     * @param listener
+     *            the listener receiving the incoming data.
+     * @return the connected channel.
+     * @throws IOException
+     *             if the connection could not be established.
+     */
+    public TcpChannel connect(InetSocketAddress address, TcpChannel.Listener listener) throws IOException {
+        if (this.closed) {
+            throw new IOException("Selector has been closed.");
+        }
+
+        return register(SocketChannel.open(address), listener);
+    }
+
+    /**
+     * Registers a connected channel at this selector. The channel is switched to non-blocking mode.
+     * 
+     * @param socketChannel
+     *            the connected channel.
+     * @param listener
+     *            the listener receiving the incoming data.
+     * @return the registered channel.
+     * @throws IOException
+     *             if the channel could not be configured or the selector has been closed.
+     */
+    public TcpChannel register(SocketChannel socketChannel, TcpChannel.Listener listener) throws IOException {
+        try {
+            if (this.closed) {
+                throw new IOException("Selector has been closed.");
+            }
+            socketChannel.socket().setTcpNoDelay(true);
+            socketChannel.configureBlocking(false);
+        } catch (IOException e) {
+            socketChannel.close();
+            throw e;
+        }
+
+        TcpChannel channel = new TcpChannel(this, socketChannel, listener);
+        this.pendingRegistrations.add(channel);
+        this.selector.wakeup();
+
+        return channel;
+    }
+
+    /*
+     * Interest ops are only changed on the selector thread, since this may block while selecting.
+     */
+    void requestWrite(TcpChannel channel) {
+        this.pendingWrites.add(channel);
+        this.selector.wakeup();
+    }
+
+    /**
+     * Closes the selector and all channels registered at it.
+     */
+    @Override
+    public void close() throws IOException {
+        this.closed = true;
+        this.selector.wakeup();
+    }
+
+    private class SelectorLoop implements Runnable {
+
+        @Override
+        public void run() {
+            Thread.currentThread().setName("jDLMS - TCP-SELECTOR thread");
+
+            try {
+                while (!closed) {
+                    selector.select();
+
+                    registerPendingChannels();
+                    enablePendingWrites();
+                    processSelectedKeys();
+                }
+            } catch (IOException | ClosedSelectorException e) {
+                // selector is not usable anymore
+            } finally {
+                closeAll();
+            }
+        }
+
+        private void registerPendingChannels() {
+            TcpChannel channel;
+            while ((channel = pendingRegistrations.poll()) != null) {
+                channel.register(selector);
+            }
+        }
+
+        private void enablePendingWrites() {
+            TcpChannel channel;
+            while ((channel = pendingWrites.poll()) != null) {
+                channel.enableWriteInterest();
+            }
+        }
+
+        private void processSelectedKeys() {
+            Iterator<SelectionKey> iter = selector.selectedKeys().iterator();
+            while (iter.hasNext()) {
+                SelectionKey key = iter.next();
+                iter.remove();
+
+                TcpChannel channel = (TcpChannel) key.attachment();
+                if (key.isValid() && key.isWritable()) {
+                    channel.flush();
+                }
+                if (key.isValid() && key.isReadable()) {
+                    channel.read();
+                }
+            }
+        }
+
+        private void closeAll() {
+            for (SelectionKey key : new ArrayList<>(selector.keys())) {
+                ((TcpChannel) key.attachment()).interrupt(new IOException("Selector has been closed."));
+            }
+            TcpChannel channel;
+            while ((channel = pendingRegistrations.poll()) != null) {
+                channel.interrupt(new IOException("Selector has been closed."));
+            }
+
+            try {
+                selector.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+}
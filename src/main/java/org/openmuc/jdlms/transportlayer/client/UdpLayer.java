@@ -29,6 +29,8 @@ import java.io.OutputStream;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.InetAddress;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.openmuc.jdlms.settings.client.TcpSettings;
 
@@ -94,9 +96,14 @@ public class UdpLayer implements TransportLayer {
     private class OStream extends OutputStream {
 
         private ByteArrayOutputStream os;
+        /**
+         * Guards sending the buffered packet. A lock is used instead of a monitor, since the I/O is blocking.
+         */
+        private final Lock sendLock;
 
         public OStream() {
             this.os = new ByteArrayOutputStream(MAX_UDP_PAYLOAD_SIZE);
+            this.sendLock = new ReentrantLock();
         }
 
         public void closeStream() throws IOException {
@@ -143,16 +150,22 @@ public class UdpLayer implements TransportLayer {
         }
 
         @Override
-        public synchronized void flush() throws IOException {
-            if (this.os.size() == 0) {
-                return;
-            }
+        public void flush() throws IOException {
+            this.sendLock.lock();
+            try {
+                if (this.os.size() == 0) {
+                    return;
+                }
 
-            byte[] data = this.os.toByteArray();
-            this.os.reset();
+                byte[] data = this.os.toByteArray();
+                this.os.reset();
 
-            DatagramPacket packet = new DatagramPacket(data, 0, data.length, settings.inetAddress(), settings.port());
-            socket.send(packet);
+                DatagramPacket packet = new DatagramPacket(data, 0, data.length, settings.inetAddress(),
+                        settings.port());
+                socket.send(packet);
+            } finally {
+                this.sendLock.unlock();
+            }
         }
 
     }
@@ -160,11 +173,14 @@ public class UdpLayer implements TransportLayer {
     private class IStream extends InputStream {
 
         private InputStream is;
-        private Object lock;
+        /**
+         * Guards the received packet. A lock is used instead of a monitor, since receiving the next packet blocks.
+         */
+        private final Lock lock;
 
         public IStream() {
             this.is = new ByteArrayInputStream(new byte[0]);
-            this.lock = new Object();
+            this.lock = new ReentrantLock();
         }
 
         public void closeStream() throws IOException {
@@ -179,17 +195,23 @@ public class UdpLayer implements TransportLayer {
         @Override
         public int read() throws IOException {
             readIfEmpty();
-            synchronized (lock) {
+            this.lock.lock();
+            try {
                 return is.read();
+            } finally {
+                this.lock.unlock();
             }
 
         }
 
         private void readIfEmpty() throws IOException {
-            synchronized (lock) {
+            this.lock.lock();
+            try {
                 if (is.available() == 0) {
                     readNextPacket();
                 }
+            } finally {
+                this.lock.unlock();
             }
         }
 
@@ -210,8 +232,11 @@ public class UdpLayer implements TransportLayer {
 
             int remaining = len;
             while (true) {
-                synchronized (socket) {
+                this.lock.lock();
+                try {
                     remaining -= is.read(b, len - remaining, Math.min(is.available(), remaining));
+                } finally {
+                    this.lock.unlock();
                 }
 
                 if (remaining == 0) {
@@ -231,7 +256,10 @@ public class UdpLayer implements TransportLayer {
             return read(b, 0, b.length);
         }
 
-        private synchronized void readNextPacket() throws IOException {
+        /**
+         * Receives the next packet, while holding the lock.
+         */
+        private void readNextPacket() throws IOException {
 
             byte[] buf = new byte[MAX_UDP_PAYLOAD_SIZE];
             DatagramPacket packet = new DatagramPacket(buf, buf.length);
@@ -253,9 +281,7 @@ public class UdpLayer implements TransportLayer {
             int len = packet.getLength();
             byte[] data = packet.getData();
 
-            synchronized (lock) {
-                this.is = new ByteArrayInputStream(data, 0, len);
-            }
+            this.is = new ByteArrayInputStream(data, 0, len);
         }
     }
 
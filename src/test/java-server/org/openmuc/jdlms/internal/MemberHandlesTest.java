@@ -0,0 +1,230 @@
+/**
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.openmuc.jdlms.internal;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+import org.openmuc.jdlms.CosemClass;
+import org.openmuc.jdlms.CosemInterfaceObject;
+import org.openmuc.jdlms.CosemMethod;
+import org.openmuc.jdlms.IllegalMethodAccessException;
+import org.openmuc.jdlms.MethodResultCode;
+import org.openmuc.jdlms.SecuritySuite.SecurityPolicy;
+import org.openmuc.jdlms.SelectiveAccessDescription;
+import org.openmuc.jdlms.datatypes.DataObject;
+import org.openmuc.jdlms.internal.DataDirectoryImpl.CosemClassInstance;
+
+public class MemberHandlesTest {
+
+    private static final DataObject DATA = DataObject.newUInteger8Data((short) 7);
+    private static final SelectiveAccessDescription ACCESS_SELECTION = new SelectiveAccessDescription(1,
+            DataObject.newNullData());
+    private static final Long CONNECTION_ID = 42L;
+
+    @Test
+    public void testGetWithoutParameters() throws Throwable {
+        assertGet("get", new Object[] {});
+    }
+
+    @Test
+    public void testGetWithSelectiveAccess() throws Throwable {
+        assertGet("get", new Object[] { ACCESS_SELECTION }, SelectiveAccessDescription.class);
+    }
+
+    @Test
+    public void testGetWithConnectionId() throws Throwable {
+        assertGet("get", new Object[] { CONNECTION_ID }, Long.class);
+    }
+
+    @Test
+    public void testGetWithSelectiveAccessAndConnectionId() throws Throwable {
+        assertGet("get", new Object[] { ACCESS_SELECTION, CONNECTION_ID }, SelectiveAccessDescription.class,
+                Long.class);
+    }
+
+    @Test
+    public void testGetWithUnservedParameter() throws Throwable {
+        assertGet("get", new Object[] { ACCESS_SELECTION, null, CONNECTION_ID }, SelectiveAccessDescription.class,
+                Object.class, Long.class);
+    }
+
+    @Test
+    public void testSetWithData() throws Throwable {
+        assertSet(new Object[] { DATA }, DataObject.class);
+    }
+
+    @Test
+    public void testSetWithSelectiveAccess() throws Throwable {
+        assertSet(new Object[] { DATA, ACCESS_SELECTION }, DataObject.class, SelectiveAccessDescription.class);
+    }
+
+    @Test
+    public void testSetWithConnectionId() throws Throwable {
+        assertSet(new Object[] { DATA, CONNECTION_ID }, DataObject.class, Long.class);
+    }
+
+    @Test
+    public void testSetWithSelectiveAccessAndConnectionId() throws Throwable {
+        assertSet(new Object[] { DATA, ACCESS_SELECTION, CONNECTION_ID }, DataObject.class,
+                SelectiveAccessDescription.class, Long.class);
+    }
+
+    @Test
+    public void testSetWithUnservedParameter() throws Throwable {
+        assertSet(new Object[] { DATA, ACCESS_SELECTION, null, CONNECTION_ID }, DataObject.class,
+                SelectiveAccessDescription.class, Object.class, Long.class);
+    }
+
+    @Test
+    public void testMethodAccessorRethrowsErrors() throws Exception {
+        T1 t1 = new T1();
+        MethodAccessor methodAccessor = methodAccessorFor("throwError");
+
+        try {
+            methodAccessor.invoke(cosemClassInstanceOf(t1), null, CONNECTION_ID, SecurityPolicy.NOTHING);
+            fail("An error must not be wrapped.");
+        } catch (InternalError e) {
+            assertSame(T1.ERROR, e);
+        }
+    }
+
+    @Test
+    public void testMethodAccessorWrapsExceptions() throws Exception {
+        T1 t1 = new T1();
+        MethodAccessor methodAccessor = methodAccessorFor("throwException");
+
+        try {
+            methodAccessor.invoke(cosemClassInstanceOf(t1), null, CONNECTION_ID, SecurityPolicy.NOTHING);
+            fail("Expected an exception.");
+        } catch (IllegalMethodAccessException e) {
+            assertEquals(MethodResultCode.OTHER_REASON, e.getMethodResultCode());
+        }
+    }
+
+    private static void assertGet(String name, Object[] expectedArguments, Class<?>... parameterTypes)
+            throws Throwable {
+        T1 t1 = new T1();
+        MethodHandle accessor = MemberHandles.accessorFor(T1.class.getDeclaredMethod(name, parameterTypes), false);
+
+        DataObject result = (DataObject) accessor.invokeExact((CosemInterfaceObject) t1, (DataObject) null,
+                ACCESS_SELECTION, CONNECTION_ID);
+
+        assertSame(DATA, result);
+        assertArrayEquals(expectedArguments, t1.arguments);
+    }
+
+    private static void assertSet(Object[] expectedArguments, Class<?>... parameterTypes) throws Throwable {
+        T1 t1 = new T1();
+        MethodHandle accessor = MemberHandles.accessorFor(T1.class.getDeclaredMethod("set", parameterTypes), true);
+
+        DataObject result = (DataObject) accessor.invokeExact((CosemInterfaceObject) t1, DATA, ACCESS_SELECTION,
+                CONNECTION_ID);
+
+        assertNull(result);
+        assertArrayEquals(expectedArguments, t1.arguments);
+    }
+
+    private static MethodAccessor methodAccessorFor(String name) throws NoSuchMethodException {
+        Method method = T1.class.getDeclaredMethod(name);
+        return new MethodAccessor(method, method.getAnnotation(CosemMethod.class), null, null);
+    }
+
+    private static CosemClassInstance cosemClassInstanceOf(T1 t1) {
+        return new CosemClassInstance(T1.class.getAnnotation(CosemClass.class), t1);
+    }
+
+    @CosemClass(id = 99)
+    private static class T1 extends CosemInterfaceObject {
+
+        static final InternalError ERROR = new InternalError("test");
+
+        private Object[] arguments;
+
+        public T1() {
+            super("0.0.0.0.0.0");
+        }
+
+        private DataObject get() {
+            this.arguments = new Object[] {};
+            return DATA;
+        }
+
+        private DataObject get(SelectiveAccessDescription selectiveAccessDescription) {
+            this.arguments = new Object[] { selectiveAccessDescription };
+            return DATA;
+        }
+
+        private DataObject get(Long connectionId) {
+            this.arguments = new Object[] { connectionId };
+            return DATA;
+        }
+
+        private DataObject get(SelectiveAccessDescription selectiveAccessDescription, Long connectionId) {
+            this.arguments = new Object[] { selectiveAccessDescription, connectionId };
+            return DATA;
+        }
+
+        private DataObject get(SelectiveAccessDescription selectiveAccessDescription, Object unserved,
+                Long connectionId) {
+            this.arguments = new Object[] { selectiveAccessDescription, unserved, connectionId };
+            return DATA;
+        }
+
+        private void set(DataObject data) {
+            this.arguments = new Object[] { data };
+        }
+
+        private void set(DataObject data, SelectiveAccessDescription selectiveAccessDescription) {
+            this.arguments = new Object[] { data, selectiveAccessDescription };
+        }
+
+        private void set(DataObject data, Long connectionId) {
+            this.arguments = new Object[] { data, connectionId };
+        }
+
+        private void set(DataObject data, SelectiveAccessDescription selectiveAccessDescription, Long connectionId) {
+            this.arguments = new Object[] { data, selectiveAccessDescription, connectionId };
+        }
+
+        private void set(DataObject data, SelectiveAccessDescription selectiveAccessDescription, Object unserved,
+                Long connectionId) {
+            this.arguments = new Object[] { data, selectiveAccessDescription, unserved, connectionId };
+        }
+
+        @CosemMethod(id = 1)
+        private void throwError() {
+            throw ERROR;
+        }
+
+        @CosemMethod(id = 2)
+        private void throwException() {
+            throw new IllegalStateException("test");
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.openmuc.jdlms.internal.association.ln;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.openmuc.jdlms.AccessResultCode;
+import org.openmuc.jdlms.internal.APdu;
+import org.openmuc.jdlms.internal.asn1.axdr.types.AxdrBoolean;
+import org.openmuc.jdlms.internal.asn1.axdr.types.AxdrOctetString;
+import org.openmuc.jdlms.internal.asn1.cosem.COSEMpdu;
+import org.openmuc.jdlms.internal.asn1.cosem.DataBlock_SA;
+import org.openmuc.jdlms.internal.asn1.cosem.Invoke_Id_And_Priority;
+import org.openmuc.jdlms.internal.asn1.cosem.SET_Request;
+import org.openmuc.jdlms.internal.asn1.cosem.SET_Response;
+import org.openmuc.jdlms.internal.asn1.cosem.Set_Request_With_Datablock;
+import org.openmuc.jdlms.internal.asn1.cosem.Set_Response_Last_Datablock;
+import org.openmuc.jdlms.internal.asn1.cosem.Unsigned32;
+import org.openmuc.jdlms.internal.association.AssociationMessenger;
+
+public class SetRequestProcessorTest {
+
+    @Test
+    public void testDatablockWithoutTransfer() throws Exception {
+        AssociationMessenger messenger = mock(AssociationMessenger.class);
+        SetRequestProcessor processor = new SetRequestProcessor(messenger, null);
+
+        DataBlock_SA datablock = new DataBlock_SA(new AxdrBoolean(false), new Unsigned32(2),
+                new AxdrOctetString(new byte[] { 1, 2, 3 }));
+        SET_Request setRequest = new SET_Request();
+        setRequest.setset_request_with_datablock(
+                new Set_Request_With_Datablock(new Invoke_Id_And_Priority(new byte[] { (byte) 0xC1 }), datablock));
+
+        COSEMpdu request = new COSEMpdu();
+        request.setset_request(setRequest);
+
+        processor.processRequest(request);
+
+        ArgumentCaptor<APdu> response = ArgumentCaptor.forClass(APdu.class);
+        verify(messenger).encodeAndSend(response.capture());
+
+        SET_Response setResponse = response.getValue().getCosemPdu().set_response;
+        assertEquals(SET_Response.Choices.SET_RESPONSE_LAST_DATABLOCK, setResponse.getChoiceIndex());
+
+        Set_Response_Last_Datablock lastDatablock = setResponse.set_response_last_datablock;
+        assertEquals(AccessResultCode.NO_LONG_SET_IN_PROGRESS.getCode(), lastDatablock.result.getValue());
+        assertEquals(2L, lastDatablock.block_number.getValue());
+    }
+
+}
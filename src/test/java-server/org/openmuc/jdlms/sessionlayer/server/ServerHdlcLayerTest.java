@@ -79,8 +79,8 @@ public class ServerHdlcLayerTest {
 
         HdlcParameters finalParams = HdlcParameters.decode(response.getInformationField());
 
-        assertEquals(1, finalParams.getReceiveWindowSize());
-        assertEquals(1, finalParams.getTransmitWindowSize());
+        assertEquals(7, finalParams.getReceiveWindowSize());
+        assertEquals(7, finalParams.getTransmitWindowSize());
 
         assertTrue(finalParams.getReceiveInformationLength() <= negParams.getTransmitInformationLength());
         assertTrue(finalParams.getTransmitInformationLength() <= negParams.getReceiveInformationLength());
@@ -91,8 +91,8 @@ public class ServerHdlcLayerTest {
     @Test
     public void testNextMsg() throws Exception {
         HdlcAddressPair addressPair = new HdlcAddressPair(new HdlcAddress(16), new HdlcAddress(1));
-        int sendSequence = 2;
-        int receiveSequence = 2;
+        int sendSequence = 0;
+        int receiveSequence = 0;
         final byte[] bytesToSend = "HelloWorld!".getBytes();
         byte[] data = HdlcFrame
                 .newInformationFrame(addressPair, sendSequence, receiveSequence, bytesToSend, false, true)
@@ -110,6 +110,39 @@ public class ServerHdlcLayerTest {
         layer.close();
     }
 
+    @Test
+    public void testNextMsgWindow() throws Exception {
+        HdlcAddressPair addressPair = new HdlcAddressPair(new HdlcAddress(16), new HdlcAddress(1));
+        ByteArrayOutputStream in = new ByteArrayOutputStream();
+        in.write(HdlcFrame.newInformationFrame(addressPair, 0, 0, "Hello".getBytes(), true, true, false).encode());
+        in.write(HdlcFrame.newInformationFrame(addressPair, 1, 0, "World".getBytes(), true, false, false).encode());
+        // out of sequence, has to be discarded
+        in.write(HdlcFrame.newInformationFrame(addressPair, 3, 0, "?".getBytes(), true, false, true).encode());
+        in.write(HdlcFrame.newInformationFrame(addressPair, 2, 0, "!".getBytes(), true, false, true).encode());
+        in.write(HdlcFrame.newInformationFrame(addressPair, 3, 0, "!!".getBytes(), false, false).encode());
+
+        StreamAccessor streamAccessor = isStreamAccessorFor(in.toByteArray());
+        ByteArrayOutputStream out = setOSToStream(streamAccessor);
+        ServerSettings settings = mock(ServerSettings.class);
+        ServerHdlcSessionLayer layer = spy(new ServerHdlcSessionLayer(streamAccessor, settings));
+        Whitebox.setInternalState(layer, "addressPair", addressPair);
+
+        byte[] readData = layer.readNextMessage();
+
+        assertArrayEquals("HelloWorld!!!".getBytes(), readData);
+
+        List<HdlcFrame> acknowledges = HdlcMessageDecoder.decode(null, isStreamAccessorFor(out.toByteArray()), 0);
+
+        assertEquals(2, acknowledges.size());
+        for (HdlcFrame acknowledge : acknowledges) {
+            assertEquals(FrameType.RECEIVE_READY, acknowledge.getFrameType());
+        }
+        assertEquals(2, acknowledges.get(0).getReceiveSequence());
+        assertEquals(3, acknowledges.get(1).getReceiveSequence());
+
+        layer.close();
+    }
+
     @Test
     public void testDisconnectMsg() throws Exception {
         HdlcAddressPair addressPair = new HdlcAddressPair(new HdlcAddress(16), new HdlcAddress(1));
@@ -100,7 +100,10 @@ public class AssociationActionFragmentTest {
             @Override
             public Void answer(InvocationOnMock invocation) throws Throwable {
 
-                byte[] rdata = invocation.getArgumentAt(0, byte[].class);
+                byte[] sentBuffer = invocation.getArgumentAt(0, byte[].class);
+                int off = invocation.getArgumentAt(1, Integer.class);
+                int len = invocation.getArgumentAt(2, Integer.class);
+                byte[] rdata = Arrays.copyOfRange(sentBuffer, off, off + len);
 
                 APdu apPdu = APdu.decode(rdata, RawMessageData.builder());
 
@@ -143,7 +146,7 @@ public class AssociationActionFragmentTest {
                 dataFifo.addLast(Arrays.copyOfRange(buffer, buffer.length - retLength, buffer.length));
                 return null;
             }
-        }).when(sessionLayer).send(Matchers.any(byte[].class));
+        }).when(sessionLayer).send(Matchers.any(byte[].class), Matchers.anyInt(), Matchers.anyInt());
 
         ServerConnectionData connectionData = new ServerConnectionData(sessionLayer, 0L);
         connectionData.clientMaxReceivePduSize = 15;
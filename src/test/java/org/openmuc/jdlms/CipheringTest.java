@@ -24,8 +24,10 @@ import static org.junit.Assert.assertEquals;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.Arrays;
 
 import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.openmuc.jasn1.ber.BerByteArrayOutputStream;
@@ -42,7 +44,9 @@ import org.openmuc.jdlms.internal.asn1.cosem.Get_Request_Normal;
 import org.openmuc.jdlms.internal.asn1.cosem.InitiateRequest;
 import org.openmuc.jdlms.internal.asn1.cosem.Unsigned16;
 import org.openmuc.jdlms.internal.asn1.cosem.Unsigned8;
+import org.openmuc.jdlms.internal.security.BcGcmCipher;
 import org.openmuc.jdlms.internal.security.GcmModule;
+import org.openmuc.jdlms.internal.security.JceGcmCipher;
 
 public class CipheringTest {
 
@@ -61,6 +65,12 @@ public class CipheringTest {
                 .setAuthenticationMechanism(AuthenticationMechanism.HLS5_GMAC);
     }
 
+    @Before
+    public void resetCipher() {
+        // the test vectors reuse the frame counter, a new cipher does not know the previous IVs
+        GcmModule.setGcmCipher(JceGcmCipher.isAvailable() ? new JceGcmCipher() : new BcGcmCipher());
+    }
+
     @Test
     public void test_authenticated_and_enrcypted_apdu() throws Exception {
         byte[] data = HexConverter.fromShortHexString("C0010000080000010000FF0200");
@@ -99,6 +109,30 @@ public class CipheringTest {
         assertArrayEquals(expecteds, encryptedApdu);
     }
 
+    @Test
+    public void test_ciphered_apdu_enlarges_buffer() throws Exception {
+        byte[] data = HexConverter.fromShortHexString("C0010000080000010000FF0200");
+        APdu aPdu = APdu.decode(data, null);
+
+        int frameCounter = 1;
+        for (SecurityPolicy policy : new SecurityPolicy[] { SecurityPolicy.ENCRYPTED,
+                SecurityPolicy.AUTHENTICATED_AND_ENCRYPTED }) {
+            SecuritySuite securitySuite = securitySuiteBuilder.setSecurityPolicy(policy).build();
+
+            // the buffer is too small for the ciphered APDU and is enlarged while encoding
+            BerByteArrayOutputStream baos = new BerByteArrayOutputStream(new byte[data.length], data.length - 1,
+                    true);
+            int length = aPdu.encode(baos, frameCounter++, SYSTEM_TITLE, securitySuite, null);
+            byte[] buffer = baos.buffer;
+
+            if (policy.isAuthenticated()) {
+                byte[] encoded = Arrays.copyOfRange(buffer, buffer.length - length, buffer.length);
+                APdu decoded = APdu.decode(encoded, SYSTEM_TITLE, 0, securitySuite, null);
+                assertEquals(COSEMpdu.Choices.GET_REQUEST, decoded.getCosemPdu().getChoiceIndex());
+            }
+        }
+    }
+
     @Test
     public void testCipheringExampleFromStandard()
             throws IOException, IllegalStateException, InvalidCipherTextException {
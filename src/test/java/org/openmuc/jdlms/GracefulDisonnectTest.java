@@ -31,6 +31,7 @@ import static org.powermock.api.mockito.PowerMockito.when;
 import static org.powermock.reflect.Whitebox.setInternalState;
 
 import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -105,6 +106,7 @@ public class GracefulDisonnectTest {
         setInternalState(connection, Settings.class, settings);
         setInternalState(connection, SessionLayer.class, sessionLayer);
         setInternalState(connection, APduBlockingQueue.class, blockingQueue);
+        setInternalState(connection, "sendLock", new ReentrantLock());
 
         doCallRealMethod().when(connection).disconnect();
         doCallRealMethod().when(connection, "encodeAPdu", any(APdu.class), any(RawMessageDataBuilder.class));
@@ -0,0 +1,101 @@
+/**
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.openmuc.jdlms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.Test;
+import org.openmuc.jdlms.internal.asn1.axdr.types.AxdrEnum;
+import org.openmuc.jdlms.internal.asn1.cosem.COSEMpdu;
+import org.openmuc.jdlms.internal.asn1.cosem.Invoke_Id_And_Priority;
+import org.openmuc.jdlms.internal.asn1.cosem.SET_Response;
+import org.openmuc.jdlms.internal.asn1.cosem.Set_Response_Normal;
+
+public class InvokeIdResponseQueueTest {
+
+    @Test
+    public void testResponsesMatchedByInvokeId() throws Exception {
+        InvokeIdResponseQueue q = new InvokeIdResponseQueue(2, 0);
+
+        q.acquire();
+        assertTrue(q.reserve(3));
+        q.acquire();
+        assertTrue(q.reserve(7));
+
+        COSEMpdu res7 = setResponseFor(7);
+        COSEMpdu res3 = setResponseFor(3);
+
+        assertTrue(q.put(res7));
+        assertTrue(q.put(res3));
+
+        assertEquals(res3, q.poll(3));
+        assertEquals(res7, q.poll(7));
+    }
+
+    @Test
+    public void testUnreservedInvokeId() throws Exception {
+        InvokeIdResponseQueue q = new InvokeIdResponseQueue(1, 0);
+
+        q.acquire();
+        assertTrue(q.reserve(1));
+        assertFalse(q.reserve(1));
+
+        assertFalse(q.put(setResponseFor(2)));
+
+        q.release(1);
+        assertFalse(q.put(setResponseFor(1)));
+    }
+
+    @Test(expected = IOException.class)
+    public void testErrorForwarded() throws Exception {
+        final InvokeIdResponseQueue q = new InvokeIdResponseQueue(1, 0);
+
+        q.acquire();
+        q.reserve(5);
+
+        Thread t = new Thread() {
+            @Override
+            public void run() {
+                while (!q.putError(new IOException())) {
+                    Thread.yield();
+                }
+            }
+        };
+        t.start();
+
+        q.poll(5);
+    }
+
+    private static COSEMpdu setResponseFor(int invokeId) {
+        Set_Response_Normal responseNormal = new Set_Response_Normal(
+                new Invoke_Id_And_Priority(new byte[] { (byte) (0x40 | invokeId) }), new AxdrEnum(0));
+
+        SET_Response setResponse = new SET_Response();
+        setResponse.setset_response_normal(responseNormal);
+
+        COSEMpdu pdu = new COSEMpdu();
+        pdu.setset_response(setResponse);
+        return pdu;
+    }
+}
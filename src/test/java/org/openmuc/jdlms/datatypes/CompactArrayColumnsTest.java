@@ -0,0 +1,110 @@
+/**
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.openmuc.jdlms.datatypes;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+import org.junit.Test;
+import org.openmuc.jdlms.datatypes.CompactArray.DescriptionArray;
+import org.openmuc.jdlms.datatypes.CompactArray.TypeDesc;
+
+public class CompactArrayColumnsTest {
+
+    private static final TypeDesc PROFILE_ENTRY = new TypeDesc(
+            Arrays.asList(new TypeDesc(TypeDesc.Type.DATE_TIME), new TypeDesc(TypeDesc.Type.DOUBLE_LONG_UNSIGNED),
+                    new TypeDesc(TypeDesc.Type.LONG_INTEGER)),
+            TypeDesc.Type.STRUCTURE);
+
+    @Test
+    public void testFixedLengthRoundTrip() {
+        CosemDateTime[] timestamps = { new CosemDateTime(2017, 3, 1, 12, 30, 15, -60),
+                new CosemDateTime(2017, 3, 1, 12, 45, 15, -60) };
+        long[] energy = { 0xFFFFFFFFL, 42 };
+        long[] power = { -5, 300 };
+
+        CompactArray compactArray = CompactArrayColumns.encode(PROFILE_ENTRY, timestamps, energy, power);
+        assertEquals(2 * (12 + 4 + 2), compactArray.getArrayContents().length);
+
+        CompactArrayColumns columns = CompactArrayColumns.decode(compactArray);
+        assertEquals(2, columns.getNumberOfRows());
+        assertEquals(3, columns.getNumberOfColumns());
+        assertEquals(TypeDesc.Type.DATE_TIME, columns.getColumnType(0));
+        assertArrayEquals(energy, columns.getLongColumn(1));
+        assertArrayEquals(power, columns.getLongColumn(2));
+        CosemDateTime[] dateTimes = columns.getDateTimeColumn(0);
+        assertArrayEquals(timestamps[0].encode(), dateTimes[0].encode());
+        assertArrayEquals(timestamps[1].encode(), dateTimes[1].encode());
+        assertEquals(Long.valueOf(42), columns.getDataObject(1, 1).getValue());
+    }
+
+    @Test
+    public void testTimestampColumn() {
+        CosemDateTime unspecifiedHour = new CosemDateTime(2017, 3, 1, 0xff, 30, 15, -60);
+        CompactArray compactArray = CompactArrayColumns.encode(PROFILE_ENTRY,
+                new CosemDateTime[] { new CosemDateTime(2017, 3, 1, 12, 30, 15, -60), unspecifiedHour },
+                new long[2], new long[2]);
+
+        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        calendar.clear();
+        calendar.set(2017, Calendar.MARCH, 1, 11, 30, 15);
+
+        long[] millis = CompactArrayColumns.decode(compactArray).getTimestampColumn(0);
+        assertArrayEquals(new long[] { calendar.getTimeInMillis(), CompactArrayColumns.TIMESTAMP_NOT_SPECIFIED },
+                millis);
+    }
+
+    @Test
+    public void testVariableLengthColumns() {
+        TypeDesc entry = new TypeDesc(Arrays.asList(new TypeDesc(TypeDesc.Type.OCTET_STRING),
+                new TypeDesc(new DescriptionArray(2, new TypeDesc(TypeDesc.Type.FLOAT32)), TypeDesc.Type.ARRAY)),
+                TypeDesc.Type.STRUCTURE);
+
+        byte[][] names = { new byte[200], new byte[] { 1, 2, 3 } };
+        double[] first = { 1.5, -2.25 };
+        double[] second = { 0, 8 };
+
+        CompactArrayColumns columns = CompactArrayColumns
+                .decode(CompactArrayColumns.encode(entry, names, first, second));
+
+        assertEquals(2, columns.getNumberOfRows());
+        assertEquals(3, columns.getNumberOfColumns());
+        assertArrayEquals(first, columns.getDoubleColumn(1), 0);
+        assertArrayEquals(second, columns.getDoubleColumn(2), 0);
+        assertArrayEquals(names[0], (byte[]) columns.getDataObject(0, 0).getValue());
+        assertArrayEquals(names[1], (byte[]) columns.getDataObject(0, 1).getValue());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTruncatedContents() {
+        CompactArrayColumns.decode(new CompactArray(PROFILE_ENTRY, new byte[20]));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOutOfRangeValue() {
+        CosemDateTime[] timestamps = { new CosemDateTime(2017, 3, 1, 12, 30, 15, 0) };
+        CompactArrayColumns.encode(PROFILE_ENTRY, timestamps, new long[] { -1 }, new long[1]);
+    }
+
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.openmuc.jdlms.datatypes;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.openmuc.jdlms.datatypes.DataObject.Type;
+
+public class DataObjectTest {
+
+    @Test
+    public void testPrimitiveAccessors() {
+        DataObject uInt32 = DataObject.newUInteger32Data(0xFFFFFFFFL);
+        assertEquals(0xFFFFFFFFL, uInt32.getLong());
+        assertEquals(Long.valueOf(0xFFFFFFFFL), uInt32.getValue());
+
+        DataObject int8 = DataObject.newInteger8Data((byte) -3);
+        assertEquals(-3, int8.getInt());
+        assertEquals(Byte.valueOf((byte) -3), int8.getValue());
+
+        DataObject float32 = DataObject.newFloat32Data(1.5f);
+        assertEquals(1.5d, float32.getDouble(), 0d);
+        assertEquals(1, float32.getLong());
+        assertEquals(Float.valueOf(1.5f), float32.getValue());
+    }
+
+    @Test(expected = ClassCastException.class)
+    public void testPrimitiveAccessorOfNonNumber() {
+        DataObject.newBoolData(true).getLong();
+    }
+
+    @Test
+    public void testIntegerArray() {
+        DataObject array = DataObject.newArrayData(Type.LONG_UNSIGNED, new long[] { 0, 1, 0xFFFF });
+
+        List<DataObject> elements = array.getValue();
+        assertEquals(3, elements.size());
+        assertEquals(Type.LONG_UNSIGNED, elements.get(2).getType());
+        assertEquals(Integer.valueOf(0xFFFF), elements.get(2).getValue());
+
+        assertArrayEquals(new long[] { 0, 1, 0xFFFF }, array.getLongArray());
+        assertArrayEquals(new double[] { 0, 1, 0xFFFF }, array.getDoubleArray(), 0d);
+    }
+
+    @Test
+    public void testFloatArray() {
+        DataObject array = DataObject.newArrayData(Type.FLOAT64, new double[] { -0.5, 2.25 });
+
+        List<DataObject> elements = array.getValue();
+        assertEquals(Double.valueOf(2.25), elements.get(1).getValue());
+        assertArrayEquals(new double[] { -0.5, 2.25 }, array.getDoubleArray(), 0d);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIntegerArrayOutOfRange() {
+        DataObject.newArrayData(Type.UNSIGNED, new long[] { 256 });
+    }
+
+}
@@ -0,0 +1,92 @@
+package org.openmuc.jdlms.internal;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.openmuc.jdlms.datatypes.BitString;
+import org.openmuc.jdlms.datatypes.CompactArray;
+import org.openmuc.jdlms.datatypes.CompactArray.DescriptionArray;
+import org.openmuc.jdlms.datatypes.CompactArray.TypeDesc;
+import org.openmuc.jdlms.datatypes.CosemDate;
+import org.openmuc.jdlms.datatypes.DataObject;
+import org.openmuc.jdlms.internal.asn1.cosem.Data;
+
+public class DataObjectCodecTest {
+
+    @Test
+    public void testEncodingMatchesGeneratedData() throws Exception {
+        TypeDesc typeDescription = new TypeDesc(
+                Arrays.asList(new TypeDesc(TypeDesc.Type.UNSIGNED),
+                        new TypeDesc(new DescriptionArray(2, new TypeDesc(TypeDesc.Type.LONG_UNSIGNED)),
+                                TypeDesc.Type.ARRAY)),
+                TypeDesc.Type.STRUCTURE);
+
+        DataObject dataObject = DataObject.newStructureData(DataObject.newNullData(), DataObject.newBoolData(true),
+                DataObject.newBitStringData(new BitString(new byte[] { (byte) 0xa0 }, 3)),
+                DataObject.newInteger32Data(-5), DataObject.newUInteger32Data(0xfffffffeL),
+                DataObject.newOctetStringData(new byte[200]), DataObject.newVisibleStringData("abc".getBytes()),
+                DataObject.newUtf8StringData("ä".getBytes("UTF-8")), DataObject.newBcdData((byte) 0x12),
+                DataObject.newInteger8Data((byte) -1), DataObject.newInteger16Data((short) -300),
+                DataObject.newUInteger8Data((short) 255), DataObject.newUInteger16Data(65535),
+                DataObject.newInteger64Data(Long.MIN_VALUE), DataObject.newUInteger64Data(Long.MAX_VALUE),
+                DataObject.newEnumerateData(200), DataObject.newFloat32Data(1.5f), DataObject.newFloat64Data(-2.25),
+                DataObject.newDateData(new CosemDate(2017, 3, 4)),
+                DataObject.newArrayData(Arrays.asList(DataObject.newUInteger8Data((short) 1),
+                        DataObject.newUInteger8Data((short) 2))),
+                DataObject.newCompactArrayData(new CompactArray(typeDescription, new byte[] { 1, 0, 2, 0, 3 })));
+
+        byte[] code = DataObjectCodec.encode(dataObject);
+        assertEquals(code.length, DataObjectCodec.encodedLength(dataObject));
+
+        Data data = new Data();
+        ByteBuffer buffer = ByteBuffer.wrap(code);
+        data.decode(buffer);
+        assertFalse(buffer.hasRemaining());
+
+        ByteBuffer reencoded = ByteBuffer.allocate(code.length);
+        data.encode(reencoded);
+        assertArrayEquals(code, reencoded.array());
+
+        DataObject decoded = DataObjectCodec.decode(ByteBuffer.wrap(code));
+        assertEquals(DataConverter.convertDataToDataObject(data).toString(), decoded.toString());
+        assertArrayEquals(code, DataObjectCodec.encode(decoded));
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        DataObjectCodec.encode(dataObject, stream);
+        assertArrayEquals(code, stream.toByteArray());
+    }
+
+    @Test
+    public void testNumberArrayIsDecodedIntoColumn() throws Exception {
+        DataObject dataObject = DataObject.newArrayData(Arrays.asList(DataObject.newUInteger32Data(7),
+                DataObject.newUInteger32Data(0xFFFFFFFFL), DataObject.newUInteger32Data(0)));
+        byte[] code = DataObjectCodec.encode(dataObject);
+
+        DataObject decoded = DataObjectCodec.decode(ByteBuffer.wrap(code));
+        assertArrayEquals(new long[] { 7, 0xFFFFFFFFL, 0 }, decoded.getLongArray());
+        assertArrayEquals(code, DataObjectCodec.encode(decoded));
+
+        Data data = new Data();
+        data.decode(ByteBuffer.wrap(code));
+        assertArrayEquals(new long[] { 7, 0xFFFFFFFFL, 0 },
+                DataConverter.convertDataToDataObject(data).getLongArray());
+    }
+
+    @Test
+    public void testConvertedDataIsEncodedDirectly() throws Exception {
+        DataObject dataObject = DataObject.newArrayData(
+                Arrays.asList(DataObject.newInteger16Data((short) 1), DataObject.newInteger16Data((short) 2)));
+
+        Data data = DataConverter.convertDataObjectToData(dataObject);
+
+        assertArrayEquals(DataObjectCodec.encode(dataObject), data.code);
+        assertEquals(dataObject.toString(), DataConverter.convertDataToDataObject(data).toString());
+    }
+
+}
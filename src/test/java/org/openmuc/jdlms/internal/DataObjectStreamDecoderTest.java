@@ -0,0 +1,102 @@
+package org.openmuc.jdlms.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.openmuc.jdlms.DataStreamListener;
+import org.openmuc.jdlms.datatypes.CosemDateTime;
+import org.openmuc.jdlms.datatypes.DataObject;
+
+public class DataObjectStreamDecoderTest {
+
+    @Test
+    public void testElementsAreDeliveredForEveryBlockSize() throws Exception {
+        List<DataObject> rows = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            rows.add(DataObject.newStructureData(
+                    DataObject.newDateTimeData(new CosemDateTime(2017, 1, 1, 0, i, 0, 0xff)),
+                    DataObject.newUInteger32Data(i), DataObject.newOctetStringData(new byte[i * 10])));
+        }
+        DataObject profile = DataObject.newArrayData(rows);
+        byte[] encoded = DataObjectCodec.encode(profile);
+
+        for (int blockSize = 1; blockSize <= encoded.length; blockSize += 7) {
+            CollectingListener listener = new CollectingListener();
+            DataObjectStreamDecoder decoder = new DataObjectStreamDecoder(listener);
+            for (int offset = 0; offset < encoded.length; offset += blockSize) {
+                decoder.write(encoded, offset, Math.min(blockSize, encoded.length - offset));
+            }
+            decoder.close();
+
+            assertEquals(DataObjectCodec.decode(ByteBuffer.wrap(encoded)).toString(),
+                    DataObject.newArrayData(listener.elements).toString());
+        }
+    }
+
+    @Test
+    public void testElementsSpanningManyBlocks() throws Exception {
+        byte[] large = new byte[1000];
+        for (int i = 0; i < large.length; i++) {
+            large[i] = (byte) i;
+        }
+        DataObject structure = DataObject.newStructureData(DataObject.newOctetStringData(large),
+                DataObject.newUInteger16Data(42), DataObject.newOctetStringData(Arrays.copyOf(large, 300)));
+        byte[] encoded = DataObjectCodec.encode(structure);
+
+        CollectingListener listener = new CollectingListener();
+        DataObjectStreamDecoder decoder = new DataObjectStreamDecoder(listener);
+        for (int offset = 0; offset < encoded.length; offset += 100) {
+            decoder.write(encoded, offset, Math.min(100, encoded.length - offset));
+        }
+        decoder.close();
+
+        assertEquals(structure.toString(), DataObject.newStructureData(listener.elements).toString());
+    }
+
+    @Test
+    public void testSimpleValueIsSingleElement() throws Exception {
+        CollectingListener listener = new CollectingListener();
+        DataObjectStreamDecoder decoder = new DataObjectStreamDecoder(listener);
+        byte[] encoded = DataObjectCodec.encode(DataObject.newUInteger16Data(42));
+        decoder.write(encoded, 0, 1);
+        decoder.write(encoded, 1, encoded.length - 1);
+        decoder.close();
+
+        assertEquals(1, listener.elements.size());
+        assertEquals(42, listener.elements.get(0).getInt());
+    }
+
+    @Test(expected = EOFException.class)
+    public void testIncompleteDataIsRejected() throws Exception {
+        byte[] encoded = DataObjectCodec.encode(DataObject.newStructureData(
+                Arrays.asList(DataObject.newBoolData(true), DataObject.newOctetStringData(new byte[5]))));
+        DataObjectStreamDecoder decoder = new DataObjectStreamDecoder(new CollectingListener());
+        decoder.write(encoded, 0, encoded.length - 1);
+        decoder.close();
+    }
+
+    @Test(expected = IOException.class)
+    public void testTrailingBytesAreRejected() throws Exception {
+        DataObjectStreamDecoder decoder = new DataObjectStreamDecoder(new CollectingListener());
+        decoder.write(new byte[] { 2, 1, 17, 5, 17 });
+    }
+
+    private static class CollectingListener implements DataStreamListener {
+
+        private final List<DataObject> elements = new ArrayList<>();
+
+        @Override
+        public void elementReceived(int index, DataObject element) {
+            assertEquals(this.elements.size(), index);
+            this.elements.add(element);
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+package org.openmuc.jdlms.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.openmuc.jdlms.datatypes.BitString;
+import org.openmuc.jdlms.datatypes.CosemDateTime;
+import org.openmuc.jdlms.datatypes.DataObject;
+import org.openmuc.jdlms.datatypes.DataObject.Type;
+import org.openmuc.jdlms.internal.asn1.cosem.Data;
+
+public class LazyDataListTest {
+
+    @Test
+    public void testDecodeProfileBuffer() throws Exception {
+        List<DataObject> rows = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            rows.add(DataObject.newStructureData(
+                    DataObject.newDateTimeData(new CosemDateTime(2017, 1, 1, 0, i, 0, 0xff)),
+                    DataObject.newUInteger32Data(i), DataObject.newOctetStringData(new byte[] { 1, 2, (byte) i }),
+                    DataObject.newBitStringData(new BitString(new byte[] { 0x0f, (byte) 0xf0 }, 12)),
+                    DataObject.newFloat64Data(i / 2d), DataObject.newNullData(),
+                    DataObject.newArrayData(Arrays.asList(DataObject.newInteger16Data((short) -i)))));
+        }
+        byte[] encoded = encode(DataObject.newArrayData(rows));
+
+        Data data = new Data();
+        data.decode(ByteBuffer.wrap(encoded));
+        DataObject expected = DataConverter.convertDataToDataObject(data);
+
+        DataObject lazy = LazyDataList.decode(encoded, 0, encoded.length);
+
+        assertEquals(Type.ARRAY, lazy.getType());
+        List<DataObject> lazyRows = lazy.getValue();
+        assertTrue(lazyRows instanceof LazyDataList);
+        assertEquals(10, lazyRows.size());
+
+        List<DataObject> row = lazyRows.get(7).getValue();
+        assertEquals(7L, row.get(1).getValue());
+        assertEquals(expected.toString(), lazy.toString());
+    }
+
+    @Test(expected = IOException.class)
+    public void testMixedArrayIsRejected() throws Exception {
+        // array of two elements: unsigned 1, long-unsigned 2
+        byte[] encoded = { 1, 2, 17, 1, 18, 0, 2 };
+        LazyDataList.decode(encoded, 0, encoded.length);
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncatedEncodingIsRejected() throws Exception {
+        byte[] encoded = encode(DataObject.newStructureData(DataObject.newOctetStringData(new byte[20])));
+        LazyDataList.decode(encoded, 0, encoded.length - 1);
+    }
+
+    private static byte[] encode(DataObject dataObject) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        DataConverter.convertDataObjectToData(dataObject).encode(buffer);
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+}
@@ -0,0 +1,80 @@
+package org.openmuc.jdlms.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.openmuc.jdlms.AccessResultCode;
+import org.openmuc.jdlms.DataStreamListener;
+import org.openmuc.jdlms.datatypes.DataObject;
+import org.openmuc.jdlms.internal.asn1.cosem.ReadResponse;
+
+public class ReadResponseStreamDecoderTest {
+
+    @Test
+    public void testDataIsStreamedBytewise() throws Exception {
+        List<DataObject> rows = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            rows.add(DataObject.newStructureData(DataObject.newUInteger32Data(i),
+                    DataObject.newOctetStringData(new byte[] { (byte) i })));
+        }
+        byte[] data = DataObjectCodec.encode(DataObject.newArrayData(rows));
+        byte[] encoded = new byte[data.length + 2];
+        encoded[0] = 1;
+        System.arraycopy(data, 0, encoded, 2, data.length);
+
+        ReadResponse readResponse = new ReadResponse();
+        readResponse.decode(new ByteArrayInputStream(encoded));
+        List<DataObject> expected = DataConverter.convertDataToDataObject(readResponse.get(0).data).getValue();
+
+        final List<DataObject> elements = new ArrayList<>();
+        ReadResponseStreamDecoder decoder = new ReadResponseStreamDecoder(new DataStreamListener() {
+
+            @Override
+            public void elementReceived(int index, DataObject element) {
+                elements.add(element);
+            }
+        });
+        for (byte b : encoded) {
+            decoder.write(b);
+        }
+        decoder.close();
+
+        assertEquals(AccessResultCode.SUCCESS, decoder.resultCode());
+        assertEquals(expected.toString(), elements.toString());
+    }
+
+    @Test
+    public void testDataAccessError() throws Exception {
+        final List<DataObject> elements = new ArrayList<>();
+        ReadResponseStreamDecoder decoder = new ReadResponseStreamDecoder(new DataStreamListener() {
+
+            @Override
+            public void elementReceived(int index, DataObject element) {
+                elements.add(element);
+            }
+        });
+        decoder.write(new byte[] { 1, 1, 3 });
+        decoder.close();
+
+        assertEquals(AccessResultCode.READ_WRITE_DENIED, decoder.resultCode());
+        assertTrue(elements.isEmpty());
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnknownDataAccessResult() throws Exception {
+        ReadResponseStreamDecoder decoder = new ReadResponseStreamDecoder(new DataStreamListener() {
+
+            @Override
+            public void elementReceived(int index, DataObject element) {
+            }
+        });
+        decoder.write(new byte[] { 1, 1, 100 });
+    }
+
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.openmuc.jdlms.internal.security;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.bouncycastle.crypto.engines.AESEngine;
+import org.bouncycastle.crypto.modes.GCMBlockCipher;
+import org.bouncycastle.crypto.modes.gcm.BasicGCMMultiplier;
+import org.bouncycastle.crypto.params.AEADParameters;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class GcmCipherTest {
+
+    private static final byte[] KEY = { 0x00, 0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07, 0x08, 0x09, 0x0A, 0x0B, 0x0C,
+            0x0D, 0x0E, 0x0F };
+    private static final byte[] OTHER_KEY = { 0x0F, 0x0E, 0x0D, 0x0C, 0x0B, 0x0A, 0x09, 0x08, 0x07, 0x06, 0x05, 0x04,
+            0x03, 0x02, 0x01, 0x00 };
+    private static final byte[] AAD = { 0x30, (byte) 0xD0, (byte) 0xD1, (byte) 0xD2, (byte) 0xD3 };
+    private static final byte[] PLAINTEXT = "C0 01 C1 00 08 00 00 01 00 00 FF 02 00".getBytes();
+
+    @Test
+    public void testBcCipher() throws Exception {
+        testCipher(new BcGcmCipher());
+    }
+
+    @Test
+    public void testJceCipher() throws Exception {
+        Assume.assumeTrue(JceGcmCipher.isAvailable());
+        testCipher(new JceGcmCipher());
+    }
+
+    @Test(expected = IOException.class)
+    public void testTamperedCiphertext() throws Exception {
+        GcmCipher gcmCipher = new BcGcmCipher();
+        byte[] ciphertext = encrypt(gcmCipher, KEY, iv(3));
+        ciphertext[0] ^= 1;
+
+        decrypt(gcmCipher, KEY, iv(3), ciphertext);
+    }
+
+    @Test
+    public void testBcCipherInPlace() throws Exception {
+        testCipherInPlace(new BcGcmCipher());
+    }
+
+    @Test
+    public void testJceCipherInPlace() throws Exception {
+        Assume.assumeTrue(JceGcmCipher.isAvailable());
+        testCipherInPlace(new JceGcmCipher());
+    }
+
+    private static void testCipher(GcmCipher gcmCipher) throws Exception {
+        for (int frameCounter = 1; frameCounter < 4; frameCounter++) {
+            byte[] key = frameCounter == 2 ? OTHER_KEY : KEY;
+
+            byte[] ciphertext = encrypt(gcmCipher, key, iv(frameCounter));
+            assertArrayEquals(referenceEncrypt(key, iv(frameCounter)), ciphertext);
+
+            byte[] plaintext = decrypt(gcmCipher, key, iv(frameCounter), ciphertext);
+            assertArrayEquals(PLAINTEXT, plaintext);
+        }
+
+        // encrypting again with the same key and IV must be refused
+        try {
+            encrypt(gcmCipher, KEY, iv(3));
+            fail("Encrypted twice with the same key and IV.");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    private static void testCipherInPlace(GcmCipher gcmCipher) throws Exception {
+        // the ciphertext is written in front of the plaintext, the plaintext at the start of the ciphertext
+        byte[] buffer = new byte[PLAINTEXT.length + 12];
+        System.arraycopy(PLAINTEXT, 0, buffer, 12, PLAINTEXT.length);
+
+        int length = gcmCipher.encrypt(KEY, iv(1), AAD, buffer, 12, PLAINTEXT.length, buffer, 0);
+        assertEquals(buffer.length, length);
+        assertArrayEquals(referenceEncrypt(KEY, iv(1)), buffer);
+
+        length = gcmCipher.decrypt(KEY, iv(1), AAD, buffer, 0, buffer.length, buffer, 0);
+        assertEquals(PLAINTEXT.length, length);
+        assertArrayEquals(PLAINTEXT, Arrays.copyOf(buffer, length));
+    }
+
+    private static byte[] encrypt(GcmCipher gcmCipher, byte[] key, byte[] iv) throws IOException {
+        byte[] ciphertext = new byte[PLAINTEXT.length + 12];
+        gcmCipher.encrypt(key, iv, AAD, PLAINTEXT, 0, PLAINTEXT.length, ciphertext, 0);
+        return ciphertext;
+    }
+
+    private static byte[] decrypt(GcmCipher gcmCipher, byte[] key, byte[] iv, byte[] ciphertext) throws IOException {
+        byte[] plaintext = new byte[ciphertext.length - 12];
+        gcmCipher.decrypt(key, iv, AAD, ciphertext, 0, ciphertext.length, plaintext, 0);
+        return plaintext;
+    }
+
+    private static byte[] referenceEncrypt(byte[] key, byte[] iv) throws Exception {
+        GCMBlockCipher cipher = new GCMBlockCipher(new AESEngine(), new BasicGCMMultiplier());
+        cipher.init(true, new AEADParameters(new KeyParameter(key), 96, iv, AAD));
+
+        byte[] ciphertext = new byte[cipher.getOutputSize(PLAINTEXT.length)];
+        int length = cipher.processBytes(PLAINTEXT, 0, PLAINTEXT.length, ciphertext, 0);
+        cipher.doFinal(ciphertext, length);
+        return ciphertext;
+    }
+
+    private static byte[] iv(int frameCounter) {
+        byte[] iv = Arrays.copyOf("MMM00000".getBytes(), 12);
+        iv[11] = (byte) frameCounter;
+        return iv;
+    }
+
+}
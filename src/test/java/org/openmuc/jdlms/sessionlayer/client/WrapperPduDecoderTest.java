@@ -0,0 +1,99 @@
+/**
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.openmuc.jdlms.sessionlayer.client;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class WrapperPduDecoderTest {
+
+    private static final short SOURCE_WP = 12;
+    private static final short DEST_WP = 10;
+
+    private WrapperPduDecoder decoder;
+
+    @Before
+    public void setup() {
+        this.decoder = new WrapperPduDecoder();
+    }
+
+    @Test
+    public void testDecodeBytewise() throws Exception {
+        byte[] data = "HelloWold!".getBytes();
+        byte[] msg = wrap(data, ByteOrder.BIG_ENDIAN);
+
+        for (int i = 0; i < msg.length - 1; i++) {
+            assertNull(this.decoder.decode(ByteBuffer.wrap(msg, i, 1)));
+        }
+
+        WrapperPdu wPdu = this.decoder.decode(ByteBuffer.wrap(msg, msg.length - 1, 1));
+
+        assertEquals(SOURCE_WP, wPdu.getheader().getSourceWPort());
+        assertEquals(DEST_WP, wPdu.getheader().getDestinationWPort());
+        assertArrayEquals(data, wPdu.getData());
+    }
+
+    @Test
+    public void testDecodeSeveralPdus() throws Exception {
+        byte[] data1 = "Hello".getBytes();
+        byte[] data2 = "World!".getBytes();
+        byte[] msg1 = wrap(data1, ByteOrder.BIG_ENDIAN);
+        byte[] msg2 = wrap(data2, ByteOrder.LITTLE_ENDIAN);
+
+        ByteBuffer buffer = ByteBuffer.allocate(msg1.length + msg2.length);
+        buffer.put(msg1).put(msg2).flip();
+
+        assertArrayEquals(data1, this.decoder.decode(buffer).getData());
+
+        WrapperPdu wPdu = this.decoder.decode(buffer);
+        assertEquals(ByteOrder.LITTLE_ENDIAN, wPdu.getheader().getByteOrder());
+        assertArrayEquals(data2, wPdu.getData());
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test(expected = IOException.class)
+    public void illegalHeader() throws Exception {
+        byte[] msg = wrap("HelloWold!".getBytes(), ByteOrder.BIG_ENDIAN);
+        msg[0] = 0x02;
+
+        this.decoder.decode(ByteBuffer.wrap(msg));
+    }
+
+    private static byte[] wrap(byte[] data, ByteOrder byteOrder) {
+        return ByteBuffer.allocate(data.length + 8)
+                .order(byteOrder)
+                .putShort((short) 1)
+                .putShort(SOURCE_WP)
+                .putShort(DEST_WP)
+                .putShort((short) data.length)
+                .put(data)
+                .array();
+    }
+
+}
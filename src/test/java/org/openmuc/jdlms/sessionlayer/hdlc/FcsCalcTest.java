@@ -22,6 +22,8 @@ package org.openmuc.jdlms.sessionlayer.hdlc;
 
 import static org.junit.Assert.assertArrayEquals;
 
+import java.util.Random;
+
 import org.junit.Test;
 import org.openmuc.jdlms.sessionlayer.hdlc.FcsCalc;
 import org.openmuc.jdlms.sessionlayer.hdlc.FrameInvalidException;
@@ -94,4 +96,24 @@ public class FcsCalcTest {
         testBytes("A0199575980839E6E600C0018100080000010000FF0900", readByteString("CD33"));
         testBytes("A0127595B82738E6E700C40181001601", readByteString("2D07"));
     }
+
+    @Test
+    public void testArrayRangeEqualsBytewise() throws Exception {
+        byte[] data = new byte[100];
+        new Random(7).nextBytes(data);
+
+        for (int offset = 0; offset < 10; offset++) {
+            for (int length = 0; length <= data.length - offset; length++) {
+                FcsCalc bytewise = new FcsCalc();
+                for (int i = offset; i < offset + length; i++) {
+                    bytewise.update(data[i]);
+                }
+
+                FcsCalc range = new FcsCalc();
+                range.update(data, offset, length);
+
+                assertArrayEquals(bytewise.fcsValueInBytes(), range.fcsValueInBytes());
+            }
+        }
+    }
 }
@@ -19,12 +19,15 @@
  */
 package org.openmuc.jdlms.sessionlayer.hdlc;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.powermock.api.mockito.PowerMockito.mock;
 import static org.powermock.api.mockito.PowerMockito.when;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Test;
@@ -61,6 +64,51 @@ public class HdlcFrameTest {
         assertEquals(2, frames.size());
     }
 
+    @Test
+    public void reassemble_segments_from_receive_buffer() throws Exception {
+        byte[] apdu = new byte[300];
+        for (int i = 0; i < apdu.length; i++) {
+            apdu[i] = (byte) i;
+        }
+
+        HdlcAddressPair addressPair = new HdlcAddressPair(new HdlcAddress(16), new HdlcAddress(1, 17));
+        ByteArrayOutputStream burst = new ByteArrayOutputStream();
+        burst.write(HdlcFrame.newInformationFrame(addressPair, 0, 0, Arrays.copyOfRange(apdu, 0, 100), true, true)
+                .encode());
+        burst.write(HdlcFrame.newInformationFrame(addressPair, 1, 0, Arrays.copyOfRange(apdu, 100, 300), false, false)
+                .encode());
+
+        TransportLayer transportLayer = mock(TransportLayer.class);
+        when(transportLayer.getInputStream())
+                .thenReturn(new DataInputStream(new ByteArrayInputStream(burst.toByteArray())));
+
+        List<HdlcFrame> frames = HdlcMessageDecoder.decode(null, transportLayer, 0, new HdlcReceiveBuffer());
+        assertEquals(2, frames.size());
+
+        HdlcFrameSegmentBuffer segmentBuffer = new HdlcFrameSegmentBuffer(true);
+        for (HdlcFrame frame : frames) {
+            segmentBuffer.buffer(frame);
+        }
+
+        assertArrayEquals(apdu, segmentBuffer.toByteArray());
+        assertEquals(burst.size() - 1, segmentBuffer.concatFramesBytes().length);
+    }
+
+    @Test
+    public void encode_information_frames_from_array_range() throws Exception {
+        byte[] data = HexConverter.fromShortHexString("C001C100080000010000FF0200");
+        HdlcAddressPair addressPair = new HdlcAddressPair(new HdlcAddress(16), new HdlcAddress(1, 17));
+        HdlcInformationFrameEncoder encoder = new HdlcInformationFrameEncoder(addressPair);
+
+        for (boolean flag : new boolean[] { true, false }) {
+            byte[] expected = HdlcFrame
+                    .newInformationFrame(addressPair, 3, 5, Arrays.copyOfRange(data, 2, 9), flag, !flag, flag)
+                    .encode();
+
+            assertArrayEquals(expected, encoder.encode(data, 2, 7, 3, 5, flag, !flag, flag));
+        }
+    }
+
     @Test
     public void decode1() throws Exception {
         /*
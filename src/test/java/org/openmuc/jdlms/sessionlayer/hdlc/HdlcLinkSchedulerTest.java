@@ -0,0 +1,170 @@
+/**
+ * Copyright 2012-17 Fraunhofer ISE
+ *
+ * This file is part of jDLMS.
+ * For more information visit http://www.openmuc.org
+ *
+ * jDLMS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * jDLMS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jDLMS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.openmuc.jdlms.sessionlayer.hdlc;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HdlcLinkSchedulerTest {
+
+    private static final HdlcAddressPair STATION_A = new HdlcAddressPair(new HdlcAddress(16),
+            new HdlcAddress(1, 17));
+    private static final HdlcAddressPair STATION_B = new HdlcAddressPair(new HdlcAddress(16),
+            new HdlcAddress(1, 18));
+
+    private ExecutorService executor;
+    private ByteArrayOutputStream link;
+
+    @Before
+    public void setup() {
+        this.executor = Executors.newSingleThreadExecutor();
+        this.link = new ByteArrayOutputStream();
+    }
+
+    @After
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void testStationsTakeTurns() throws Exception {
+        byte[] a1 = informationFrame(STATION_A, 0, false);
+        byte[] a2 = informationFrame(STATION_A, 1, true);
+        byte[] b1 = informationFrame(STATION_B, 0, true);
+
+        assertFalse(HdlcFrame.pollFinalBitOf(a1));
+        assertTrue(HdlcFrame.pollFinalBitOf(a2));
+
+        HdlcLinkScheduler scheduler = new HdlcLinkScheduler();
+        scheduler.schedule(STATION_A, a1, 0);
+        scheduler.schedule(STATION_B, b1, 0);
+        scheduler.schedule(STATION_A, a2, 0);
+
+        Future<Void> writer = serve(scheduler);
+
+        awaitLinkSize(a1.length + a2.length);
+
+        // the link is reserved for station A until it sent its final frame
+        scheduler.finalFrameReceived(STATION_B);
+        Thread.sleep(50);
+        assertEquals(a1.length + a2.length, this.link.size());
+
+        scheduler.finalFrameReceived(STATION_A);
+        awaitLinkSize(a1.length + a2.length + b1.length);
+
+        byte[] expected = ByteBuffer.allocate(a1.length + a2.length + b1.length).put(a1).put(a2).put(b1).array();
+        assertArrayEquals(expected, this.link.toByteArray());
+
+        scheduler.stop();
+        writer.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testTimeoutReleasesLink() throws Exception {
+        byte[] a1 = informationFrame(STATION_A, 0, true);
+        byte[] b1 = informationFrame(STATION_B, 0, true);
+
+        HdlcLinkScheduler scheduler = new HdlcLinkScheduler();
+        scheduler.schedule(STATION_A, a1, 20);
+        scheduler.schedule(STATION_B, b1, 20);
+
+        Future<Void> writer = serve(scheduler);
+
+        // station A does not answer
+        awaitLinkSize(a1.length + b1.length);
+
+        scheduler.stop();
+        writer.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test(timeout = 5000)
+    public void testSilentStationDoesNotDelayResponseTimer() throws Exception {
+        byte[] a1 = informationFrame(STATION_A, 0, true);
+        byte[] a2 = informationFrame(STATION_A, 1, true);
+        byte[] b1 = informationFrame(STATION_B, 0, true);
+
+        HdlcLinkScheduler scheduler = new HdlcLinkScheduler();
+        scheduler.schedule(STATION_A, a1, 100);
+
+        Future<Void> writer = serve(scheduler);
+        awaitLinkSize(a1.length);
+
+        // station A does not answer, station B has to wait for its turn
+        long start = System.nanoTime();
+        scheduler.transmit(STATION_B, b1, 5000);
+        long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // the response timer of station B starts now, after the frame has been written
+        assertEquals(a1.length + b1.length, this.link.size());
+        assertTrue(waited >= 50);
+
+        // the link is held for the timeout of station B, not the one of station A
+        scheduler.schedule(STATION_A, a2, 100);
+        Thread.sleep(200);
+        assertEquals(a1.length + b1.length, this.link.size());
+
+        scheduler.finalFrameReceived(STATION_B);
+        awaitLinkSize(a1.length + b1.length + a2.length);
+
+        scheduler.stop();
+        writer.get(1, TimeUnit.SECONDS);
+    }
+
+    private Future<Void> serve(final HdlcLinkScheduler scheduler) {
+        return this.executor.submit(new Callable<Void>() {
+
+            @Override
+            public Void call() throws Exception {
+                while (scheduler.serveNextStation(link)) {
+                    // serve until stopped
+                }
+                return null;
+            }
+        });
+    }
+
+    private void awaitLinkSize(int size) throws InterruptedException {
+        for (int i = 0; i < 200 && this.link.size() < size; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(size, this.link.size());
+    }
+
+    private static byte[] informationFrame(HdlcAddressPair station, int sendSequence, boolean poll) {
+        boolean segmented = !poll;
+        return HdlcFrame.newInformationFrame(station, sendSequence, 0, new byte[] { 1, 2, 3 }, segmented, true, poll)
+                .encode();
+    }
+
+}